@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.amqp.spring;
+
+import com.rabbitmq.client.Channel;
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.eventhandling.amqp.AMQPMessageConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageListener implementation that collects incoming messages in batches, and forwards each batch as a single list
+ * of events to one or more event processors. This allows event processors to handle the events of a batch in a single
+ * Unit of Work and transaction.
+ * <p/>
+ * Messages are collected per channel, until the batch contains the configured number of messages, or until the batch
+ * timeout expires after the first message of the batch has been received. Once the event processors have handled the
+ * events, all messages of the batch are acknowledged with a single <code>basicAck</code> call. If an event processor
+ * fails to handle the batch, its messages are rejected and requeued. Messages that cannot be converted to an event are
+ * rejected without requeueing them, allowing the broker to dead-letter them.
+ * <p/>
+ * Batches are handled by the consumer thread that delivers their messages whenever possible. Only when no message
+ * arrives before the timeout of a batch expires, the batch is handled by a thread dedicated to the channel of the
+ * batch. Access to the channel is synchronized with the consumer thread, and the thread stops when the channel no
+ * longer receives messages. If that thread fails to acknowledge or reject the messages of a batch, the channel is
+ * closed, causing the broker to deliver them again.
+ * <p/>
+ * This listener acknowledges messages itself, so it must be used with a listener container configured with {@link
+ * AcknowledgeMode#MANUAL}. The prefetch count of the container must be at least the batch size, as the broker doesn't
+ * deliver more unacknowledged messages than the prefetch count allows. Messages of a batch that is pending when the
+ * container stops are not acknowledged, causing the broker to deliver them again.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class BatchingEventProcessorMessageListener extends EventProcessorMessageListener
+        implements ChannelAwareMessageListener {
+
+    /**
+     * The default number of milliseconds to wait for a batch to fill up.
+     */
+    public static final long DEFAULT_BATCH_TIMEOUT = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingEventProcessorMessageListener.class);
+    private static final ThreadGroup THREAD_GROUP = new ThreadGroup("BatchingEventProcessorMessageListener");
+    private static final long SCHEDULER_KEEP_ALIVE_MILLIS = 60000;
+
+    private final int batchSize;
+    private final long batchTimeout;
+    private final ConcurrentMap<Channel, Batch> batches = new ConcurrentHashMap<>();
+    private volatile boolean shutdown;
+
+    /**
+     * Initializes a BatchingEventProcessorMessageListener with given <code>messageConverter</code> to convert the
+     * message's contents into an EventMessage, handing up to <code>batchSize</code> messages at once to the event
+     * processors.
+     *
+     * @param messageConverter The message converter to use to convert AMQP Messages to Event Messages
+     * @param batchSize        The maximum number of messages in a batch
+     * @param batchTimeout     The number of milliseconds to wait for a batch to fill up
+     */
+    public BatchingEventProcessorMessageListener(AMQPMessageConverter messageConverter, int batchSize,
+                                                 long batchTimeout) {
+        super(messageConverter);
+        Assert.isTrue(batchSize > 0, "batchSize must be at least 1");
+        Assert.isTrue(batchTimeout > 0, "batchTimeout must be positive");
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+    }
+
+    @Override
+    public void onMessage(Message message, Channel channel) throws Exception {
+        Batch batch = batches.computeIfAbsent(channel, Batch::new);
+        synchronized (batch) {
+            batch.add(message);
+            if (batch.size() >= batchSize || batch.isExpired()) {
+                batch.handle();
+            } else if (batch.size() == 1) {
+                batch.scheduleTimeout();
+            }
+        }
+    }
+
+    /**
+     * Stops the threads that handle batches of which the timeout expired. Pending batches are not handled, causing
+     * their messages to be redelivered by the broker once their channel is closed.
+     */
+    public void shutdown() {
+        shutdown = true;
+        batches.values().forEach(Batch::stop);
+        batches.clear();
+    }
+
+    private final class Batch {
+
+        private final Channel channel;
+        private final List<Message> messages = new ArrayList<>();
+        private ScheduledThreadPoolExecutor scheduler;
+        private ScheduledFuture<?> timeout;
+        private long deadline;
+        private long batchNumber;
+
+        private Batch(Channel channel) {
+            this.channel = channel;
+        }
+
+        private void add(Message message) {
+            messages.add(message);
+        }
+
+        private int size() {
+            return messages.size();
+        }
+
+        private boolean isExpired() {
+            return timeout != null && System.currentTimeMillis() >= deadline;
+        }
+
+        private void scheduleTimeout() {
+            if (shutdown) {
+                return;
+            }
+            if (scheduler == null) {
+                scheduler = new ScheduledThreadPoolExecutor(1, new AxonThreadFactory(THREAD_GROUP));
+                // don't keep a thread alive for channels that no longer receive messages
+                scheduler.setKeepAliveTime(SCHEDULER_KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+                scheduler.allowCoreThreadTimeOut(true);
+            }
+            long scheduledBatch = batchNumber;
+            deadline = System.currentTimeMillis() + batchTimeout;
+            timeout = scheduler.schedule(() -> onTimeout(scheduledBatch), batchTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void onTimeout(long scheduledBatch) {
+            // the batch may have been handled by the consumer thread in the meantime
+            if (scheduledBatch != batchNumber || messages.isEmpty()) {
+                return;
+            }
+            try {
+                handle();
+            } catch (IOException e) {
+                logger.error("Failed to acknowledge a batch of messages after its timeout expired. "
+                                     + "Closing the channel to have the broker deliver them again.", e);
+                closeChannel();
+            } catch (RuntimeException e) {
+                logger.error("Failed to handle a batch of messages after its timeout expired. "
+                                     + "The messages have been requeued.", e);
+            }
+        }
+
+        private void handle() throws IOException {
+            batchNumber++;
+            if (timeout != null) {
+                timeout.cancel(false);
+                timeout = null;
+            }
+            List<EventMessage<?>> events = new ArrayList<>(messages.size());
+            List<Long> unreadableDeliveryTags = new ArrayList<>();
+            long lastDeliveryTag = -1;
+            for (Message message : messages) {
+                long deliveryTag = message.getMessageProperties().getDeliveryTag();
+                EventMessage<?> event = readEventMessage(message);
+                if (event == null) {
+                    unreadableDeliveryTags.add(deliveryTag);
+                } else {
+                    events.add(event);
+                    lastDeliveryTag = deliveryTag;
+                }
+            }
+            messages.clear();
+            if (!channel.isOpen()) {
+                // the broker redelivers the unacknowledged messages
+                batches.remove(channel, this);
+                stop();
+                return;
+            }
+            for (Long deliveryTag : unreadableDeliveryTags) {
+                channel.basicReject(deliveryTag, false);
+            }
+            if (events.isEmpty()) {
+                return;
+            }
+            try {
+                for (EventProcessor eventProcessor : getEventProcessors()) {
+                    eventProcessor.handle(events);
+                }
+            } catch (RuntimeException e) {
+                channel.basicNack(lastDeliveryTag, true, true);
+                throw e;
+            }
+            channel.basicAck(lastDeliveryTag, true);
+        }
+
+        private void closeChannel() {
+            batches.remove(channel, this);
+            try {
+                channel.close();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to close the channel of a failed batch.", e);
+            }
+            stop();
+        }
+
+        private synchronized void stop() {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+}
@@ -59,19 +59,39 @@ public void onMessage(Message message) {
             return;
         }
 
-        try {
-            EventMessage eventMessage = messageConverter.readAMQPMessage(message.getBody(),
-                                                                         message.getMessageProperties().getHeaders());
-            if (eventMessage != null) {
-                for (EventProcessor eventProcessor : eventProcessors) {
-                    eventProcessor.handle(eventMessage);
-                }
+        EventMessage<?> eventMessage = readEventMessage(message);
+        if (eventMessage != null) {
+            for (EventProcessor eventProcessor : eventProcessors) {
+                eventProcessor.handle(eventMessage);
             }
+        }
+    }
+
+    /**
+     * Converts the given AMQP <code>message</code> to an EventMessage. Returns <code>null</code> if the message does
+     * not contain an event, or if the payload type of the event is unknown.
+     *
+     * @param message The AMQP Message to convert
+     * @return the EventMessage contained in the message, or <code>null</code> if it cannot be read
+     */
+    protected EventMessage<?> readEventMessage(Message message) {
+        try {
+            return messageConverter.readAMQPMessage(message.getBody(), message.getMessageProperties().getHeaders());
         } catch (UnknownSerializedTypeException e) {
             logger.warn("Unable to deserialize an incoming message. Ignoring it. {}", e.toString());
+            return null;
         }
     }
 
+    /**
+     * Returns the event processors registered with this listener.
+     *
+     * @return the registered event processors
+     */
+    protected List<EventProcessor> getEventProcessors() {
+        return eventProcessors;
+    }
+
     /**
      * Registers an additional event processor. This processor will receive messages once registered.
      *
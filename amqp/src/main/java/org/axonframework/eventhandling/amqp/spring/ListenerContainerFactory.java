@@ -16,6 +16,7 @@
 
 package org.axonframework.eventhandling.amqp.spring;
 
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.beans.BeansException;
@@ -93,6 +94,13 @@ public SimpleMessageListenerContainer createContainer(SpringAMQPConsumerConfigur
         if (config.getExclusive() != null) {
             newContainer.setExclusive(config.getExclusive());
         }
+        if (config.getBatchSize() != null && config.getBatchSize() > 1) {
+            // batches are acknowledged by the listener, and need enough unacknowledged messages to fill up
+            newContainer.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+            if (config.getPrefetchCount() == null || config.getPrefetchCount() < config.getBatchSize()) {
+                newContainer.setPrefetchCount(config.getBatchSize());
+            }
+        }
         newContainer.afterPropertiesSet();
         return newContainer;
     }
@@ -91,7 +91,7 @@ public synchronized Registration registerEventProcessor(EventProcessor eventProc
         } else {
             SimpleMessageListenerContainer newContainer = createContainer(amqpConfig);
             newContainer.setQueueNames(queueName);
-            EventProcessorMessageListener newListener = new EventProcessorMessageListener(messageConverter);
+            EventProcessorMessageListener newListener = createListener(amqpConfig, messageConverter);
             registration = newListener.addEventProcessor(eventProcessor);
             newContainer.setMessageListener(newListener);
             containerPerQueue.put(queueName, newContainer);
@@ -113,6 +113,18 @@ public synchronized Registration registerEventProcessor(EventProcessor eventProc
         };
     }
 
+    private EventProcessorMessageListener createListener(SpringAMQPConsumerConfiguration config,
+                                                         AMQPMessageConverter messageConverter) {
+        Integer batchSize = config.getBatchSize();
+        if (batchSize == null || batchSize <= 1) {
+            return new EventProcessorMessageListener(messageConverter);
+        }
+        Long batchTimeout = config.getBatchTimeout();
+        return new BatchingEventProcessorMessageListener(
+                messageConverter, batchSize,
+                batchTimeout == null ? BatchingEventProcessorMessageListener.DEFAULT_BATCH_TIMEOUT : batchTimeout);
+    }
+
     @Override
     public boolean isAutoStartup() {
         return true;
@@ -158,6 +170,9 @@ public synchronized boolean isRunning() {
     public synchronized void destroy() throws Exception {
         for (SimpleMessageListenerContainer container : containerPerQueue.values()) {
             container.destroy();
+            if (container.getMessageListener() instanceof BatchingEventProcessorMessageListener) {
+                ((BatchingEventProcessorMessageListener) container.getMessageListener()).shutdown();
+            }
         }
     }
 
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.amqp.spring;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.eventhandling.amqp.AMQPMessage;
+import org.axonframework.eventhandling.amqp.EventPublicationFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publisher that sends AMQP Messages on a pool of long-lived channels with publisher acknowledgements (confirms)
+ * enabled, without waiting for these acknowledgements on the publishing thread. Instead, {@link #publish(List)}
+ * returns a future that completes once the broker has acknowledged all messages of the publication.
+ * <p/>
+ * Each channel of the pool is owned by a single thread. Publications are spread over the channels in round-robin
+ * fashion. The owning thread sends all publications that have been queued for its channel in one go, so that the
+ * messages of concurrent publications are sent back-to-back, rather than each publication waiting for a round trip
+ * to the broker. The delivery tags of the outstanding messages are tracked by a {@link ConfirmListener}, which
+ * completes the future of a publication when its last outstanding message is acknowledged. If the broker rejects
+ * (nacks) any of the messages of a publication, or the channel closes before all messages have been acknowledged, the
+ * future completes exceptionally with an {@link EventPublicationFailedException}. Closed channels are replaced by new
+ * ones when the next publication is sent. A publication that fails to be sent fails on its own; the thread continues
+ * with the next publication.
+ * <p/>
+ * Note that you should call {@link #shutdown()} to stop the threads and close the channels. Once a thread has
+ * stopped, publications on its channel fail immediately.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class PipelinedConfirmPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedConfirmPublisher.class);
+    private static final ThreadGroup THREAD_GROUP = new ThreadGroup("PipelinedConfirmPublisher");
+    private static final long SHUTDOWN_CONFIRM_TIMEOUT_MILLIS = 2000;
+
+    private final ConnectionFactory connectionFactory;
+    private final MessageSender messageSender;
+    private final ConfirmChannel[] channels;
+    private final AtomicInteger nextChannel = new AtomicInteger();
+    private volatile boolean running = true;
+
+    /**
+     * Initializes a publisher that sends messages on <code>channelCount</code> channels created by given
+     * <code>connectionFactory</code>. The actual publication of each message on a channel is done by given
+     * <code>messageSender</code>.
+     *
+     * @param connectionFactory The factory providing the connection to create the channels on
+     * @param channelCount      The number of channels to publish messages on
+     * @param messageSender     The sender that publishes a single message on a channel
+     */
+    public PipelinedConfirmPublisher(ConnectionFactory connectionFactory, int channelCount,
+                                     MessageSender messageSender) {
+        this(connectionFactory, channelCount, messageSender, new AxonThreadFactory(THREAD_GROUP));
+    }
+
+    /**
+     * Initializes a publisher that sends messages on <code>channelCount</code> channels created by given
+     * <code>connectionFactory</code>. The actual publication of each message on a channel is done by given
+     * <code>messageSender</code>. The threads owning the channels are created using given <code>threadFactory</code>.
+     *
+     * @param connectionFactory The factory providing the connection to create the channels on
+     * @param channelCount      The number of channels to publish messages on
+     * @param messageSender     The sender that publishes a single message on a channel
+     * @param threadFactory     The factory creating the threads that publish the messages
+     */
+    public PipelinedConfirmPublisher(ConnectionFactory connectionFactory, int channelCount,
+                                     MessageSender messageSender, ThreadFactory threadFactory) {
+        Assert.notNull(connectionFactory, "connectionFactory may not be null");
+        Assert.isTrue(channelCount > 0, "channelCount must be at least 1");
+        Assert.notNull(messageSender, "messageSender may not be null");
+        Assert.notNull(threadFactory, "threadFactory may not be null");
+        this.connectionFactory = connectionFactory;
+        this.messageSender = messageSender;
+        this.channels = new ConfirmChannel[channelCount];
+        for (int i = 0; i < channelCount; i++) {
+            channels[i] = new ConfirmChannel();
+            channels[i].thread = threadFactory.newThread(channels[i]);
+            channels[i].thread.start();
+        }
+    }
+
+    /**
+     * Queues given <code>messages</code> for publication. The returned future completes when the broker has
+     * acknowledged all of the messages, or exceptionally when any of the messages could not be published or was
+     * rejected by the broker.
+     *
+     * @param messages The messages to publish
+     * @return a future that completes when the broker has confirmed the reception of all messages
+     */
+    public CompletableFuture<Void> publish(List<AMQPMessage> messages) {
+        Publication publication = new Publication(messages);
+        if (messages.isEmpty()) {
+            publication.future.complete(null);
+        } else if (!running) {
+            publication.fail(new EventPublicationFailedException("The publisher has been shut down", null));
+        } else {
+            ConfirmChannel channel = channels[(nextChannel.getAndIncrement() & Integer.MAX_VALUE) % channels.length];
+            channel.queue.add(publication);
+            // the thread drains the queue after it has marked itself terminated, so either of us fails the publication
+            if (channel.terminated && channel.queue.remove(publication)) {
+                publication.fail(new EventPublicationFailedException("The publisher has been shut down", null));
+            }
+        }
+        return publication.future;
+    }
+
+    /**
+     * Returns the number of messages that have been sent, but not acknowledged by the broker yet.
+     *
+     * @return the number of unconfirmed messages
+     */
+    public int getOutstandingConfirms() {
+        int outstanding = 0;
+        for (ConfirmChannel channel : channels) {
+            outstanding += channel.outstanding.size();
+        }
+        return outstanding;
+    }
+
+    /**
+     * Stops the threads publishing the messages, after they have sent the publications that have been queued, and
+     * closes the channels. Before closing a channel, its thread waits up to 2 seconds for the broker to confirm the
+     * outstanding messages. Publications that have not been confirmed when the channels are closed complete
+     * exceptionally. This method waits up to 5 seconds for each thread to finish.
+     */
+    public void shutdown() {
+        running = false;
+        for (ConfirmChannel channel : channels) {
+            channel.awaitTermination();
+        }
+    }
+
+    /**
+     * Interface describing the operation that publishes a single AMQP Message on a channel.
+     */
+    public interface MessageSender {
+
+        /**
+         * Publishes given <code>message</code> on given <code>channel</code>.
+         *
+         * @param channel The channel to publish the message on
+         * @param message The message to publish
+         * @throws IOException when an error occurs while writing the message
+         */
+        void send(Channel channel, AMQPMessage message) throws IOException;
+    }
+
+    private static final class Publication {
+
+        private final List<AMQPMessage> messages;
+        private final AtomicInteger unconfirmed;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Publication(List<AMQPMessage> messages) {
+            this.messages = messages;
+            this.unconfirmed = new AtomicInteger(messages.size());
+        }
+
+        private void confirm() {
+            if (unconfirmed.decrementAndGet() == 0) {
+                future.complete(null);
+            }
+        }
+
+        private void fail(Throwable cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    private final class ConfirmChannel implements Runnable, ConfirmListener {
+
+        private final BlockingQueue<Publication> queue = new LinkedBlockingQueue<>();
+        private final NavigableMap<Long, Publication> outstanding = new ConcurrentSkipListMap<>();
+        private final List<Publication> batch = new ArrayList<>();
+        private Thread thread;
+        private Channel channel;
+        private volatile boolean terminated;
+
+        @Override
+        public void run() {
+            try {
+                while (running || !queue.isEmpty()) {
+                    Publication first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch);
+                        send(batch);
+                        batch.clear();
+                    }
+                }
+                awaitOutstandingConfirms();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | Error e) {
+                logger.error("The thread publishing messages has stopped unexpectedly.", e);
+                throw e;
+            } finally {
+                terminated = true;
+                closeChannel();
+                for (Publication publication : batch) {
+                    publication.fail(new EventPublicationFailedException("The publisher has been shut down", null));
+                }
+                batch.clear();
+                Publication publication;
+                while ((publication = queue.poll()) != null) {
+                    publication.fail(new EventPublicationFailedException("The publisher has been shut down", null));
+                }
+            }
+        }
+
+        private void awaitOutstandingConfirms() throws InterruptedException {
+            if (channel != null && channel.isOpen() && !outstanding.isEmpty()) {
+                try {
+                    channel.waitForConfirms(SHUTDOWN_CONFIRM_TIMEOUT_MILLIS);
+                } catch (TimeoutException | RuntimeException e) {
+                    logger.warn("Not all messages were confirmed before the channel was closed.", e);
+                }
+            }
+        }
+
+        private void send(List<Publication> publications) {
+            for (Publication publication : publications) {
+                try {
+                    Channel currentChannel = getChannel();
+                    for (AMQPMessage message : publication.messages) {
+                        // register the delivery tag before sending, as the confirm may arrive before send returns
+                        outstanding.put(currentChannel.getNextPublishSeqNo(), publication);
+                        messageSender.send(currentChannel, message);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // ShutdownSignalException and AmqpException are runtime exceptions
+                    publication.fail(new EventPublicationFailedException(
+                            "Failed to dispatch Events to the Message Broker.", e));
+                    closeChannel();
+                }
+            }
+        }
+
+        private Channel getChannel() throws IOException {
+            if (channel == null || !channel.isOpen()) {
+                failOutstanding("The channel was closed before all messages were confirmed");
+                channel = connectionFactory.createConnection().createChannel(false);
+                channel.confirmSelect();
+                channel.addConfirmListener(this);
+                channel.addShutdownListener(
+                        cause -> failOutstanding("The channel was closed before all messages were confirmed"));
+            }
+            return channel;
+        }
+
+        private void closeChannel() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException | RuntimeException e) {
+                    logger.info("Unable to close channel. It might already be closed.", e);
+                }
+                channel = null;
+            }
+            failOutstanding("The channel was closed before all messages were confirmed");
+        }
+
+        private void failOutstanding(String message) {
+            for (Long deliveryTag : outstanding.keySet()) {
+                Publication publication = outstanding.remove(deliveryTag);
+                if (publication != null) {
+                    publication.fail(new EventPublicationFailedException(message, null));
+                }
+            }
+        }
+
+        @Override
+        public void handleAck(long deliveryTag, boolean multiple) {
+            for (Publication publication : removeOutstanding(deliveryTag, multiple)) {
+                publication.confirm();
+            }
+        }
+
+        @Override
+        public void handleNack(long deliveryTag, boolean multiple) {
+            for (Publication publication : removeOutstanding(deliveryTag, multiple)) {
+                publication.fail(new EventPublicationFailedException(
+                        "The Message Broker rejected the publication of an event", null));
+            }
+        }
+
+        private List<Publication> removeOutstanding(long deliveryTag, boolean multiple) {
+            List<Publication> removed = new ArrayList<>();
+            Iterable<Long> deliveryTags = multiple
+                    ? outstanding.headMap(deliveryTag, true).keySet()
+                    : Collections.singleton(deliveryTag);
+            for (Long tag : deliveryTags) {
+                Publication publication = outstanding.remove(tag);
+                if (publication != null) {
+                    removed.add(publication);
+                }
+            }
+            return removed;
+        }
+
+        private void awaitTermination() {
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                // we've been interrupted. Reset the interruption flag and continue
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
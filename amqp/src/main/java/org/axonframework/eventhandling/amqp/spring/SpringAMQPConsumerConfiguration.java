@@ -55,6 +55,8 @@ public class SpringAMQPConsumerConfiguration implements AMQPConsumerConfiguratio
     private AcknowledgeMode acknowledgeMode;
     private Boolean exclusive;
     private String queueName;
+    private Integer batchSize;
+    private Long batchTimeout;
 
     private SpringAMQPConsumerConfiguration defaults;
 
@@ -230,6 +232,26 @@ public AcknowledgeMode getAcknowledgeMode() {
         return acknowledgeMode != null ? acknowledgeMode : defaults == null ? null : defaults.getAcknowledgeMode();
     }
 
+    /**
+     * Returns the Batch Size configured in this instance, or the one provided by the {@link
+     * #setDefaults(SpringAMQPConsumerConfiguration) default configuration} if not explicitly provided.
+     *
+     * @return the Batch Size configured in this instance, or by the default configuration
+     */
+    public Integer getBatchSize() {
+        return batchSize != null ? batchSize : defaults == null ? null : defaults.getBatchSize();
+    }
+
+    /**
+     * Returns the Batch Timeout configured in this instance, or the one provided by the {@link
+     * #setDefaults(SpringAMQPConsumerConfiguration) default configuration} if not explicitly provided.
+     *
+     * @return the Batch Timeout configured in this instance, or by the default configuration
+     */
+    public Long getBatchTimeout() {
+        return batchTimeout != null ? batchTimeout : defaults == null ? null : defaults.getBatchTimeout();
+    }
+
     @Override
     public Boolean getExclusive() {
         return exclusive != null ? exclusive : defaults == null ? null : defaults.getExclusive();
@@ -390,4 +412,34 @@ public void setAcknowledgeMode(AcknowledgeMode acknowledgeMode) {
     public void setExclusive(Boolean exclusive) {
         this.exclusive = exclusive;
     }
+
+    /**
+     * Sets the maximum number of messages to hand to the event processor as a single batch. When larger than 1, the
+     * messages received on a channel are collected until this number is reached, or until the {@link
+     * #setBatchTimeout(Long) batch timeout} expires, and then handled in a single call to the event processor. All
+     * messages of the batch are acknowledged at once after the event processor has handled them. This sets the
+     * container's acknowledge mode to {@link AcknowledgeMode#MANUAL}, and raises the prefetch count to at least the
+     * batch size.
+     * <p/>
+     * By default, messages are handled one by one.
+     *
+     * @param batchSize The maximum number of messages in a batch
+     * @see BatchingEventProcessorMessageListener
+     */
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the number of milliseconds to wait for a batch to fill up, after its first message has been received. When
+     * the timeout expires, the messages received so far are handled as a batch. This value is ignored unless a {@link
+     * #setBatchSize(Integer) batch size} larger than 1 is configured.
+     * <p/>
+     * Defaults to {@value BatchingEventProcessorMessageListener#DEFAULT_BATCH_TIMEOUT} milliseconds.
+     *
+     * @param batchTimeout The number of milliseconds to wait for a batch to fill up
+     */
+    public void setBatchTimeout(Long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
 }
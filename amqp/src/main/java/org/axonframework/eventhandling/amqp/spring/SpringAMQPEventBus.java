@@ -33,13 +33,18 @@
 import org.springframework.amqp.core.Exchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import static org.axonframework.eventhandling.amqp.AMQPConsumerConfiguration.AMQP_CONFIG_PROPERTY;
@@ -53,10 +58,12 @@
  * @author Allard Buijze
  * @since 2.0
  */
-public class SpringAMQPEventBus extends AbstractEventBus implements InitializingBean, ApplicationContextAware {
+public class SpringAMQPEventBus extends AbstractEventBus implements InitializingBean, DisposableBean,
+        ApplicationContextAware {
 
     private static final Logger logger = LoggerFactory.getLogger(SpringAMQPEventBus.class);
     private static final String DEFAULT_EXCHANGE_NAME = "Axon.EventBus";
+    private static final long DEFAULT_PIPELINED_ACK_TIMEOUT_MILLIS = 10000;
 
     private ConnectionFactory connectionFactory;
     private String exchangeName = DEFAULT_EXCHANGE_NAME;
@@ -69,9 +76,16 @@ public class SpringAMQPEventBus extends AbstractEventBus implements Initializing
     private RoutingKeyResolver routingKeyResolver;
     private boolean waitForAck;
     private long publisherAckTimeout;
+    private boolean pipelinePublisherAcks;
+    private int publisherChannelCount = 1;
+    private PipelinedConfirmPublisher pipelinedPublisher;
 
     @Override
     protected void prepareCommit(List<EventMessage<?>> events) {
+        if (pipelinedPublisher != null) {
+            publishPipelined(events);
+            return;
+        }
         Channel channel = connectionFactory.createConnection().createChannel(isTransactional);
         try {
             if (isTransactional) {
@@ -148,6 +162,39 @@ protected void prepareCommit(List<EventMessage<?>> events) {
         }
     }
 
+    private void publishPipelined(List<EventMessage<?>> events) {
+        List<AMQPMessage> amqpMessages = new ArrayList<>(events.size());
+        for (EventMessage event : events) {
+            amqpMessages.add(messageConverter.createAMQPMessage(event));
+        }
+        CompletableFuture<Void> confirmation = pipelinedPublisher.publish(amqpMessages);
+        if (CurrentUnitOfWork.isStarted()) {
+            // the broker confirms the messages while the remaining prepare commit handlers are invoked. Waiting at the
+            // end of that phase, rather than on commit, ensures a rejection prevents any transaction from committing
+            CurrentUnitOfWork.get().root().onPrepareCommit(u -> awaitConfirmation(confirmation));
+        } else {
+            awaitConfirmation(confirmation);
+        }
+    }
+
+    private void awaitConfirmation(CompletableFuture<Void> confirmation) {
+        try {
+            confirmation.get(publisherAckTimeout > 0 ? publisherAckTimeout : DEFAULT_PIPELINED_ACK_TIMEOUT_MILLIS,
+                             TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof EventPublicationFailedException) {
+                throw (EventPublicationFailedException) e.getCause();
+            }
+            throw new EventPublicationFailedException("Failed to receive acknowledgements for all events",
+                                                      e.getCause());
+        } catch (TimeoutException e) {
+            throw new EventPublicationFailedException("Timeout while waiting for publisher acknowledgements", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventPublicationFailedException("Interrupted while waiting for publisher acknowledgements", e);
+        }
+    }
+
     private void tryClose(Channel channel) {
         try {
             channel.close();
@@ -215,6 +262,18 @@ public void afterPropertiesSet() throws Exception {
             }
             messageConverter = new DefaultAMQPMessageConverter(serializer, routingKeyResolver, isDurable);
         }
+        if (pipelinePublisherAcks && pipelinedPublisher == null) {
+            pipelinedPublisher = new PipelinedConfirmPublisher(connectionFactory, publisherChannelCount,
+                                                               this::doSendMessage);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (pipelinedPublisher != null) {
+            pipelinedPublisher.shutdown();
+            pipelinedPublisher = null;
+        }
     }
 
     private ListenerContainerLifecycleManager getListenerContainerLifecycleManager() {
@@ -251,6 +310,8 @@ public void setListenerContainerLifecycleManager(
     public void setTransactional(boolean transactional) {
         Assert.isTrue(!waitForAck || !transactional,
                       "Cannot set transactional behavior when 'waitForServerAck' is enabled.");
+        Assert.isTrue(!pipelinePublisherAcks || !transactional,
+                      "Cannot set transactional behavior when 'pipelinePublisherAcks' is enabled.");
         isTransactional = transactional;
     }
 
@@ -277,14 +338,53 @@ public void setWaitForPublisherAck(boolean waitForPublisherAck) {
      * messages. If not all messages have been acknowledged withing this time, the publication will throw an
      * EventPublicationFailedException.
      * <p>
-     * This setting is only used when {@link #setWaitForPublisherAck(boolean)} is set to <code>true</code>.
+     * This setting is only used when {@link #setWaitForPublisherAck(boolean)} or {@link
+     * #setPipelinePublisherAcks(boolean)} is set to <code>true</code>. With pipelined acknowledgements, a value of 0
+     * means the default timeout of 10 seconds, as the channels are shared by all publishing threads.
      *
-     * @param publisherAckTimeout The number of milliseconds to wait for confirms, or 0 to wait indefinitely.
+     * @param publisherAckTimeout The number of milliseconds to wait for confirms, or 0 to wait indefinitely (or the
+     *                            default timeout with pipelined acknowledgements).
      */
     public void setPublisherAckTimeout(long publisherAckTimeout) {
         this.publisherAckTimeout = publisherAckTimeout;
     }
 
+    /**
+     * Enables or disables pipelined publisher acknowledgements (confirms). In this mode, messages are sent on a pool of
+     * long-lived channels with confirms enabled, and the broker's acknowledgements are tracked asynchronously. The
+     * messages of concurrently committing Units of Work are sent back-to-back on the same channels, instead of each
+     * Unit of Work opening its own channel and blocking until the broker has acknowledged its messages.
+     * <p>
+     * The messages are sent when the Unit of Work prepares its commit. The root Unit of Work waits for the
+     * acknowledgements at the end of its prepare commit phase, so that the round trip to the broker overlaps with the
+     * other prepare commit handlers, while the commit phase (including any transaction commit) only starts once the
+     * broker has received all messages. If not all messages have been acknowledged within the {@link
+     * #setPublisherAckTimeout(long) publisher ack timeout} (10 seconds by default in this mode), or the broker rejects
+     * any of them, the Unit of Work is rolled back with an EventPublicationFailedException.
+     * <p>
+     * Pipelined acknowledgements cannot be enabled when transactions are enabled. When enabled, the {@link
+     * #setWaitForPublisherAck(boolean) waitForPublisherAck} setting is ignored. Note that the channels are closed when
+     * this bean is destroyed.
+     *
+     * @param pipelinePublisherAcks whether or not to publish messages with pipelined acknowledgements
+     */
+    public void setPipelinePublisherAcks(boolean pipelinePublisherAcks) {
+        Assert.isTrue(!pipelinePublisherAcks || !isTransactional,
+                      "Cannot set 'pipelinePublisherAcks' when using transactions.");
+        this.pipelinePublisherAcks = pipelinePublisherAcks;
+    }
+
+    /**
+     * Sets the number of channels used to send messages when {@link #setPipelinePublisherAcks(boolean) pipelined
+     * publisher acknowledgements} are enabled. Each channel is served by its own thread. Defaults to 1.
+     *
+     * @param publisherChannelCount the number of channels to publish messages on
+     */
+    public void setPublisherChannelCount(int publisherChannelCount) {
+        Assert.isTrue(publisherChannelCount > 0, "publisherChannelCount must be at least 1");
+        this.publisherChannelCount = publisherChannelCount;
+    }
+
     /**
      * Sets the ConnectionFactory providing the Connections and Channels to send messages on. The SpringAMQPTerminal
      * does not cache or reuse connections. Providing a ConnectionFactory instance that caches connections will prevent
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.amqp.spring;
+
+import com.rabbitmq.client.Channel;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.amqp.AMQPMessageConverter;
+import org.axonframework.eventhandling.amqp.DefaultAMQPMessageConverter;
+import org.axonframework.eventhandling.io.EventMessageWriter;
+import org.axonframework.serializer.Serializer;
+import org.axonframework.serializer.SimpleSerializedType;
+import org.axonframework.serializer.UnknownSerializedTypeException;
+import org.axonframework.serializer.xml.XStreamSerializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class BatchingEventProcessorMessageListenerTest {
+
+    private Serializer serializer;
+    private EventProcessor eventProcessor;
+    private Channel channel;
+    private BatchingEventProcessorMessageListener testSubject;
+
+    @Before
+    public void setUp() {
+        serializer = new XStreamSerializer();
+        eventProcessor = mock(EventProcessor.class);
+        channel = mock(Channel.class);
+        when(channel.isOpen()).thenReturn(true);
+        testSubject = new BatchingEventProcessorMessageListener(new DefaultAMQPMessageConverter(serializer), 3, 100);
+        testSubject.addEventProcessor(eventProcessor);
+    }
+
+    @After
+    public void tearDown() {
+        testSubject.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFullBatchHandledAndAcknowledgedAtOnce() throws Exception {
+        testSubject.onMessage(message("1", 1), channel);
+        testSubject.onMessage(message("2", 2), channel);
+        verify(eventProcessor, never()).handle(anyList());
+
+        testSubject.onMessage(message("3", 3), channel);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventProcessor).handle(captor.capture());
+        List<EventMessage<?>> events = captor.getValue();
+        assertEquals(3, events.size());
+        assertEquals("1", events.get(0).getPayload());
+        assertEquals("3", events.get(2).getPayload());
+        verify(channel).basicAck(3, true);
+        verify(channel, never()).basicAck(1, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 5000)
+    public void testIncompleteBatchHandledAfterTimeout() throws Exception {
+        testSubject.onMessage(message("1", 1), channel);
+
+        verify(channel, timeout(2000)).basicAck(1, true);
+        verify(eventProcessor).handle(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testBatchRequeuedWhenEventProcessorFails() throws Exception {
+        doThrow(new IllegalStateException("Mock")).when(eventProcessor).handle(anyList());
+        testSubject.onMessage(message("1", 1), channel);
+        testSubject.onMessage(message("2", 2), channel);
+        try {
+            testSubject.onMessage(message("3", 3), channel);
+            fail("Expected exception to be propagated");
+        } catch (IllegalStateException e) {
+            assertEquals("Mock", e.getMessage());
+        }
+
+        verify(channel).basicNack(3, true, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testUnreadableMessagesRejectedWithoutRequeue() throws Exception {
+        testSubject.shutdown();
+        AMQPMessageConverter messageConverter = spy(new DefaultAMQPMessageConverter(serializer));
+        testSubject = new BatchingEventProcessorMessageListener(messageConverter, 3, 100);
+        testSubject.addEventProcessor(eventProcessor);
+        Message unreadable = message("3", 3);
+        doThrow(new UnknownSerializedTypeException(new SimpleSerializedType("Unknown", null)))
+                .when(messageConverter).readAMQPMessage(same(unreadable.getBody()), anyMap());
+
+        testSubject.onMessage(message("1", 1), channel);
+        testSubject.onMessage(message("2", 2), channel);
+        testSubject.onMessage(unreadable, channel);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventProcessor).handle(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verify(channel).basicReject(3, false);
+        verify(channel).basicAck(2, true);
+        verify(channel, never()).basicAck(eq(3L), anyBoolean());
+    }
+
+    @Test(timeout = 5000)
+    public void testChannelClosedWhenAcknowledgingAfterTimeoutFails() throws Exception {
+        doThrow(new IOException("Mock")).when(channel).basicAck(anyLong(), anyBoolean());
+
+        testSubject.onMessage(message("1", 1), channel);
+
+        verify(channel, timeout(2000)).close();
+    }
+
+    private Message message(String payload, long deliveryTag) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        EventMessageWriter outputStream = new EventMessageWriter(new DataOutputStream(baos), serializer);
+        outputStream.writeEventMessage(new GenericEventMessage<>(payload));
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setDeliveryTag(deliveryTag);
+        return new Message(baos.toByteArray(), messageProperties);
+    }
+}
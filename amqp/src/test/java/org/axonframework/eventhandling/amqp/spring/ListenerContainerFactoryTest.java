@@ -120,4 +120,20 @@ public void testListenerContainerFullyConfigured() {
         verify(mockContainer).afterPropertiesSet();
         PowerMockito.verifyNoMoreInteractions(mockContainer);
     }
+
+    @Test
+    public void testListenerContainerConfiguredForBatches() {
+        SpringAMQPConsumerConfiguration config = new SpringAMQPConsumerConfiguration();
+        config.setBatchSize(50);
+        config.setPrefetchCount(10);
+
+        testSubject.createContainer(config);
+
+        verify(mockContainer).setConnectionFactory(mockConnectionFactory);
+        verify(mockContainer).setPrefetchCount(10);
+        verify(mockContainer).setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        verify(mockContainer).setPrefetchCount(50);
+        verify(mockContainer).afterPropertiesSet();
+        PowerMockito.verifyNoMoreInteractions(mockContainer);
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.amqp.spring;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import org.axonframework.eventhandling.amqp.AMQPMessage;
+import org.axonframework.eventhandling.amqp.EventPublicationFailedException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class PipelinedConfirmPublisherTest {
+
+    private ConnectionFactory connectionFactory;
+    private Channel channel;
+    private PipelinedConfirmPublisher testSubject;
+
+    @Before
+    public void setUp() throws Exception {
+        connectionFactory = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        channel = mock(Channel.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createChannel(false)).thenReturn(channel);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.getNextPublishSeqNo()).thenReturn(1L, 2L, 3L, 4L);
+        testSubject = new PipelinedConfirmPublisher(connectionFactory, 1, (publishChannel, message) ->
+                publishChannel.basicPublish("mockExchange", message.getRoutingKey(), false, false, null,
+                                            message.getBody()));
+    }
+
+    @After
+    public void tearDown() {
+        testSubject.shutdown();
+    }
+
+    @Test(timeout = 5000)
+    public void testPublicationCompletesWhenAllMessagesAcknowledged() throws Exception {
+        CompletableFuture<Void> confirmation = testSubject.publish(Arrays.asList(message("1"), message("2")));
+
+        verify(channel, timeout(2000).times(2)).basicPublish(eq("mockExchange"), eq("key"), eq(false), eq(false),
+                                                            any(AMQP.BasicProperties.class), any(byte[].class));
+        verify(channel).confirmSelect();
+        ConfirmListener confirmListener = confirmListener();
+        assertFalse(confirmation.isDone());
+        assertEquals(2, testSubject.getOutstandingConfirms());
+
+        confirmListener.handleAck(1, false);
+        assertFalse(confirmation.isDone());
+        confirmListener.handleAck(2, false);
+        assertTrue(confirmation.isDone());
+        assertFalse(confirmation.isCompletedExceptionally());
+        assertEquals(0, testSubject.getOutstandingConfirms());
+    }
+
+    @Test(timeout = 5000)
+    public void testConcurrentPublicationsCompletedByMultipleAck() throws Exception {
+        CompletableFuture<Void> first = testSubject.publish(Collections.singletonList(message("1")));
+        CompletableFuture<Void> second = testSubject.publish(Arrays.asList(message("2"), message("3")));
+
+        verify(channel, timeout(2000).times(3)).basicPublish(anyString(), anyString(), anyBoolean(), anyBoolean(),
+                                                            any(AMQP.BasicProperties.class), any(byte[].class));
+        ConfirmListener confirmListener = confirmListener();
+        confirmListener.handleAck(2, true);
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+
+        confirmListener.handleAck(3, true);
+        assertTrue(second.isDone());
+        verify(channel, times(1)).confirmSelect();
+    }
+
+    @Test(timeout = 5000)
+    public void testPublicationFailsWhenBrokerRejectsMessage() throws Exception {
+        CompletableFuture<Void> confirmation = testSubject.publish(Arrays.asList(message("1"), message("2")));
+
+        verify(channel, timeout(2000).times(2)).basicPublish(anyString(), anyString(), anyBoolean(), anyBoolean(),
+                                                            any(AMQP.BasicProperties.class), any(byte[].class));
+        ConfirmListener confirmListener = confirmListener();
+        confirmListener.handleAck(1, false);
+        confirmListener.handleNack(2, false);
+
+        try {
+            confirmation.get();
+            fail("Expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof EventPublicationFailedException);
+        }
+    }
+
+    @Test
+    public void testEmptyPublicationCompletesImmediately() {
+        assertTrue(testSubject.publish(Collections.emptyList()).isDone());
+    }
+
+    @Test(timeout = 5000)
+    public void testRuntimeExceptionFailsOnlyAffectedPublication() throws Exception {
+        doThrow(new AmqpException("Mock")).doNothing().when(channel).basicPublish(
+                anyString(), anyString(), anyBoolean(), anyBoolean(), any(AMQP.BasicProperties.class),
+                any(byte[].class));
+
+        CompletableFuture<Void> failed = testSubject.publish(Collections.singletonList(message("1")));
+        try {
+            failed.get();
+            fail("Expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof EventPublicationFailedException);
+            assertTrue(e.getCause().getCause() instanceof AmqpException);
+        }
+
+        CompletableFuture<Void> confirmation = testSubject.publish(Collections.singletonList(message("2")));
+        verify(channel, timeout(2000).times(2)).basicPublish(anyString(), anyString(), anyBoolean(), anyBoolean(),
+                                                            any(AMQP.BasicProperties.class), any(byte[].class));
+        confirmListener().handleAck(2, false);
+        assertTrue(confirmation.isDone());
+        assertFalse(confirmation.isCompletedExceptionally());
+    }
+
+    @Test(timeout = 5000)
+    public void testPublicationsFailOnceThreadHasStopped() throws Exception {
+        testSubject.shutdown();
+        testSubject = new PipelinedConfirmPublisher(connectionFactory, 1, (publishChannel, message) -> {
+            throw new MockError();
+        });
+
+        CompletableFuture<Void> first = testSubject.publish(Collections.singletonList(message("1")));
+        try {
+            first.get();
+            fail("Expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof EventPublicationFailedException);
+        }
+
+        CompletableFuture<Void> second = testSubject.publish(Collections.singletonList(message("2")));
+        assertTrue(second.isCompletedExceptionally());
+    }
+
+    @Test(timeout = 5000)
+    public void testShutdownWaitsForConfirmsBeforeClosingChannel() throws Exception {
+        CompletableFuture<Void> confirmation = testSubject.publish(Collections.singletonList(message("1")));
+        verify(channel, timeout(2000)).basicPublish(anyString(), anyString(), anyBoolean(), anyBoolean(),
+                                                    any(AMQP.BasicProperties.class), any(byte[].class));
+
+        testSubject.shutdown();
+
+        InOrder inOrder = inOrder(channel);
+        inOrder.verify(channel).waitForConfirms(anyLong());
+        inOrder.verify(channel).close();
+        assertTrue(confirmation.isCompletedExceptionally());
+    }
+
+    private ConfirmListener confirmListener() {
+        ArgumentCaptor<ConfirmListener> captor = ArgumentCaptor.forClass(ConfirmListener.class);
+        verify(channel, atLeastOnce()).addConfirmListener(captor.capture());
+        return captor.getValue();
+    }
+
+    private static class MockError extends Error {
+
+        private MockError() {
+            super("Mock");
+        }
+    }
+
+    private AMQPMessage message(String body) {
+        return new AMQPMessage(body.getBytes(), "key");
+    }
+}
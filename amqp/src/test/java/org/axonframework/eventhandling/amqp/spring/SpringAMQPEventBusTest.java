@@ -18,9 +18,11 @@
 
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
 import org.axonframework.eventhandling.GenericEventMessage;
 import org.axonframework.eventhandling.amqp.DefaultAMQPMessageConverter;
 import org.axonframework.eventhandling.amqp.EventPublicationFailedException;
+import org.axonframework.messaging.interceptors.Transaction;
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
@@ -30,15 +32,17 @@
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.amqp.rabbit.connection.Connection;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
-import static org.junit.Assert.assertNotNull;
-import static org.junit.Assert.fail;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -64,6 +68,7 @@ public void setUp() throws Exception {
 
     @After
     public void tearDown() {
+        testSubject.destroy();
         while (CurrentUnitOfWork.isStarted()) {
             CurrentUnitOfWork.get().rollback();
         }
@@ -246,4 +251,117 @@ public void testSendMessageWithPublisherAck_NoActiveUnitOfWork() throws Interrup
                                      any(AMQP.BasicProperties.class), isA(byte[].class));
         verify(channel).waitForConfirmsOrDie();
     }
+
+    @Test(timeout = 5000)
+    public void testPipelinedPublication_UnitOfWorkWaitsForConfirmationOnCommit() throws Exception {
+        Channel channel = preparePipelinedPublication();
+        GenericEventMessage<String> message = prepareMessage();
+
+        CompletableFuture<Void> committed = CompletableFuture.runAsync(() -> {
+            UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(message);
+            testSubject.publish(message);
+            uow.commit();
+        });
+
+        verify(channel, timeout(2000)).basicPublish(eq("mockExchange"), eq("java.lang"), eq(false), eq(false),
+                                                    any(AMQP.BasicProperties.class), isA(byte[].class));
+        Thread.sleep(100);
+        assertFalse(committed.isDone());
+
+        confirmListener(channel).handleAck(1, false);
+        committed.get();
+        verify(channel, never()).waitForConfirmsOrDie();
+    }
+
+    @Test(timeout = 5000)
+    public void testPipelinedPublication_RejectionPreventsTransactionCommit() throws Exception {
+        Channel channel = preparePipelinedPublication();
+        GenericEventMessage<String> message = prepareMessage();
+        Transaction transaction = mock(Transaction.class);
+
+        CompletableFuture<Void> committed = CompletableFuture.runAsync(() -> {
+            UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(message);
+            // registered when the Unit of Work starts, like a transaction manager would
+            uow.onCommit(u -> transaction.commit());
+            uow.onRollback(u -> transaction.rollback());
+            testSubject.publish(message);
+            uow.commit();
+        });
+
+        verify(channel, timeout(2000)).basicPublish(eq("mockExchange"), eq("java.lang"), eq(false), eq(false),
+                                                    any(AMQP.BasicProperties.class), isA(byte[].class));
+        confirmListener(channel).handleNack(1, false);
+
+        try {
+            committed.get();
+            fail("Expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof EventPublicationFailedException);
+        }
+        verify(transaction, never()).commit();
+        verify(transaction).rollback();
+    }
+
+    @Test(timeout = 5000)
+    public void testPipelinedPublication_FailsWhenNotConfirmedInTime() throws Exception {
+        testSubject.setPublisherAckTimeout(100);
+        Channel channel = preparePipelinedPublication();
+
+        try {
+            testSubject.publish(prepareMessage());
+            fail("Expected exception");
+        } catch (EventPublicationFailedException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        verify(channel).basicPublish(eq("mockExchange"), eq("java.lang"), eq(false), eq(false),
+                                     any(AMQP.BasicProperties.class), isA(byte[].class));
+    }
+
+    @Test(timeout = 5000)
+    public void testPipelinedPublisherShutDownOnDestroy() throws Exception {
+        Channel channel = preparePipelinedPublication();
+        GenericEventMessage<String> message = prepareMessage();
+        CompletableFuture<Void> published = CompletableFuture.runAsync(() -> testSubject.publish(message));
+        verify(channel, timeout(2000)).basicPublish(eq("mockExchange"), eq("java.lang"), eq(false), eq(false),
+                                                    any(AMQP.BasicProperties.class), isA(byte[].class));
+
+        testSubject.destroy();
+
+        verify(channel).waitForConfirms(anyLong());
+        verify(channel).close();
+        try {
+            published.get();
+            fail("Expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof EventPublicationFailedException);
+        }
+    }
+
+    private Channel preparePipelinedPublication() throws Exception {
+        testSubject.setTransactional(false);
+        testSubject.setPipelinePublisherAcks(true);
+        Connection connection = mock(Connection.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        Channel channel = mock(Channel.class);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.getNextPublishSeqNo()).thenReturn(1L, 2L, 3L);
+        when(connection.createChannel(false)).thenReturn(channel);
+        testSubject.afterPropertiesSet();
+        return channel;
+    }
+
+    private GenericEventMessage<String> prepareMessage() {
+        GenericEventMessage<String> message = new GenericEventMessage<>("Message");
+        when(serializer.serialize(message.getPayload(), byte[].class))
+                .thenReturn(new SimpleSerializedObject<>("Message".getBytes(UTF_8), byte[].class, "String", "0"));
+        when(serializer.serialize(message.getMetaData(), byte[].class))
+                .thenReturn(new SerializedMetaData<>(new byte[0], byte[].class));
+        return message;
+    }
+
+    private ConfirmListener confirmListener(Channel channel) {
+        ArgumentCaptor<ConfirmListener> captor = ArgumentCaptor.forClass(ConfirmListener.class);
+        verify(channel).addConfirmListener(captor.capture());
+        return captor.getValue();
+    }
 }
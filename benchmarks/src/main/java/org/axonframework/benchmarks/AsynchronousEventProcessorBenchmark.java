@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.async.AsynchronousEventProcessor;
+import org.axonframework.eventhandling.async.FullConcurrencyPolicy;
+import org.axonframework.eventhandling.async.SequentialPerAggregatePolicy;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the {@link AsynchronousEventProcessor} delivering events to a listener that does no
+ * work. Each invocation publishes {@value #BATCH_SIZE} events, spread over {@value #AGGREGATE_COUNT} aggregates, and
+ * waits until all of them have been handled.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AsynchronousEventProcessorBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int AGGREGATE_COUNT = 64;
+
+    @Param({"sequential-per-aggregate", "full-concurrency"})
+    public String sequencingPolicy;
+
+    private ExecutorService executor;
+    private AsynchronousEventProcessor eventProcessor;
+    private List<EventMessage<?>> events;
+    private volatile CountDownLatch remainingEvents;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        switch (sequencingPolicy) {
+            case "sequential-per-aggregate":
+                eventProcessor = new AsynchronousEventProcessor("benchmark", executor,
+                                                                new SequentialPerAggregatePolicy());
+                break;
+            case "full-concurrency":
+                eventProcessor = new AsynchronousEventProcessor("benchmark", executor, new FullConcurrencyPolicy());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown sequencing policy: " + sequencingPolicy);
+        }
+        eventProcessor.subscribe(event -> remainingEvents.countDown());
+        events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(new GenericDomainEventMessage<>("aggregate-" + (i % AGGREGATE_COUNT), i / AGGREGATE_COUNT,
+                                                       "event payload"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void handleEvents() throws InterruptedException {
+        remainingEvents = new CountDownLatch(BATCH_SIZE);
+        eventProcessor.handle(events);
+        remainingEvents.await();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks in this module and writes the results in JSON format, so that they can be compared between
+ * builds. The first argument, if given, is a regular expression selecting the benchmarks to run. The second argument,
+ * if given, is the file to write the results to. It defaults to {@value #DEFAULT_RESULT_FILE}.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * The file results are written to when no file is given on the command line.
+     */
+    public static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*")
+                .resultFormat(ResultFormatType.JSON)
+                .result(args.length > 1 ? args[1] : DEFAULT_RESULT_FILE)
+                .build();
+        new Runner(options).run();
+    }
+}
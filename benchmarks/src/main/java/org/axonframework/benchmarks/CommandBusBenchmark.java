@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.commandhandling.AsynchronousCommandBus;
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.CommandCallback;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.commandhandling.annotation.TargetAggregateIdentifier;
+import org.axonframework.commandhandling.disruptor.DisruptorCommandBus;
+import org.axonframework.eventhandling.SimpleEventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+
+/**
+ * Measures the throughput of dispatching commands to a handler that does no work, on each of the Command Bus
+ * implementations. Each invocation dispatches {@value #BATCH_SIZE} commands and waits for all of them to be handled,
+ * so that asynchronous implementations aren't credited for commands still in their queues.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CommandBusBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"simple", "async", "disruptor"})
+    public String commandBusType;
+
+    private CommandBus commandBus;
+    private ExecutorService executor;
+    private DisruptorCommandBus disruptorCommandBus;
+
+    @Setup
+    public void setUp() {
+        switch (commandBusType) {
+            case "simple":
+                commandBus = new SimpleCommandBus();
+                break;
+            case "async":
+                executor = Executors.newFixedThreadPool(4);
+                commandBus = new AsynchronousCommandBus(executor);
+                break;
+            case "disruptor":
+                disruptorCommandBus = new DisruptorCommandBus(new InMemoryEventStore(), new SimpleEventBus());
+                commandBus = disruptorCommandBus;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command bus type: " + commandBusType);
+        }
+        commandBus.subscribe(BenchmarkCommand.class.getName(), (command, unitOfWork) -> command.getPayload());
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (disruptorCommandBus != null) {
+            disruptorCommandBus.stop();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void dispatch() throws InterruptedException {
+        CountingCallback callback = new CountingCallback(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            commandBus.dispatch(asCommandMessage(new BenchmarkCommand("aggregate-" + (i & 63))), callback);
+        }
+        callback.await();
+    }
+
+    /**
+     * The command dispatched during the benchmark.
+     */
+    public static class BenchmarkCommand {
+
+        @TargetAggregateIdentifier
+        private final String aggregateIdentifier;
+
+        public BenchmarkCommand(String aggregateIdentifier) {
+            this.aggregateIdentifier = aggregateIdentifier;
+        }
+
+        public String getAggregateIdentifier() {
+            return aggregateIdentifier;
+        }
+    }
+
+    private static class CountingCallback implements CommandCallback<Object, Object> {
+
+        private final CountDownLatch latch;
+
+        public CountingCallback(int count) {
+            this.latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void onSuccess(CommandMessage<?> commandMessage, Object result) {
+            latch.countDown();
+        }
+
+        @Override
+        public void onFailure(CommandMessage<?> commandMessage, Throwable cause) {
+            latch.countDown();
+        }
+
+        public void await() throws InterruptedException {
+            latch.await();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.commandhandling.distributed.ConsistentHash;
+import org.axonframework.common.digest.Digester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups in the {@link ConsistentHash} with lookups in a ring of hexadecimal MD5 hashes stored in a
+ * TreeMap, as done by previous versions. The ring contains {@value #NODE_COUNT} nodes with {@value #SEGMENT_COUNT}
+ * segments each, and each node supports about half of the {@value #COMMAND_TYPE_COUNT} command types.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConsistentHashBenchmark {
+
+    private static final int NODE_COUNT = 10;
+    private static final int SEGMENT_COUNT = 100;
+    private static final int COMMAND_TYPE_COUNT = 50;
+    private static final int ITEM_COUNT = 1024;
+
+    private ConsistentHash ring;
+    private SortedMap<String, ConsistentHash.Member> treeRing;
+    private String[] items;
+    private String[] commandTypes;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        ring = ConsistentHash.emptyRing();
+        for (int node = 0; node < NODE_COUNT; node++) {
+            Set<String> supportedCommandTypes = new HashSet<>();
+            for (int type = node % 2; type < COMMAND_TYPE_COUNT; type += 2) {
+                supportedCommandTypes.add("command" + type);
+            }
+            ring = ring.withAdditionalNode("node" + node, SEGMENT_COUNT, supportedCommandTypes);
+        }
+        treeRing = new TreeMap<>();
+        for (ConsistentHash.Member member : ring.getMembers()) {
+            for (String hash : member.hashes()) {
+                treeRing.put(hash, member);
+            }
+        }
+        items = new String[ITEM_COUNT];
+        commandTypes = new String[ITEM_COUNT];
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items[i] = "aggregate-" + i;
+            commandTypes[i] = "command" + (i % COMMAND_TYPE_COUNT);
+        }
+    }
+
+    @Benchmark
+    public String consistentHash() {
+        int i = index++ & (ITEM_COUNT - 1);
+        return ring.getMember(items[i], commandTypes[i]);
+    }
+
+    @Benchmark
+    public String treeMap() {
+        int i = index++ & (ITEM_COUNT - 1);
+        return treeMapLookup(items[i], commandTypes[i]);
+    }
+
+    private String treeMapLookup(String item, String commandType) {
+        String hash = Digester.md5Hex(item);
+        for (Iterator<Map.Entry<String, ConsistentHash.Member>> iterator :
+                Arrays.asList(treeRing.tailMap(hash).entrySet().iterator(),
+                              treeRing.headMap(hash).entrySet().iterator())) {
+            while (iterator.hasNext()) {
+                ConsistentHash.Member member = iterator.next().getValue();
+                if (member.supportedCommands().contains(commandType)) {
+                    return member.name();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.SimpleEventBus;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.EventSourcingRepository;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.annotation.AggregateIdentifier;
+import org.axonframework.eventsourcing.annotation.EventSourcingHandler;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time needed to load an aggregate from an {@link EventSourcingRepository}, which includes reading its
+ * events from the Event Store and replaying them on a new aggregate instance. The events are kept in memory, so that
+ * the cost of the repository and the annotated event sourcing handlers dominates.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventSourcingRepositoryBenchmark {
+
+    private static final String AGGREGATE_IDENTIFIER = "aggregate";
+
+    @Param({"1", "100", "1000"})
+    public int eventCount;
+
+    private EventSourcingRepository<BenchmarkAggregate> repository;
+
+    @Setup
+    public void setUp() {
+        InMemoryEventStore eventStore = new InMemoryEventStore();
+        List<DomainEventMessage<?>> events = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            events.add(new GenericDomainEventMessage<>(AGGREGATE_IDENTIFIER, i, new SomethingHappenedEvent(i)));
+        }
+        eventStore.appendEvents(events);
+        repository = new EventSourcingRepository<>(BenchmarkAggregate.class, eventStore, new SimpleEventBus());
+    }
+
+    @Benchmark
+    public long loadAggregate() {
+        UnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        try {
+            return repository.load(AGGREGATE_IDENTIFIER).invoke(BenchmarkAggregate::getHandledEventCount);
+        } finally {
+            unitOfWork.rollback();
+        }
+    }
+
+    /**
+     * The aggregate loaded during the benchmark.
+     */
+    public static class BenchmarkAggregate {
+
+        @AggregateIdentifier
+        private String identifier;
+        private long handledEventCount;
+
+        public BenchmarkAggregate() {
+        }
+
+        public long getHandledEventCount() {
+            return handledEventCount;
+        }
+
+        @EventSourcingHandler
+        protected void handle(EventMessage event) {
+            identifier = ((DomainEventMessage<?>) event).getAggregateIdentifier();
+            handledEventCount++;
+        }
+    }
+
+    /**
+     * The event replayed during the benchmark.
+     */
+    public static class SomethingHappenedEvent {
+
+        private final int index;
+
+        public SomethingHappenedEvent(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.common.jdbc.DataSourceConnectionProvider;
+import org.axonframework.common.jpa.SimpleEntityManagerProvider;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.DomainEventStream;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.eventstore.EventStore;
+import org.axonframework.eventstore.jdbc.DefaultEventEntryStore;
+import org.axonframework.eventstore.jdbc.JdbcEventStore;
+import org.axonframework.eventstore.jpa.JpaEventStore;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+/**
+ * Measures appending and reading events with the JDBC and JPA Event Store implementations, backed by an in-memory
+ * HSQLDB database. Each append stores {@value #APPEND_BATCH_SIZE} events for a new aggregate. Each read reads all
+ * {@value #READ_EVENT_COUNT} events of an aggregate that was stored during setup.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventStoreBenchmark {
+
+    private static final int APPEND_BATCH_SIZE = 10;
+    private static final int READ_EVENT_COUNT = 100;
+    private static final String READ_AGGREGATE_IDENTIFIER = "read-aggregate";
+
+    @Param({"jdbc", "jpa"})
+    public String eventStoreType;
+
+    private EventStore eventStore;
+    private Connection connection;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() throws SQLException {
+        switch (eventStoreType) {
+            case "jdbc":
+                JDBCDataSource dataSource = new JDBCDataSource();
+                dataSource.setUrl("jdbc:hsqldb:mem:benchmark-jdbc");
+                // keeps the in-memory database alive for the duration of the benchmark
+                connection = dataSource.getConnection();
+                DefaultEventEntryStore<byte[]> eventEntryStore =
+                        new DefaultEventEntryStore<>(new DataSourceConnectionProvider(dataSource));
+                eventEntryStore.createSchema();
+                eventStore = new JdbcEventStore(eventEntryStore);
+                break;
+            case "jpa":
+                entityManagerFactory = Persistence.createEntityManagerFactory("benchmarkEventStore");
+                entityManager = entityManagerFactory.createEntityManager();
+                eventStore = new JpaEventStore(new SimpleEntityManagerProvider(entityManager));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown event store type: " + eventStoreType);
+        }
+        append(createEvents(READ_AGGREGATE_IDENTIFIER, READ_EVENT_COUNT));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+        }
+        if (entityManager != null) {
+            entityManager.close();
+            entityManagerFactory.close();
+        }
+    }
+
+    @Benchmark
+    public void appendEvents() {
+        append(createEvents(UUID.randomUUID().toString(), APPEND_BATCH_SIZE));
+    }
+
+    @Benchmark
+    public int readEvents() {
+        DomainEventStream eventStream = eventStore.readEvents(READ_AGGREGATE_IDENTIFIER);
+        int count = 0;
+        while (eventStream.hasNext()) {
+            eventStream.next().getPayload();
+            count++;
+        }
+        if (entityManager != null) {
+            entityManager.clear();
+        }
+        return count;
+    }
+
+    private void append(List<DomainEventMessage<?>> events) {
+        if (entityManager == null) {
+            eventStore.appendEvents(events);
+        } else {
+            entityManager.getTransaction().begin();
+            eventStore.appendEvents(events);
+            entityManager.getTransaction().commit();
+            entityManager.clear();
+        }
+    }
+
+    private static List<DomainEventMessage<?>> createEvents(String aggregateIdentifier, int count) {
+        List<DomainEventMessage<?>> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new GenericDomainEventMessage<>(aggregateIdentifier, i, "event payload " + i));
+        }
+        return events;
+    }
+}
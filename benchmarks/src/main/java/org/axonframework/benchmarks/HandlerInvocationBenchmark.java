@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.commandhandling.model.inspection.DirectInvocationHandlerDefinition;
+import org.axonframework.commandhandling.model.inspection.MethodEventHandlerDefinition;
+import org.axonframework.common.annotation.ClasspathParameterResolverFactory;
+import org.axonframework.common.annotation.HandlerDefinition;
+import org.axonframework.common.annotation.MessageHandler;
+import org.axonframework.common.annotation.ParameterResolverFactory;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.annotation.EventHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the invocation of event handlers through reflection, by handlers of the {@link
+ * MethodEventHandlerDefinition}, with invocation through the invokers created by the {@link
+ * DirectInvocationHandlerDefinition}.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HandlerInvocationBenchmark {
+
+    @Param({"reflective", "direct"})
+    public String invocationType;
+
+    private MessageHandler<BenchmarkAggregate> handler;
+    private EventMessage<BenchmarkEvent> event;
+    private BenchmarkAggregate target;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        HandlerDefinition definition;
+        switch (invocationType) {
+            case "reflective":
+                definition = new MethodEventHandlerDefinition();
+                break;
+            case "direct":
+                definition = new DirectInvocationHandlerDefinition();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown invocation type: " + invocationType);
+        }
+        ParameterResolverFactory parameterResolverFactory =
+                ClasspathParameterResolverFactory.forClass(BenchmarkAggregate.class);
+        Method method = BenchmarkAggregate.class.getDeclaredMethod("on", BenchmarkEvent.class);
+        handler = definition.createHandler(BenchmarkAggregate.class, method, parameterResolverFactory)
+                            .orElseThrow(() -> new IllegalStateException("Method is not a handler"));
+        event = new GenericEventMessage<>(new BenchmarkEvent());
+        target = new BenchmarkAggregate();
+    }
+
+    @Benchmark
+    public Object invokeHandler() throws Exception {
+        return handler.handle(event, target);
+    }
+
+    /**
+     * The target of the handler invocations.
+     */
+    public static class BenchmarkAggregate {
+
+        private long counter;
+
+        @EventHandler
+        private void on(BenchmarkEvent event) {
+            counter++;
+        }
+    }
+
+    /**
+     * The event handled during the benchmark.
+     */
+    public static class BenchmarkEvent {
+    }
+}
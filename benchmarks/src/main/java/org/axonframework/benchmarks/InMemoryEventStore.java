@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.DomainEventStream;
+import org.axonframework.eventsourcing.SimpleDomainEventStream;
+import org.axonframework.eventstore.EventStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Event Store that keeps all events in memory, so that benchmarks using it measure the component under test rather
+ * than the storage engine.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+class InMemoryEventStore implements EventStore {
+
+    private final ConcurrentMap<String, List<DomainEventMessage<?>>> storedEvents = new ConcurrentHashMap<>();
+
+    @Override
+    public void appendEvents(List<DomainEventMessage<?>> events) {
+        for (DomainEventMessage<?> event : events) {
+            storedEvents.computeIfAbsent(event.getAggregateIdentifier(),
+                                         id -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(event);
+        }
+    }
+
+    @Override
+    public DomainEventStream readEvents(String identifier, long firstSequenceNumber, long lastSequenceNumber) {
+        List<DomainEventMessage<?>> events = storedEvents.getOrDefault(identifier, Collections.emptyList());
+        List<DomainEventMessage<?>> result = new ArrayList<>(events.size());
+        synchronized (events) {
+            for (DomainEventMessage<?> event : events) {
+                if (event.getSequenceNumber() >= firstSequenceNumber
+                        && event.getSequenceNumber() <= lastSequenceNumber) {
+                    result.add(event);
+                }
+            }
+        }
+        return new SimpleDomainEventStream(result);
+    }
+
+    /**
+     * Removes all events from this Event Store.
+     */
+    public void clear() {
+        storedEvents.clear();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.saga.AssociationValue;
+import org.axonframework.saga.SagaRepository;
+import org.axonframework.saga.annotation.AbstractAnnotatedSaga;
+import org.axonframework.saga.repository.AssociationIndexSagaRepository;
+import org.axonframework.saga.repository.jdbc.HsqlSagaSqlSchema;
+import org.axonframework.saga.repository.jdbc.JdbcSagaRepository;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up sagas by association value in a {@link JdbcSagaRepository} on an in-memory HSQLDB database,
+ * with and without an {@link AssociationIndexSagaRepository} in front of it. Lookups are done both for association
+ * values that belong to a saga and for values that don't, as the latter are what the association index speeds up.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SagaAssociationLookupBenchmark {
+
+    private static final String ASSOCIATION_KEY = "orderId";
+
+    @Param({"10000"})
+    public int sagaCount;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private Connection connection;
+    private SagaRepository sagaRepository;
+
+    @Setup
+    public void setUp() throws SQLException {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:benchmark-saga");
+        // keeps the in-memory database alive for the duration of the benchmark
+        connection = dataSource.getConnection();
+        JdbcSagaRepository jdbcSagaRepository = new JdbcSagaRepository(dataSource, new HsqlSagaSqlSchema());
+        jdbcSagaRepository.createSchema();
+        for (int i = 0; i < sagaCount; i++) {
+            BenchmarkSaga saga = new BenchmarkSaga("saga-" + i);
+            saga.associate(ASSOCIATION_KEY, Integer.toString(i));
+            jdbcSagaRepository.add(saga);
+        }
+        if (indexed) {
+            AssociationIndexSagaRepository indexedRepository = new AssociationIndexSagaRepository(jdbcSagaRepository);
+            indexedRepository.prewarm();
+            sagaRepository = indexedRepository;
+        } else {
+            sagaRepository = jdbcSagaRepository;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.createStatement().execute("SHUTDOWN");
+        connection.close();
+    }
+
+    @Benchmark
+    public Set<String> findExisting() {
+        String value = Integer.toString(ThreadLocalRandom.current().nextInt(sagaCount));
+        return sagaRepository.find(BenchmarkSaga.class, new AssociationValue(ASSOCIATION_KEY, value));
+    }
+
+    @Benchmark
+    public Set<String> findMissing() {
+        String value = Integer.toString(sagaCount + ThreadLocalRandom.current().nextInt(sagaCount));
+        return sagaRepository.find(BenchmarkSaga.class, new AssociationValue(ASSOCIATION_KEY, value));
+    }
+
+    /**
+     * The saga stored in the repository during the benchmark.
+     */
+    public static class BenchmarkSaga extends AbstractAnnotatedSaga {
+
+        private static final long serialVersionUID = -2738509471094843578L;
+
+        public BenchmarkSaga(String identifier) {
+            super(identifier);
+        }
+
+        public void associate(String key, String value) {
+            associateWith(key, value);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.serializer.JavaSerializer;
+import org.axonframework.serializer.SerializedObject;
+import org.axonframework.serializer.Serializer;
+import org.axonframework.serializer.json.JacksonSerializer;
+import org.axonframework.serializer.xml.XStreamSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization, deserialization and full round trips of a typical event payload with each of the
+ * Serializer implementations.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"xstream", "jackson", "java"})
+    public String serializerType;
+
+    private Serializer serializer;
+    private BenchmarkPayload payload;
+    private SerializedObject<byte[]> serializedPayload;
+
+    @Setup
+    public void setUp() {
+        switch (serializerType) {
+            case "xstream":
+                serializer = new XStreamSerializer();
+                break;
+            case "jackson":
+                serializer = new JacksonSerializer();
+                break;
+            case "java":
+                serializer = new JavaSerializer();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown serializer type: " + serializerType);
+        }
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lines.add("order line " + i);
+        }
+        payload = new BenchmarkPayload("order-1234", 1234567L, lines);
+        serializedPayload = serializer.serialize(payload, byte[].class);
+    }
+
+    @Benchmark
+    public SerializedObject<byte[]> serialize() {
+        return serializer.serialize(payload, byte[].class);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serializedPayload);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return serializer.deserialize(serializer.serialize(payload, byte[].class));
+    }
+
+    /**
+     * The payload serialized during the benchmark. It has a default constructor and setters so that it can be used
+     * with each of the serializers.
+     */
+    public static class BenchmarkPayload implements Serializable {
+
+        private static final long serialVersionUID = 3457912308573422356L;
+
+        private String orderId;
+        private long amount;
+        private List<String> lines;
+
+        public BenchmarkPayload() {
+        }
+
+        public BenchmarkPayload(String orderId, long amount, List<String> lines) {
+            this.orderId = orderId;
+            this.amount = amount;
+            this.lines = lines;
+        }
+
+        public String getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(String orderId) {
+            this.orderId = orderId;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+
+        public void setAmount(long amount) {
+            this.amount = amount;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<String> lines) {
+            this.lines = lines;
+        }
+    }
+}
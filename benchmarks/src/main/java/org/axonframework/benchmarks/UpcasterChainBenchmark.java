@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.benchmarks;
+
+import org.axonframework.serializer.ChainingConverterFactory;
+import org.axonframework.serializer.SerializedObject;
+import org.axonframework.serializer.SerializedType;
+import org.axonframework.serializer.SimpleSerializedObject;
+import org.axonframework.serializer.SimpleSerializedType;
+import org.axonframework.upcasting.AbstractSingleEntryUpcaster;
+import org.axonframework.upcasting.SimpleUpcasterChain;
+import org.axonframework.upcasting.Upcaster;
+import org.axonframework.upcasting.UpcasterChain;
+import org.axonframework.upcasting.UpcastingContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of running a serialized event through a chain of upcasters, each of which moves the event to
+ * the next revision. The first upcaster expects a String representation, forcing a content type conversion at the
+ * start of the chain.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class UpcasterChainBenchmark {
+
+    private static final String EVENT_TYPE = "org.axonframework.benchmarks.BenchmarkEvent";
+
+    @Param({"0", "1", "4", "16"})
+    public int chainLength;
+
+    private UpcasterChain upcasterChain;
+    private SerializedObject<byte[]> serializedEvent;
+
+    @Setup
+    public void setUp() {
+        List<Upcaster> upcasters = new ArrayList<>(chainLength);
+        for (int i = 0; i < chainLength; i++) {
+            upcasters.add(new RevisionUpcaster(i));
+        }
+        upcasterChain = new SimpleUpcasterChain(new ChainingConverterFactory(), upcasters);
+        serializedEvent = new SimpleSerializedObject<>("<event><value>42</value></event>"
+                                                               .getBytes(StandardCharsets.UTF_8),
+                                                       byte[].class, EVENT_TYPE, "0");
+    }
+
+    @Benchmark
+    public List<SerializedObject> upcast() {
+        return upcasterChain.upcast(serializedEvent, null);
+    }
+
+    private static class RevisionUpcaster extends AbstractSingleEntryUpcaster<String> {
+
+        private final String sourceRevision;
+        private final String targetRevision;
+
+        public RevisionUpcaster(int sourceRevision) {
+            this.sourceRevision = String.valueOf(sourceRevision);
+            this.targetRevision = String.valueOf(sourceRevision + 1);
+        }
+
+        @Override
+        public boolean canUpcast(SerializedType serializedType) {
+            return EVENT_TYPE.equals(serializedType.getName())
+                    && sourceRevision.equals(serializedType.getRevision());
+        }
+
+        @Override
+        public Class<String> expectedRepresentationType() {
+            return String.class;
+        }
+
+        @Override
+        protected String doUpcast(SerializedObject<String> intermediateRepresentation, UpcastingContext context) {
+            return intermediateRepresentation.getData();
+        }
+
+        @Override
+        protected SerializedType doUpcast(SerializedType serializedType) {
+            return new SimpleSerializedType(serializedType.getName(), targetRevision);
+        }
+    }
+}
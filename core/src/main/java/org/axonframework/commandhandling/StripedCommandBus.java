@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling;
+
+import org.axonframework.commandhandling.annotation.AnnotationCommandTargetResolver;
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Specialization of the SimpleCommandBus that processes Commands asynchronously from the calling thread, using a fixed
+ * number of single-threaded workers. Each Command is routed to a worker based on the hash of the identifier of the
+ * aggregate it targets, as resolved by a {@link CommandTargetResolver}. All commands for the same aggregate are
+ * therefore handled sequentially by the same thread, in the order in which they were dispatched. This removes the
+ * contention on aggregate locks, allowing repositories used by the command handlers to be configured with a {@link
+ * org.axonframework.common.lock.NullLockFactory}, as long as the aggregates are only modified through this Command
+ * Bus. Commands of which the target cannot be resolved are spread over the workers using their identifier.
+ * <p/>
+ * Each worker queues at most a configured number of commands. The {@link OverflowPolicy} determines what happens when
+ * a command is dispatched to a worker of which the queue is full. The number of commands waiting for each worker is
+ * available through {@link #getQueueDepth()} and {@link #getQueueDepth(int)}.
+ * <p/>
+ * Command handlers may dispatch commands on the same bus. The worker threads never wait for a queue to make room, as
+ * a worker waiting for its own queue, or two workers waiting for each other's queues, would never continue. With the
+ * {@link OverflowPolicy#BLOCK} policy, a command dispatched by a worker thread to a full queue is rejected instead.
+ * <p/>
+ * Note that you should call {@link #shutdown()} to stop the worker threads.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class StripedCommandBus extends SimpleCommandBus {
+
+    /**
+     * The default number of commands each worker can queue.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final ThreadGroup THREAD_GROUP = new ThreadGroup("StripedCommandBus");
+    private static final ThreadLocal<Boolean> WORKER_THREAD = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor[] workers;
+    private final CommandTargetResolver commandTargetResolver;
+
+    /**
+     * Initialize the StripedCommandBus with a worker per available processor, each queueing up to {@value
+     * #DEFAULT_QUEUE_CAPACITY} commands. Targets are resolved using an {@link AnnotationCommandTargetResolver}, and
+     * dispatching threads wait while the queue of the target worker is full.
+     */
+    public StripedCommandBus() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY,
+             new AnnotationCommandTargetResolver(), OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Initialize the StripedCommandBus with given <code>workerCount</code> workers, each queueing up to
+     * <code>queueCapacity</code> commands.
+     *
+     * @param workerCount           The number of single-threaded workers to handle commands with
+     * @param queueCapacity         The number of commands each worker can queue
+     * @param commandTargetResolver The resolver of the aggregate targeted by a command
+     * @param overflowPolicy        The policy to apply when a command is dispatched to a worker with a full queue
+     */
+    public StripedCommandBus(int workerCount, int queueCapacity, CommandTargetResolver commandTargetResolver,
+                             OverflowPolicy overflowPolicy) {
+        this(workerCount, queueCapacity, commandTargetResolver, overflowPolicy, new AxonThreadFactory(THREAD_GROUP));
+    }
+
+    /**
+     * Initialize the StripedCommandBus with given <code>workerCount</code> workers, each queueing up to
+     * <code>queueCapacity</code> commands. The threads of the workers are created using given
+     * <code>threadFactory</code>.
+     *
+     * @param workerCount           The number of single-threaded workers to handle commands with
+     * @param queueCapacity         The number of commands each worker can queue
+     * @param commandTargetResolver The resolver of the aggregate targeted by a command
+     * @param overflowPolicy        The policy to apply when a command is dispatched to a worker with a full queue
+     * @param threadFactory         The factory creating the threads of the workers
+     */
+    public StripedCommandBus(int workerCount, int queueCapacity, CommandTargetResolver commandTargetResolver,
+                             OverflowPolicy overflowPolicy, ThreadFactory threadFactory) {
+        Assert.isTrue(workerCount > 0, "workerCount must be at least 1");
+        Assert.isTrue(queueCapacity > 0, "queueCapacity must be at least 1");
+        Assert.notNull(commandTargetResolver, "commandTargetResolver may not be null");
+        Assert.notNull(overflowPolicy, "overflowPolicy may not be null");
+        Assert.notNull(threadFactory, "threadFactory may not be null");
+        this.commandTargetResolver = commandTargetResolver;
+        this.workers = new ThreadPoolExecutor[workerCount];
+        ThreadFactory workerThreadFactory = runnable -> threadFactory.newThread(() -> {
+            WORKER_THREAD.set(Boolean.TRUE);
+            runnable.run();
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                                                new ArrayBlockingQueue<>(queueCapacity), workerThreadFactory,
+                                                overflowPolicy.rejectedExecutionHandler());
+        }
+    }
+
+    @Override
+    protected <C, R> void doDispatch(CommandMessage<C> command, CommandCallback<? super C, R> callback) {
+        try {
+            workers[workerFor(command)].execute(() -> super.doDispatch(command, callback));
+        } catch (RejectedExecutionException e) {
+            callback.onFailure(command, e);
+        }
+    }
+
+    private int workerFor(CommandMessage<?> command) {
+        String identifier;
+        try {
+            identifier = commandTargetResolver.resolveTarget(command).getIdentifier();
+        } catch (IllegalArgumentException e) {
+            identifier = null;
+        }
+        if (identifier == null) {
+            identifier = command.getIdentifier();
+        }
+        return (identifier.hashCode() & Integer.MAX_VALUE) % workers.length;
+    }
+
+    /**
+     * Returns the number of workers handling commands.
+     *
+     * @return the number of workers
+     */
+    public int getWorkerCount() {
+        return workers.length;
+    }
+
+    /**
+     * Returns the total number of commands waiting to be handled by the workers. Commands that are being handled are
+     * not included.
+     *
+     * @return the number of queued commands
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor worker : workers) {
+            depth += worker.getQueue().size();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of commands waiting to be handled by the worker with given index.
+     *
+     * @param worker The index of the worker, between 0 (inclusive) and {@link #getWorkerCount()} (exclusive)
+     * @return the number of commands queued for the worker
+     */
+    public int getQueueDepth(int worker) {
+        return workers[worker].getQueue().size();
+    }
+
+    /**
+     * Shuts down the workers, after they have handled the commands that have been queued. This method waits up to 5
+     * seconds for the workers to finish.
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor worker : workers) {
+                worker.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            // we've been interrupted. Reset the interruption flag and continue
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Describes what happens when a command is dispatched to a worker of which the queue is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * The dispatching thread waits until the worker has room for the command. Commands dispatched by the worker
+         * threads themselves are rejected instead, as waiting could deadlock the workers. The callback of such a
+         * command is notified of a {@link RejectedExecutionException}.
+         */
+        BLOCK {
+            @Override
+            RejectedExecutionHandler rejectedExecutionHandler() {
+                return (task, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("The command bus has been shut down");
+                    }
+                    if (WORKER_THREAD.get() != null) {
+                        throw new RejectedExecutionException(format(
+                                "The queue of the worker is full (%s commands). Commands dispatched by a worker "
+                                        + "cannot wait for a queue to make room.", executor.getQueue().size()));
+                    }
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for the queue to make room",
+                                                             e);
+                    }
+                };
+            }
+        },
+
+        /**
+         * The command is rejected. The callback of the command is notified of a {@link RejectedExecutionException}.
+         */
+        REJECT {
+            @Override
+            RejectedExecutionHandler rejectedExecutionHandler() {
+                return (task, executor) -> {
+                    throw new RejectedExecutionException(
+                            format("The queue of the worker is full (%s commands)", executor.getQueue().size()));
+                };
+            }
+        },
+
+        /**
+         * The command is handled by the dispatching thread. Note that commands for the same aggregate may then be
+         * handled concurrently and out of order, so the repositories used by the command handlers must lock their
+         * aggregates when this policy is used.
+         */
+        CALLER_RUNS {
+            @Override
+            RejectedExecutionHandler rejectedExecutionHandler() {
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+            }
+        };
+
+        abstract RejectedExecutionHandler rejectedExecutionHandler();
+    }
+}
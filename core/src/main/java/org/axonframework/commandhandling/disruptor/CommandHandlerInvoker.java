@@ -30,6 +30,7 @@
 import org.axonframework.common.io.IOUtils;
 import org.axonframework.eventhandling.EventBus;
 import org.axonframework.eventsourcing.AggregateFactory;
+import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.eventsourcing.DomainEventStream;
 import org.axonframework.eventsourcing.EventStreamDecorator;
 import org.axonframework.eventstore.EventStore;
@@ -38,8 +39,8 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -54,27 +55,47 @@ public class CommandHandlerInvoker implements EventHandler<CommandHandlingEntry>
 
     private static final Logger logger = LoggerFactory.getLogger(CommandHandlerInvoker.class);
     private static final ThreadLocal<CommandHandlerInvoker> CURRENT_INVOKER = new ThreadLocal<>();
-    private static final Object PLACEHOLDER_VALUE = new Object();
 
     private final Map<Class<?>, DisruptorRepository> repositories = new ConcurrentHashMap<>();
     private final Cache cache;
     private final int segmentId;
     private final EventStore eventStore;
     private final EventBus eventBus;
+    private final int firstLevelCacheSize;
 
     /**
      * Create an aggregate invoker instance that uses the given <code>eventStore</code> and <code>cache</code> to
-     * retrieve aggregate instances.
+     * retrieve aggregate instances. The first level cache of each repository holds at most {@value
+     * DisruptorConfiguration#DEFAULT_FIRST_LEVEL_CACHE_SIZE} aggregates.
      *
      * @param eventStore The event store providing access to events to reconstruct aggregates
+     * @param eventBus   The event bus to publish events on
      * @param cache      The cache temporarily storing aggregate instances
      * @param segmentId  The id of the segment this invoker should handle
      */
     public CommandHandlerInvoker(EventStore eventStore, EventBus eventBus, Cache cache, int segmentId) {
+        this(eventStore, eventBus, cache, segmentId, DisruptorConfiguration.DEFAULT_FIRST_LEVEL_CACHE_SIZE);
+    }
+
+    /**
+     * Create an aggregate invoker instance that uses the given <code>eventStore</code> and <code>cache</code> to
+     * retrieve aggregate instances. The first level cache of each repository, which is only accessed by this invoker's
+     * thread, holds at most <code>firstLevelCacheSize</code> aggregates.
+     *
+     * @param eventStore          The event store providing access to events to reconstruct aggregates
+     * @param eventBus            The event bus to publish events on
+     * @param cache               The cache temporarily storing aggregate instances
+     * @param segmentId           The id of the segment this invoker should handle
+     * @param firstLevelCacheSize The maximum number of aggregates in the first level cache of each repository
+     */
+    public CommandHandlerInvoker(EventStore eventStore, EventBus eventBus, Cache cache, int segmentId,
+                                 int firstLevelCacheSize) {
+        Assert.isTrue(firstLevelCacheSize > 0, "firstLevelCacheSize must be at least 1");
         this.eventStore = eventStore;
         this.cache = cache;
         this.segmentId = segmentId;
         this.eventBus = eventBus;
+        this.firstLevelCacheSize = firstLevelCacheSize;
     }
 
     /**
@@ -126,7 +147,41 @@ public <T> Repository<T> createRepository(AggregateFactory<T> aggregateFactory,
                                               EventStreamDecorator decorator) {
         return repositories.computeIfAbsent(aggregateFactory.getAggregateType(),
                                             k -> new DisruptorRepository<>(aggregateFactory, cache,
-                                                                           eventStore, eventBus, decorator));
+                                                                           eventStore, eventBus, decorator,
+                                                                           firstLevelCacheSize));
+    }
+
+    /**
+     * Returns the number of times the repositories of this invoker found an aggregate in their first level cache.
+     * <p/>
+     * The counters are updated by the invoker thread without synchronization. Other threads may therefore read a
+     * slightly outdated value, which is acceptable for monitoring purposes.
+     *
+     * @return the number of first level cache hits
+     */
+    public long getFirstLevelCacheHitCount() {
+        long hitCount = 0;
+        for (DisruptorRepository repository : repositories.values()) {
+            hitCount += repository.getFirstLevelCacheHitCount();
+        }
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of times the repositories of this invoker did not find an aggregate in their first level
+     * cache.
+     * <p/>
+     * The counters are updated by the invoker thread without synchronization. Other threads may therefore read a
+     * slightly outdated value, which is acceptable for monitoring purposes.
+     *
+     * @return the number of first level cache misses
+     */
+    public long getFirstLevelCacheMissCount() {
+        long missCount = 0;
+        for (DisruptorRepository repository : repositories.values()) {
+            missCount += repository.getFirstLevelCacheMissCount();
+        }
+        return missCount;
     }
 
     private void removeEntry(String aggregateIdentifier) {
@@ -148,24 +203,31 @@ public void onShutdown() {
 
     /**
      * Repository implementation that is safe to use by a single CommandHandlerInvoker instance.
+     * <p/>
+     * The aggregates of this repository don't store their events right away. Instead, the events are registered with
+     * the CommandHandlingEntry of the command, to be stored by the {@link EventPublisher} when the command is
+     * committed.
      *
      * @param <T> The type of aggregate stored in this repository
      */
     static final class DisruptorRepository<T> implements Repository<T> {
 
         private final EventStore eventStore;
+        private final EventStore entryEventStore;
         private final EventBus eventBus;
         private final EventStreamDecorator decorator;
         private final AggregateFactory<T> aggregateFactory;
-        private final Map<EventSourcedAggregate<T>, Object> firstLevelCache = new WeakHashMap<>();
+        private final FirstLevelCache<EventSourcedAggregate<T>> firstLevelCache;
         private final Cache cache;
         private final AggregateModel<T> model;
 
         private DisruptorRepository(AggregateFactory<T> aggregateFactory, Cache cache, EventStore eventStore,
-                                    EventBus eventBus, EventStreamDecorator decorator) {
+                                    EventBus eventBus, EventStreamDecorator decorator, int firstLevelCacheSize) {
+            this.firstLevelCache = new FirstLevelCache<>(firstLevelCacheSize);
             this.aggregateFactory = aggregateFactory;
             this.cache = cache;
             this.eventStore = eventStore;
+            this.entryEventStore = new EntryEventStore(eventStore);
             this.eventBus = eventBus;
             this.decorator = decorator;
             this.model = ModelInspector.inspectAggregate(aggregateFactory.getAggregateType());
@@ -186,15 +248,12 @@ public Aggregate<T> load(String aggregateIdentifier, Long expectedVersion) {
         @SuppressWarnings("unchecked")
         @Override
         public Aggregate<T> load(String aggregateIdentifier) {
-            ((CommandHandlingEntry)CurrentUnitOfWork.get()).registerAggregateIdentifier(aggregateIdentifier);
-            EventSourcedAggregate<T> aggregateRoot = null;
-            for (EventSourcedAggregate<T> cachedAggregate : firstLevelCache.keySet()) {
-                if (aggregateIdentifier.equals(cachedAggregate.identifier())) {
-                    logger.debug("Aggregate {} found in first level cache", aggregateIdentifier);
-                    aggregateRoot = cachedAggregate;
-                }
-            }
-            if (aggregateRoot == null) {
+            CommandHandlingEntry entry = (CommandHandlingEntry) CurrentUnitOfWork.get();
+            entry.registerAggregateIdentifier(aggregateIdentifier);
+            EventSourcedAggregate<T> aggregateRoot = firstLevelCache.get(aggregateIdentifier);
+            if (aggregateRoot != null) {
+                logger.debug("Aggregate {} found in first level cache", aggregateIdentifier);
+            } else {
                 Object cachedItem = cache.get(aggregateIdentifier);
                 if (cachedItem != null && EventSourcedAggregate.class.isInstance(cachedItem)) {
                     EventSourcedAggregate<T> cachedAggregate = (EventSourcedAggregate<T>) cachedItem;
@@ -205,6 +264,9 @@ public Aggregate<T> load(String aggregateIdentifier) {
                             return null;
                         }
                     });
+                    if (aggregateRoot != null) {
+                        firstLevelCache.put(aggregateIdentifier, aggregateRoot);
+                    }
                 }
             }
             if (aggregateRoot == null) {
@@ -216,7 +278,7 @@ public Aggregate<T> load(String aggregateIdentifier) {
                                                        eventStore.readEvents(aggregateIdentifier));
                     if (events.hasNext()) {
                         aggregateRoot = EventSourcedAggregate.initialize(aggregateFactory.createAggregate(
-                                aggregateIdentifier, events.peek()), model, eventBus, eventStore);
+                                aggregateIdentifier, events.peek()), model, eventBus, entryEventStore);
                         aggregateRoot.initializeState(events);
                     }
                 } catch (EventStreamNotFoundException e) {
@@ -231,30 +293,70 @@ public Aggregate<T> load(String aggregateIdentifier) {
                 } finally {
                     IOUtils.closeQuietlyIfCloseable(events);
                 }
-                firstLevelCache.put(aggregateRoot, PLACEHOLDER_VALUE);
+                firstLevelCache.put(aggregateIdentifier, aggregateRoot);
                 cache.put(aggregateIdentifier, aggregateRoot);
             }
+            entry.registerAggregate(aggregateRoot);
             return aggregateRoot;
         }
 
         @Override
         public Aggregate<T> newInstance(Callable<T> factoryMethod) throws Exception {
             EventSourcedAggregate<T> aggregate = EventSourcedAggregate.initialize(factoryMethod, model,
-                                                                                  eventBus, eventStore);
-            firstLevelCache.put(aggregate, PLACEHOLDER_VALUE);
+                                                                                  eventBus, entryEventStore);
+            ((CommandHandlingEntry) CurrentUnitOfWork.get()).registerAggregate(aggregate);
+            firstLevelCache.put(aggregate.identifier(), aggregate);
             cache.put(aggregate.identifier(), aggregate);
             return aggregate;
         }
 
+        /**
+         * Returns the number of times an aggregate was found in the first level cache of this repository.
+         *
+         * @return the number of first level cache hits
+         */
+        long getFirstLevelCacheHitCount() {
+            return firstLevelCache.getHitCount();
+        }
+
+        /**
+         * Returns the number of times an aggregate was not found in the first level cache of this repository.
+         *
+         * @return the number of first level cache misses
+         */
+        long getFirstLevelCacheMissCount() {
+            return firstLevelCache.getMissCount();
+        }
+
         private void removeFromCache(String aggregateIdentifier) {
-            for (EventSourcedAggregate<T> cachedAggregate : firstLevelCache.keySet()) {
-                if (aggregateIdentifier.equals(cachedAggregate.identifier())) {
-                    firstLevelCache.remove(cachedAggregate);
-                    logger.debug("Aggregate {} removed from first level cache for recovery purposes.",
-                                 aggregateIdentifier);
-                    return;
-                }
+            if (firstLevelCache.remove(aggregateIdentifier)) {
+                logger.debug("Aggregate {} removed from first level cache for recovery purposes.",
+                             aggregateIdentifier);
             }
         }
     }
+
+    /**
+     * EventStore used by the aggregates of a DisruptorRepository. Appended events are registered with the
+     * CommandHandlingEntry of the command being handled, instead of being stored. Reads are delegated to the actual
+     * EventStore.
+     */
+    private static final class EntryEventStore implements EventStore {
+
+        private final EventStore delegate;
+
+        private EntryEventStore(EventStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void appendEvents(List<DomainEventMessage<?>> events) {
+            ((CommandHandlingEntry) CurrentUnitOfWork.get()).publishMessages(events);
+        }
+
+        @Override
+        public DomainEventStream readEvents(String identifier, long firstSequenceNumber, long lastSequenceNumber) {
+            return delegate.readEvents(identifier, firstSequenceNumber, lastSequenceNumber);
+        }
+    }
 }
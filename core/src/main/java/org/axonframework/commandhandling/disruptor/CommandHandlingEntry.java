@@ -48,6 +48,8 @@ public class CommandHandlingEntry extends DisruptorUnitOfWork<CommandMessage<?>>
     private String aggregateIdentifier;
     private int invokerSegmentId;
     private List<DomainEventMessage<?>> messagesToPublish = new ArrayList<>();
+    // keeps the aggregate in the weakly referencing first level cache until its events have been stored
+    private Object aggregate;
 
     /**
      * Initializes the CommandHandlingEntry
@@ -106,14 +108,34 @@ public void setResult(Object result) {
         this.result = result;
     }
 
+    /**
+     * Returns the events generated by the command's execution, which are to be stored when the command is committed.
+     *
+     * @return the events to store for this entry
+     */
     public List<DomainEventMessage<?>> getMessagesToPublish() {
         return messagesToPublish;
     }
 
+    /**
+     * Registers the given <code>messagesToPublish</code> as events to store when the command is committed.
+     *
+     * @param messagesToPublish The events generated by the command's execution
+     */
     public void publishMessages(List<DomainEventMessage<?>> messagesToPublish) {
         this.messagesToPublish.addAll(messagesToPublish);
     }
 
+    /**
+     * Registers the aggregate the command is executed on. The entry references the aggregate until it is reused, so
+     * that the aggregate isn't garbage collected before its events have been stored.
+     *
+     * @param aggregate The aggregate the command is executed on
+     */
+    public void registerAggregate(Object aggregate) {
+        this.aggregate = aggregate;
+    }
+
     /**
      * Returns the result of the command's execution, or <code>null</code> if the command is not yet executed or
      * resulted in an exception.
@@ -192,6 +214,7 @@ public void reset(CommandMessage<?> newCommand, MessageHandler<? super CommandMe
         this.callback = newCallback;
         this.isRecoverEntry = false;
         this.messagesToPublish.clear();
+        this.aggregate = null;
         this.result = null;
         this.exceptionResult = null;
         this.aggregateIdentifier = null;
@@ -220,6 +243,7 @@ public void resetAsRecoverEntry(String newAggregateIdentifier) {
         invokerSegmentId = -1;
         this.aggregateIdentifier = newAggregateIdentifier;
         this.messagesToPublish.clear();
+        this.aggregate = null;
         reset(null);
     }
 
@@ -34,6 +34,7 @@
 import org.axonframework.messaging.MessageHandler;
 import org.axonframework.messaging.MessageHandlerInterceptor;
 import org.axonframework.messaging.interceptors.TransactionManager;
+import org.axonframework.serializer.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +59,10 @@
  * command handler callback with the result of the command handling result.</li>
  * </ol>
  * <p>
+ * When a {@link DisruptorConfiguration#setSerializer(org.axonframework.serializer.Serializer) serializer} is
+ * configured, an additional step pre-serializes the generated events between these two steps, using a configurable
+ * number of threads. This leaves only the I/O of storing the events to the publishing threads.
+ * <p>
  * <em>Exceptions and recovery</em>
  * <p>
  * This separation of process steps makes this implementation very efficient and highly performing. However, it does
@@ -169,19 +174,38 @@ public DisruptorCommandBus(EventStore eventStore, EventBus eventBus, DisruptorCo
         publisherCount = publishers.length;
         disruptor.handleExceptionsWith(new ExceptionHandler());
 
-        disruptor.handleEventsWith(commandHandlerInvokers)
-                .then(publishers);
+        Serializer serializer = configuration.getSerializer();
+        if (serializer == null) {
+            disruptor.handleEventsWith(commandHandlerInvokers)
+                    .then(publishers);
+        } else {
+            // pre-serialize the events between invocation and publication
+            disruptor.handleEventsWith(commandHandlerInvokers)
+                    .then(initializeSerializerThreads(serializer, configuration))
+                    .then(publishers);
+        }
 
         coolingDownPeriod = configuration.getCoolingDownPeriod();
         disruptor.start();
     }
 
+    private SerializerHandler[] initializeSerializerThreads(Serializer serializer,
+                                                            DisruptorConfiguration configuration) {
+        SerializerHandler[] serializerHandlers = new SerializerHandler[configuration.getSerializerThreadCount()];
+        for (int t = 0; t < serializerHandlers.length; t++) {
+            serializerHandlers[t] = new SerializerHandler(serializer, t, serializerHandlers.length,
+                                                          configuration.getSerializedRepresentation());
+        }
+        return serializerHandlers;
+    }
+
     private EventPublisher[] initializePublisherThreads(EventStore eventStore, DisruptorConfiguration configuration,
                                                         Executor executor, TransactionManager transactionManager) {
         EventPublisher[] publishers = new EventPublisher[configuration.getPublisherThreadCount()];
         for (int t = 0; t < publishers.length; t++) {
             publishers[t] = new EventPublisher(eventStore, executor, transactionManager,
-                                               configuration.getRollbackConfiguration(), t);
+                                               configuration.getRollbackConfiguration(), t,
+                                               configuration.getGroupCommitSize());
         }
         return publishers;
     }
@@ -191,7 +215,8 @@ private CommandHandlerInvoker[] initializeInvokerThreads(EventStore eventStore,
         CommandHandlerInvoker[] invokers;
         invokers = new CommandHandlerInvoker[configuration.getInvokerThreadCount()];
         for (int t = 0; t < invokers.length; t++) {
-            invokers[t] = new CommandHandlerInvoker(eventStore, eventBus, configuration.getCache(), t);
+            invokers[t] = new CommandHandlerInvoker(eventStore, eventBus, configuration.getCache(), t,
+                                                    configuration.getFirstLevelCacheSize());
         }
         return invokers;
     }
@@ -299,6 +324,34 @@ public Registration subscribe(String commandName, MessageHandler<? super Command
         return () -> commandHandlers.remove(commandName, handler);
     }
 
+    /**
+     * Returns the number of times an aggregate was found in the first level cache of any of the invoker threads.
+     *
+     * @return the number of first level cache hits
+     * @see CommandHandlerInvoker#getFirstLevelCacheHitCount()
+     */
+    public long getFirstLevelCacheHitCount() {
+        long hitCount = 0;
+        for (CommandHandlerInvoker invoker : commandHandlerInvokers) {
+            hitCount += invoker.getFirstLevelCacheHitCount();
+        }
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of times an aggregate was not found in the first level cache of any of the invoker threads.
+     *
+     * @return the number of first level cache misses
+     * @see CommandHandlerInvoker#getFirstLevelCacheMissCount()
+     */
+    public long getFirstLevelCacheMissCount() {
+        long missCount = 0;
+        for (CommandHandlerInvoker invoker : commandHandlerInvokers) {
+            missCount += invoker.getFirstLevelCacheMissCount();
+        }
+        return missCount;
+    }
+
     /**
      * Shuts down the command bus. It no longer accepts new commands, and finishes processing commands that have
      * already been published. This method will not shut down any executor that has been provided as part of the
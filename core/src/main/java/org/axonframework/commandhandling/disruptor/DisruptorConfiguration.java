@@ -51,6 +51,11 @@ public class DisruptorConfiguration {
      */
     public static final int DEFAULT_BUFFER_SIZE = 4096;
 
+    /**
+     * The default maximum number of aggregates in the first level cache of each invoker thread.
+     */
+    public static final int DEFAULT_FIRST_LEVEL_CACHE_SIZE = 10000;
+
     private int bufferSize;
     private ProducerType producerType;
     private WaitStrategy waitStrategy;
@@ -66,6 +71,10 @@ public class DisruptorConfiguration {
     private CommandTargetResolver commandTargetResolver;
     private int invokerThreadCount = 1;
     private int publisherThreadCount = 1;
+    private int groupCommitSize = 1;
+    private int serializerThreadCount = 1;
+    private Class<?> serializedRepresentation = byte[].class;
+    private int firstLevelCacheSize = DEFAULT_FIRST_LEVEL_CACHE_SIZE;
     private Serializer serializer;
 
     /**
@@ -376,6 +385,31 @@ public DisruptorConfiguration setInvokerThreadCount(int count) {
         return this;
     }
 
+    /**
+     * Returns the maximum number of aggregates kept in the first level cache of each invoker thread.
+     *
+     * @return the maximum number of aggregates in the first level cache of each invoker thread
+     */
+    public int getFirstLevelCacheSize() {
+        return firstLevelCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of aggregates kept in the first level cache of each invoker thread. This cache is owned
+     * by the invoker thread and looks up aggregates by their identifier. When full, the least recently used aggregate
+     * is evicted. Aggregates are weakly referenced, so the cache doesn't prevent them from being garbage collected.
+     * <p/>
+     * Defaults to {@value #DEFAULT_FIRST_LEVEL_CACHE_SIZE}.
+     *
+     * @param size The maximum number of aggregates in the first level cache of each invoker thread
+     * @return <code>this</code> for method chaining
+     */
+    public DisruptorConfiguration setFirstLevelCacheSize(int size) {
+        Assert.isTrue(size > 0, "FirstLevelCacheSize must be at least 1");
+        this.firstLevelCacheSize = size;
+        return this;
+    }
+
     /**
      * Returns the number of threads to use for storing and publication of generated Events.
      *
@@ -400,6 +434,41 @@ public DisruptorConfiguration setPublisherThreadCount(int count) {
         return this;
     }
 
+    /**
+     * Returns the maximum number of commands of which the events are stored in a single transaction by each publisher
+     * thread.
+     *
+     * @return the maximum number of commands of which the events are stored in a single transaction
+     */
+    public int getGroupCommitSize() {
+        return groupCommitSize;
+    }
+
+    /**
+     * Sets the maximum number of commands of which the events are stored in a single transaction by each publisher
+     * thread. Defaults to 1, which stores the events of each command in a transaction of its own.
+     * <p/>
+     * When set to a larger value, each publisher thread appends the events of consecutive commands it receives in a
+     * batch from the ring buffer to the Event Store in a single call, and commits them in a single transaction. The
+     * group is committed at the end of the batch, or as soon as it contains the given number of commands. If storing
+     * the events of a group, one of the handlers invoked while committing the commands, or the transaction fails, the
+     * transaction is rolled back and the commands of the group are committed separately. Only the command that fails
+     * on its own is then rejected, and its aggregate blacklisted. Note that the handlers of the prepare commit and
+     * commit phases of the other commands may therefore be invoked twice, once of which in a transaction that was
+     * rolled back.
+     * <p/>
+     * Group commit requires a {@link #setTransactionManager(TransactionManager) transaction manager}, as the events of
+     * a failed group can otherwise not be rolled back. Creating the DisruptorCommandBus fails if none is configured.
+     *
+     * @param groupCommitSize The maximum number of commands to commit in a single transaction
+     * @return <code>this</code> for method chaining
+     */
+    public DisruptorConfiguration setGroupCommitSize(int groupCommitSize) { //NOSONAR (setter may hide field)
+        Assert.isTrue(groupCommitSize > 0, "GroupCommitSize must be at least 1");
+        this.groupCommitSize = groupCommitSize;
+        return this;
+    }
+
     /**
      * Returns the serializer to perform pre-serialization with, or <code>null</code> if no pre-serialization should be
      * done.
@@ -412,8 +481,12 @@ public Serializer getSerializer() {
     }
 
     /**
-     * Returns the serializer to perform pre-serialization with, or <code>null</code> if no pre-serialization should be
+     * Sets the serializer to perform pre-serialization with, or <code>null</code> if no pre-serialization should be
      * done. Defaults to <code>null</code>.
+     * <p/>
+     * When a serializer is configured, the events generated by a command are serialized by a pool of serializer
+     * threads, before they are handed to the publisher threads. The serialized forms are attached to the events, so
+     * that an Event Store using the same serializer instance doesn't need to serialize them again.
      *
      * @param newSerializer the serializer to perform pre-serialization with, or <code>null</code> if no
      *                      pre-serialization
@@ -425,6 +498,54 @@ public DisruptorConfiguration setSerializer(Serializer newSerializer) {
         return this;
     }
 
+    /**
+     * Returns the configured number of threads that should perform the pre-serialization step. This value is ignored
+     * unless a serializer is set using {@link #setSerializer(org.axonframework.serializer.Serializer)}.
+     *
+     * @return the number of threads to perform pre-serialization with
+     */
+    public int getSerializerThreadCount() {
+        return serializerThreadCount;
+    }
+
+    /**
+     * Sets the number of threads that should perform the pre-serialization step. This value is ignored
+     * unless a serializer is set using {@link #setSerializer(org.axonframework.serializer.Serializer)}. Defaults to 1.
+     *
+     * @param newSerializerThreadCount the number of threads to perform pre-serialization with
+     * @return <code>this</code> for method chaining
+     */
+    public DisruptorConfiguration setSerializerThreadCount(int newSerializerThreadCount) {
+        Assert.isTrue(newSerializerThreadCount > 0, "SerializerThreadCount must be at least 1");
+        this.serializerThreadCount = newSerializerThreadCount;
+        return this;
+    }
+
+    /**
+     * Returns the data type to which the events are pre-serialized.
+     *
+     * @return the data type to which the events are pre-serialized
+     */
+    public Class<?> getSerializedRepresentation() {
+        return serializedRepresentation;
+    }
+
+    /**
+     * Sets the data type to which the events are pre-serialized. This should match the data type used by the Event
+     * Store, as other representations need to be converted when the events are stored. This value is ignored unless a
+     * serializer is set using {@link #setSerializer(org.axonframework.serializer.Serializer)}.
+     * <p/>
+     * Defaults to a byte array (<code>byte[]</code>).
+     *
+     * @param newSerializedRepresentation the data type to which the events are pre-serialized
+     * @return <code>this</code> for method chaining
+     */
+    public DisruptorConfiguration setSerializedRepresentation(Class<?> newSerializedRepresentation) {
+        Assert.notNull(newSerializedRepresentation, "newSerializedRepresentation may not be null");
+        this.serializedRepresentation = newSerializedRepresentation;
+        return this;
+    }
+
     /**
      * Returns the transaction manager to use to manage a transaction around the storage and publication of events.
      *
@@ -16,6 +16,7 @@
 
 package org.axonframework.commandhandling.disruptor;
 
+import org.axonframework.common.Assert;
 import org.axonframework.messaging.Message;
 import org.axonframework.messaging.unitofwork.*;
 
@@ -34,10 +35,11 @@
 public class DisruptorUnitOfWork<T extends Message<?>> extends AbstractUnitOfWork<T> {
 
     private MessageProcessingContext<T> processingContext;
+    private MessageProcessingContext.HandlerSnapshot<T> preparedHandlers;
 
     /**
      * Resets the state of this Unit of Work, by setting its phase to {@link Phase#NOT_STARTED}, replacing the message
-     * of this Unit of Work with given <code>message</code>, and clearing its collection of registered handlers.
+     * of this Unit of Work with given <code>message</code>, and clearing its registered handlers and resources.
      *
      * @param message the new Message that is about to be processed.
      */
@@ -47,7 +49,8 @@ public void reset(T message) {
         } else {
             processingContext.reset(message);
         }
-        setPhase(Phase.NOT_STARTED);
+        preparedHandlers = null;
+        reset();
     }
 
     /**
@@ -66,6 +69,61 @@ public void resume() {
         CurrentUnitOfWork.set(this);
     }
 
+    /**
+     * Moves this Unit of Work through the {@link Phase#PREPARE_COMMIT PREPARE_COMMIT} and {@link Phase#COMMIT COMMIT}
+     * phases, without completing the commit. This allows the changes of several Units of Work to be committed in a
+     * single transaction, after which each of them is completed using {@link #completeCommit()}. If the transaction
+     * fails, the Unit of Work can still be {@link #rollback(Throwable) rolled back}, or be {@link
+     * #revertPrepareCommit() reverted} to be committed again.
+     * <p/>
+     * The Unit of Work must be started and bound to the current thread. It remains bound to the current thread when
+     * this method returns.
+     */
+    void prepareCommit() {
+        Assert.state(phase() == Phase.STARTED,
+                     () -> String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
+        Assert.state(isCurrent(), "The UnitOfWork is not the current Unit of Work");
+        preparedHandlers = processingContext.snapshotHandlers();
+        changePhase(Phase.PREPARE_COMMIT, Phase.COMMIT);
+    }
+
+    /**
+     * Reverts a Unit of Work of which the commit has been {@link #prepareCommit() prepared} (or failed while being
+     * prepared) to the {@link Phase#STARTED STARTED} phase, registering its handlers again as they were before the
+     * commit was prepared. No rollback handlers are invoked. This allows the Unit of Work to be committed again after
+     * the transaction it was prepared in has been rolled back.
+     * <p/>
+     * Note that the handlers of the prepare commit and commit phases are invoked again when the Unit of Work is
+     * committed again.
+     */
+    void revertPrepareCommit() {
+        Assert.state(preparedHandlers != null && (phase() == Phase.PREPARE_COMMIT || phase() == Phase.COMMIT),
+                     () -> String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
+        processingContext.restoreHandlers(preparedHandlers);
+        preparedHandlers = null;
+        setPhase(Phase.STARTED);
+    }
+
+    /**
+     * Completes the commit of a Unit of Work that has been {@link #prepareCommit() prepared}, by moving it through the
+     * {@link Phase#AFTER_COMMIT AFTER_COMMIT} and {@link Phase#CLEANUP CLEANUP} phases. The Unit of Work is
+     * unregistered from the current thread afterwards.
+     */
+    void completeCommit() {
+        Assert.state(phase() == Phase.COMMIT,
+                     () -> String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
+        Assert.state(isCurrent(), "The UnitOfWork is not the current Unit of Work");
+        try {
+            changePhase(Phase.AFTER_COMMIT);
+        } finally {
+            try {
+                changePhase(Phase.CLEANUP, Phase.CLOSED);
+            } finally {
+                CurrentUnitOfWork.clear(this);
+            }
+        }
+    }
+
     @Override
     public Optional<UnitOfWork<?>> parent() {
         return Optional.empty();
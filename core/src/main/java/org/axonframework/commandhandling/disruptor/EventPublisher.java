@@ -19,6 +19,8 @@
 import com.lmax.disruptor.EventHandler;
 import org.axonframework.commandhandling.CommandCallback;
 import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.common.Assert;
+import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.eventstore.EventStore;
 import org.axonframework.messaging.interceptors.Transaction;
 import org.axonframework.messaging.interceptors.TransactionManager;
@@ -26,7 +28,9 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
@@ -34,6 +38,14 @@
 
 /**
  * Component of the DisruptorCommandBus that stores and publishes events generated by the command's execution.
+ * <p/>
+ * By default, the events of each command are stored in a transaction of their own. When a group commit size larger
+ * than 1 is configured, the publisher collects the commands it receives in a batch from the ring buffer, and stores
+ * their events in a single call to the EventStore, in a single transaction. The group is committed at the end of the
+ * batch, or when the group commit size has been reached. If storing the events of the group, committing one of the
+ * commands or committing the transaction fails, the transaction is rolled back and the commands of the group are
+ * committed one by one, so that the failure only affects the command that caused it. Group commit requires a
+ * TransactionManager.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -48,6 +60,8 @@ public class EventPublisher implements EventHandler<CommandHandlingEntry> {
     private final int segmentId;
     private final Set<Object> blackListedAggregates = new HashSet<>();
     private final TransactionManager transactionManager;
+    private final int groupCommitSize;
+    private final List<CommandHandlingEntry> pendingEntries = new ArrayList<>();
 
     /**
      * Initializes the EventPublisher to publish Events to the given <code>eventStore</code> and <code>eventBus</code>
@@ -62,28 +76,164 @@ public class EventPublisher implements EventHandler<CommandHandlingEntry> {
      */
     public EventPublisher(EventStore eventStore, Executor executor, TransactionManager transactionManager,
                           RollbackConfiguration rollbackConfiguration, int segmentId) {
+        this(eventStore, executor, transactionManager, rollbackConfiguration, segmentId, 1);
+    }
+
+    /**
+     * Initializes the EventPublisher to publish Events to the given <code>eventStore</code> and <code>eventBus</code>
+     * for aggregate of given <code>aggregateType</code>, committing the events of up to <code>groupCommitSize</code>
+     * commands in a single transaction.
+     *
+     * @param eventStore            The EventStore persisting the generated events
+     * @param executor              The executor which schedules response reporting
+     * @param transactionManager    The transaction manager that manages the transaction around event storage and
+     *                              publication
+     * @param rollbackConfiguration The configuration that indicates which exceptions should result in a UnitOfWork
+     * @param segmentId             The ID of the segment this publisher should handle
+     * @param groupCommitSize       The maximum number of commands to commit in a single transaction. A value of 1
+     *                              commits each command in a transaction of its own. Larger values require a
+     *                              <code>transactionManager</code>.
+     */
+    public EventPublisher(EventStore eventStore, Executor executor, TransactionManager transactionManager,
+                          RollbackConfiguration rollbackConfiguration, int segmentId, int groupCommitSize) {
+        Assert.isTrue(groupCommitSize > 0, "groupCommitSize must be at least 1");
+        Assert.isTrue(groupCommitSize == 1 || transactionManager != null,
+                      "A TransactionManager is required when groupCommitSize is larger than 1");
         this.eventStore = eventStore;
         this.executor = executor;
         this.transactionManager = transactionManager;
         this.rollbackConfiguration = rollbackConfiguration;
         this.segmentId = segmentId;
+        this.groupCommitSize = groupCommitSize;
     }
 
     @SuppressWarnings({"unchecked", "ThrowableResultOfMethodCallIgnored"})
     @Override
     public void onEvent(CommandHandlingEntry entry, long sequence, boolean endOfBatch) throws Exception {
         if (entry.isRecoverEntry()) {
+            // commands that preceded the recovery request must see the aggregate as blacklisted
+            commitPendingEntries();
             recoverAggregate(entry);
         } else if (entry.getPublisherId() == segmentId) {
             entry.resume();
-            entry.onPrepareCommit(u -> eventStore.appendEvents(entry.getMessagesToPublish()));
             String aggregateIdentifier = entry.getAggregateIdentifier();
             if (aggregateIdentifier != null && blackListedAggregates.contains(aggregateIdentifier)) {
                 rejectExecution(entry, aggregateIdentifier);
+            } else if (groupCommitSize > 1) {
+                preparePublication(entry, aggregateIdentifier);
             } else {
+                entry.onPrepareCommit(u -> appendEvents(entry.getMessagesToPublish()));
                 processPublication(entry, entry, aggregateIdentifier);
             }
         }
+        if (endOfBatch || pendingEntries.size() >= groupCommitSize) {
+            commitPendingEntries();
+        }
+    }
+
+    private void preparePublication(CommandHandlingEntry entry, String aggregateIdentifier) {
+        invokeInterceptorChain(entry);
+        Throwable exceptionResult = entry.getExceptionResult();
+        if (exceptionResult != null && rollbackConfiguration.rollBackOn(exceptionResult)) {
+            exceptionResult = performRollback(entry, aggregateIdentifier, exceptionResult);
+            reportResult(entry, exceptionResult);
+        } else {
+            entry.pause();
+            pendingEntries.add(entry);
+        }
+    }
+
+    private void commitPendingEntries() {
+        if (pendingEntries.isEmpty()) {
+            return;
+        }
+        try {
+            if (pendingEntries.size() == 1 || !groupCommit(pendingEntries)) {
+                pendingEntries.forEach(this::commitSeparately);
+            }
+        } finally {
+            pendingEntries.clear();
+        }
+    }
+
+    private void commitSeparately(CommandHandlingEntry entry) {
+        entry.resume();
+        String aggregateIdentifier = entry.getAggregateIdentifier();
+        if (aggregateIdentifier != null && blackListedAggregates.contains(aggregateIdentifier)) {
+            // a preceding command of the group failed and blacklisted the aggregate
+            rejectExecution(entry, aggregateIdentifier);
+        } else {
+            entry.onPrepareCommit(u -> appendEvents(entry.getMessagesToPublish()));
+            reportResult(entry, performCommit(entry, entry.getExceptionResult(), aggregateIdentifier));
+        }
+    }
+
+    /**
+     * Stores the events of given <code>entries</code> in a single transaction. Returns <code>false</code> if the
+     * transaction failed and was rolled back, in which case the entries are to be committed separately.
+     */
+    private boolean groupCommit(List<CommandHandlingEntry> entries) {
+        Transaction transaction = transactionManager.startTransaction();
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        for (CommandHandlingEntry entry : entries) {
+            events.addAll(entry.getMessagesToPublish());
+        }
+        int prepared = 0;
+        CommandHandlingEntry current = null;
+        try {
+            appendEvents(events);
+            for (CommandHandlingEntry entry : entries) {
+                current = entry;
+                entry.resume();
+                prepared++;
+                entry.prepareCommit();
+                entry.pause();
+                current = null;
+            }
+            transaction.commit();
+        } catch (Exception e) {
+            logger.warn("Failed to commit the events of {} commands in a single transaction. "
+                                + "Committing the commands separately.", entries.size(), e);
+            if (current != null) {
+                current.pause();
+            }
+            rollbackQuietly(transaction);
+            // none of the entries has been committed, so each of them can be retried on its own
+            for (int i = 0; i < prepared; i++) {
+                entries.get(i).revertPrepareCommit();
+            }
+            return false;
+        }
+        for (CommandHandlingEntry entry : entries) {
+            entry.resume();
+            Throwable exceptionResult = entry.getExceptionResult();
+            try {
+                entry.completeCommit();
+            } catch (Exception e) {
+                exceptionResult = blacklistOnFailure(entry, e);
+            }
+            reportResult(entry, exceptionResult);
+        }
+        return true;
+    }
+
+    private void appendEvents(List<DomainEventMessage<?>> events) {
+        if (!events.isEmpty()) {
+            eventStore.appendEvents(events);
+        }
+    }
+
+    private void rollbackQuietly(Transaction transaction) {
+        try {
+            transaction.rollback();
+        } catch (Exception e) {
+            logger.warn("Failed to roll back the transaction of a group commit", e);
+        }
+    }
+
+    private Throwable blacklistOnFailure(CommandHandlingEntry entry, Throwable cause) {
+        String aggregateIdentifier = entry.getAggregateIdentifier();
+        return aggregateIdentifier == null ? cause : notifyBlacklisted(entry, aggregateIdentifier, cause);
     }
 
     private void recoverAggregate(CommandHandlingEntry entry) {
@@ -114,6 +264,11 @@ private void processPublication(CommandHandlingEntry entry, DisruptorUnitOfWork
         } else {
             exceptionResult = performCommit(unitOfWork, exceptionResult, aggregateIdentifier);
         }
+        reportResult(entry, exceptionResult);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reportResult(CommandHandlingEntry entry, Throwable exceptionResult) {
         if (exceptionResult != null || entry.getCallback().hasDelegate()) {
             executor.execute(new ReportResultTask(entry.getMessage(), entry.getCallback(),
                                                   entry.getResult(), exceptionResult));
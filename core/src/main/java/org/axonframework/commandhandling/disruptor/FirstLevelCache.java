@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2010-2015. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.disruptor;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of aggregates, keyed by their identifier, that is owned by a single {@link CommandHandlerInvoker}
+ * thread. Since it is only accessed by that thread, the cache does not use any synchronization.
+ * <p/>
+ * Aggregates are weakly referenced, which means they are removed once the garbage collector finds no other references
+ * to them. When the number of entries exceeds the maximum size, the least recently used entry is evicted. The number
+ * of hits and misses is counted in plain fields, which are only updated by the owning thread.
+ *
+ * @param <T> The type of object stored in the cache
+ * @author Allard Buijze
+ * @since 3.0
+ */
+class FirstLevelCache<T> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final ReferenceQueue<T> referenceQueue = new ReferenceQueue<>();
+    private final Map<String, Entry<T>> entries;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Initializes an empty cache that holds at most <code>maxSize</code> entries.
+     *
+     * @param maxSize The maximum number of entries in the cache
+     */
+    FirstLevelCache(final int maxSize) {
+        this.entries = new LinkedHashMap<String, Entry<T>>(16, LOAD_FACTOR, true) {
+            private static final long serialVersionUID = 8325849117427066052L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the object cached under the given <code>identifier</code>, or <code>null</code> if no such object is
+     * available.
+     *
+     * @param identifier The identifier of the cached object
+     * @return the cached object, or <code>null</code> if it is not available
+     */
+    T get(String identifier) {
+        purgeItems();
+        Entry<T> entry = entries.get(identifier);
+        T value = entry == null ? null : entry.get();
+        if (value == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return value;
+    }
+
+    /**
+     * Stores the given <code>value</code> under the given <code>identifier</code>, replacing any existing entry.
+     *
+     * @param identifier The identifier to store the object under
+     * @param value      The object to cache
+     */
+    void put(String identifier, T value) {
+        purgeItems();
+        entries.put(identifier, new Entry<>(identifier, value, referenceQueue));
+    }
+
+    /**
+     * Removes the entry with given <code>identifier</code> from the cache.
+     *
+     * @param identifier The identifier of the object to remove
+     * @return <code>true</code> if an entry was removed, otherwise <code>false</code>
+     */
+    boolean remove(String identifier) {
+        return entries.remove(identifier) != null;
+    }
+
+    /**
+     * Returns the number of entries currently in the cache, including entries of which the value has been garbage
+     * collected, but have not been purged yet.
+     *
+     * @return the number of entries in the cache
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of times {@link #get(String)} returned a cached object.
+     *
+     * @return the number of cache hits
+     */
+    long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of times {@link #get(String)} did not find a cached object.
+     *
+     * @return the number of cache misses
+     */
+    long getMissCount() {
+        return missCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void purgeItems() {
+        Entry<T> purgedEntry;
+        while ((purgedEntry = (Entry<T>) referenceQueue.poll()) != null) {
+            // the entry may have been replaced by a new one in the meantime. Unlike get, this doesn't count as an
+            // access, so it leaves the order of the entries intact
+            entries.remove(purgedEntry.identifier, purgedEntry);
+        }
+    }
+
+    private static final class Entry<T> extends WeakReference<T> {
+
+        private final String identifier;
+
+        private Entry(String identifier, T value, ReferenceQueue<T> referenceQueue) {
+            super(value, referenceQueue);
+            this.identifier = identifier;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.disruptor;
+
+import com.lmax.disruptor.EventHandler;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.serializer.SerializationAware;
+import org.axonframework.serializer.SerializationAwareDomainEventMessage;
+import org.axonframework.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Component of the DisruptorCommandBus that pre-serializes the events generated by the command's execution, before
+ * they are stored by the {@link EventPublisher}. Each event is wrapped in a {@link SerializationAware} message, which
+ * caches its serialized payload and meta data. Event Stores that use the same Serializer instance reuse these
+ * serialized forms, relieving the publisher threads from serialization work.
+ * <p/>
+ * Multiple SerializerHandlers may process the ring buffer in parallel. Each of them only serializes the entries of
+ * which the sequence matches its segment.
+ * <p/>
+ * Serialization failures are not reported by this handler. The events are left as they are, causing the Event Store
+ * to serialize them (and fail) while storing them, in which case the failure is handled as any other storage failure.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class SerializerHandler implements EventHandler<CommandHandlingEntry> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerializerHandler.class);
+
+    private final Serializer serializer;
+    private final int serializerId;
+    private final int serializerCount;
+    private final Class<?> serializedRepresentation;
+
+    /**
+     * Initialize the handler using given <code>serializer</code> and processing the segment of entries with given
+     * <code>serializerId</code>.
+     *
+     * @param serializer               The serializer to pre-serialize with
+     * @param serializerId             The segment of this handler, between 0 (inclusive) and <code>serializerCount</code>
+     *                                 (exclusive)
+     * @param serializerCount          The total number of SerializerHandlers processing the ring buffer
+     * @param serializedRepresentation The data type of serialized object to create, which should match the data type
+     *                                 used by the Event Store
+     */
+    public SerializerHandler(Serializer serializer, int serializerId, int serializerCount,
+                             Class<?> serializedRepresentation) {
+        this.serializer = serializer;
+        this.serializerId = serializerId;
+        this.serializerCount = serializerCount;
+        this.serializedRepresentation = serializedRepresentation;
+    }
+
+    @Override
+    public void onEvent(CommandHandlingEntry entry, long sequence, boolean endOfBatch) throws Exception {
+        if (entry.isRecoverEntry() || sequence % serializerCount != serializerId) {
+            return;
+        }
+        List<DomainEventMessage<?>> messages = entry.getMessagesToPublish();
+        for (int i = 0; i < messages.size(); i++) {
+            DomainEventMessage<?> message = SerializationAwareDomainEventMessage.wrap(messages.get(i));
+            try {
+                ((SerializationAware) message).serializePayload(serializer, serializedRepresentation);
+                ((SerializationAware) message).serializeMetaData(serializer, serializedRepresentation);
+            } catch (Exception e) {
+                logger.warn("Failed to pre-serialize event [{}]. It will be serialized when it is stored.",
+                            message.getIdentifier(), e);
+                continue;
+            }
+            messages.set(i, message);
+        }
+    }
+}
@@ -22,6 +22,7 @@
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
+import java.util.function.Function;
 
 public abstract class AbstractMessageHandler<T> implements MessageHandler<T>, AnnotatedElement {
 
@@ -29,9 +30,25 @@
     private final int parameterCount;
     private final ParameterResolver<?>[] parameterResolvers;
     private final Executable executable;
+    private final ExecutableInvoker invoker;
 
     public AbstractMessageHandler(Executable executable, Class<?> explicitPayloadType,
                                   ParameterResolverFactory parameterResolverFactory) {
+        this(executable, explicitPayloadType, parameterResolverFactory, ReflectiveExecutableInvoker::new);
+    }
+
+    /**
+     * Initializes the handler for the given <code>executable</code>, using the given <code>invokerFactory</code> to
+     * create the invoker that invokes the executable when a message is handled.
+     *
+     * @param executable               The method or constructor to invoke when handling a message
+     * @param explicitPayloadType      The payload type explicitly declared for the handler
+     * @param parameterResolverFactory The factory providing the resolvers for the handler's parameters
+     * @param invokerFactory           The factory creating the invoker for the given executable
+     */
+    public AbstractMessageHandler(Executable executable, Class<?> explicitPayloadType,
+                                  ParameterResolverFactory parameterResolverFactory,
+                                  Function<Executable, ExecutableInvoker> invokerFactory) {
         this.executable = executable;
         ReflectionUtils.ensureAccessible(this.executable);
         Parameter[] parameters = executable.getParameters();
@@ -47,6 +64,7 @@ public AbstractMessageHandler(Executable executable, Class<?> explicitPayloadTyp
             }
         }
         this.payloadType = supportedPayloadType;
+        this.invoker = invokerFactory.apply(executable);
     }
 
     @Override
@@ -78,13 +96,7 @@ protected boolean parametersMatch(Message<?> message) {
     @Override
     public Object handle(Message<?> message, T target) throws Exception {
         try {
-            if (executable instanceof Method) {
-                return ((Method) executable).invoke(target, resolveParameterValues(message));
-            } else if (executable instanceof Constructor) {
-                return ((Constructor) executable).newInstance(resolveParameterValues(message));
-            } else {
-                throw new IllegalStateException("What kind of handler is this?");
-            }
+            return invoker.invoke(target, resolveParameterValues(message));
         } catch (IllegalAccessException | InvocationTargetException | InstantiationException e) {
             if (e.getCause() instanceof Exception) {
                 throw (Exception) e.getCause();
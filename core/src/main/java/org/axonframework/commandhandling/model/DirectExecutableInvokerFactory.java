@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.model;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.ReflectionUtils;
+import org.axonframework.common.annotation.MessageHandlerInvocationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static java.lang.String.format;
+
+/**
+ * Factory for ExecutableInvokers that invoke handlers directly, instead of through reflection.
+ * <p/>
+ * For instance methods with one or two parameters, the invoker is a class generated using the {@link
+ * LambdaMetafactory}, which calls the handler method in the same way regular code would. This allows the JIT compiler
+ * to treat the invocation as any other method call. Other handlers, as well as handlers for which such a class cannot
+ * be generated (for example because the declaring class cannot see the classes of this factory), are invoked using a
+ * {@link MethodHandle}, which still avoids the access checks and argument unwrapping of reflective invocation.
+ * <p/>
+ * Exceptions raised by the handler are thrown as-is by the returned invokers.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public final class DirectExecutableInvokerFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectExecutableInvokerFactory.class);
+
+    /**
+     * The access modes of a Lookup with full access to its lookup class (public, private, protected and package).
+     */
+    private static final int ALL_ACCESS_MODES = MethodHandles.Lookup.PUBLIC | MethodHandles.Lookup.PRIVATE
+            | MethodHandles.Lookup.PROTECTED | MethodHandles.Lookup.PACKAGE;
+
+    private DirectExecutableInvokerFactory() {
+    }
+
+    /**
+     * Creates an invoker that directly invokes the given <code>executable</code>.
+     *
+     * @param executable The method or constructor to create an invoker for
+     * @return an invoker that invokes the given executable without reflection
+     * @throws AxonConfigurationException if no invoker can be created for the executable
+     */
+    public static ExecutableInvoker createInvoker(Executable executable) {
+        MethodHandles.Lookup lookup = privateLookupIn(executable.getDeclaringClass());
+        if (executable instanceof Method && !Modifier.isStatic(executable.getModifiers())) {
+            Method method = (Method) executable;
+            MethodHandle methodHandle = unreflect(lookup, method);
+            if (lookup != null && method.getParameterCount() <= 2) {
+                try {
+                    return generateInvoker(lookup, methodHandle);
+                } catch (Throwable e) {
+                    logger.debug("Unable to generate an invoker for [{}]. Using a MethodHandle instead.",
+                                 method.toGenericString(), e);
+                }
+            }
+            return new MethodHandleInvoker(methodHandle.asSpreader(Object[].class, method.getParameterCount()));
+        } else if (executable instanceof Method) {
+            Method method = (Method) executable;
+            MethodHandle methodHandle = unreflect(lookup, method).asSpreader(Object[].class,
+                                                                             method.getParameterCount());
+            return new MethodHandleInvoker(MethodHandles.dropArguments(methodHandle, 0, Object.class));
+        } else if (executable instanceof Constructor) {
+            Constructor<?> constructor = (Constructor<?>) executable;
+            MethodHandle methodHandle = unreflectConstructor(lookup, constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount());
+            return new MethodHandleInvoker(MethodHandles.dropArguments(methodHandle, 0, Object.class));
+        }
+        throw new IllegalStateException("What kind of handler is this?");
+    }
+
+    private static ExecutableInvoker generateInvoker(MethodHandles.Lookup lookup, MethodHandle methodHandle)
+            throws Throwable {
+        MethodType handleType = methodHandle.type();
+        boolean returnsVoid = void.class.equals(handleType.returnType());
+        MethodType instantiatedType = handleType.wrap();
+        if (returnsVoid) {
+            instantiatedType = instantiatedType.changeReturnType(void.class);
+        }
+        // the first parameter of the handle is the target instance
+        switch (handleType.parameterCount() - 1) {
+            case 0:
+                if (returnsVoid) {
+                    VoidInvoker0 invoker = generate(lookup, methodHandle, instantiatedType, VoidInvoker0.class);
+                    return (target, parameterValues) -> {
+                        invoker.invoke(target);
+                        return null;
+                    };
+                }
+                Invoker0 invoker0 = generate(lookup, methodHandle, instantiatedType, Invoker0.class);
+                return (target, parameterValues) -> invoker0.invoke(target);
+            case 1:
+                if (returnsVoid) {
+                    VoidInvoker1 invoker = generate(lookup, methodHandle, instantiatedType, VoidInvoker1.class);
+                    return (target, parameterValues) -> {
+                        invoker.invoke(target, parameterValues[0]);
+                        return null;
+                    };
+                }
+                Invoker1 invoker1 = generate(lookup, methodHandle, instantiatedType, Invoker1.class);
+                return (target, parameterValues) -> invoker1.invoke(target, parameterValues[0]);
+            case 2:
+                if (returnsVoid) {
+                    VoidInvoker2 invoker = generate(lookup, methodHandle, instantiatedType, VoidInvoker2.class);
+                    return (target, parameterValues) -> {
+                        invoker.invoke(target, parameterValues[0], parameterValues[1]);
+                        return null;
+                    };
+                }
+                Invoker2 invoker2 = generate(lookup, methodHandle, instantiatedType, Invoker2.class);
+                return (target, parameterValues) -> invoker2.invoke(target, parameterValues[0], parameterValues[1]);
+            default:
+                throw new IllegalArgumentException("Unsupported number of parameters");
+        }
+    }
+
+    private static <I> I generate(MethodHandles.Lookup lookup, MethodHandle methodHandle,
+                                  MethodType instantiatedType, Class<I> invokerType) throws Throwable {
+        Method samMethod = invokerType.getMethods()[0];
+        MethodType samType = MethodType.methodType(samMethod.getReturnType(), samMethod.getParameterTypes());
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, samMethod.getName(),
+                                                          MethodType.methodType(invokerType), samType,
+                                                          methodHandle, instantiatedType);
+        return invokerType.cast(callSite.getTarget().invoke());
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method) {
+        try {
+            if (lookup != null) {
+                return lookup.unreflect(method);
+            }
+            return MethodHandles.lookup().unreflect(ReflectionUtils.ensureAccessible(method));
+        } catch (IllegalAccessException e) {
+            throw new AxonConfigurationException(
+                    format("Unable to create a MethodHandle for [%s]", method.toGenericString()), e);
+        }
+    }
+
+    private static MethodHandle unreflectConstructor(MethodHandles.Lookup lookup, Constructor<?> constructor) {
+        try {
+            if (lookup != null) {
+                return lookup.unreflectConstructor(constructor);
+            }
+            return MethodHandles.lookup().unreflectConstructor(ReflectionUtils.ensureAccessible(constructor));
+        } catch (IllegalAccessException e) {
+            throw new AxonConfigurationException(
+                    format("Unable to create a MethodHandle for [%s]", constructor.toGenericString()), e);
+        }
+    }
+
+    /**
+     * Returns a Lookup with full access to the given <code>type</code>, which is required to generate classes that
+     * invoke its private members. Returns <code>null</code> if no such lookup can be created on this JVM.
+     */
+    private static MethodHandles.Lookup privateLookupIn(Class<?> type) {
+        try {
+            try {
+                // available as of Java 9
+                Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class,
+                                                                       MethodHandles.Lookup.class);
+                return (MethodHandles.Lookup) privateLookupIn.invoke(null, type, MethodHandles.lookup());
+            } catch (NoSuchMethodException e) {
+                Constructor<MethodHandles.Lookup> constructor =
+                        MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+                return ReflectionUtils.ensureAccessible(constructor).newInstance(type, ALL_ACCESS_MODES);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Unable to obtain a private Lookup for [{}]", type.getName(), e);
+            return null;
+        }
+    }
+
+    private static final class MethodHandleInvoker implements ExecutableInvoker {
+
+        private final MethodHandle methodHandle;
+
+        private MethodHandleInvoker(MethodHandle methodHandle) {
+            this.methodHandle = methodHandle.asType(
+                    MethodType.methodType(Object.class, Object.class, Object[].class));
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] parameterValues) throws Exception {
+            try {
+                return methodHandle.invokeExact(target, parameterValues);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new MessageHandlerInvocationException("Error invoking handler", e);
+            }
+        }
+    }
+
+    /**
+     * Invokes a handler without parameters that returns a value. Public, as generated invokers are defined in the
+     * context of the handler's declaring class.
+     */
+    @FunctionalInterface
+    public interface Invoker0 {
+
+        Object invoke(Object target);
+    }
+
+    /**
+     * Invokes a handler with a single parameter that returns a value.
+     */
+    @FunctionalInterface
+    public interface Invoker1 {
+
+        Object invoke(Object target, Object parameter1);
+    }
+
+    /**
+     * Invokes a handler with two parameters that returns a value.
+     */
+    @FunctionalInterface
+    public interface Invoker2 {
+
+        Object invoke(Object target, Object parameter1, Object parameter2);
+    }
+
+    /**
+     * Invokes a handler without parameters that doesn't return a value.
+     */
+    @FunctionalInterface
+    public interface VoidInvoker0 {
+
+        void invoke(Object target);
+    }
+
+    /**
+     * Invokes a handler with a single parameter that doesn't return a value.
+     */
+    @FunctionalInterface
+    public interface VoidInvoker1 {
+
+        void invoke(Object target, Object parameter1);
+    }
+
+    /**
+     * Invokes a handler with two parameters that doesn't return a value.
+     */
+    @FunctionalInterface
+    public interface VoidInvoker2 {
+
+        void invoke(Object target, Object parameter1, Object parameter2);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.model;
+
+/**
+ * Interface describing a mechanism that invokes a handler method or constructor with a given set of parameter values.
+ * An invoker is created once per handler when the handler's declaring type is inspected, so that the way in which the
+ * handler is invoked doesn't need to be determined for each message.
+ *
+ * @author Allard Buijze
+ * @see ReflectiveExecutableInvoker
+ * @see DirectExecutableInvokerFactory
+ * @since 3.0
+ */
+public interface ExecutableInvoker {
+
+    /**
+     * Invokes the handler on the given <code>target</code> using the given <code>parameterValues</code>. If the
+     * handler is a constructor, the target is ignored and the newly created instance is returned.
+     *
+     * @param target          The instance to invoke the handler on
+     * @param parameterValues The values of the handler's parameters
+     * @return the value returned by the handler, or the created instance in case of a constructor
+     * @throws Exception any exception raised while invoking the handler
+     */
+    Object invoke(Object target, Object[] parameterValues) throws Exception;
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.model;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+
+/**
+ * ExecutableInvoker implementation that invokes handler methods and constructors using reflection. Exceptions raised
+ * by the handler are wrapped in an {@link java.lang.reflect.InvocationTargetException}.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class ReflectiveExecutableInvoker implements ExecutableInvoker {
+
+    private final Executable executable;
+
+    /**
+     * Initializes an invoker for the given <code>executable</code>, which must be accessible.
+     *
+     * @param executable The method or constructor to invoke
+     */
+    public ReflectiveExecutableInvoker(Executable executable) {
+        this.executable = executable;
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] parameterValues) throws Exception {
+        if (executable instanceof Method) {
+            return ((Method) executable).invoke(target, parameterValues);
+        } else if (executable instanceof Constructor) {
+            return ((Constructor) executable).newInstance(parameterValues);
+        } else {
+            throw new IllegalStateException("What kind of handler is this?");
+        }
+    }
+}
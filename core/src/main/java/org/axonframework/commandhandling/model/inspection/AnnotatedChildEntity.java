@@ -59,6 +59,11 @@ public void publish(EventMessage<?> msg, P declaringInstance) {
         }
     }
 
+    @Override
+    public boolean hasEventHandlerFor(Class<?> payloadType) {
+        return forwardEvents && entityModel.hasEventHandlerFor(payloadType);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public Map<String, CommandMessageHandler<? super P>> commandHandlers() {
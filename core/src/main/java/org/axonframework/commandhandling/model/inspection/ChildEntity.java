@@ -24,6 +24,11 @@
 
     void publish(EventMessage<?> msg, T declaringInstance);
 
+    default boolean hasEventHandlerFor(Class<?> payloadType) {
+        // without more knowledge of the entity, events must always be forwarded
+        return true;
+    }
+
     Map<String, CommandMessageHandler<? super T>> commandHandlers();
 
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.model.inspection;
+
+import org.axonframework.commandhandling.model.DirectExecutableInvokerFactory;
+import org.axonframework.common.Priority;
+import org.axonframework.common.annotation.HandlerDefinition;
+import org.axonframework.common.annotation.MessageHandler;
+import org.axonframework.common.annotation.ParameterResolverFactory;
+
+import java.lang.reflect.Executable;
+import java.util.Optional;
+
+/**
+ * HandlerDefinition that creates the same command and event handlers as the {@link MethodCommandHandlerDefinition}
+ * and {@link MethodEventHandlerDefinition}, but invokes them directly instead of through reflection. See {@link
+ * DirectExecutableInvokerFactory} for details on how handlers are invoked.
+ * <p/>
+ * This definition is not enabled by default. To use it, register it by adding a file called
+ * <code>META-INF/services/org.axonframework.common.annotation.HandlerDefinition</code> to the classpath, containing
+ * the fully qualified name of this class. As it has a higher priority than the default definitions, it will take
+ * precedence over them.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+@Priority(Priority.HIGH)
+public class DirectInvocationHandlerDefinition implements HandlerDefinition {
+
+    private final HandlerDefinition commandHandlerDefinition =
+            new MethodCommandHandlerDefinition(DirectExecutableInvokerFactory::createInvoker);
+    private final HandlerDefinition eventHandlerDefinition =
+            new MethodEventHandlerDefinition(DirectExecutableInvokerFactory::createInvoker);
+
+    @Override
+    public <T> Optional<MessageHandler<T>> createHandler(Class<T> declaringType, Executable executable,
+                                                         ParameterResolverFactory parameterResolverFactory) {
+        Optional<MessageHandler<T>> handler = commandHandlerDefinition.createHandler(declaringType, executable,
+                                                                                     parameterResolverFactory);
+        if (handler.isPresent()) {
+            return handler;
+        }
+        return eventHandlerDefinition.createHandler(declaringType, executable, parameterResolverFactory);
+    }
+}
@@ -31,6 +31,11 @@
 
     void publish(EventMessage<?> message, T target);
 
+    default boolean hasEventHandlerFor(Class<?> payloadType) {
+        // without more knowledge of the entity, events must always be published to it
+        return true;
+    }
+
     Map<String, CommandMessageHandler<? super T>> commandHandlers();
 
     default CommandMessageHandler<? super T> commandHandler(String commandName) {
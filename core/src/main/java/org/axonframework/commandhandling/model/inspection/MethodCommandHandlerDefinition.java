@@ -19,6 +19,8 @@
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.annotation.CommandHandler;
 import org.axonframework.commandhandling.model.AbstractMessageHandler;
+import org.axonframework.commandhandling.model.ExecutableInvoker;
+import org.axonframework.commandhandling.model.ReflectiveExecutableInvoker;
 import org.axonframework.common.annotation.HandlerDefinition;
 import org.axonframework.common.annotation.MessageHandler;
 import org.axonframework.common.annotation.ParameterResolverFactory;
@@ -28,11 +30,31 @@
 import java.lang.reflect.Executable;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.axonframework.common.annotation.AnnotationUtils.findAnnotationAttributes;
 
 public class MethodCommandHandlerDefinition implements HandlerDefinition {
 
+    private final Function<Executable, ExecutableInvoker> invokerFactory;
+
+    /**
+     * Initializes a definition that creates handlers which are invoked using reflection.
+     */
+    public MethodCommandHandlerDefinition() {
+        this(ReflectiveExecutableInvoker::new);
+    }
+
+    /**
+     * Initializes a definition that creates handlers which are invoked using invokers created by the given
+     * <code>invokerFactory</code>.
+     *
+     * @param invokerFactory The factory creating the invoker for each handler method or constructor
+     */
+    public MethodCommandHandlerDefinition(Function<Executable, ExecutableInvoker> invokerFactory) {
+        this.invokerFactory = invokerFactory;
+    }
+
     @Override
     public <T> Optional<MessageHandler<T>> createHandler(Class<T> declaringType, Executable executable, ParameterResolverFactory parameterResolverFactory) {
         Map<String, Object> annotation = findAnnotationAttributes(executable, CommandHandler.class).orElse(null);
@@ -53,7 +75,7 @@ public MethodCommandMessageHandler(Executable executable, Map<String, Object> an
                                            ParameterResolverFactory parameterResolverFactory) {
             super(executable,
                   (Class<?>) annotationAttributes.getOrDefault("payloadType", Object.class),
-                  parameterResolverFactory);
+                  parameterResolverFactory, invokerFactory);
             this.routingKey = "".equals(annotationAttributes.get("routingKey")) ? null : (String) annotationAttributes.get("routingKey");
             if ("".equals(annotationAttributes.get("commandName"))) {
                 commandName = executable.getParameters()[0].getType().getName();
@@ -17,6 +17,8 @@
 package org.axonframework.commandhandling.model.inspection;
 
 import org.axonframework.commandhandling.model.AbstractMessageHandler;
+import org.axonframework.commandhandling.model.ExecutableInvoker;
+import org.axonframework.commandhandling.model.ReflectiveExecutableInvoker;
 import org.axonframework.common.annotation.AnnotationUtils;
 import org.axonframework.common.annotation.HandlerDefinition;
 import org.axonframework.common.annotation.MessageHandler;
@@ -28,9 +30,29 @@
 import java.lang.reflect.Executable;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 public class MethodEventHandlerDefinition implements HandlerDefinition {
 
+    private final Function<Executable, ExecutableInvoker> invokerFactory;
+
+    /**
+     * Initializes a definition that creates handlers which are invoked using reflection.
+     */
+    public MethodEventHandlerDefinition() {
+        this(ReflectiveExecutableInvoker::new);
+    }
+
+    /**
+     * Initializes a definition that creates handlers which are invoked using invokers created by the given
+     * <code>invokerFactory</code>.
+     *
+     * @param invokerFactory The factory creating the invoker for each handler method or constructor
+     */
+    public MethodEventHandlerDefinition(Function<Executable, ExecutableInvoker> invokerFactory) {
+        this.invokerFactory = invokerFactory;
+    }
+
     @Override
     public <T> Optional<MessageHandler<T>> createHandler(Class<T> declaringType, Executable executable, ParameterResolverFactory parameterResolverFactory) {
         Map<String, Object> annotation = AnnotationUtils.findAnnotationAttributes(executable, EventHandler.class).orElse(null);
@@ -47,7 +69,7 @@ public <T> Optional<MessageHandler<T>> createHandler(Class<T> declaringType, Exe
 
         public MethodMessageHandler(Executable executable, Class<?> expectedPayloadType,
                                     ParameterResolverFactory parameterResolverFactory) {
-            super(executable, expectedPayloadType, parameterResolverFactory);
+            super(executable, expectedPayloadType, parameterResolverFactory, invokerFactory);
             this.expectedPayloadType = expectedPayloadType;
         }
 
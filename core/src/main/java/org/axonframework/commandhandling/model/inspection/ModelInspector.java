@@ -26,6 +26,7 @@
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 
@@ -37,6 +38,8 @@
     private final AnnotatedHandlerInspector<T> handlerInspector;
     private final Map<String, CommandMessageHandler<? super T>> commandHandlers;
     private final List<MessageHandler<? super T>> eventHandlers;
+    private final Map<Class<?>, List<MessageHandler<? super T>>> eventHandlersByPayloadType;
+    private final Map<Class<?>, Boolean> childEventHandlersByPayloadType;
 
     private Field identifierField;
     private Field versionField;
@@ -48,6 +51,8 @@ private ModelInspector(Class<? extends T> inspectedType,
         this.registry = registry;
         this.commandHandlers = new HashMap<>();
         this.eventHandlers = new ArrayList<>();
+        this.eventHandlersByPayloadType = new ConcurrentHashMap<>();
+        this.childEventHandlersByPayloadType = new ConcurrentHashMap<>();
         this.children = new ArrayList<>();
         this.handlerInspector = handlerInspector;
     }
@@ -161,7 +166,35 @@ private void doPublish(EventMessage<?> message, T target) {
                         format("Error handling event of type [%s] in aggregate", message.getPayloadType()), e);
             }
         });
-        children.forEach(i -> i.publish(message, target));
+        if (childrenHaveEventHandlerFor(message.getPayloadType())) {
+            children.forEach(i -> i.publish(message, target));
+        }
+    }
+
+    @Override
+    public boolean hasEventHandlerFor(Class<?> payloadType) {
+        return !eventHandlersFor(payloadType).isEmpty() || childrenHaveEventHandlerFor(payloadType);
+    }
+
+    /**
+     * Indicates whether any of the child entities of this model, or their children, declares an event handler for
+     * messages with given <code>payloadType</code>. Events without such handler are not forwarded to the child
+     * entities. Note that this is decided based on the declared type of the entities. The result is computed once per
+     * payload type and cached.
+     *
+     * @param payloadType The type of payload of the event message
+     * @return <code>true</code> if the event must be forwarded to the child entities, otherwise <code>false</code>
+     */
+    private boolean childrenHaveEventHandlerFor(Class<?> payloadType) {
+        if (children.isEmpty()) {
+            return false;
+        }
+        Boolean forward = childEventHandlersByPayloadType.get(payloadType);
+        if (forward == null) {
+            forward = childEventHandlersByPayloadType.computeIfAbsent(
+                    payloadType, type -> children.stream().anyMatch(child -> child.hasEventHandlerFor(type)));
+        }
+        return forward;
     }
 
     @Override
@@ -174,7 +207,7 @@ public Long getVersion(T target) {
 
     @SuppressWarnings("unchecked")
     protected Optional<MessageHandler<? super T>> getHandler(Message<?> message) {
-        for (MessageHandler<? super T> handler : eventHandlers) {
+        for (MessageHandler<? super T> handler : eventHandlersFor(message.getPayloadType())) {
             if (handler.canHandle(message)) {
                 return Optional.of(handler);
             }
@@ -182,6 +215,33 @@ protected Optional<MessageHandler<? super T>> getHandler(Message<?> message) {
         return Optional.empty();
     }
 
+    /**
+     * Returns the event handlers that may handle messages with given <code>payloadType</code>, in the order in which
+     * they should be evaluated. Handlers that declare a payload type the given type cannot be assigned to are left
+     * out, so that only the remaining candidates need to be checked using {@link MessageHandler#canHandle(Message)}.
+     * The result is computed once per payload type and cached.
+     *
+     * @param payloadType The type of payload of the event message
+     * @return the ordered list of handlers that may handle messages with given payload type
+     */
+    private List<MessageHandler<? super T>> eventHandlersFor(Class<?> payloadType) {
+        List<MessageHandler<? super T>> handlers = eventHandlersByPayloadType.get(payloadType);
+        if (handlers == null) {
+            handlers = eventHandlersByPayloadType.computeIfAbsent(payloadType, this::findEventHandlers);
+        }
+        return handlers;
+    }
+
+    private List<MessageHandler<? super T>> findEventHandlers(Class<?> payloadType) {
+        List<MessageHandler<? super T>> candidates = new ArrayList<>();
+        for (MessageHandler<? super T> handler : eventHandlers) {
+            if (handler.payloadType() == null || handler.payloadType().isAssignableFrom(payloadType)) {
+                candidates.add(handler);
+            }
+        }
+        return candidates.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(candidates);
+    }
+
 
     @Override
     public String getIdentifier(T target) {
@@ -16,6 +16,8 @@
 
 package org.axonframework.common;
 
+import java.util.function.Supplier;
+
 /**
  * Utility class (inspired by Springs Assert class) for doing assertions on parameters and object state. To remove the
  * need for explicit dependencies on Spring, the functionality of that class is migrated to this class.
@@ -41,6 +43,20 @@ public static void state(boolean state, String message) {
         }
     }
 
+    /**
+     * Asserts that the value of <code>state</code> is true. If not, an IllegalStateException is thrown. Unlike {@link
+     * #state(boolean, String)}, the message is only built when the assertion fails, which avoids formatting it on
+     * frequently invoked code paths.
+     *
+     * @param state           the state validation expression
+     * @param messageSupplier Supplier of the message that the exception contains if state evaluates to false
+     */
+    public static void state(boolean state, Supplier<String> messageSupplier) {
+        if (!state) {
+            throw new IllegalStateException(messageSupplier.get());
+        }
+    }
+
     /**
      * Asserts that the given <code>expression</code> is true. If not, an IllegalArgumentException is thrown.
      *
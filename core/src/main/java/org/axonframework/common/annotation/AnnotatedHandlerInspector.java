@@ -17,9 +17,22 @@
 package org.axonframework.common.annotation;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
 import java.util.*;
 
+/**
+ * Inspector of the message handlers declared on a type and its super types. Handlers are created by the {@link
+ * HandlerDefinition HandlerDefinitions} found on the classpath, ordered by their {@link
+ * org.axonframework.common.Priority}.
+ * <p/>
+ * Only the first definition that recognizes a method or constructor as handler creates a handler for it. Definitions
+ * with a higher priority may therefore replace the handlers created by the default definitions.
+ *
+ * @param <T> The type inspected by this inspector
+ * @author Allard Buijze
+ * @since 3.0
+ */
 public class AnnotatedHandlerInspector<T> {
 
     private final Class<T> inspectedType;
@@ -71,22 +84,33 @@ private static <T> AnnotatedHandlerInspector<T> initialize(Class<T> inspectedTyp
     private void initializeMessageHandlers(ParameterResolverFactory parameterResolverFactory) {
         List<HandlerDefinition> definitions = new ArrayList<>();
         ServiceLoader.load(HandlerDefinition.class).forEach(definitions::add);
+        Collections.sort(definitions, PriorityAnnotationComparator.getInstance());
         for (Method method : inspectedType.getDeclaredMethods()) {
-            definitions.forEach(definition ->
-                                        definition.createHandler(inspectedType,
-                                                                 method, parameterResolverFactory)
-                                                .ifPresent(this::registerHandler));
+            createHandler(definitions, method, parameterResolverFactory).ifPresent(this::registerHandler);
         }
         for (Constructor<?> constructor : inspectedType.getDeclaredConstructors()) {
-            definitions.forEach(definition ->
-                                        definition.createHandler(inspectedType,
-                                                                 constructor, parameterResolverFactory)
-                                                .ifPresent(this::registerHandler));
+            createHandler(definitions, constructor, parameterResolverFactory).ifPresent(this::registerHandler);
         }
         superClassInspectors.forEach(sci -> handlers.addAll(sci.getHandlers()));
         Collections.sort(handlers, HandlerComparator.instance());
     }
 
+    /**
+     * Creates the handler for the given <code>executable</code> using the first of the given <code>definitions</code>
+     * (ordered by priority) that recognizes the executable as a handler.
+     */
+    private Optional<MessageHandler<T>> createHandler(List<HandlerDefinition> definitions, Executable executable,
+                                                      ParameterResolverFactory parameterResolverFactory) {
+        for (HandlerDefinition definition : definitions) {
+            Optional<MessageHandler<T>> handler = definition.createHandler(inspectedType, executable,
+                                                                           parameterResolverFactory);
+            if (handler.isPresent()) {
+                return handler;
+            }
+        }
+        return Optional.empty();
+    }
+
     private void registerHandler(MessageHandler<T> handler) {
         handlers.add(handler);
     }
@@ -19,6 +19,14 @@
 import java.lang.reflect.Executable;
 import java.util.Optional;
 
+/**
+ * Definition that creates message handlers for the methods and constructors it recognizes as handler. Definitions are
+ * loaded using the {@link java.util.ServiceLoader}. When multiple definitions recognize the same method or
+ * constructor, only the one with the highest {@link org.axonframework.common.Priority} creates a handler for it.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
 public interface HandlerDefinition {
 
     <T> Optional<MessageHandler<T>> createHandler(Class<T> declaringType, Executable executable, ParameterResolverFactory parameterResolverFactory);
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.lock;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of a {@link LockFactory} that uses a fixed number of locks, which are shared by all identifiers.
+ * The identifiers are divided over the locks (stripes) based on their hash code. Unlike the {@link
+ * PessimisticLockFactory}, this factory does not allocate any objects to obtain a lock, which makes it suitable for
+ * applications that lock a high number of distinct identifiers.
+ * <p/>
+ * Calls to {@link #obtainLock} will block until a lock could be obtained. Each thread can hold the same lock multiple
+ * times. The lock will only be released for other threads when the lock has been released as many times as it was
+ * obtained. Note that identifiers sharing a stripe also share their lock. Threads locking different identifiers
+ * may therefore need to wait for each other, and may even deadlock when they lock multiple identifiers. Using a
+ * higher number of stripes reduces the chance of this happening.
+ * <p/>
+ * Deadlock detection is disabled by default. When enabled, a background thread periodically builds a graph of the
+ * threads waiting for a lock held by another thread. When it finds a cycle, one of the waiting threads in the cycle
+ * is interrupted, causing it to throw a {@link DeadlockException}. Deadlocks are only detected between locks of the
+ * same factory.
+ * <p/>
+ * The time threads spend waiting for a lock held by another thread is available through {@link
+ * #getContendedLockCount()}, {@link #getTotalLockWaitTime(TimeUnit)} and {@link #getMaxLockWaitTime(TimeUnit)}.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class StripedLockFactory implements LockFactory {
+
+    /**
+     * The default number of locks the identifiers are divided over.
+     */
+    public static final int DEFAULT_STRIPE_COUNT = 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedLockFactory.class);
+
+    private static final int WAITING = 0;
+    private static final int DONE = 1;
+    private static final int DEADLOCK_DETECTED = 2;
+    private static final int INTERRUPTED = 3;
+
+    private final StripeLock[] stripes;
+    private final int mask;
+    private final ConcurrentMap<Thread, WaitState> waitingThreads = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService deadlockDetector;
+    private final LongAdder contendedLockCount = new LongAdder();
+    private final LongAdder totalLockWaitNanos = new LongAdder();
+    private final AtomicLong maxLockWaitNanos = new AtomicLong();
+
+    /**
+     * Initializes a StripedLockFactory with {@value #DEFAULT_STRIPE_COUNT} stripes and without deadlock detection.
+     */
+    public StripedLockFactory() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * Initializes a StripedLockFactory with at least the given <code>stripeCount</code> number of stripes, without
+     * deadlock detection. The number of stripes is rounded up to the next power of two.
+     *
+     * @param stripeCount The minimum number of locks to divide the identifiers over
+     */
+    public StripedLockFactory(int stripeCount) {
+        this(stripeCount, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Initializes a StripedLockFactory with at least the given <code>stripeCount</code> number of stripes. The
+     * number of stripes is rounded up to the next power of two. When the given
+     * <code>deadlockDetectionInterval</code> is positive, a background thread checks for deadlocks at that interval.
+     * Call {@link #shutDown()} to stop that thread when the factory is no longer used.
+     *
+     * @param stripeCount               The minimum number of locks to divide the identifiers over
+     * @param deadlockDetectionInterval The interval at which to check for deadlocks, or 0 to disable detection
+     * @param timeUnit                  The unit of the given interval
+     */
+    public StripedLockFactory(int stripeCount, long deadlockDetectionInterval, TimeUnit timeUnit) {
+        Assert.isTrue(stripeCount > 0, "stripeCount must be at least 1");
+        Assert.isTrue(stripeCount <= 1 << 30, "stripeCount may not exceed 2^30");
+        Assert.isFalse(deadlockDetectionInterval < 0, "deadlockDetectionInterval may not be negative");
+        int actualStripeCount = 1;
+        while (actualStripeCount < stripeCount) {
+            actualStripeCount <<= 1;
+        }
+        this.stripes = new StripeLock[actualStripeCount];
+        this.mask = actualStripeCount - 1;
+        for (int i = 0; i < actualStripeCount; i++) {
+            stripes[i] = new StripeLock();
+        }
+        if (deadlockDetectionInterval > 0) {
+            AxonThreadFactory threadFactory = new AxonThreadFactory("StripedLockFactory");
+            this.deadlockDetector = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = threadFactory.newThread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            });
+            deadlockDetector.scheduleWithFixedDelay(this::detectDeadlocks, deadlockDetectionInterval,
+                                                    deadlockDetectionInterval, timeUnit);
+        } else {
+            this.deadlockDetector = null;
+        }
+    }
+
+    /**
+     * Obtain a lock for a resource identified by the given <code>identifier</code>. This method will block until a
+     * lock was successfully obtained.
+     * <p/>
+     * The returned lock is shared by all identifiers in the same stripe. It is released for other threads after it
+     * has been released as many times as it was obtained by the current thread.
+     *
+     * @param identifier the identifier of the lock to obtain.
+     * @return a handle to release the lock. If the thread that releases the lock does not hold the lock
+     * {@link IllegalMonitorStateException} is thrown
+     * @throws DeadlockException              if deadlock detection is enabled and the current thread was chosen to
+     *                                        resolve a deadlock
+     * @throws LockAcquisitionFailedException if the thread was interrupted while waiting for the lock
+     */
+    @Override
+    public Lock obtainLock(String identifier) {
+        StripeLock lock = stripes[stripeOf(identifier)];
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            if (deadlockDetector == null) {
+                lockInterruptibly(lock);
+            } else {
+                lockDetectingDeadlocks(lock);
+            }
+            long waitTime = System.nanoTime() - start;
+            contendedLockCount.increment();
+            totalLockWaitNanos.add(waitTime);
+            maxLockWaitNanos.accumulateAndGet(waitTime, Math::max);
+        }
+        return lock;
+    }
+
+    private int stripeOf(String identifier) {
+        int hash = identifier.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void lockInterruptibly(StripeLock lock) {
+        try {
+            lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LockAcquisitionFailedException("Thread was interrupted", e);
+        }
+    }
+
+    private void lockDetectingDeadlocks(StripeLock lock) {
+        Thread currentThread = Thread.currentThread();
+        WaitState waitState = new WaitState(lock);
+        waitingThreads.put(currentThread, waitState);
+        boolean locked = false;
+        try {
+            lock.lockInterruptibly();
+            locked = true;
+        } catch (InterruptedException e) {
+            // the interrupt may have been caused by the deadlock detector, which is checked below
+        } finally {
+            waitingThreads.remove(currentThread);
+        }
+        if (!waitState.state.compareAndSet(WAITING, DONE)) {
+            // the deadlock detector has chosen this thread to resolve a deadlock. Wait for its interrupt to clear it.
+            while (waitState.state.get() != INTERRUPTED) {
+                Thread.yield();
+            }
+            Thread.interrupted();
+            if (locked) {
+                lock.unlock();
+            }
+            throw new DeadlockException("An imminent deadlock was detected while attempting to acquire a lock");
+        } else if (!locked) {
+            currentThread.interrupt();
+            throw new LockAcquisitionFailedException("Thread was interrupted");
+        }
+    }
+
+    private void detectDeadlocks() {
+        try {
+            Map<Thread, Thread> waitsFor = new HashMap<>();
+            waitingThreads.forEach((thread, waitState) -> {
+                Thread owner = waitState.lock.owner();
+                if (owner != null && owner != thread) {
+                    waitsFor.put(thread, owner);
+                }
+            });
+            Set<Thread> visited = new HashSet<>();
+            for (Thread start : waitsFor.keySet()) {
+                Set<Thread> path = new HashSet<>();
+                Thread current = start;
+                while (current != null && !visited.contains(current)) {
+                    visited.add(current);
+                    path.add(current);
+                    current = waitsFor.get(current);
+                    if (current != null && path.contains(current)) {
+                        resolveDeadlock(current);
+                        break;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("An error occurred while checking for deadlocks.", e);
+        }
+    }
+
+    private void resolveDeadlock(Thread victim) {
+        WaitState waitState = waitingThreads.get(victim);
+        if (waitState != null && waitState.state.compareAndSet(WAITING, DEADLOCK_DETECTED)) {
+            logger.info("Deadlock detected. Interrupting thread [{}] waiting for a lock.", victim.getName());
+            victim.interrupt();
+            waitState.state.set(INTERRUPTED);
+        }
+    }
+
+    /**
+     * Returns the number of stripes the identifiers are divided over.
+     *
+     * @return the number of stripes of this factory
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the number of times a thread needed to wait for a lock held by another thread.
+     *
+     * @return the number of contended lock acquisitions
+     */
+    public long getContendedLockCount() {
+        return contendedLockCount.sum();
+    }
+
+    /**
+     * Returns the total time threads have spent waiting for a lock held by another thread, in the given
+     * <code>timeUnit</code>.
+     *
+     * @param timeUnit The unit to return the wait time in
+     * @return the total time spent waiting for locks
+     */
+    public long getTotalLockWaitTime(TimeUnit timeUnit) {
+        return timeUnit.convert(totalLockWaitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest time a thread has waited for a lock held by another thread, in the given
+     * <code>timeUnit</code>.
+     *
+     * @param timeUnit The unit to return the wait time in
+     * @return the longest time spent waiting for a lock
+     */
+    public long getMaxLockWaitTime(TimeUnit timeUnit) {
+        return timeUnit.convert(maxLockWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the background thread checking for deadlocks, if deadlock detection is enabled. Locks can still be
+     * obtained after shutdown, but deadlocks are no longer detected.
+     */
+    public void shutDown() {
+        if (deadlockDetector != null) {
+            deadlockDetector.shutdownNow();
+        }
+    }
+
+    private static final class StripeLock extends ReentrantLock implements Lock {
+
+        private static final long serialVersionUID = 4296353766374766475L;
+
+        @Override
+        public void release() {
+            unlock();
+        }
+
+        @Override
+        public boolean isHeld() {
+            return isHeldByCurrentThread();
+        }
+
+        private Thread owner() {
+            return getOwner();
+        }
+    }
+
+    private static final class WaitState {
+
+        private final StripeLock lock;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private WaitState(StripeLock lock) {
+            this.lock = lock;
+        }
+    }
+}
@@ -120,6 +120,36 @@ protected abstract void doPublish(List<EventMessage<?>> events, Set<EventListene
                                       Set<MessageHandlerInterceptor<EventMessage<?>>> interceptors,
                                       MultiplexingEventProcessingMonitor eventProcessingMonitor) ;
 
+    /**
+     * Returns an immutable real-time view on the event listeners subscribed to this event processor. Intended for
+     * implementations that process events outside of the {@link #handle(List)} method.
+     *
+     * @return an immutable view on the subscribed event listeners
+     */
+    protected Set<EventListener> eventListeners() {
+        return immutableEventListeners;
+    }
+
+    /**
+     * Returns the live set of interceptors registered with this event processor. Intended for implementations that
+     * process events outside of the {@link #handle(List)} method.
+     *
+     * @return the registered interceptors
+     */
+    protected Set<MessageHandlerInterceptor<EventMessage<?>>> interceptors() {
+        return interceptors;
+    }
+
+    /**
+     * Returns the monitor to notify of the results of event processing. Intended for implementations that process
+     * events outside of the {@link #handle(List)} method.
+     *
+     * @return the monitor to notify of processing results
+     */
+    protected MultiplexingEventProcessingMonitor eventProcessingMonitor() {
+        return eventProcessingMonitor;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2010-2014. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Interface to be implemented by Event Listeners that are able to handle a batch of events in a single invocation,
+ * for example to update a read model using a single bulk statement.
+ * <p/>
+ * Event Processors that support batching invoke {@link #handle(List)} once with all events they process in a single
+ * Unit of Work, after the interceptors have been invoked for each of the events and the regular Event Listeners have
+ * handled them. Event Processors that do not support batching invoke {@link #handle(EventMessage)}, which passes the
+ * single event as a batch by default.
+ *
+ * @author Allard Buijze
+ * @see org.axonframework.eventhandling.annotation.BatchEventHandler
+ * @since 3.0
+ */
+@FunctionalInterface
+public interface BatchingEventListener extends EventListener {
+
+    /**
+     * Process the given batch of events, in the order they were published. The batch is never empty. It is highly
+     * unrecommended to throw any exception during the event handling process.
+     *
+     * @param events the events to handle
+     */
+    void handle(List<? extends EventMessage<?>> events) throws Exception;
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation passes the given <code>event</code> to {@link #handle(List)} as a batch of a single event.
+     */
+    @Override
+    default void handle(EventMessage event) throws Exception {
+        handle(Collections.<EventMessage<?>>singletonList(event));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper for Event Processors that process a batch of events in a {@link BatchingUnitOfWork}. It collects the events
+ * of the batch that have been handled, and invokes the {@link BatchingEventListener BatchingEventListeners} with
+ * these events while the last event of the batch is processed. This way, the batching listeners take part in the
+ * same Unit of Work as the handling of the individual events.
+ * <p/>
+ * Instances are meant to be used for a single batch, by a single thread.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class BatchingListenerInvoker {
+
+    private final List<EventMessage<?>> handledEvents;
+    private int remaining;
+
+    /**
+     * Initializes an invoker for a batch of given <code>batchSize</code> events.
+     *
+     * @param batchSize The number of events in the batch
+     */
+    public BatchingListenerInvoker(int batchSize) {
+        this.handledEvents = new ArrayList<>(batchSize);
+        this.remaining = batchSize;
+    }
+
+    /**
+     * Registers that given <code>event</code> has been handled, and should be passed to the batching listeners.
+     *
+     * @param event The event that has been handled
+     */
+    public void eventHandled(EventMessage<?> event) {
+        handledEvents.add(event);
+    }
+
+    /**
+     * Registers that processing of the current event of the batch is done. When it is the last event of the batch
+     * and any events have been handled, given <code>batchHandler</code> is invoked with the handled events.
+     *
+     * @param batchHandler The handler invoking the batching listeners
+     * @throws Exception when the batch handler throws an exception
+     */
+    public void eventProcessed(BatchHandler batchHandler) throws Exception {
+        if (--remaining == 0 && !handledEvents.isEmpty()) {
+            batchHandler.handle(handledEvents);
+        }
+    }
+
+    /**
+     * Invokes each of the {@link BatchingEventListener BatchingEventListeners} among given <code>listeners</code>
+     * with given <code>events</code>. Other listeners are ignored.
+     *
+     * @param listeners The listeners to invoke the batching listeners of
+     * @param events    The events to pass to the batching listeners
+     * @throws Exception when any of the batching listeners throws an exception
+     */
+    public static void invokeBatchingListeners(Iterable<? extends EventListener> listeners,
+                                               List<EventMessage<?>> events) throws Exception {
+        for (EventListener listener : listeners) {
+            if (listener instanceof BatchingEventListener) {
+                ((BatchingEventListener) listener).handle(events);
+            }
+        }
+    }
+
+    /**
+     * Handler that is invoked with the handled events once the last event of the batch has been processed.
+     */
+    @FunctionalInterface
+    public interface BatchHandler {
+
+        /**
+         * Handle given <code>events</code>, typically by invoking the batching listeners.
+         *
+         * @param events The events of the batch that have been handled
+         * @throws Exception when handling the events fails
+         */
+        void handle(List<EventMessage<?>> events) throws Exception;
+    }
+}
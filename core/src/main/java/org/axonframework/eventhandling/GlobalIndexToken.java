@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2010-2015. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import java.io.Serializable;
+
+/**
+ * ProcessingToken implementation that describes a position by the global index of the last processed event. The global
+ * index is assigned by the event store when an event is appended, and is unique and increasing for all events in that
+ * store.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class GlobalIndexToken implements ProcessingToken, Comparable<GlobalIndexToken>, Serializable {
+
+    private static final long serialVersionUID = -2437489254723846512L;
+
+    private final long globalIndex;
+
+    /**
+     * Initializes a token describing the position of the event with given <code>globalIndex</code>.
+     *
+     * @param globalIndex The global index of the last processed event
+     */
+    public GlobalIndexToken(long globalIndex) {
+        this.globalIndex = globalIndex;
+    }
+
+    @Override
+    public long longValue() {
+        return globalIndex;
+    }
+
+    @Override
+    public int compareTo(GlobalIndexToken other) {
+        return Long.compare(globalIndex, other.globalIndex);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return globalIndex == ((GlobalIndexToken) o).globalIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(globalIndex);
+    }
+
+    @Override
+    public String toString() {
+        return "GlobalIndexToken[" + globalIndex + "]";
+    }
+}
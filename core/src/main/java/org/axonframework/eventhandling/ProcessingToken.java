@@ -17,10 +17,19 @@
 package org.axonframework.eventhandling;
 
 /**
+ * Describes the position of a reader in a stream of events. Readers may store the token of the last event they have
+ * processed, and use it to resume reading from that position later on.
+ *
  * @author Allard Buijze
  */
 public interface ProcessingToken {
 
+    /**
+     * Returns the position described by this token. Events at a position lower than or equal to this value are
+     * considered processed.
+     *
+     * @return the position described by this token
+     */
     long longValue();
 
 }
@@ -20,10 +20,12 @@
 import org.axonframework.messaging.DefaultInterceptorChain;
 import org.axonframework.messaging.InterceptorChain;
 import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -63,22 +65,43 @@ public SimpleEventProcessor(String name, EventListener... initialListeners) {
         super(name, initialListeners);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Each event is processed by the interceptors and the regular listeners in a separate Unit of Work. When any of
+     * the given <code>eventListeners</code> is a {@link BatchingEventListener}, the batching listeners subsequently
+     * receive all events that passed the interceptors in a single invocation, in a {@link BatchingUnitOfWork} of
+     * their own.
+     */
     @Override
     public void doPublish(List<EventMessage<?>> events, Set<EventListener> eventListeners,
                           Set<MessageHandlerInterceptor<EventMessage<?>>> interceptors,
                           MultiplexingEventProcessingMonitor monitor) {
+        List<BatchingEventListener> batchingListeners = new ArrayList<>();
+        for (EventListener eventListener : eventListeners) {
+            if (eventListener instanceof BatchingEventListener) {
+                batchingListeners.add((BatchingEventListener) eventListener);
+            }
+        }
         try {
+            List<EventMessage<?>> interceptedEvents = new ArrayList<>(events.size());
             for (EventMessage event : events) {
                 UnitOfWork<EventMessage<?>> unitOfWork = DefaultUnitOfWork.startAndGet(event);
                 InterceptorChain<?> interceptorChain = new DefaultInterceptorChain<>(unitOfWork,
                         interceptors, (message, uow) -> {
                             for (EventListener eventListener : eventListeners) {
-                                eventListener.handle(message);
+                                if (!(eventListener instanceof BatchingEventListener)) {
+                                    eventListener.handle(message);
+                                }
                             }
+                            interceptedEvents.add(message);
                             return null;
                 });
                 unitOfWork.executeWithResult(interceptorChain::proceed);
             }
+            if (!batchingListeners.isEmpty() && !interceptedEvents.isEmpty()) {
+                publishBatch(interceptedEvents, batchingListeners);
+            }
             notifyMonitors(events, monitor, null);
         } catch (Exception e) {
             notifyMonitors(events, monitor, e);
@@ -86,6 +109,17 @@ public void doPublish(List<EventMessage<?>> events, Set<EventListener> eventList
         }
     }
 
+    private void publishBatch(List<EventMessage<?>> interceptedEvents,
+                              List<BatchingEventListener> batchingListeners) throws Exception {
+        BatchingUnitOfWork<EventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(interceptedEvents);
+        BatchingListenerInvoker invoker = new BatchingListenerInvoker(interceptedEvents.size());
+        unitOfWork.executeWithResult(() -> {
+            invoker.eventHandled(unitOfWork.getMessage());
+            invoker.eventProcessed(batch -> BatchingListenerInvoker.invokeBatchingListeners(batchingListeners, batch));
+            return null;
+        });
+    }
+
     @SuppressWarnings("ThrowableResultOfMethodCallIgnored")
     private void notifyMonitors(List<EventMessage<?>> events, EventProcessingMonitor monitor, Exception exception) {
         if (CurrentUnitOfWork.isStarted()) {
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2010-2014. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation to be placed on methods that can handle a batch of events in a single invocation. The annotated method
+ * must declare a single parameter of type {@link java.util.List} (or any of its super types). When the element type
+ * of the list is an {@link org.axonframework.eventhandling.EventMessage} (or any of its super types), the method
+ * receives the Event Messages of the batch. Otherwise, it receives their payloads.
+ * <p/>
+ * The method is only invoked with the events of the batch that have a payload assignable to the {@link #eventType()}.
+ * When no event type is specified, the element type of the list is used instead, as long as it is not a Message.
+ * This allows a listener to receive a separate sub list per type of event. The method is not invoked when none of
+ * the events in a batch match.
+ * <p/>
+ * Batch event handler methods are only detected by the {@link BatchingAnnotationEventListenerAdapter}. They are
+ * invoked after the {@link EventHandler} annotated methods of the listener have handled all events in the batch.
+ *
+ * @author Allard Buijze
+ * @see BatchingAnnotationEventListenerAdapter
+ * @see org.axonframework.eventhandling.BatchingEventListener
+ * @since 3.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+public @interface BatchEventHandler {
+
+    /**
+     * The type of event this method handles. Only events with a payload assignable to this type are passed to the
+     * method.
+     */
+    Class<?> eventType() default Object.class;
+}
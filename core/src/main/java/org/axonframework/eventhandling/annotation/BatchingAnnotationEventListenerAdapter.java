@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2010-2014. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.annotation;
+
+import org.axonframework.common.annotation.ClasspathParameterResolverFactory;
+import org.axonframework.common.annotation.ParameterResolverFactory;
+import org.axonframework.common.annotation.UnsupportedHandlerException;
+import org.axonframework.eventhandling.BatchingEventListener;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.messaging.Message;
+
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.axonframework.common.ReflectionUtils.ensureAccessible;
+import static org.axonframework.common.ReflectionUtils.methodsOf;
+
+/**
+ * Adapter that turns any bean with {@link EventHandler} and {@link BatchEventHandler} annotated methods into a
+ * {@link BatchingEventListener}.
+ * <p/>
+ * For each batch, the <code>@EventHandler</code> annotated methods are invoked for each event first, as done by the
+ * {@link AnnotationEventListenerAdapter}. After that, each <code>@BatchEventHandler</code> annotated method is invoked
+ * once with the events of the batch it declares to handle.
+ *
+ * @author Allard Buijze
+ * @see BatchEventHandler
+ * @since 3.0
+ */
+public class BatchingAnnotationEventListenerAdapter extends AnnotationEventListenerAdapter
+        implements BatchingEventListener {
+
+    private final Object annotatedEventListener;
+    private final List<BatchHandler> batchHandlers = new ArrayList<>();
+
+    /**
+     * Wraps the given <code>annotatedEventListener</code>, allowing it to be subscribed to an Event Bus.
+     *
+     * @param annotatedEventListener the annotated event listener
+     */
+    public BatchingAnnotationEventListenerAdapter(Object annotatedEventListener) {
+        this(annotatedEventListener, ClasspathParameterResolverFactory.forClass(annotatedEventListener.getClass()));
+    }
+
+    /**
+     * Wraps the given <code>annotatedEventListener</code>, allowing it to be subscribed to an Event Bus. The given
+     * <code>parameterResolverFactory</code> is used to resolve parameter values for <code>@EventHandler</code>
+     * annotated methods.
+     *
+     * @param annotatedEventListener   the annotated event listener
+     * @param parameterResolverFactory the strategy for resolving handler method parameter values
+     * @throws UnsupportedHandlerException if a <code>@BatchEventHandler</code> annotated method does not declare a
+     *                                     single List parameter
+     */
+    public BatchingAnnotationEventListenerAdapter(Object annotatedEventListener,
+                                                  ParameterResolverFactory parameterResolverFactory) {
+        super(annotatedEventListener, parameterResolverFactory);
+        this.annotatedEventListener = annotatedEventListener;
+        for (Method method : methodsOf(annotatedEventListener.getClass())) {
+            BatchEventHandler annotation = method.getAnnotation(BatchEventHandler.class);
+            if (annotation != null) {
+                batchHandlers.add(new BatchHandler(method, annotation));
+            }
+        }
+    }
+
+    @Override
+    public void handle(EventMessage event) throws Exception {
+        handle(Collections.<EventMessage<?>>singletonList(event));
+    }
+
+    @Override
+    public void handle(List<? extends EventMessage<?>> events) throws Exception {
+        for (EventMessage<?> event : events) {
+            super.handle(event);
+        }
+        for (BatchHandler batchHandler : batchHandlers) {
+            batchHandler.handle(events, annotatedEventListener);
+        }
+    }
+
+    private static final class BatchHandler {
+
+        private final Method method;
+        private final Class<?> eventType;
+        private final boolean passMessages;
+
+        private BatchHandler(Method method, BatchEventHandler annotation) {
+            if (method.getParameterCount() != 1 || !method.getParameterTypes()[0].isAssignableFrom(List.class)) {
+                throw new UnsupportedHandlerException(
+                        "A @BatchEventHandler method must declare a single parameter of type List: "
+                                + method.toGenericString(), method);
+            }
+            Class<?> elementType = elementTypeOf(method.getGenericParameterTypes()[0]);
+            this.method = ensureAccessible(method);
+            this.passMessages = elementType.isAssignableFrom(EventMessage.class)
+                    && Message.class.isAssignableFrom(elementType);
+            if (annotation.eventType() != Object.class || passMessages) {
+                this.eventType = annotation.eventType();
+            } else {
+                this.eventType = elementType;
+            }
+        }
+
+        private static Class<?> elementTypeOf(Type parameterType) {
+            if (parameterType instanceof ParameterizedType) {
+                return rawTypeOf(((ParameterizedType) parameterType).getActualTypeArguments()[0]);
+            }
+            return Object.class;
+        }
+
+        private static Class<?> rawTypeOf(Type type) {
+            if (type instanceof Class) {
+                return (Class<?>) type;
+            } else if (type instanceof ParameterizedType) {
+                return rawTypeOf(((ParameterizedType) type).getRawType());
+            } else if (type instanceof WildcardType) {
+                return rawTypeOf(((WildcardType) type).getUpperBounds()[0]);
+            } else if (type instanceof TypeVariable) {
+                return rawTypeOf(((TypeVariable<?>) type).getBounds()[0]);
+            }
+            return Object.class;
+        }
+
+        private void handle(List<? extends EventMessage<?>> events, Object target) throws Exception {
+            List<Object> matchingEvents = new ArrayList<>(events.size());
+            for (EventMessage<?> event : events) {
+                if (eventType.isAssignableFrom(event.getPayloadType())) {
+                    matchingEvents.add(passMessages ? event : event.getPayload());
+                }
+            }
+            if (matchingEvents.isEmpty()) {
+                return;
+            }
+            try {
+                method.invoke(target, matchingEvents);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -52,6 +52,7 @@ public class AsynchronousEventProcessor extends AbstractEventProcessor {
     private final ConcurrentMap<Object, EventProcessorTask> currentTasks = new ConcurrentHashMap<>();
     private final SequencingPolicy<? super EventMessage<?>> sequencingPolicy;
     private final UnitOfWorkFactory unitOfWorkFactory;
+    private volatile int maxBatchSize = EventProcessorTask.DEFAULT_MAX_BATCH_SIZE;
 
     /**
      * Creates an AsynchronousEventProcessor implementation using the given <code>executor</code>,
@@ -244,13 +245,28 @@ protected EventProcessorTask newProcessingScheduler(
             MultiplexingEventProcessingMonitor eventProcessingMonitor,
             Set<MessageHandlerInterceptor<EventMessage<?>>> interceptors) {
         logger.debug("Initializing new processing scheduler.");
-        return new EventProcessorTask(executor,
-                                  shutDownCallback,
-                                  errorHandler,
-                                  unitOfWorkFactory,
-                                  eventListeners,
-                                  eventProcessingMonitor,
-                                  interceptors);
+        EventProcessorTask task = new EventProcessorTask(executor,
+                                                         shutDownCallback,
+                                                         errorHandler,
+                                                         unitOfWorkFactory,
+                                                         eventListeners,
+                                                         eventProcessingMonitor,
+                                                         interceptors);
+        task.setMaxBatchSize(maxBatchSize);
+        return task;
+    }
+
+    /**
+     * Sets the maximum number of events processed in a single batch when any of the listeners is a {@link
+     * org.axonframework.eventhandling.BatchingEventListener}. Defaults to {@value
+     * EventProcessorTask#DEFAULT_MAX_BATCH_SIZE}. The setting applies to schedulers created after the invocation of
+     * this method.
+     *
+     * @param maxBatchSize The maximum number of events in a batch
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be at least 1");
+        this.maxBatchSize = maxBatchSize;
     }
 
     private static class NoActionCallback implements EventProcessorTask.ShutdownCallback {
@@ -16,12 +16,17 @@
 
 package org.axonframework.eventhandling.async;
 
+import org.axonframework.common.Assert;
+import org.axonframework.common.annotation.MessageHandlerInvocationException;
+import org.axonframework.eventhandling.BatchingEventListener;
+import org.axonframework.eventhandling.BatchingListenerInvoker;
 import org.axonframework.eventhandling.EventListener;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.MultiplexingEventProcessingMonitor;
 import org.axonframework.messaging.DefaultInterceptorChain;
 import org.axonframework.messaging.InterceptorChain;
 import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWorkFactory;
 import org.slf4j.Logger;
@@ -35,12 +40,25 @@
 
 /**
  * Scheduler that keeps track of (Event processing) tasks that need to be executed sequentially.
+ * <p/>
+ * When any of the listeners is a {@link BatchingEventListener}, the events queued at the start of a run are processed
+ * in batches of at most {@value #DEFAULT_MAX_BATCH_SIZE} events (see {@link #setMaxBatchSize(int)}). Each batch is
+ * handled by a {@link BatchingUnitOfWork} nested in the Unit of Work created for the first event of the batch. The
+ * batching listeners receive all events of the batch in a single invocation. If the {@link ErrorHandler} requires a
+ * rollback without rescheduling, the batch is rolled back and processed again without the failing event(s), so that
+ * only those are skipped, like they would be when processing event by event.
  *
  * @author Allard Buijze
  * @since 1.0
  */
 public class EventProcessorTask implements Runnable {
 
+    /**
+     * The default maximum number of events processed in a single batch when any of the listeners is a {@link
+     * BatchingEventListener}.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
     private static final Logger logger = LoggerFactory.getLogger(EventProcessorTask.class);
 
     private final ShutdownCallback shutDownCallback;
@@ -56,6 +74,7 @@ public class EventProcessorTask implements Runnable {
     private volatile boolean cleanedUp;
     private final Set<EventListener> listeners;
     private volatile long retryAfter = 0;
+    private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
     private final List<EventMessage> processedEvents = new ArrayList<>();
 
     private final Object runnerMonitor = new Object();
@@ -85,6 +104,17 @@ public EventProcessorTask(Executor executor, ShutdownCallback shutDownCallback,
         this.listeners = eventListeners;
     }
 
+    /**
+     * Sets the maximum number of events processed in a single batch when any of the listeners is a {@link
+     * BatchingEventListener}. Defaults to {@value #DEFAULT_MAX_BATCH_SIZE}.
+     *
+     * @param maxBatchSize The maximum number of events in a batch
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be at least 1");
+        this.maxBatchSize = maxBatchSize;
+    }
+
     /**
      * Schedules an event for processing. Will schedule a new invoker task if none is currently active.
      * <p/>
@@ -123,6 +153,37 @@ private synchronized EventMessage<?> nextEvent() {
         return eventQueue.poll();
     }
 
+    /**
+     * Returns at most <code>maxCount</code> of the next events in the queue. The returned list is empty if no events
+     * are available for processing.
+     * <p/>
+     * This method is thread safe
+     *
+     * @param maxCount the maximum number of events to return
+     * @return the next events for processing
+     */
+    private synchronized List<EventMessage<?>> nextEvents(int maxCount) {
+        List<EventMessage<?>> events = new ArrayList<>(Math.min(maxCount, eventQueue.size()));
+        while (events.size() < maxCount && !eventQueue.isEmpty()) {
+            events.add(eventQueue.poll());
+        }
+        return events;
+    }
+
+    /**
+     * Puts the given <code>events</code> back at the front of the queue, in the same order, so they are the next
+     * events to be processed.
+     * <p/>
+     * This method is thread safe
+     *
+     * @param events the events to reschedule
+     */
+    private synchronized void rescheduleFirst(List<EventMessage<?>> events) {
+        for (int i = events.size() - 1; i >= 0; i--) {
+            eventQueue.addFirst(events.get(i));
+        }
+    }
+
     /**
      * Tries to yield to other threads by rescheduling processing of any further queued events. If rescheduling fails,
      * this call returns false, indicating that processing should continue in the current thread.
@@ -195,8 +256,16 @@ public void run() {
             int itemsAtStart = eventQueue.size();
             int processedItems = 0;
             while (mayContinue) {
-                RetryPolicy result = processNextEntry();
-                processedItems++;
+                RetryPolicy result;
+                if (!hasBatchingListeners()) {
+                    result = processNextEntry();
+                    processedItems++;
+                } else {
+                    List<EventMessage<?>> batch =
+                            nextEvents(Math.max(1, Math.min(maxBatchSize, itemsAtStart - processedItems)));
+                    result = processNextBatch(batch);
+                    processedItems += Math.max(1, batch.size());
+                }
                 // Continue processing if there is no rescheduling involved and there are events in the queue, or if yielding failed
                 mayContinue = (processedItems < itemsAtStart
                         && !eventQueue.isEmpty()
@@ -260,6 +329,112 @@ private RetryPolicy processNextEntry() {
         return processingResult;
     }
 
+    private RetryPolicy processNextBatch(List<EventMessage<?>> batch) {
+        while (!batch.isEmpty()) {
+            BatchingListenerInvoker batchingListenerInvoker = new BatchingListenerInvoker(batch.size());
+            Map<EventMessage<?>, Throwable> failures = new IdentityHashMap<>();
+            BatchFailure batchFailure = new BatchFailure();
+            UnitOfWork<EventMessage<?>> uow = null;
+            try {
+                uow = unitOfWorkFactory.createUnitOfWork(batch.get(0));
+                BatchingUnitOfWork<EventMessage<?>> batchUnitOfWork = new BatchingUnitOfWork<>(batch);
+                batchUnitOfWork.executeWithResult(() -> {
+                    EventMessage<?> event = batchUnitOfWork.getMessage();
+                    ProcessingResult result = doHandle(event, batchUnitOfWork);
+                    if (result.requiresRescheduleEvent() || result.requiresRollback()) {
+                        batchFailure.result = result;
+                        batchFailure.events = Collections.singletonList(event);
+                        throw asException(result.getError());
+                    } else if (result.isFailure()) {
+                        failures.put(event, result.getError());
+                    } else {
+                        batchingListenerInvoker.eventHandled(event);
+                    }
+                    batchingListenerInvoker.eventProcessed(events -> handleBatch(events, failures, batchFailure));
+                    return result;
+                });
+                uow.commit();
+            } catch (Exception e) {
+                ProcessingResult processingResult = batchFailure.result != null ? batchFailure.result
+                        : new ProcessingResult(errorHandler.handleError(e, batch.get(0), null), e);
+                if (uow != null && uow.isActive()) {
+                    uow.rollback(e);
+                }
+                retryAfter = System.currentTimeMillis() + processingResult.waitTime();
+                if (processingResult.requiresRescheduleEvent()) {
+                    rescheduleFirst(batch);
+                    return processingResult;
+                }
+                // report successful messages to far...
+                notifyProcessingHandlers();
+                if (batchFailure.events == null || !removeEvents(batch, batchFailure.events)) {
+                    // report the failed messages immediately after...
+                    eventProcessingMonitor.onEventProcessingFailed(new ArrayList<EventMessage>(batch), e);
+                    return processingResult;
+                }
+                // the error handler requested to skip the failed events; process the batch again without them
+                eventProcessingMonitor.onEventProcessingFailed(new ArrayList<EventMessage>(batchFailure.events), e);
+                continue;
+            }
+            for (EventMessage<?> event : batch) {
+                if (!failures.containsKey(event)) {
+                    processedEvents.add(event);
+                }
+            }
+            if (!failures.isEmpty()) {
+                notifyProcessingHandlers();
+                failures.forEach((event, error) -> eventProcessingMonitor.onEventProcessingFailed(
+                        Collections.<EventMessage>singletonList(event), error));
+            }
+            break;
+        }
+        return ProcessingResult.REGULAR;
+    }
+
+    private static boolean removeEvents(List<EventMessage<?>> events, List<EventMessage<?>> toRemove) {
+        Set<String> identifiers = new HashSet<>();
+        toRemove.forEach(event -> identifiers.add(event.getIdentifier()));
+        return events.removeIf(event -> identifiers.contains(event.getIdentifier()));
+    }
+
+    private void handleBatch(List<EventMessage<?>> handledEvents, Map<EventMessage<?>, Throwable> failures,
+                             BatchFailure batchFailure) throws Exception {
+        EventMessage<?> lastEvent = handledEvents.get(handledEvents.size() - 1);
+        for (EventListener listener : listeners) {
+            if (!(listener instanceof BatchingEventListener)) {
+                continue;
+            }
+            BatchingEventListener batchingListener = (BatchingEventListener) listener;
+            try {
+                batchingListener.handle(handledEvents);
+            } catch (Exception e) {
+                RetryPolicy policy = errorHandler.handleError(e, lastEvent, batchingListener);
+                if (policy.requiresRescheduleEvent() || policy.requiresRollback()) {
+                    batchFailure.result = new ProcessingResult(policy, e);
+                    batchFailure.events = handledEvents;
+                    throw e;
+                }
+                handledEvents.forEach(event -> failures.putIfAbsent(event, e));
+            }
+        }
+    }
+
+    private boolean hasBatchingListeners() {
+        for (EventListener listener : listeners) {
+            if (listener instanceof BatchingEventListener) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Exception asException(Throwable error) {
+        if (error instanceof Exception) {
+            return (Exception) error;
+        }
+        return new MessageHandlerInvocationException("Error processing event batch", error);
+    }
+
     /**
      * Does the actual processing of the event. This method is invoked if the scheduler has decided this event is up
      * next for execution. Implementation should not pass this scheduling to an asynchronous executor
@@ -274,6 +449,10 @@ protected ProcessingResult doHandle(EventMessage<?> event, UnitOfWork<EventMessa
             eventProcessingMonitor.prepare(event);
             RuntimeException failure = null;
             for (EventListener member : listeners) {
+                if (member instanceof BatchingEventListener) {
+                    // batching listeners are invoked once the entire batch has been handled
+                    continue;
+                }
                 try {
                     eventProcessingMonitor.prepareForInvocation(event, member);
                     member.handle(event);
@@ -296,6 +475,12 @@ private synchronized void cleanUp() {
         shutDownCallback.afterShutdown(this);
     }
 
+    private static final class BatchFailure {
+
+        private ProcessingResult result;
+        private List<EventMessage<?>> events;
+    }
+
     /**
      * Callback that allows the SequenceManager to receive a notification when this scheduler finishes processing
      * events.
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2010-2014. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.async;
+
+import org.axonframework.common.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free queue that supports any number of producing threads, but only a single consuming thread at a
+ * time. Elements are kept in a pre-allocated array with a capacity that is a power of two, so that offering an
+ * element does not allocate any memory.
+ * <p/>
+ * Producers claim a slot by incrementing the producer index and store their element in the claimed slot. The
+ * consumer clears each slot it takes an element from before moving on, making the slot available to producers again.
+ *
+ * @param <E> The type of element kept in the buffer
+ * @author Allard Buijze
+ * @since 3.0
+ */
+final class MpscRingBuffer<E> {
+
+    /**
+     * The largest capacity a buffer can have, which is the largest power of two that fits in an <code>int</code>.
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * Initializes a buffer that holds at least the given <code>capacity</code> of elements. The capacity is rounded
+     * up to the next power of two.
+     *
+     * @param capacity The minimum number of elements the buffer must be able to hold, between 1 and {@value
+     *                 #MAX_CAPACITY}
+     */
+    MpscRingBuffer(int capacity) {
+        Assert.isTrue(capacity > 0, "capacity must be at least 1");
+        int actualCapacity = powerOfTwo(capacity);
+        this.buffer = new AtomicReferenceArray<>(actualCapacity);
+        this.mask = actualCapacity - 1;
+    }
+
+    /**
+     * Returns the smallest power of two that is equal to or larger than the given <code>value</code>.
+     *
+     * @param value The value to round up, at most {@value #MAX_CAPACITY}
+     * @return the smallest power of two equal to or larger than value
+     */
+    static int powerOfTwo(int value) {
+        Assert.isTrue(value <= MAX_CAPACITY, "value may not be larger than 2^30");
+        int result = 1;
+        while (result < value) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Adds the given <code>element</code> to the buffer, if it has capacity left. This method may be invoked by any
+     * thread.
+     *
+     * @param element The element to add
+     * @return <code>true</code> if the element was added, <code>false</code> if the buffer is full
+     */
+    boolean offer(E element) {
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() > mask) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        buffer.lazySet((int) index & mask, element);
+        return true;
+    }
+
+    /**
+     * Removes and returns the oldest element in the buffer, or <code>null</code> if the buffer is empty. This method
+     * may only be invoked by a single thread at a time.
+     *
+     * @return the oldest element in the buffer, or <code>null</code> if the buffer is empty
+     */
+    E poll() {
+        long index = consumerIndex.get();
+        if (index == producerIndex.get()) {
+            return null;
+        }
+        int offset = (int) index & mask;
+        E element;
+        // the slot has been claimed, but the producer may not have stored its element yet
+        while ((element = buffer.get(offset)) == null) {
+            Thread.yield();
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    /**
+     * Indicates whether the buffer contains any elements.
+     *
+     * @return <code>true</code> if the buffer is empty, otherwise <code>false</code>
+     */
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns an estimate of the number of elements in the buffer. The value is exact when no threads are
+     * concurrently adding or removing elements.
+     *
+     * @return the number of elements in the buffer
+     */
+    int size() {
+        long consumed = consumerIndex.get();
+        long produced = producerIndex.get();
+        return (int) Math.max(0, Math.min(produced - consumed, mask + 1));
+    }
+
+    /**
+     * Returns the maximum number of elements the buffer can hold.
+     *
+     * @return the capacity of the buffer
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
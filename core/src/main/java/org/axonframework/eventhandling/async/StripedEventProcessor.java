@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2010-2014. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.async;
+
+import org.axonframework.common.Assert;
+import org.axonframework.eventhandling.*;
+import org.axonframework.messaging.DefaultInterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.interceptors.NoTransactionManager;
+import org.axonframework.messaging.interceptors.Transaction;
+import org.axonframework.messaging.interceptors.TransactionManager;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * EventProcessor implementation that publishes events to the subscribed Event Listeners asynchronously from the
+ * publishing thread, using a fixed number of stripes instead of a task per sequence of events. It is an alternative
+ * to the {@link AsynchronousEventProcessor} for high event volumes.
+ * <p/>
+ * Each event is assigned to a stripe based on the hash code of the sequence identifier provided by the {@link
+ * SequencingPolicy}. Events for which the policy provides no sequence identifier are assigned based on their
+ * identifier. Since all events with the same sequence identifier end up in the same stripe, and each stripe is
+ * processed by at most one thread at a time, the events of a sequence are processed in the order they were
+ * published.
+ * <p/>
+ * Each stripe queues its events in a pre-allocated, lock-free ring buffer, so that publishing threads do not contend
+ * on locks. When the buffer of a stripe is full, publishing threads wait until the stripe has made room. Threads that
+ * are processing a stripe never wait, as that could deadlock stripes publishing to each other or starve the executor.
+ * Events they publish to a full stripe are kept in an unbounded overflow of that stripe instead. Queued events
+ * are drained in batches of at most {@value #DEFAULT_BATCH_SIZE} events (see {@link #setBatchSize(int)}), which are
+ * handled in a single {@link BatchingUnitOfWork} backed by a single transaction.
+ * <p/>
+ * When a listener fails, the {@link ErrorHandler} decides how to proceed. If it requires the event to be rescheduled,
+ * the entire batch is rolled back and retried after the wait time of the returned policy. If it requires a rollback
+ * without rescheduling, the batch is rolled back and processed again without the failing event. The number of events
+ * waiting in the stripes is available through {@link #getQueueDepth()} and {@link #getQueueDepth(int)}.
+ * <p/>
+ * {@link BatchingEventListener BatchingEventListeners} receive all events of a batch that passed the interceptors in a
+ * single invocation, after the other listeners have handled them.
+ *
+ * @author Allard Buijze
+ * @see SequencingPolicy
+ * @since 3.0
+ */
+public class StripedEventProcessor extends AbstractEventProcessor {
+
+    /**
+     * The default number of stripes events are divided over.
+     */
+    public static final int DEFAULT_STRIPE_COUNT = 16;
+
+    /**
+     * The default number of events each stripe can queue.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The default maximum number of events processed in a single Unit of Work.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedEventProcessor.class);
+    // marks threads processing a stripe of any StripedEventProcessor, as these threads may not wait for room
+    private static final ThreadLocal<Boolean> processingStripe = new ThreadLocal<>();
+
+    private final Executor executor;
+    private final TransactionManager transactionManager;
+    private final SequencingPolicy<? super EventMessage<?>> sequencingPolicy;
+    private final ErrorHandler errorHandler;
+    private final Stripe[] stripes;
+    private final int mask;
+    private final String scheduledEventsKey = this + "_SCHEDULED_EVENTS";
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Creates a StripedEventProcessor with given <code>name</code> that processes events using the given
+     * <code>executor</code>, dividing them over {@value #DEFAULT_STRIPE_COUNT} stripes using the given
+     * <code>sequencingPolicy</code>. Events are processed without transaction and each handler receives each event
+     * once, ignoring exceptions they may throw.
+     *
+     * @param name             The unique identifier of this event processor
+     * @param executor         The executor to process event batches with
+     * @param sequencingPolicy The policy indicating which events must be processed sequentially, and which may be
+     *                         executed in parallel.
+     */
+    public StripedEventProcessor(String name, Executor executor,
+                                 SequencingPolicy<? super EventMessage<?>> sequencingPolicy) {
+        this(name, executor, new NoTransactionManager(), sequencingPolicy,
+             new DefaultErrorHandler(RetryPolicy.proceed()), DEFAULT_STRIPE_COUNT, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates a StripedEventProcessor with given <code>name</code> that processes events using the given
+     * <code>executor</code>, dividing them over <code>stripeCount</code> stripes using the given
+     * <code>sequencingPolicy</code>. Batches of events are processed in transactions managed by the given
+     * <code>transactionManager</code>. Failures are processed by the given <code>errorHandler</code>.
+     * <p/>
+     * The <code>stripeCount</code> and <code>queueCapacity</code> are rounded up to the next power of two, and may not
+     * exceed 2^30. Note that a stripe holds at most one thread of the <code>executor</code> at a time.
+     *
+     * @param name               The unique identifier of this event processor
+     * @param executor           The executor to process event batches with
+     * @param transactionManager The TransactionManager that manages transactions around event processing batches
+     * @param sequencingPolicy   The policy indicating which events must be processed sequentially, and which may be
+     *                           executed in parallel.
+     * @param errorHandler       The handler that handles error during event processing
+     * @param stripeCount        The number of stripes to divide the events over, between 1 and 2^30
+     * @param queueCapacity      The number of events each stripe can queue before publishing threads need to wait,
+     *                           between 1 and 2^30
+     */
+    public StripedEventProcessor(String name, Executor executor, TransactionManager transactionManager,
+                                 SequencingPolicy<? super EventMessage<?>> sequencingPolicy,
+                                 ErrorHandler errorHandler, int stripeCount, int queueCapacity) {
+        super(name);
+        Assert.notNull(executor, "executor may not be null");
+        Assert.notNull(transactionManager, "transactionManager may not be null");
+        Assert.notNull(sequencingPolicy, "sequencingPolicy may not be null");
+        Assert.notNull(errorHandler, "errorHandler may not be null");
+        Assert.isTrue(stripeCount > 0 && stripeCount <= MpscRingBuffer.MAX_CAPACITY,
+                      "stripeCount must be between 1 and 2^30");
+        Assert.isTrue(queueCapacity > 0 && queueCapacity <= MpscRingBuffer.MAX_CAPACITY,
+                      "queueCapacity must be between 1 and 2^30");
+        this.executor = executor;
+        this.transactionManager = transactionManager;
+        this.sequencingPolicy = sequencingPolicy;
+        this.errorHandler = errorHandler;
+        this.stripes = new Stripe[MpscRingBuffer.powerOfTwo(stripeCount)];
+        this.mask = stripes.length - 1;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(queueCapacity);
+        }
+    }
+
+    @Override
+    protected void doPublish(List<EventMessage<?>> events, Set<EventListener> eventListeners,
+                             Set<MessageHandlerInterceptor<EventMessage<?>>> interceptors,
+                             MultiplexingEventProcessingMonitor eventProcessingMonitor) {
+        if (CurrentUnitOfWork.isStarted()) {
+            // after commit handlers are invoked in reverse order, so a single handler schedules all events of the
+            // Unit of Work, in the order they were published
+            UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get();
+            List<EventMessage<?>> scheduledEvents = unitOfWork.getOrComputeResource(scheduledEventsKey, key -> {
+                List<EventMessage<?>> eventQueue = new ArrayList<>();
+                unitOfWork.afterCommit(u -> {
+                    u.resources().remove(scheduledEventsKey);
+                    eventQueue.forEach(this::schedule);
+                });
+                return eventQueue;
+            });
+            scheduledEvents.addAll(events);
+        } else {
+            events.forEach(this::schedule);
+        }
+    }
+
+    /**
+     * Adds the given <code>event</code> to the queue of the stripe it belongs to, waiting for the stripe to make room
+     * if its queue is full.
+     *
+     * @param event The event to schedule for processing
+     */
+    protected void schedule(EventMessage<?> event) {
+        stripes[stripeOf(event)].schedule(event);
+    }
+
+    /**
+     * Returns the index of the stripe the given <code>event</code> belongs to.
+     *
+     * @param event The event to find the stripe for
+     * @return the index of the stripe the event belongs to
+     */
+    protected int stripeOf(EventMessage<?> event) {
+        Object sequenceIdentifier = sequencingPolicy.getSequenceIdentifierFor(event);
+        if (sequenceIdentifier == null) {
+            sequenceIdentifier = event.getIdentifier();
+        }
+        int hash = sequenceIdentifier.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the number of stripes events are divided over.
+     *
+     * @return the number of stripes of this processor
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the number of events waiting to be processed in all stripes together. Events that are being processed
+     * or are waiting for a retry are not included.
+     *
+     * @return the number of queued events
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Stripe stripe : stripes) {
+            depth += stripe.queueDepth();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of events waiting to be processed in the stripe with given <code>stripe</code> index.
+     *
+     * @param stripe The index of the stripe, between 0 (inclusive) and the {@link #getStripeCount() stripe count}
+     *               (exclusive)
+     * @return the number of events queued in the stripe
+     */
+    public int getQueueDepth(int stripe) {
+        return stripes[stripe].queueDepth();
+    }
+
+    /**
+     * Sets the maximum number of events processed in a single Unit of Work. Defaults to {@value
+     * #DEFAULT_BATCH_SIZE}.
+     *
+     * @param batchSize The maximum number of events in a batch
+     */
+    public void setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "batchSize must be at least 1");
+        this.batchSize = batchSize;
+    }
+
+    private RetryPolicy processBatch(List<EventMessage<?>> batch) {
+        while (true) {
+            ListenerFailure failure = new ListenerFailure();
+            try {
+                processEvents(batch, failure);
+                return RetryPolicy.proceed();
+            } catch (Exception e) {
+                RetryPolicy policy = failure.policy;
+                if (policy.requiresRescheduleEvent()) {
+                    return policy;
+                }
+                MultiplexingEventProcessingMonitor monitor = eventProcessingMonitor();
+                if (failure.events == null || !removeEvents(batch, failure.events)) {
+                    monitor.onEventProcessingFailed(new ArrayList<>(batch), e);
+                    return policy;
+                }
+                // the error handler requested to skip the events; process the batch again without them
+                logger.warn("Skipping {} event(s) in processor [{}] after a failure.", failure.events.size(),
+                            getName(), e);
+                monitor.onEventProcessingFailed(new ArrayList<>(failure.events), e);
+                if (batch.isEmpty()) {
+                    return policy;
+                }
+            }
+        }
+    }
+
+    private static boolean removeEvents(List<EventMessage<?>> events, List<EventMessage<?>> toRemove) {
+        Set<String> identifiers = new HashSet<>();
+        toRemove.forEach(event -> identifiers.add(event.getIdentifier()));
+        return events.removeIf(event -> identifiers.contains(event.getIdentifier()));
+    }
+
+    private void processEvents(List<EventMessage<?>> batch, ListenerFailure failure) throws Exception {
+        MultiplexingEventProcessingMonitor monitor = eventProcessingMonitor();
+        Set<EventListener> eventListeners = eventListeners();
+        Set<MessageHandlerInterceptor<EventMessage<?>>> interceptors = interceptors();
+        Map<EventMessage<?>, Throwable> failures = new IdentityHashMap<>();
+        BatchingUnitOfWork<EventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(batch);
+        try {
+            Transaction transaction = transactionManager.startTransaction();
+            unitOfWork.onCommit(u -> transaction.commit());
+            unitOfWork.onRollback(u -> transaction.rollback());
+            BatchingListenerInvoker batchingListenerInvoker = new BatchingListenerInvoker(batch.size());
+            unitOfWork.executeWithResult(() -> {
+                Object result = new DefaultInterceptorChain<>(unitOfWork, interceptors, (event, uow) -> {
+                    monitor.prepare(event);
+                    for (EventListener eventListener : eventListeners) {
+                        if (eventListener instanceof BatchingEventListener) {
+                            continue;
+                        }
+                        try {
+                            monitor.prepareForInvocation(event, eventListener);
+                            eventListener.handle(event);
+                        } catch (Exception e) {
+                            handleListenerError(e, Collections.singletonList(event), eventListener, failures,
+                                                failure);
+                        }
+                    }
+                    batchingListenerInvoker.eventHandled(event);
+                    return null;
+                }).proceed();
+                batchingListenerInvoker.eventProcessed(events -> {
+                    for (EventListener eventListener : eventListeners) {
+                        if (eventListener instanceof BatchingEventListener) {
+                            try {
+                                ((BatchingEventListener) eventListener).handle(events);
+                            } catch (Exception e) {
+                                handleListenerError(e, events, eventListener, failures, failure);
+                            }
+                        }
+                    }
+                });
+                return result;
+            });
+        } catch (Exception e) {
+            if (failure.policy == null) {
+                failure.policy = errorHandler.handleError(e, unitOfWork.getMessage(), null);
+            }
+            throw e;
+        }
+        if (failures.isEmpty()) {
+            monitor.onEventProcessingCompleted(new ArrayList<>(batch));
+        } else {
+            List<EventMessage> processed = new ArrayList<>(batch.size());
+            batch.stream().filter(event -> !failures.containsKey(event)).forEach(processed::add);
+            if (!processed.isEmpty()) {
+                monitor.onEventProcessingCompleted(processed);
+            }
+            failures.forEach((event, error) -> monitor.onEventProcessingFailed(
+                    Collections.<EventMessage>singletonList(event), error));
+        }
+    }
+
+    private void handleListenerError(Exception error, List<EventMessage<?>> events, EventListener eventListener,
+                                     Map<EventMessage<?>, Throwable> failures, ListenerFailure failure)
+            throws Exception {
+        RetryPolicy policy = errorHandler.handleError(error, events.get(events.size() - 1), eventListener);
+        if (policy.requiresRescheduleEvent() || policy.requiresRollback()) {
+            failure.policy = policy;
+            failure.events = events;
+            throw error;
+        }
+        events.forEach(event -> failures.putIfAbsent(event, error));
+    }
+
+    private static final class ListenerFailure {
+
+        private RetryPolicy policy;
+        private List<EventMessage<?>> events;
+    }
+
+    private final class Stripe implements Runnable {
+
+        private final MpscRingBuffer<EventMessage<?>> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // only accessed by the thread processing this stripe. Always holds events older than those in the queue.
+        private final Deque<EventMessage<?>> overflow = new ArrayDeque<>();
+        // holds events published by threads processing other stripes while the queue was full. Always holds events
+        // newer than those in the queue.
+        private final Queue<EventMessage<?>> externalOverflow = new ConcurrentLinkedQueue<>();
+        // only accessed by the thread processing this stripe
+        private List<EventMessage<?>> retryBatch;
+        private volatile Thread processingThread;
+        private volatile long retryAfter;
+
+        private Stripe(int queueCapacity) {
+            this.queue = new MpscRingBuffer<>(queueCapacity);
+        }
+
+        private void schedule(EventMessage<?> event) {
+            if (Thread.currentThread() == processingThread) {
+                // events published while processing this stripe cannot wait for the stripe to make room. To keep
+                // the events in publication order, the queued events are moved to the overflow before it
+                if (!overflow.isEmpty() || !queue.offer(event)) {
+                    EventMessage<?> queued;
+                    while ((queued = queue.poll()) != null) {
+                        overflow.add(queued);
+                    }
+                    overflow.add(event);
+                }
+                return;
+            }
+            // once events are in the external overflow, newer events are added after them to keep them in order
+            if (externalOverflow.isEmpty() && queue.offer(event)) {
+                ensureScheduled();
+                return;
+            }
+            if (processingStripe.get() != null) {
+                // a thread processing another stripe cannot wait, as this stripe may be waiting for it in turn, or
+                // for a thread of the executor it is holding on to
+                externalOverflow.add(event);
+                ensureScheduled();
+                return;
+            }
+            while (!externalOverflow.isEmpty() || !queue.offer(event)) {
+                ensureScheduled();
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            }
+            ensureScheduled();
+        }
+
+        private int queueDepth() {
+            return queue.size() + externalOverflow.size();
+        }
+
+        private void ensureScheduled() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            boolean mayContinue = true;
+            while (mayContinue) {
+                processNextBatch();
+                // continue processing in this thread if the executor refuses to take over
+                mayContinue = !yield();
+            }
+        }
+
+        private void processNextBatch() {
+            processingThread = Thread.currentThread();
+            processingStripe.set(Boolean.TRUE);
+            try {
+                waitUntilAllowedStartingTime();
+                List<EventMessage<?>> batch = retryBatch != null ? retryBatch : drain();
+                retryBatch = null;
+                if (!batch.isEmpty()) {
+                    RetryPolicy policy = processBatch(batch);
+                    if (policy.requiresRescheduleEvent()) {
+                        retryBatch = batch;
+                        retryAfter = System.currentTimeMillis() + policy.waitTime();
+                    }
+                }
+            } finally {
+                processingStripe.remove();
+                processingThread = null;
+            }
+        }
+
+        private boolean yield() {
+            if (retryBatch == null && overflow.isEmpty() && queue.isEmpty() && externalOverflow.isEmpty()) {
+                scheduled.set(false);
+                // an event may have been queued after the queue was found empty, but before the flag was cleared
+                if (queue.isEmpty() && externalOverflow.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return true;
+                }
+            }
+            long waitTimeRemaining = retryAfter - System.currentTimeMillis();
+            try {
+                if (waitTimeRemaining > 0 && executor instanceof ScheduledExecutorService) {
+                    ((ScheduledExecutorService) executor).schedule(this, waitTimeRemaining, TimeUnit.MILLISECONDS);
+                } else {
+                    executor.execute(this);
+                }
+            } catch (RejectedExecutionException e) {
+                logger.info("Processing of stripe could not yield. Executor refused the task.");
+                return false;
+            }
+            return true;
+        }
+
+        private List<EventMessage<?>> drain() {
+            int maxBatchSize = batchSize;
+            List<EventMessage<?>> batch = new ArrayList<>(Math.min(maxBatchSize, queue.capacity()));
+            EventMessage<?> event;
+            while (batch.size() < maxBatchSize && (event = overflow.poll()) != null) {
+                batch.add(event);
+            }
+            while (batch.size() < maxBatchSize && (event = queue.poll()) != null) {
+                batch.add(event);
+            }
+            while (batch.size() < maxBatchSize && (event = externalOverflow.poll()) != null) {
+                batch.add(event);
+            }
+            return batch;
+        }
+
+        private void waitUntilAllowedStartingTime() {
+            long waitTimeRemaining = retryAfter - System.currentTimeMillis();
+            if (waitTimeRemaining > 0) {
+                try {
+                    Thread.sleep(waitTimeRemaining);
+                } catch (InterruptedException e) {
+                    logger.warn("Thread was interrupted while waiting for retry. Scheduling for immediate retry.");
+                    Thread.currentThread().interrupt();
+                }
+            }
+            retryAfter = 0;
+        }
+    }
+}
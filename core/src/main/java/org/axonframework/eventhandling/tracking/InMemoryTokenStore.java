@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.tracking;
+
+import org.axonframework.eventhandling.ProcessingToken;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.String.format;
+
+/**
+ * TokenStore implementation that keeps tokens and claims in memory. Claims never expire. As tokens are lost when the
+ * application stops, this implementation is mainly suitable for testing, or for processors that should process all
+ * events from the start each time the application starts.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class InMemoryTokenStore implements TokenStore {
+
+    private final ConcurrentMap<SegmentKey, TokenEntry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean claimSegment(String processorName, int segment, String owner) {
+        TokenEntry entry = entries.compute(new SegmentKey(processorName, segment), (key, current) -> {
+            if (current == null) {
+                return new TokenEntry(owner, null);
+            } else if (current.owner == null) {
+                return new TokenEntry(owner, current.token);
+            }
+            return current;
+        });
+        return owner.equals(entry.owner);
+    }
+
+    @Override
+    public void releaseClaim(String processorName, int segment, String owner) {
+        entries.computeIfPresent(new SegmentKey(processorName, segment),
+                                 (key, current) -> owner.equals(current.owner)
+                                         ? new TokenEntry(null, current.token) : current);
+    }
+
+    @Override
+    public void storeToken(String processorName, int segment, String owner, ProcessingToken token) {
+        TokenEntry entry = entries.computeIfPresent(new SegmentKey(processorName, segment),
+                                                    (key, current) -> owner.equals(current.owner)
+                                                            ? new TokenEntry(owner, token) : current);
+        if (entry == null || !owner.equals(entry.owner)) {
+            throw new TokenStoreException(format("Unable to store token: segment [%d] of processor [%s] is not "
+                                                         + "claimed by [%s]", segment, processorName, owner));
+        }
+    }
+
+    @Override
+    public ProcessingToken fetchToken(String processorName, int segment) {
+        TokenEntry entry = entries.get(new SegmentKey(processorName, segment));
+        return entry == null ? null : entry.token;
+    }
+
+    private static final class SegmentKey {
+
+        private final String processorName;
+        private final int segment;
+
+        private SegmentKey(String processorName, int segment) {
+            this.processorName = processorName;
+            this.segment = segment;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SegmentKey that = (SegmentKey) o;
+            return segment == that.segment && processorName.equals(that.processorName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(processorName, segment);
+        }
+    }
+
+    private static final class TokenEntry {
+
+        private final String owner;
+        private final ProcessingToken token;
+
+        private TokenEntry(String owner, ProcessingToken token) {
+            this.owner = owner;
+            this.token = token;
+        }
+    }
+}
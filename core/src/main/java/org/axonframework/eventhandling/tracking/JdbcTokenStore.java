@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.tracking;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.common.jdbc.DataSourceConnectionProvider;
+import org.axonframework.common.jdbc.UnitOfWorkAwareConnectionProviderWrapper;
+import org.axonframework.eventhandling.ProcessingToken;
+import org.axonframework.serializer.SerializedObject;
+import org.axonframework.serializer.Serializer;
+import org.axonframework.serializer.SimpleSerializedObject;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.lang.String.format;
+import static org.axonframework.common.jdbc.JdbcUtils.closeQuietly;
+
+/**
+ * TokenStore implementation that stores tokens and claims in a database table, using plain JDBC. Tokens are
+ * serialized using the given {@link Serializer}. When a DataSource is given, connections are bound to the Unit of
+ * Work, which means tokens are stored in the same transaction as the changes made by the event listeners if the
+ * DataSource is transaction aware.
+ * <p/>
+ * A claim is considered abandoned when it hasn't been extended for longer than the claim timeout, which is {@value
+ * #DEFAULT_CLAIM_TIMEOUT} milliseconds by default.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class JdbcTokenStore implements TokenStore {
+
+    /**
+     * The default time in milliseconds after which a claim that hasn't been extended is considered abandoned.
+     */
+    public static final long DEFAULT_CLAIM_TIMEOUT = 10000;
+
+    private static final String TABLE_NAME = "TokenEntry";
+
+    private final ConnectionProvider connectionProvider;
+    private final Serializer serializer;
+    private long claimTimeout = DEFAULT_CLAIM_TIMEOUT;
+
+    /**
+     * Initializes the TokenStore, fetching connections from the given <code>dataSource</code> and serializing tokens
+     * using the given <code>serializer</code>.
+     *
+     * @param dataSource The data source used to create connections
+     * @param serializer The serializer used to serialize tokens
+     */
+    public JdbcTokenStore(DataSource dataSource, Serializer serializer) {
+        this(new UnitOfWorkAwareConnectionProviderWrapper(new DataSourceConnectionProvider(dataSource)), serializer);
+    }
+
+    /**
+     * Initializes the TokenStore, fetching connections from the given <code>connectionProvider</code> and
+     * serializing tokens using the given <code>serializer</code>.
+     *
+     * @param connectionProvider Used to obtain connections
+     * @param serializer         The serializer used to serialize tokens
+     */
+    public JdbcTokenStore(ConnectionProvider connectionProvider, Serializer serializer) {
+        Assert.notNull(connectionProvider, "connectionProvider may not be null");
+        Assert.notNull(serializer, "serializer may not be null");
+        this.connectionProvider = connectionProvider;
+        this.serializer = serializer;
+    }
+
+    @Override
+    public boolean claimSegment(String processorName, int segment, String owner) {
+        Connection connection = null;
+        try {
+            connection = connectionProvider.getConnection();
+            if (updateClaim(connection, processorName, segment, owner) > 0) {
+                return true;
+            }
+            if (entryExists(connection, processorName, segment)) {
+                return false;
+            }
+            try {
+                insertClaim(connection, processorName, segment, owner);
+                return true;
+            } catch (SQLException e) {
+                // another owner may have inserted the entry in the meantime
+                if (entryExists(connection, processorName, segment)) {
+                    return false;
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new TokenStoreException(format("Exception while attempting to claim segment [%d] of processor "
+                                                         + "[%s]", segment, processorName), e);
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void releaseClaim(String processorName, int segment, String owner) {
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            connection = connectionProvider.getConnection();
+            preparedStatement = connection.prepareStatement(
+                    "UPDATE " + TABLE_NAME + " SET owner = NULL "
+                            + "WHERE processorName = ? AND segment = ? AND owner = ?");
+            preparedStatement.setString(1, processorName);
+            preparedStatement.setInt(2, segment);
+            preparedStatement.setString(3, owner);
+            preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new TokenStoreException(format("Exception while attempting to release the claim on segment [%d] "
+                                                         + "of processor [%s]", segment, processorName), e);
+        } finally {
+            closeQuietly(preparedStatement);
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void storeToken(String processorName, int segment, String owner, ProcessingToken token) {
+        SerializedObject<byte[]> serializedToken = serializer.serialize(token, byte[].class);
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        int updatedRows;
+        try {
+            connection = connectionProvider.getConnection();
+            preparedStatement = connection.prepareStatement(
+                    "UPDATE " + TABLE_NAME + " SET token = ?, tokenType = ?, claimTimestamp = ? "
+                            + "WHERE processorName = ? AND segment = ? AND owner = ?");
+            preparedStatement.setBytes(1, serializedToken.getData());
+            preparedStatement.setString(2, serializedToken.getType().getName());
+            preparedStatement.setLong(3, System.currentTimeMillis());
+            preparedStatement.setString(4, processorName);
+            preparedStatement.setInt(5, segment);
+            preparedStatement.setString(6, owner);
+            updatedRows = preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new TokenStoreException(format("Exception while attempting to store the token of segment [%d] "
+                                                         + "of processor [%s]", segment, processorName), e);
+        } finally {
+            closeQuietly(preparedStatement);
+            closeQuietly(connection);
+        }
+        if (updatedRows == 0) {
+            throw new TokenStoreException(format("Unable to store token: segment [%d] of processor [%s] is not "
+                                                         + "claimed by [%s]", segment, processorName, owner));
+        }
+    }
+
+    @Override
+    public ProcessingToken fetchToken(String processorName, int segment) {
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = connectionProvider.getConnection();
+            preparedStatement = connection.prepareStatement(
+                    "SELECT token, tokenType FROM " + TABLE_NAME + " WHERE processorName = ? AND segment = ?");
+            preparedStatement.setString(1, processorName);
+            preparedStatement.setInt(2, segment);
+            resultSet = preparedStatement.executeQuery();
+            if (!resultSet.next() || resultSet.getString(2) == null) {
+                return null;
+            }
+            return serializer.deserialize(new SimpleSerializedObject<>(resultSet.getBytes(1), byte[].class,
+                                                                       resultSet.getString(2), null));
+        } catch (SQLException e) {
+            throw new TokenStoreException(format("Exception while attempting to fetch the token of segment [%d] "
+                                                         + "of processor [%s]", segment, processorName), e);
+        } finally {
+            closeQuietly(resultSet);
+            closeQuietly(preparedStatement);
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Performs the DDL queries to create the table necessary for this TokenStore implementation.
+     *
+     * @throws SQLException when an error occurs executing SQL statements
+     */
+    public void createSchema() throws SQLException {
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            connection = connectionProvider.getConnection();
+            preparedStatement = connection.prepareStatement(
+                    "create table " + TABLE_NAME + " (processorName varchar(255) not null, "
+                            + "segment integer not null, token blob, tokenType varchar(255), owner varchar(255), "
+                            + "claimTimestamp bigint not null, primary key (processorName, segment))");
+            preparedStatement.executeUpdate();
+        } finally {
+            closeQuietly(preparedStatement);
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Sets the time in milliseconds after which a claim that hasn't been extended is considered abandoned, allowing
+     * other owners to claim the segment. Defaults to {@value #DEFAULT_CLAIM_TIMEOUT} milliseconds.
+     *
+     * @param claimTimeout The time in milliseconds after which an idle claim is considered abandoned
+     */
+    public void setClaimTimeout(long claimTimeout) {
+        Assert.isTrue(claimTimeout >= 0, "claimTimeout may not be negative");
+        this.claimTimeout = claimTimeout;
+    }
+
+    private int updateClaim(Connection connection, String processorName, int segment, String owner)
+            throws SQLException {
+        PreparedStatement preparedStatement = null;
+        try {
+            long now = System.currentTimeMillis();
+            preparedStatement = connection.prepareStatement(
+                    "UPDATE " + TABLE_NAME + " SET owner = ?, claimTimestamp = ? "
+                            + "WHERE processorName = ? AND segment = ? "
+                            + "AND (owner IS NULL OR owner = ? OR claimTimestamp < ?)");
+            preparedStatement.setString(1, owner);
+            preparedStatement.setLong(2, now);
+            preparedStatement.setString(3, processorName);
+            preparedStatement.setInt(4, segment);
+            preparedStatement.setString(5, owner);
+            preparedStatement.setLong(6, now - claimTimeout);
+            return preparedStatement.executeUpdate();
+        } finally {
+            closeQuietly(preparedStatement);
+        }
+    }
+
+    private boolean entryExists(Connection connection, String processorName, int segment) throws SQLException {
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            preparedStatement = connection.prepareStatement(
+                    "SELECT processorName FROM " + TABLE_NAME + " WHERE processorName = ? AND segment = ?");
+            preparedStatement.setString(1, processorName);
+            preparedStatement.setInt(2, segment);
+            resultSet = preparedStatement.executeQuery();
+            return resultSet.next();
+        } finally {
+            closeQuietly(resultSet);
+            closeQuietly(preparedStatement);
+        }
+    }
+
+    private void insertClaim(Connection connection, String processorName, int segment, String owner)
+            throws SQLException {
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = connection.prepareStatement(
+                    "INSERT INTO " + TABLE_NAME + " (processorName, segment, owner, claimTimestamp) "
+                            + "VALUES (?, ?, ?, ?)");
+            preparedStatement.setString(1, processorName);
+            preparedStatement.setInt(2, segment);
+            preparedStatement.setString(3, owner);
+            preparedStatement.setLong(4, System.currentTimeMillis());
+            preparedStatement.executeUpdate();
+        } finally {
+            closeQuietly(preparedStatement);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.tracking;
+
+import org.axonframework.eventhandling.ProcessingToken;
+
+/**
+ * Describes a component capable of storing the {@link ProcessingToken tokens} of tracking event processors. Tokens
+ * are stored per segment of a processor. To prevent multiple threads or nodes from processing the same segment, a
+ * segment needs to be claimed by an owner before its token may be updated.
+ * <p/>
+ * Claims are kept alive by updating the token or by claiming the segment again. Implementations may consider claims
+ * that haven't been kept alive for some time to be abandoned, allowing other owners to claim the segment.
+ *
+ * @author Allard Buijze
+ * @see TrackingEventProcessor
+ * @since 3.0
+ */
+public interface TokenStore {
+
+    /**
+     * Claims the given <code>segment</code> of the processor with given <code>processorName</code> for the given
+     * <code>owner</code>. If the owner already holds the claim, the claim is extended.
+     *
+     * @param processorName The name of the processor the segment belongs to
+     * @param segment       The segment to claim
+     * @param owner         The identifier of the owner claiming the segment
+     * @return <code>true</code> if the owner holds the claim on the segment, <code>false</code> if the segment is
+     * claimed by another owner
+     */
+    boolean claimSegment(String processorName, int segment, String owner);
+
+    /**
+     * Releases the claim of the given <code>owner</code> on the given <code>segment</code>, allowing other owners to
+     * claim it. Nothing happens if the segment isn't claimed by the given owner.
+     *
+     * @param processorName The name of the processor the segment belongs to
+     * @param segment       The segment to release the claim on
+     * @param owner         The identifier of the owner releasing the claim
+     */
+    void releaseClaim(String processorName, int segment, String owner);
+
+    /**
+     * Stores the given <code>token</code> for the given <code>segment</code> and extends the claim of the given
+     * <code>owner</code> on that segment.
+     *
+     * @param processorName The name of the processor the segment belongs to
+     * @param segment       The segment to store the token for
+     * @param owner         The identifier of the owner of the claim on the segment
+     * @param token         The token to store
+     * @throws TokenStoreException if the segment is not claimed by the given owner
+     */
+    void storeToken(String processorName, int segment, String owner, ProcessingToken token);
+
+    /**
+     * Returns the token stored for the given <code>segment</code>, or <code>null</code> if no token was stored yet.
+     *
+     * @param processorName The name of the processor the segment belongs to
+     * @param segment       The segment to return the token of
+     * @return the token stored for the segment, or <code>null</code> if no token was stored
+     */
+    ProcessingToken fetchToken(String processorName, int segment);
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.tracking;
+
+import org.axonframework.common.AxonTransientException;
+
+/**
+ * Exception indicating that a token could not be read from or written to a {@link TokenStore}, for example because
+ * the claim on the segment was lost to another owner.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class TokenStoreException extends AxonTransientException {
+
+    private static final long serialVersionUID = -4357142178466215478L;
+
+    /**
+     * Initializes the exception using the given <code>message</code>.
+     *
+     * @param message The message describing the exception
+     */
+    public TokenStoreException(String message) {
+        super(message);
+    }
+
+    /**
+     * Initializes the exception using the given <code>message</code> and <code>cause</code>.
+     *
+     * @param message The message describing the exception
+     * @param cause   The underlying cause of the exception
+     */
+    public TokenStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.tracking;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.domain.IdentifierFactory;
+import org.axonframework.eventhandling.AbstractEventProcessor;
+import org.axonframework.eventhandling.BatchingEventListener;
+import org.axonframework.eventhandling.BatchingListenerInvoker;
+import org.axonframework.eventhandling.EventListener;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.MultiplexingEventProcessingMonitor;
+import org.axonframework.eventhandling.ProcessingToken;
+import org.axonframework.eventhandling.async.DefaultErrorHandler;
+import org.axonframework.eventhandling.async.ErrorHandler;
+import org.axonframework.eventhandling.async.RetryPolicy;
+import org.axonframework.eventhandling.async.SequencingPolicy;
+import org.axonframework.eventstore.TrackingEventStore;
+import org.axonframework.eventstore.TrackingEventStream;
+import org.axonframework.messaging.DefaultInterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.interceptors.NoTransactionManager;
+import org.axonframework.messaging.interceptors.Transaction;
+import org.axonframework.messaging.interceptors.TransactionManager;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EventProcessor implementation that reads events from a {@link TrackingEventStore}, instead of processing the events
+ * published on an Event Bus. The position of the processor in the event stream is kept in a {@link TokenStore}, so
+ * that processing continues where it left off after a restart.
+ * <p/>
+ * The events are divided over a fixed number of segments, based on the sequence identifier provided by the {@link
+ * SequencingPolicy}. Events for which the policy provides no sequence identifier are divided based on their
+ * identifier. Each segment is processed by a separate thread, which needs to claim the segment in the TokenStore
+ * first. This allows the segments of a processor to be processed by multiple nodes, each with the same processor
+ * name and the same number of segments, sharing a TokenStore.
+ * <p/>
+ * Events are read in batches of at most {@value #DEFAULT_BATCH_SIZE} events (see {@link #setBatchSize(int)}). The
+ * events of a batch that belong to the thread's segment are handled in a single {@link BatchingUnitOfWork}, backed by
+ * a single transaction, in which the token of the segment is stored as well. {@link BatchingEventListener
+ * BatchingEventListeners} receive these events in a single invocation. When an Event Listener fails, the {@link
+ * ErrorHandler} decides whether to proceed, skip the event or retry (see {@link #setErrorHandler(ErrorHandler)}). When
+ * processing of a batch is retried, the transaction is rolled back and processing is retried from the last stored
+ * token after {@link #setErrorWaitTime(long) a short pause}.
+ * <p/>
+ * Events given to {@link #handle(List)}, for example by an Event Bus, are ignored. Processing starts when {@link
+ * #start()} is invoked.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class TrackingEventProcessor extends AbstractEventProcessor {
+
+    /**
+     * The default maximum number of events read from the event store in a single batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingEventProcessor.class);
+
+    private final TrackingEventStore eventStore;
+    private final TokenStore tokenStore;
+    private final SequencingPolicy<? super EventMessage<?>> sequencingPolicy;
+    private final TransactionManager transactionManager;
+    private final int segmentCount;
+    private final String ownerId;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private ThreadFactory threadFactory;
+    private volatile ErrorHandler errorHandler =
+            new DefaultErrorHandler(RetryPolicy.retryAfter(5000, TimeUnit.MILLISECONDS));
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long pollTimeout = 1000;
+    private long errorWaitTime = 5000;
+    private volatile boolean running;
+
+    /**
+     * Initializes a TrackingEventProcessor with given <code>name</code> that reads events from the given
+     * <code>eventStore</code> in a single segment. Events are processed without transaction.
+     *
+     * @param name       The name of the processor, which is used to store and claim tokens
+     * @param eventStore The event store to read events from
+     * @param tokenStore The store in which the tokens of the processor are kept
+     */
+    public TrackingEventProcessor(String name, TrackingEventStore eventStore, TokenStore tokenStore) {
+        this(name, eventStore, tokenStore, event -> null, 1, new NoTransactionManager());
+    }
+
+    /**
+     * Initializes a TrackingEventProcessor with given <code>name</code> that reads events from the given
+     * <code>eventStore</code>, dividing them over <code>segmentCount</code> segments using the given
+     * <code>sequencingPolicy</code>. Batches of events are processed in transactions managed by the given
+     * <code>transactionManager</code>.
+     * <p/>
+     * All instances of a processor with the same name must use the same number of segments and the same sequencing
+     * policy.
+     *
+     * @param name               The name of the processor, which is used to store and claim tokens
+     * @param eventStore         The event store to read events from
+     * @param tokenStore         The store in which the tokens of the processor are kept
+     * @param sequencingPolicy   The policy providing the sequence identifiers events are divided over segments by
+     * @param segmentCount       The number of segments to divide the events over
+     * @param transactionManager The transaction manager managing the transaction in which each batch is processed
+     */
+    public TrackingEventProcessor(String name, TrackingEventStore eventStore, TokenStore tokenStore,
+                                  SequencingPolicy<? super EventMessage<?>> sequencingPolicy, int segmentCount,
+                                  TransactionManager transactionManager) {
+        super(name);
+        Assert.notNull(eventStore, "eventStore may not be null");
+        Assert.notNull(tokenStore, "tokenStore may not be null");
+        Assert.notNull(sequencingPolicy, "sequencingPolicy may not be null");
+        Assert.notNull(transactionManager, "transactionManager may not be null");
+        Assert.isTrue(segmentCount > 0, "segmentCount must be at least 1");
+        this.eventStore = eventStore;
+        this.tokenStore = tokenStore;
+        this.sequencingPolicy = sequencingPolicy;
+        this.segmentCount = segmentCount;
+        this.transactionManager = transactionManager;
+        this.ownerId = IdentifierFactory.getInstance().generateIdentifier();
+        this.threadFactory = new AxonThreadFactory("TrackingEventProcessor[" + name + "]");
+    }
+
+    /**
+     * Starts a thread for each of the segments of this processor. Each thread processes the events of its segment as
+     * soon as it manages to claim it. Nothing happens if the processor is already started.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int segment = 0; segment < segmentCount; segment++) {
+            Thread thread = threadFactory.newThread(new SegmentWorker(segment));
+            workerThreads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops processing events, waiting for the batches being processed to complete, and releases the claims on the
+     * segments of this processor.
+     */
+    public synchronized void shutDown() {
+        running = false;
+        for (Thread thread : workerThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        workerThreads.clear();
+    }
+
+    /**
+     * Indicates whether this processor has been started and not shut down since.
+     *
+     * @return <code>true</code> if the processor is running, otherwise <code>false</code>
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation ignores the given events, as it reads its events from the event store.
+     */
+    @Override
+    protected void doPublish(List<EventMessage<?>> events, Set<EventListener> eventListeners,
+                             Set<MessageHandlerInterceptor<EventMessage<?>>> interceptors,
+                             MultiplexingEventProcessingMonitor eventProcessingMonitor) {
+        logger.debug("Ignoring {} published events. Events are read from the event store.", events.size());
+    }
+
+    /**
+     * Returns the segment the given <code>event</code> belongs to.
+     *
+     * @param event The event to find the segment for
+     * @return the segment the event belongs to
+     */
+    protected int segmentOf(EventMessage<?> event) {
+        Object sequenceIdentifier = sequencingPolicy.getSequenceIdentifierFor(event);
+        if (sequenceIdentifier == null) {
+            sequenceIdentifier = event.getIdentifier();
+        }
+        return (sequenceIdentifier.hashCode() & Integer.MAX_VALUE) % segmentCount;
+    }
+
+    private void processBatch(int segment, List<EventMessage<?>> batch, ProcessingToken token) throws Exception {
+        List<EventMessage<?>> events = new ArrayList<>(batch);
+        while (true) {
+            ListenerFailure failure = new ListenerFailure();
+            try {
+                processEvents(segment, events, token, failure);
+                return;
+            } catch (Exception e) {
+                if (failure.policy == null || failure.policy.requiresRescheduleEvent()) {
+                    throw e;
+                }
+                // the error handler requested to skip the events; process the batch again without them
+                Set<String> skipped = new HashSet<>();
+                failure.events.forEach(event -> skipped.add(event.getIdentifier()));
+                if (!events.removeIf(event -> skipped.contains(event.getIdentifier()))) {
+                    throw e;
+                }
+                logger.warn("Skipping {} event(s) in segment {} of processor [{}] after a failure.",
+                            skipped.size(), segment, getName(), e);
+                eventProcessingMonitor().onEventProcessingFailed(new ArrayList<>(failure.events), e);
+            }
+        }
+    }
+
+    private void processEvents(int segment, List<EventMessage<?>> batch, ProcessingToken token,
+                               ListenerFailure failure) throws Exception {
+        Transaction transaction = transactionManager.startTransaction();
+        if (batch.isEmpty()) {
+            try {
+                tokenStore.storeToken(getName(), segment, ownerId, token);
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+            transaction.commit();
+            return;
+        }
+        MultiplexingEventProcessingMonitor monitor = eventProcessingMonitor();
+        Map<EventMessage<?>, Throwable> failures = new IdentityHashMap<>();
+        BatchingUnitOfWork<EventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(batch);
+        unitOfWork.onPrepareCommit(u -> tokenStore.storeToken(getName(), segment, ownerId, token));
+        unitOfWork.onCommit(u -> transaction.commit());
+        unitOfWork.onRollback(u -> transaction.rollback());
+        unitOfWork.afterCommit(u -> notifyMonitor(batch, failures));
+        unitOfWork.onRollback(u -> {
+            if (failure.policy == null || failure.policy.requiresRescheduleEvent()) {
+                monitor.onEventProcessingFailed(batch, u.getExecutionResult().getExceptionResult());
+            }
+        });
+        Set<EventListener> eventListeners = eventListeners();
+        BatchingListenerInvoker batchingListenerInvoker = new BatchingListenerInvoker(batch.size());
+        unitOfWork.executeWithResult(() -> {
+            Object result = new DefaultInterceptorChain<>(unitOfWork, interceptors(), (message, uow) -> {
+                for (EventListener eventListener : eventListeners) {
+                    if (!(eventListener instanceof BatchingEventListener)) {
+                        try {
+                            eventListener.handle(message);
+                        } catch (Exception e) {
+                            handleListenerError(e, Collections.singletonList(message), eventListener, failures,
+                                                failure);
+                        }
+                    }
+                }
+                batchingListenerInvoker.eventHandled(message);
+                return null;
+            }).proceed();
+            batchingListenerInvoker.eventProcessed(events -> {
+                for (EventListener eventListener : eventListeners) {
+                    if (eventListener instanceof BatchingEventListener) {
+                        try {
+                            ((BatchingEventListener) eventListener).handle(events);
+                        } catch (Exception e) {
+                            handleListenerError(e, events, eventListener, failures, failure);
+                        }
+                    }
+                }
+            });
+            return result;
+        });
+    }
+
+    private void handleListenerError(Exception error, List<EventMessage<?>> events, EventListener eventListener,
+                                     Map<EventMessage<?>, Throwable> failures, ListenerFailure failure)
+            throws Exception {
+        RetryPolicy policy = errorHandler.handleError(error, events.get(events.size() - 1), eventListener);
+        if (policy.requiresRescheduleEvent() || policy.requiresRollback()) {
+            failure.policy = policy;
+            failure.events = events;
+            throw error;
+        }
+        events.forEach(event -> failures.putIfAbsent(event, error));
+    }
+
+    private void notifyMonitor(List<EventMessage<?>> batch, Map<EventMessage<?>, Throwable> failures) {
+        MultiplexingEventProcessingMonitor monitor = eventProcessingMonitor();
+        if (failures.isEmpty()) {
+            monitor.onEventProcessingCompleted(batch);
+            return;
+        }
+        List<EventMessage> processed = new ArrayList<>(batch.size());
+        batch.stream().filter(event -> !failures.containsKey(event)).forEach(processed::add);
+        if (!processed.isEmpty()) {
+            monitor.onEventProcessingCompleted(processed);
+        }
+        failures.forEach((event, error) -> monitor.onEventProcessingFailed(
+                Collections.<EventMessage>singletonList(event), error));
+    }
+
+    /**
+     * Sets the maximum number of events read from the event store in a single batch. Defaults to {@value
+     * #DEFAULT_BATCH_SIZE}.
+     *
+     * @param batchSize The maximum number of events in a batch
+     */
+    public void setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "batchSize must be at least 1");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the time in milliseconds a thread waits for new events before it extends the claim on its segment and
+     * checks whether the processor is shut down. Defaults to 1000 milliseconds. This time should be well below the
+     * time after which the TokenStore considers a claim to be abandoned.
+     *
+     * @param pollTimeout The time in milliseconds to wait for new events
+     */
+    public void setPollTimeout(long pollTimeout) {
+        Assert.isTrue(pollTimeout > 0, "pollTimeout must be positive");
+        this.pollTimeout = pollTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds to wait before processing is retried after a failure, and before a thread retries
+     * to claim a segment that is claimed by another owner. Defaults to 5000 milliseconds.
+     *
+     * @param errorWaitTime The time in milliseconds to wait before retrying
+     */
+    public void setErrorWaitTime(long errorWaitTime) {
+        Assert.isTrue(errorWaitTime >= 0, "errorWaitTime may not be negative");
+        this.errorWaitTime = errorWaitTime;
+    }
+
+    /**
+     * Sets the ErrorHandler that decides how to proceed when an Event Listener fails to handle an event. If the
+     * returned policy requires the event to be rescheduled, the transaction of the batch is rolled back and
+     * processing is retried from the last stored token after the {@link #setErrorWaitTime(long) error wait time}. If
+     * it requires a rollback only, the transaction is rolled back and the batch is processed again without the failed
+     * event, effectively skipping it. Otherwise, the failure is reported to the monitors and processing proceeds.
+     * <p/>
+     * Defaults to a {@link DefaultErrorHandler} that requires failed events to be rescheduled, unless the failure is
+     * non-transient.
+     *
+     * @param errorHandler The error handler to invoke when an Event Listener fails
+     */
+    public void setErrorHandler(ErrorHandler errorHandler) {
+        Assert.notNull(errorHandler, "errorHandler may not be null");
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Sets the ThreadFactory used to create the threads processing the segments. Defaults to an {@link
+     * AxonThreadFactory} creating threads in a group named after this processor. Must be set before the processor is
+     * started.
+     *
+     * @param threadFactory The factory creating the processing threads
+     */
+    public void setThreadFactory(ThreadFactory threadFactory) {
+        Assert.notNull(threadFactory, "threadFactory may not be null");
+        this.threadFactory = threadFactory;
+    }
+
+    private static final class ListenerFailure {
+
+        private RetryPolicy policy;
+        private List<EventMessage<?>> events;
+    }
+
+    private final class SegmentWorker implements Runnable {
+
+        private final int segment;
+
+        private SegmentWorker(int segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    if (!tokenStore.claimSegment(getName(), segment, ownerId)) {
+                        logger.debug("Segment {} of processor [{}] is claimed by another owner.", segment, getName());
+                        TimeUnit.MILLISECONDS.sleep(errorWaitTime);
+                    } else {
+                        processSegment();
+                    }
+                }
+            } catch (InterruptedException e) {
+                logger.info("Thread processing segment {} of processor [{}] was interrupted. Shutting down.",
+                            segment, getName());
+                Thread.currentThread().interrupt();
+            } finally {
+                releaseClaim();
+            }
+        }
+
+        private void processSegment() throws InterruptedException {
+            try (TrackingEventStream eventStream = eventStore.openStream(tokenStore.fetchToken(getName(), segment))) {
+                while (running) {
+                    if (eventStream.hasNextAvailable(pollTimeout, TimeUnit.MILLISECONDS)) {
+                        processNextBatch(eventStream);
+                    } else if (!tokenStore.claimSegment(getName(), segment, ownerId)) {
+                        logger.info("Claim on segment {} of processor [{}] was lost.", segment, getName());
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                logger.warn("Error processing segment {} of processor [{}]. Retrying in {} ms.",
+                            segment, getName(), errorWaitTime, e);
+                TimeUnit.MILLISECONDS.sleep(errorWaitTime);
+            }
+        }
+
+        private void processNextBatch(TrackingEventStream eventStream) throws Exception {
+            List<EventMessage<?>> batch = new ArrayList<>();
+            int readCount = 0;
+            do {
+                EventMessage<?> event = eventStream.nextAvailable();
+                readCount++;
+                if (segmentOf(event) == segment) {
+                    batch.add(event);
+                }
+            } while (readCount < batchSize && eventStream.hasNextAvailable(0, TimeUnit.MILLISECONDS));
+            processBatch(segment, batch, eventStream.currentToken());
+        }
+
+        private void releaseClaim() {
+            try {
+                tokenStore.releaseClaim(getName(), segment, ownerId);
+            } catch (RuntimeException e) {
+                logger.warn("Unable to release the claim on segment {} of processor [{}].", segment, getName(), e);
+            }
+        }
+    }
+}
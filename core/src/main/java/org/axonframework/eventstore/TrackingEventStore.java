@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2010-2015. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventstore;
+
+import org.axonframework.eventhandling.ProcessingToken;
+
+/**
+ * Interface describing an event store that is able to provide a stream of all its events, in the order in which they
+ * were stored. Readers keep track of their position using a {@link ProcessingToken}, which allows them to resume
+ * reading where they left off.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public interface TrackingEventStore {
+
+    /**
+     * Opens a stream that provides all events stored after the position described by the given
+     * <code>trackingToken</code>. If the given token is <code>null</code>, the stream starts at the very first event in
+     * the event store.
+     * <p/>
+     * The returned stream must be closed when the reader is done with it.
+     *
+     * @param trackingToken The token describing the position of the last event already processed, or
+     *                      <code>null</code> to read all events
+     * @return a stream providing events stored after the given token
+     *
+     * @throws EventStoreException if an error occurs while opening the stream
+     */
+    TrackingEventStream openStream(ProcessingToken trackingToken);
+}
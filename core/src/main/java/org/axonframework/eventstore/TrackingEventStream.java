@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2010-2015. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventstore;
+
+import org.axonframework.eventhandling.ProcessingToken;
+import org.axonframework.eventsourcing.DomainEventMessage;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A stream of all events in an event store, in the order in which they were stored. The stream does not end when all
+ * stored events have been read. Instead, readers may wait for new events to become available using {@link
+ * #hasNextAvailable(long, TimeUnit)}.
+ * <p/>
+ * Streams are not thread safe, and are expected to be used by a single reading thread.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ * @see TrackingEventStore
+ */
+public interface TrackingEventStream extends Closeable {
+
+    /**
+     * Indicates whether an event is available for reading, waiting at most the given <code>timeout</code> for a new
+     * event to become available.
+     *
+     * @param timeout The maximum time to wait for an event
+     * @param unit    The unit of the given <code>timeout</code>
+     * @return <code>true</code> if an event is available, otherwise <code>false</code>
+     *
+     * @throws InterruptedException when the thread is interrupted while waiting for events
+     * @throws EventStoreException  if an error occurs while reading events from the event store
+     */
+    boolean hasNextAvailable(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Returns the next available event. This method should only be called after {@link #hasNextAvailable(long,
+     * TimeUnit)} has returned <code>true</code>.
+     *
+     * @return the next available event
+     *
+     * @throws java.util.NoSuchElementException if no event is available
+     */
+    DomainEventMessage<?> nextAvailable();
+
+    /**
+     * Returns the token describing the position of the last event returned by {@link #nextAvailable()}. When no
+     * events have been read yet, returns the token this stream was opened with, which may be <code>null</code>.
+     * <p/>
+     * Opening a new stream with the returned token will resume reading after the last returned event.
+     *
+     * @return the token describing the position of the last event read from this stream
+     */
+    ProcessingToken currentToken();
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventstore.fs;
+
+import org.axonframework.common.Assert;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index of the positions of the events of each aggregate in the segments of a {@link SegmentedLogEventStore}. The
+ * entries of the index are stored in a memory-mapped file. Each entry contains the sequence number of an event, its
+ * position in the log and a reference to the previous entry of the same aggregate. For each aggregate, only a
+ * reference to its last entry is kept on the heap.
+ * <p/>
+ * The file is mapped in chunks of a fixed number of entries, so that the index is not limited by the maximum size of
+ * a single memory-mapped buffer (2GB). A new chunk is mapped when the previous one is full.
+ * <p/>
+ * The index is not durable. It is rebuilt from the segments each time the event store is started.
+ * <p/>
+ * Entries may only be added by a single thread, while any number of threads may read from the index concurrently.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+final class AggregateOffsetIndex {
+
+    /**
+     * The default number of entries in each mapped chunk of the index file: {@value} (24MB per chunk).
+     */
+    static final int DEFAULT_ENTRIES_PER_CHUNK = 1 << 20;
+
+    private static final int ENTRY_SIZE = 24;
+    private static final long NO_ENTRY = -1;
+
+    private final RandomAccessFile indexFile;
+    private final ConcurrentMap<String, AggregateState> aggregates = new ConcurrentHashMap<>();
+    private final int entriesPerChunk;
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private long entryCount;
+
+    /**
+     * Initializes an empty index, stored in the given <code>file</code>. Any existing contents of the file are
+     * discarded.
+     *
+     * @param file The file to store the index entries in
+     * @throws IOException when the index file could not be created
+     */
+    AggregateOffsetIndex(File file) throws IOException {
+        this(file, DEFAULT_ENTRIES_PER_CHUNK);
+    }
+
+    /**
+     * Initializes an empty index, stored in the given <code>file</code>, which is mapped in chunks of given
+     * <code>entriesPerChunk</code> entries. Any existing contents of the file are discarded.
+     *
+     * @param file            The file to store the index entries in
+     * @param entriesPerChunk The number of entries in each mapped chunk of the file
+     * @throws IOException when the index file could not be created
+     */
+    AggregateOffsetIndex(File file, int entriesPerChunk) throws IOException {
+        Assert.isTrue(entriesPerChunk > 0 && entriesPerChunk <= Integer.MAX_VALUE / ENTRY_SIZE,
+                      "entriesPerChunk must be positive and the size of a chunk smaller than 2GB");
+        this.entriesPerChunk = entriesPerChunk;
+        this.indexFile = new RandomAccessFile(file, "rw");
+        indexFile.setLength(0);
+    }
+
+    /**
+     * Adds an entry for the event with given <code>sequenceNumber</code> of the aggregate with given
+     * <code>aggregateIdentifier</code>, stored at the given <code>position</code>. The entry becomes visible to
+     * readers as soon as this method returns.
+     *
+     * @param aggregateIdentifier The identifier of the aggregate
+     * @param sequenceNumber      The sequence number of the event
+     * @param position            The position of the event in the log
+     * @throws IOException when the index file could not be extended
+     */
+    void add(String aggregateIdentifier, long sequenceNumber, long position) throws IOException {
+        MappedByteBuffer[] current = chunks;
+        int chunk = (int) (entryCount / entriesPerChunk);
+        if (chunk == current.length) {
+            current = mapChunk(current);
+        }
+        AggregateState previous = aggregates.get(aggregateIdentifier);
+        MappedByteBuffer buffer = current[chunk];
+        int offset = (int) (entryCount % entriesPerChunk) * ENTRY_SIZE;
+        buffer.putLong(offset, sequenceNumber);
+        buffer.putLong(offset + 8, position);
+        buffer.putLong(offset + 16, previous == null ? NO_ENTRY : previous.lastEntry);
+        aggregates.put(aggregateIdentifier, new AggregateState(entryCount++, sequenceNumber));
+    }
+
+    /**
+     * Returns the sequence number of the last event of the aggregate with given <code>aggregateIdentifier</code>, or
+     * <code>null</code> if no events are known for that aggregate.
+     *
+     * @param aggregateIdentifier The identifier of the aggregate
+     * @return the last sequence number of the aggregate, or <code>null</code> if the aggregate is unknown
+     */
+    Long lastSequenceNumber(String aggregateIdentifier) {
+        AggregateState state = aggregates.get(aggregateIdentifier);
+        return state == null ? null : state.lastSequenceNumber;
+    }
+
+    /**
+     * Returns the positions in the log of the events of the aggregate with given <code>aggregateIdentifier</code>
+     * with a sequence number between given <code>firstSequenceNumber</code> and <code>lastSequenceNumber</code>
+     * (both inclusive). The positions are returned in order of ascending sequence number.
+     *
+     * @param aggregateIdentifier The identifier of the aggregate
+     * @param firstSequenceNumber The sequence number of the first event to find
+     * @param lastSequenceNumber  The sequence number of the last event to find
+     * @return the positions of the events in the given range
+     */
+    long[] positions(String aggregateIdentifier, long firstSequenceNumber, long lastSequenceNumber) {
+        AggregateState state = aggregates.get(aggregateIdentifier);
+        if (state == null) {
+            return new long[0];
+        }
+        MappedByteBuffer[] buffers = chunks;
+        long[] positions = new long[16];
+        int count = 0;
+        long entry = state.lastEntry;
+        while (entry != NO_ENTRY) {
+            MappedByteBuffer buffer = buffers[(int) (entry / entriesPerChunk)];
+            int offset = (int) (entry % entriesPerChunk) * ENTRY_SIZE;
+            long sequenceNumber = buffer.getLong(offset);
+            if (sequenceNumber < firstSequenceNumber) {
+                break;
+            }
+            if (sequenceNumber <= lastSequenceNumber) {
+                if (count == positions.length) {
+                    long[] grown = new long[count * 2];
+                    System.arraycopy(positions, 0, grown, 0, count);
+                    positions = grown;
+                }
+                positions[count++] = buffer.getLong(offset + 8);
+            }
+            entry = buffer.getLong(offset + 16);
+        }
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = positions[count - 1 - i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of entries in the index.
+     *
+     * @return the number of entries in the index
+     */
+    long size() {
+        return entryCount;
+    }
+
+    /**
+     * Closes the index file. The index may not be used after it has been closed.
+     *
+     * @throws IOException when the index file could not be closed
+     */
+    void close() throws IOException {
+        indexFile.close();
+    }
+
+    private MappedByteBuffer[] mapChunk(MappedByteBuffer[] current) throws IOException {
+        long chunkSize = (long) entriesPerChunk * ENTRY_SIZE;
+        MappedByteBuffer[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = indexFile.getChannel().map(FileChannel.MapMode.READ_WRITE,
+                                                           current.length * chunkSize, chunkSize);
+        chunks = grown;
+        return grown;
+    }
+
+    private static final class AggregateState {
+
+        private final long lastEntry;
+        private final long lastSequenceNumber;
+
+        private AggregateState(long lastEntry, long lastSequenceNumber) {
+            this.lastEntry = lastEntry;
+            this.lastSequenceNumber = lastSequenceNumber;
+        }
+    }
+}
@@ -103,4 +103,43 @@ public interface EventFileResolver {
      *                     undetermined.
      */
     boolean snapshotFileExists(String aggregateIdentifier) throws IOException;
+
+    /**
+     * Provides an output stream to the snapshot index file for the aggregate with the given
+     * <code>aggregateIdentifier</code>. The index file contains a fixed-size pointer to the latest snapshot event in
+     * the snapshot events file. Written bytes replace any existing information.
+     * <p/>
+     * The caller of this method is responsible for closing the output stream when all data has been written to it.
+     * <p/>
+     * By default, this method returns <code>null</code>, indicating that the resolver does not support snapshot
+     * indexes. Snapshots are then found by reading the entire snapshot events file.
+     *
+     * @param aggregateIdentifier the identifier of the aggregate
+     * @return an OutputStream that overwrites the snapshot index of the given aggregate, or <code>null</code> if
+     * snapshot indexes are not supported
+     *
+     * @throws java.io.IOException when an error occurs while opening a file
+     */
+    default OutputStream openSnapshotIndexFileForWriting(String aggregateIdentifier) throws IOException {
+        return null;
+    }
+
+    /**
+     * Provides an input stream to the snapshot index file for the aggregate with the given
+     * <code>aggregateIdentifier</code>.
+     * <p/>
+     * The caller of this method is responsible for closing the input stream when done reading from it.
+     * <p/>
+     * By default, this method returns <code>null</code>, indicating that the resolver does not support snapshot
+     * indexes.
+     *
+     * @param aggregateIdentifier the identifier of the aggregate
+     * @return an InputStream that reads from the snapshot index of the given aggregate, or <code>null</code> if no
+     * snapshot index is available
+     *
+     * @throws java.io.IOException when an error occurs while opening a file
+     */
+    default InputStream openSnapshotIndexFileForReading(String aggregateIdentifier) throws IOException {
+        return null;
+    }
 }
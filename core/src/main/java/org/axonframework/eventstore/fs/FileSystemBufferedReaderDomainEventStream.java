@@ -70,11 +70,33 @@ public class FileSystemBufferedReaderDomainEventStream implements DomainEventStr
     public FileSystemBufferedReaderDomainEventStream(InputStream inputStream,
                                                      Serializer serializer,
                                                      UpcasterChain upcasterChain) {
+        this(null, inputStream, serializer, upcasterChain);
+    }
+
+    /**
+     * Initialize a BufferedReaderDomainEventStream that starts with the given (already deserialized)
+     * <code>snapshotEvent</code>, followed by the events read from the given <code>inputStream</code>. See {@link
+     * #FileSystemBufferedReaderDomainEventStream(InputStream, Serializer, UpcasterChain)} for the expected contents
+     * of the <code>inputStream</code>.
+     *
+     * @param snapshotEvent The snapshot event to start the stream with, or <code>null</code> to start with the first
+     *                      event in the <code>inputStream</code>
+     * @param inputStream   The inputStream providing serialized DomainEvents
+     * @param serializer    The serializer to deserialize the DomainEvents
+     * @param upcasterChain used to upcast events directly after being read
+     */
+    public FileSystemBufferedReaderDomainEventStream(DomainEventMessage snapshotEvent,
+                                                     InputStream inputStream,
+                                                     Serializer serializer,
+                                                     UpcasterChain upcasterChain) {
         this.eventMessageReader = new FileSystemEventMessageReader(
                 new DataInputStream(new BufferedInputStream(inputStream)));
         this.upcasterChain = upcasterChain;
         this.serializer = serializer;
         this.next = new LinkedList<>();
+        if (snapshotEvent != null) {
+            next.add(snapshotEvent);
+        }
         next.addAll(doReadNext());
     }
 
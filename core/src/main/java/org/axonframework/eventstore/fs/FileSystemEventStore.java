@@ -193,16 +193,8 @@ public DomainEventStream readEvents(String aggregateIdentifier) {
                 eventFileInputStream = eventFileResolver.openEventFileForReading(aggregateIdentifier);
             }
 
-            InputStream is = eventFileInputStream;
-            if (snapshotEvent != null) {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                FileSystemEventMessageWriter snapshotEventMessageWriter =
-                        new FileSystemEventMessageWriter(new DataOutputStream(baos), eventSerializer);
-                snapshotEventMessageWriter.writeEventMessage(snapshotEvent);
-                is = new SequenceInputStream(new ByteArrayInputStream(baos.toByteArray()), eventFileInputStream);
-            }
-
-            return new FileSystemBufferedReaderDomainEventStream(is, eventSerializer, upcasterChain);
+            return new FileSystemBufferedReaderDomainEventStream(snapshotEvent, eventFileInputStream,
+                                                                 eventSerializer, upcasterChain);
         } catch (IOException e) {
             throw new EventStoreException(
                     String.format("An error occurred while trying to open the event file "
@@ -224,8 +216,11 @@ public void appendSnapshotEvent(DomainEventMessage snapshotEvent) throws EventSt
             eventFile = eventFileResolver.openEventFileForReading(snapshotEvent.getAggregateIdentifier());
             OutputStream snapshotEventFile =
                     eventFileResolver.openSnapshotFileForWriting(snapshotEvent.getAggregateIdentifier());
+            OutputStream snapshotIndexFile =
+                    eventFileResolver.openSnapshotIndexFileForWriting(snapshotEvent.getAggregateIdentifier());
             FileSystemSnapshotEventWriter snapshotEventWriter =
-                    new FileSystemSnapshotEventWriter(eventFile, snapshotEventFile, eventSerializer);
+                    new FileSystemSnapshotEventWriter(eventFile, snapshotEventFile, snapshotIndexFile,
+                                                      eventSerializer);
 
             snapshotEventWriter.writeSnapshotEvent(snapshotEvent);
         } catch (IOException e) {
@@ -240,9 +235,17 @@ private DomainEventMessage readSnapshotEvent(String identifier, InputStream even
         DomainEventMessage snapshotEvent = null;
         if (eventFileResolver.snapshotFileExists(identifier)) {
             InputStream snapshotEventFile = eventFileResolver.openSnapshotFileForReading(identifier);
-            FileSystemSnapshotEventReader fileSystemSnapshotEventReader =
-                    new FileSystemSnapshotEventReader(eventFileInputStream, snapshotEventFile, eventSerializer);
-            snapshotEvent = fileSystemSnapshotEventReader.readSnapshotEvent(identifier);
+            InputStream snapshotIndexFile = null;
+            try {
+                snapshotIndexFile = eventFileResolver.openSnapshotIndexFileForReading(identifier);
+                FileSystemSnapshotEventReader fileSystemSnapshotEventReader =
+                        new FileSystemSnapshotEventReader(eventFileInputStream, snapshotEventFile,
+                                                          snapshotIndexFile, eventSerializer);
+                snapshotEvent = fileSystemSnapshotEventReader.readSnapshotEvent(identifier);
+            } finally {
+                IOUtils.closeQuietly(snapshotIndexFile);
+                IOUtils.closeQuietly(snapshotEventFile);
+            }
         }
         return snapshotEvent;
     }
@@ -25,12 +25,19 @@
 
 import java.io.DataInputStream;
 import java.io.EOFException;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * Reads the latest snapshot event from a given {@link #snapshotEventFile} and
  * skips the correct number of bytes in the given {@link #eventFile}.
+ * <p/>
+ * When a {@link #snapshotIndexFile} is given and the snapshot events are read from a file, the snapshot events file is
+ * memory-mapped from the position of the latest snapshot event as recorded in the index. Otherwise, the entire
+ * snapshot events file is read to find the latest snapshot event.
  *
  * @author Frank Versnel
  * @since 2.0
@@ -41,6 +48,7 @@ public class FileSystemSnapshotEventReader {
 
     private final InputStream eventFile;
     private final InputStream snapshotEventFile;
+    private final InputStream snapshotIndexFile;
     private final Serializer eventSerializer;
 
     /**
@@ -52,8 +60,23 @@ public class FileSystemSnapshotEventReader {
      */
     public FileSystemSnapshotEventReader(InputStream eventFile, InputStream snapshotEventFile,
                                          Serializer eventSerializer) {
+        this(eventFile, snapshotEventFile, null, eventSerializer);
+    }
+
+    /**
+     * Creates a snapshot event reader that reads the latest snapshot from the <code>snapshotEventFile</code>, using
+     * the given <code>snapshotIndexFile</code> to find its position.
+     *
+     * @param eventFile         used to skip the number of bytes specified by the latest snapshot
+     * @param snapshotEventFile the file to read snapshots from
+     * @param snapshotIndexFile the index pointing at the latest snapshot, or <code>null</code> if not available
+     * @param eventSerializer   the serializer that is used to deserialize events in snapshot file
+     */
+    public FileSystemSnapshotEventReader(InputStream eventFile, InputStream snapshotEventFile,
+                                         InputStream snapshotIndexFile, Serializer eventSerializer) {
         this.eventFile = eventFile;
         this.snapshotEventFile = snapshotEventFile;
+        this.snapshotIndexFile = snapshotIndexFile;
         this.eventSerializer = eventSerializer;
     }
 
@@ -68,7 +91,10 @@ public FileSystemSnapshotEventReader(InputStream eventFile, InputStream snapshot
     public DomainEventMessage readSnapshotEvent(String identifier) throws IOException {
         DomainEventMessage snapshotEvent = null;
 
-        FileSystemSnapshotEventEntry fileSystemSnapshotEvent = readLastSnapshotEntry();
+        FileSystemSnapshotEventEntry fileSystemSnapshotEvent = readIndexedSnapshotEntry(identifier);
+        if (fileSystemSnapshotEvent == null) {
+            fileSystemSnapshotEvent = readLastSnapshotEntry(new DataInputStream(snapshotEventFile));
+        }
         if (fileSystemSnapshotEvent != null) {
             long actuallySkipped = eventFile.skip(fileSystemSnapshotEvent.getBytesToSkipInEventFile());
             if (actuallySkipped != fileSystemSnapshotEvent.getBytesToSkipInEventFile()) {
@@ -83,9 +109,43 @@ public DomainEventMessage readSnapshotEvent(String identifier) throws IOExceptio
         return snapshotEvent;
     }
 
-    private FileSystemSnapshotEventEntry readLastSnapshotEntry() throws IOException {
+    private FileSystemSnapshotEventEntry readIndexedSnapshotEntry(String identifier) throws IOException {
+        if (snapshotIndexFile == null || !(snapshotEventFile instanceof FileInputStream)) {
+            return null;
+        }
+        long snapshotPosition;
+        long bytesToSkip;
+        try {
+            DataInputStream index = new DataInputStream(snapshotIndexFile);
+            snapshotPosition = index.readLong();
+            bytesToSkip = index.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        FileChannel channel = ((FileInputStream) snapshotEventFile).getChannel();
+        long size = channel.size();
+        if (snapshotPosition < 0 || snapshotPosition >= size) {
+            logger.warn("The snapshot index of aggregate with identifier {} points beyond the end of the snapshot "
+                                + "file. Reading the entire snapshot file instead.", identifier);
+            return null;
+        }
+        // snapshots appended after the indexed one (e.g. when updating the index failed) are read as well
+        FileSystemSnapshotEventEntry snapshotEvent = readLastSnapshotEntry(new DataInputStream(
+                new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, snapshotPosition,
+                                                      size - snapshotPosition))));
+        if (snapshotEvent == null
+                || !identifier.equals(snapshotEvent.getEventMessage().getAggregateIdentifier())
+                || snapshotEvent.getBytesToSkipInEventFile() < bytesToSkip) {
+            logger.warn("The snapshot index of aggregate with identifier {} is invalid. "
+                                + "Reading the entire snapshot file instead.", identifier);
+            return null;
+        }
+        return snapshotEvent;
+    }
+
+    private FileSystemSnapshotEventEntry readLastSnapshotEntry(DataInputStream snapshotEventFileDataInputStream)
+            throws IOException {
         FileSystemSnapshotEventEntry lastSnapshotEvent = null;
-        DataInputStream snapshotEventFileDataInputStream = new DataInputStream(snapshotEventFile);
         FileSystemSnapshotEventEntry snapshotEvent;
         do {
             snapshotEvent = readSnapshotEventEntry(snapshotEventFileDataInputStream);
@@ -114,6 +174,38 @@ private FileSystemSnapshotEventEntry readSnapshotEventEntry(DataInputStream snap
         }
     }
 
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
     private static final class FileSystemSnapshotEventEntry {
 
         private final DomainEventMessage eventMessage;
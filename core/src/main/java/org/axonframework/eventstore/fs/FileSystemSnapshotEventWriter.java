@@ -26,12 +26,15 @@
 import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
 /**
- * Writes snapshot events to the given {@link #snapshotEventFile}.
+ * Writes snapshot events to the given {@link #snapshotEventFile}. When a {@link #snapshotIndexFile} is given and the
+ * snapshot events are written to a file, the position of the written snapshot event is recorded in the index, allowing
+ * the {@link FileSystemSnapshotEventReader} to find the latest snapshot without reading the entire snapshot file.
  *
  * @author Frank Versnel
  * @since 2.0
@@ -40,6 +43,7 @@ public class FileSystemSnapshotEventWriter {
 
     private final InputStream eventFile;
     private final OutputStream snapshotEventFile;
+    private final OutputStream snapshotIndexFile;
     private final Serializer eventSerializer;
 
     /**
@@ -53,30 +57,57 @@ public class FileSystemSnapshotEventWriter {
      */
     public FileSystemSnapshotEventWriter(InputStream eventFile, OutputStream snapshotEventFile,
                                          Serializer eventSerializer) {
+        this(eventFile, snapshotEventFile, null, eventSerializer);
+    }
+
+    /**
+     * Creates a snapshot event writer that writes any given <code>snapshotEvent</code> to the given
+     * <code>snapshotEventFile</code> and records its position in the given <code>snapshotIndexFile</code>.
+     *
+     * @param eventFile         used to determine the number of bytes to skip upon reading a snapshot
+     * @param snapshotEventFile the snapshot file to write to
+     * @param snapshotIndexFile the index to record the position of the snapshot in, or <code>null</code> to not
+     *                          maintain an index
+     * @param eventSerializer   the serializer used to serialize snapshot events
+     */
+    public FileSystemSnapshotEventWriter(InputStream eventFile, OutputStream snapshotEventFile,
+                                         OutputStream snapshotIndexFile, Serializer eventSerializer) {
         this.eventFile = eventFile;
         this.snapshotEventFile = snapshotEventFile;
+        this.snapshotIndexFile = snapshotIndexFile;
         this.eventSerializer = eventSerializer;
     }
 
     /**
      * Writes the given snapshotEvent to the {@link #snapshotEventFile}.
      * Prepends a long value to the event in the file indicating the bytes to skip when reading the {@link #eventFile}.
+     * Once the snapshot has been written, its position is recorded in the {@link #snapshotIndexFile}, if available.
      *
      * @param snapshotEvent The snapshot to write to the {@link #snapshotEventFile}
      */
     public void writeSnapshotEvent(DomainEventMessage snapshotEvent) {
         try {
             long offset = calculateOffset(snapshotEvent);
+            long snapshotPosition = snapshotEventFile instanceof FileOutputStream
+                    ? ((FileOutputStream) snapshotEventFile).getChannel().position() : -1;
             DataOutputStream dataOutputStream = new DataOutputStream(snapshotEventFile);
 
             dataOutputStream.writeLong(offset);
             FileSystemEventMessageWriter eventMessageWriter =
                     new FileSystemEventMessageWriter(dataOutputStream, eventSerializer);
             eventMessageWriter.writeEventMessage(snapshotEvent);
+            dataOutputStream.flush();
+            if (snapshotIndexFile != null && snapshotPosition >= 0) {
+                DataOutputStream indexOutputStream = new DataOutputStream(snapshotIndexFile);
+                indexOutputStream.writeLong(snapshotPosition);
+                indexOutputStream.writeLong(offset);
+                indexOutputStream.flush();
+            }
         } catch (IOException e) {
             throw new EventStoreException("Error writing a snapshot event due to an IO exception", e);
         } finally {
             IOUtils.closeQuietly(snapshotEventFile);
+            IOUtils.closeQuietly(snapshotIndexFile);
         }
     }
 
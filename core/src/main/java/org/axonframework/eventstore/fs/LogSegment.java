@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventstore.fs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * A single, preallocated file of a {@link SegmentedLogEventStore}. Records are appended to the segment one after
+ * another, each preceded by a header containing the length and the CRC32 checksum of the record. The remainder of the
+ * segment is filled with zeroes, which marks the end of the written records.
+ * <p/>
+ * Records are read using positional reads on the file channel, which allows any number of threads to read from the
+ * segment concurrently. Only a single thread may write to a segment.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+final class LogSegment {
+
+    /**
+     * The number of bytes in the header preceding each record.
+     */
+    static final int HEADER_SIZE = 8;
+
+    private static final String FILE_PREFIX = "segment-";
+    private static final String FILE_SUFFIX = ".log";
+
+    private final int number;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final long size;
+
+    private LogSegment(int number, File file, RandomAccessFile randomAccessFile) throws IOException {
+        this.number = number;
+        this.file = file;
+        this.randomAccessFile = randomAccessFile;
+        this.channel = randomAccessFile.getChannel();
+        this.size = randomAccessFile.length();
+    }
+
+    /**
+     * Creates a new segment with given <code>number</code> in the given <code>directory</code>, preallocating a file
+     * of the given <code>size</code>.
+     *
+     * @param directory The directory to create the segment in
+     * @param number    The sequence number of the segment
+     * @param size      The size of the segment in bytes
+     * @return the created segment
+     *
+     * @throws IOException when the segment file could not be created
+     */
+    static LogSegment create(File directory, int number, long size) throws IOException {
+        File file = new File(directory, fileName(number));
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(size);
+            return new LogSegment(number, file, randomAccessFile);
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the existing segment with given <code>number</code> in the given <code>directory</code>.
+     *
+     * @param directory The directory containing the segment
+     * @param number    The sequence number of the segment
+     * @return the opened segment
+     *
+     * @throws IOException when the segment file could not be opened
+     */
+    static LogSegment open(File directory, int number) throws IOException {
+        File file = new File(directory, fileName(number));
+        return new LogSegment(number, file, new RandomAccessFile(file, "rw"));
+    }
+
+    /**
+     * Returns the name of the file of the segment with given <code>number</code>.
+     *
+     * @param number The sequence number of the segment
+     * @return the file name of the segment
+     */
+    static String fileName(int number) {
+        return String.format("%s%010d%s", FILE_PREFIX, number, FILE_SUFFIX);
+    }
+
+    /**
+     * Returns the sequence number of the segment stored in the file with given <code>fileName</code>, or -1 if the
+     * name is not the name of a segment file.
+     *
+     * @param fileName The name of the file
+     * @return the sequence number of the segment, or -1 if the file is not a segment
+     */
+    static int numberOf(String fileName) {
+        if (!fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(fileName.substring(FILE_PREFIX.length(),
+                                                       fileName.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Writes the header for a record with given <code>data</code> into the given
+     * <code>buffer</code>.
+     *
+     * @param buffer The buffer to write the header to
+     * @param data   The data of the record
+     */
+    static void writeHeader(ByteBuffer buffer, byte[] data) {
+        CRC32 checksum = new CRC32();
+        checksum.update(data);
+        buffer.putInt(data.length);
+        buffer.putInt((int) checksum.getValue());
+    }
+
+    /**
+     * Writes the given <code>buffer</code> to the segment, starting at given <code>position</code>.
+     *
+     * @param buffer   The buffer containing the records to write
+     * @param position The position in the segment to write at
+     * @throws IOException when writing fails
+     */
+    void write(ByteBuffer buffer, long position) throws IOException {
+        long writePosition = position;
+        while (buffer.hasRemaining()) {
+            writePosition += channel.write(buffer, writePosition);
+        }
+    }
+
+    /**
+     * Forces all written records to disk.
+     *
+     * @throws IOException when the records could not be forced to disk
+     */
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Reads the record at the given <code>position</code>. Returns <code>null</code> if the position does not
+     * contain a valid record, which is the case at the end of the written records.
+     *
+     * @param position The position of the header of the record
+     * @return the data of the record, or <code>null</code> if there is no valid record at the position
+     *
+     * @throws IOException when reading fails
+     */
+    byte[] readRecord(long position) throws IOException {
+        if (position + HEADER_SIZE > size) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, position);
+        int length = header.getInt(0);
+        if (length <= 0 || position + HEADER_SIZE + length > size) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        readFully(ByteBuffer.wrap(data), position + HEADER_SIZE);
+        CRC32 checksum = new CRC32();
+        checksum.update(data);
+        if ((int) checksum.getValue() != header.getInt(4)) {
+            return null;
+        }
+        return data;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long readPosition = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, readPosition);
+            if (read < 0) {
+                throw new IOException("Unexpected end of segment " + file.getName());
+            }
+            readPosition += read;
+        }
+    }
+
+    /**
+     * Overwrites the segment with zeroes from the given <code>position</code> to its end, removing any partially
+     * written records.
+     *
+     * @param position The position from which to clear the segment
+     * @throws IOException when writing fails
+     */
+    void clearFrom(long position) throws IOException {
+        ByteBuffer zeroes = ByteBuffer.allocate((int) Math.min(1024 * 1024, Math.max(0, size - position)));
+        long clearPosition = position;
+        while (clearPosition < size) {
+            zeroes.clear();
+            zeroes.limit((int) Math.min(zeroes.capacity(), size - clearPosition));
+            write(zeroes, clearPosition);
+            clearPosition += zeroes.limit();
+        }
+    }
+
+    /**
+     * Returns the sequence number of this segment.
+     *
+     * @return the sequence number of this segment
+     */
+    int number() {
+        return number;
+    }
+
+    /**
+     * Returns the size of this segment in bytes.
+     *
+     * @return the size of this segment
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Closes the file of this segment.
+     *
+     * @throws IOException when closing the file fails
+     */
+    void close() throws IOException {
+        randomAccessFile.close();
+    }
+}
@@ -0,0 +1,575 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventstore.fs;
+
+import org.axonframework.commandhandling.model.ConflictingModificationException;
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.DomainEventStream;
+import org.axonframework.eventstore.EventStore;
+import org.axonframework.eventstore.EventStoreException;
+import org.axonframework.eventstore.EventStreamNotFoundException;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.serializer.SerializedDomainEventData;
+import org.axonframework.serializer.Serializer;
+import org.axonframework.serializer.xml.XStreamSerializer;
+import org.axonframework.upcasting.SimpleUpcasterChain;
+import org.axonframework.upcasting.UpcasterAware;
+import org.axonframework.upcasting.UpcasterChain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.axonframework.upcasting.UpcastUtils.upcastAndDeserialize;
+
+/**
+ * Implementation of the {@link EventStore} that appends the events of all aggregates to a log of rolling,
+ * preallocated segment files. Compared to the {@link FileSystemEventStore}, which uses a file per aggregate, this
+ * event store only ever appends to a single file, turning each commit into sequential I/O regardless of the number
+ * of aggregates.
+ * <p/>
+ * Events are serialized in the thread that appends them. A single writer thread collects the events of all
+ * concurrent commits and writes them to the log in one batch (group commit), forcing them to disk once per batch. An
+ * append returns when the events have been written (and, unless disabled, forced to disk).
+ * <p/>
+ * The positions of the events of each aggregate are kept in a memory-mapped index, which is rebuilt from the
+ * segments when the event store is initialized. Any partially written record at the end of the log is discarded
+ * during initialization. Aggregate event streams are read from the segments using positional reads, allowing any
+ * number of threads to read concurrently with the writer.
+ * <p/>
+ * The event store must be shut down using {@link #shutDown()} to stop the writer thread and release the files.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class SegmentedLogEventStore implements EventStore, UpcasterAware {
+
+    /**
+     * The default size of each segment file: {@value} bytes (64MB).
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    /**
+     * The default maximum number of commits written in a single batch: {@value}.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedLogEventStore.class);
+    private static final String INDEX_FILE_NAME = "index.dat";
+    private static final int POSITION_SHIFT = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+    private static final AppendRequest SHUTDOWN = new AppendRequest(new ArrayList<>());
+
+    private final File directory;
+    private final Serializer serializer;
+    private final AggregateOffsetIndex index;
+    private final ConcurrentMap<Integer, LogSegment> segments = new ConcurrentHashMap<>();
+    private final BlockingQueue<AppendRequest> appendQueue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private volatile Throwable writerFailure;
+    private boolean shutDown;
+    private volatile UpcasterChain upcasterChain = SimpleUpcasterChain.EMPTY;
+    private volatile long segmentSize = DEFAULT_SEGMENT_SIZE;
+    private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private volatile boolean forceOnCommit = true;
+
+    // only accessed by the writer thread after initialization
+    private LogSegment currentSegment;
+    private long writePosition;
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * Initializes the event store to store its segments in the given <code>directory</code>. The actual
+     * serialization and deserialization is delegated to a {@link XStreamSerializer}.
+     *
+     * @param directory The directory to store the segments in
+     * @throws EventStoreException when the existing segments in the directory could not be read
+     */
+    public SegmentedLogEventStore(File directory) {
+        this(directory, new XStreamSerializer());
+    }
+
+    /**
+     * Initializes the event store to store its segments in the given <code>directory</code>, using the given
+     * <code>serializer</code> to serialize the payload and meta data of the events. Any segments already present in
+     * the directory are scanned to rebuild the index.
+     *
+     * @param directory  The directory to store the segments in
+     * @param serializer The serializer capable of serializing (at least) DomainEvents
+     * @throws EventStoreException when the existing segments in the directory could not be read
+     */
+    public SegmentedLogEventStore(File directory, Serializer serializer) {
+        Assert.notNull(directory, "directory may not be null");
+        Assert.notNull(serializer, "serializer may not be null");
+        Assert.isTrue(directory.isDirectory() || directory.mkdirs(), "directory must be a (creatable) directory");
+        this.directory = directory;
+        this.serializer = serializer;
+        try {
+            this.index = new AggregateOffsetIndex(new File(directory, INDEX_FILE_NAME));
+            recover();
+        } catch (IOException e) {
+            closeSegments();
+            throw new EventStoreException("Unable to read the segments of the event log", e);
+        }
+        this.writerThread = new AxonThreadFactory("SegmentedLogEventStore").newThread(new Writer());
+        writerThread.start();
+    }
+
+    @Override
+    public void appendEvents(List<DomainEventMessage<?>> events) {
+        if (CurrentUnitOfWork.isStarted()) {
+            UnitOfWork<?> uow = CurrentUnitOfWork.get();
+            uow.getOrComputeResource(toString(), k -> {
+                List<DomainEventMessage<?>> eventsToPublish = new ArrayList<>();
+                uow.onPrepareCommit(u -> doAppendEvents(eventsToPublish));
+                uow.onRollback(u -> eventsToPublish.clear());
+                return eventsToPublish;
+            }).addAll(events);
+        } else {
+            doAppendEvents(events);
+        }
+    }
+
+    private void doAppendEvents(List<DomainEventMessage<?>> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        List<Record> records = new ArrayList<>(events.size());
+        try {
+            for (DomainEventMessage<?> event : events) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                new FileSystemEventMessageWriter(new DataOutputStream(bytes), serializer).writeEventMessage(event);
+                records.add(new Record(event.getAggregateIdentifier(), event.getSequenceNumber(),
+                                       bytes.toByteArray()));
+            }
+        } catch (IOException e) {
+            throw new EventStoreException("Unable to serialize the events to append", e);
+        }
+        AppendRequest request = new AppendRequest(records);
+        // the writer fails any request queued before it stops accepting them
+        synchronized (appendQueue) {
+            if (!running) {
+                throw notRunningException();
+            }
+            appendQueue.add(request);
+        }
+        try {
+            request.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventStoreException("Thread was interrupted while waiting for the events to be stored", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new EventStoreException("Unable to store the events", e.getCause());
+        }
+    }
+
+    private EventStoreException notRunningException() {
+        Throwable failure = writerFailure;
+        if (failure != null) {
+            return new EventStoreException("Unable to append events. The writer of the event log has failed",
+                                           failure);
+        }
+        return new EventStoreException("Unable to append events. The event store has been shut down");
+    }
+
+    @Override
+    public DomainEventStream readEvents(String identifier, long firstSequenceNumber, long lastSequenceNumber) {
+        long[] positions = index.positions(identifier, firstSequenceNumber, lastSequenceNumber);
+        if (positions.length == 0) {
+            throw new EventStreamNotFoundException(identifier);
+        }
+        return new SegmentDomainEventStream(positions);
+    }
+
+    /**
+     * Sets the size of the segment files created by this event store. Changing the size does not affect segments
+     * that have already been created. Defaults to {@value #DEFAULT_SEGMENT_SIZE} bytes.
+     * <p/>
+     * When a single event is larger than the segment size, the segment containing it is made large enough to hold
+     * it.
+     *
+     * @param segmentSize The size of the segment files in bytes
+     */
+    public void setSegmentSize(long segmentSize) {
+        Assert.isTrue(segmentSize > LogSegment.HEADER_SIZE && segmentSize <= Integer.MAX_VALUE,
+                      "segmentSize must be positive and smaller than 2GB");
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Sets the maximum number of commits the writer thread writes to the log in a single batch. Commits that arrive
+     * while the writer thread is busy are grouped into a single batch, up to this number. Defaults to {@value
+     * #DEFAULT_MAX_BATCH_SIZE}.
+     *
+     * @param maxBatchSize The maximum number of commits per batch
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be positive");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Indicates whether each batch of commits should be forced to disk before the commits are confirmed. Disabling
+     * this increases throughput, at the expense of losing confirmed commits when the machine crashes. Defaults to
+     * <code>true</code>.
+     *
+     * @param forceOnCommit whether to force each batch to disk before confirming it
+     */
+    public void setForceOnCommit(boolean forceOnCommit) {
+        this.forceOnCommit = forceOnCommit;
+    }
+
+    @Override
+    public void setUpcasterChain(UpcasterChain upcasterChain) {
+        this.upcasterChain = upcasterChain;
+    }
+
+    /**
+     * Stops the writer thread, after it has written all commits it already received, and closes the segment files.
+     * Commits appended after shutdown are rejected with an {@link EventStoreException}.
+     *
+     * @throws InterruptedException when the thread was interrupted while waiting for the writer thread to stop
+     */
+    public synchronized void shutDown() throws InterruptedException {
+        if (shutDown) {
+            return;
+        }
+        shutDown = true;
+        synchronized (appendQueue) {
+            running = false;
+            appendQueue.add(SHUTDOWN);
+        }
+        writerThread.join();
+        closeSegments();
+        try {
+            index.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close the index of the event log", e);
+        }
+    }
+
+    private void recover() throws IOException {
+        String[] fileNames = directory.list();
+        int[] numbers = Arrays.stream(fileNames == null ? new String[0] : fileNames)
+                              .mapToInt(LogSegment::numberOf).filter(n -> n >= 0).sorted().toArray();
+        for (int number : numbers) {
+            LogSegment segment = LogSegment.open(directory, number);
+            segments.put(number, segment);
+            currentSegment = segment;
+            writePosition = 0;
+            byte[] data;
+            while ((data = segment.readRecord(writePosition)) != null) {
+                SerializedDomainEventData<?> event = decode(data);
+                index.add(event.getAggregateIdentifier(), event.getSequenceNumber(),
+                          position(number, writePosition));
+                writePosition += LogSegment.HEADER_SIZE + data.length;
+            }
+        }
+        if (currentSegment != null && writePosition < currentSegment.size()) {
+            logger.info("Recovered event log up to position {} of segment {}",
+                        writePosition, currentSegment.number());
+            currentSegment.clearFrom(writePosition);
+            currentSegment.force();
+        }
+    }
+
+    private void closeSegments() {
+        for (LogSegment segment : segments.values()) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close segment {} of the event log", segment.number(), e);
+            }
+        }
+    }
+
+    private static SerializedDomainEventData<?> decode(byte[] data) throws IOException {
+        return new FileSystemEventMessageReader(new DataInputStream(new ByteArrayInputStream(data)))
+                .readEventMessage();
+    }
+
+    private static long position(int segment, long offset) {
+        return ((long) segment << POSITION_SHIFT) | offset;
+    }
+
+    private void writeBatch(List<AppendRequest> batch) throws IOException {
+        Map<String, Long> lastSequenceNumbers = new HashMap<>();
+        List<AppendRequest> accepted = new ArrayList<>(batch.size());
+        List<long[]> acceptedPositions = new ArrayList<>(batch.size());
+        LogSegment startSegment = currentSegment;
+        long startPosition = writePosition;
+        try {
+            writeBuffer.clear();
+            long bufferPosition = writePosition;
+            for (AppendRequest request : batch) {
+                Map<String, Long> requestSequenceNumbers = new HashMap<>();
+                ConflictingModificationException conflict = null;
+                for (Record record : request.records) {
+                    Long last = requestSequenceNumbers.get(record.aggregateIdentifier);
+                    if (last == null) {
+                        last = lastSequenceNumbers.containsKey(record.aggregateIdentifier)
+                                ? lastSequenceNumbers.get(record.aggregateIdentifier)
+                                : index.lastSequenceNumber(record.aggregateIdentifier);
+                    }
+                    if (last != null && record.sequenceNumber <= last) {
+                        conflict = new ConflictingModificationException(String.format(
+                                "An event for aggregate [%s] at sequence [%d] was already inserted",
+                                record.aggregateIdentifier, record.sequenceNumber));
+                        break;
+                    }
+                    requestSequenceNumbers.put(record.aggregateIdentifier, record.sequenceNumber);
+                }
+                if (conflict != null) {
+                    request.result.completeExceptionally(conflict);
+                    continue;
+                }
+                lastSequenceNumbers.putAll(requestSequenceNumbers);
+                long[] positions = new long[request.records.size()];
+                for (int i = 0; i < positions.length; i++) {
+                    byte[] data = request.records.get(i).data;
+                    int recordSize = LogSegment.HEADER_SIZE + data.length;
+                    if (currentSegment == null || writePosition + recordSize > currentSegment.size()) {
+                        flush(bufferPosition);
+                        rollSegment(recordSize);
+                        bufferPosition = writePosition;
+                    }
+                    if (writeBuffer.remaining() < recordSize) {
+                        flush(bufferPosition);
+                        bufferPosition = writePosition;
+                        if (writeBuffer.capacity() < recordSize) {
+                            writeBuffer = ByteBuffer.allocate(recordSize);
+                        }
+                    }
+                    LogSegment.writeHeader(writeBuffer, data);
+                    writeBuffer.put(data);
+                    positions[i] = position(currentSegment.number(), writePosition);
+                    writePosition += recordSize;
+                }
+                accepted.add(request);
+                acceptedPositions.add(positions);
+            }
+            flush(bufferPosition);
+            if (forceOnCommit && currentSegment != null) {
+                currentSegment.force();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write a batch of events to the event log", e);
+            restore(startSegment, startPosition);
+            EventStoreException exception = new EventStoreException("Unable to store the events", e);
+            accepted.forEach(request -> request.result.completeExceptionally(exception));
+            return;
+        }
+        // the events are in the log now. If the index can't be updated, the writer can't safely continue
+        for (int i = 0; i < accepted.size(); i++) {
+            List<Record> records = accepted.get(i).records;
+            long[] positions = acceptedPositions.get(i);
+            for (int j = 0; j < positions.length; j++) {
+                index.add(records.get(j).aggregateIdentifier, records.get(j).sequenceNumber, positions[j]);
+            }
+        }
+        accepted.forEach(request -> request.result.complete(null));
+    }
+
+    private static void failAll(List<AppendRequest> requests, Throwable cause) {
+        EventStoreException exception = cause instanceof EventStoreException
+                ? (EventStoreException) cause : new EventStoreException("Unable to store the events", cause);
+        for (AppendRequest request : requests) {
+            request.result.completeExceptionally(exception);
+        }
+    }
+
+    private void flush(long bufferPosition) throws IOException {
+        writeBuffer.flip();
+        if (writeBuffer.hasRemaining()) {
+            currentSegment.write(writeBuffer, bufferPosition);
+        }
+        writeBuffer.clear();
+    }
+
+    private void rollSegment(int minimumSize) throws IOException {
+        int number = 0;
+        if (currentSegment != null) {
+            if (forceOnCommit) {
+                currentSegment.force();
+            }
+            number = currentSegment.number() + 1;
+        }
+        LogSegment segment = LogSegment.create(directory, number, Math.max(segmentSize, minimumSize));
+        segments.put(number, segment);
+        currentSegment = segment;
+        writePosition = 0;
+    }
+
+    private void restore(LogSegment segment, long position) {
+        try {
+            while (currentSegment != segment) {
+                LogSegment rolled = currentSegment;
+                segments.remove(rolled.number());
+                currentSegment = segments.get(rolled.number() - 1);
+                rolled.close();
+                if (!new File(directory, LogSegment.fileName(rolled.number())).delete()) {
+                    logger.warn("Failed to delete segment {} of the event log", rolled.number());
+                }
+            }
+            writePosition = position;
+            if (currentSegment != null) {
+                currentSegment.clearFrom(position);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to clear the partially written batch from the event log", e);
+        }
+    }
+
+    private static final class Record {
+
+        private final String aggregateIdentifier;
+        private final long sequenceNumber;
+        private final byte[] data;
+
+        private Record(String aggregateIdentifier, long sequenceNumber, byte[] data) {
+            this.aggregateIdentifier = aggregateIdentifier;
+            this.sequenceNumber = sequenceNumber;
+            this.data = data;
+        }
+    }
+
+    private static final class AppendRequest {
+
+        private final List<Record> records;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private AppendRequest(List<Record> records) {
+            this.records = records;
+        }
+    }
+
+    private final class Writer implements Runnable {
+
+        @Override
+        public void run() {
+            List<AppendRequest> batch = new ArrayList<>();
+            boolean stopping = false;
+            try {
+                while (!stopping) {
+                    try {
+                        batch.add(appendQueue.take());
+                    } catch (InterruptedException e) {
+                        logger.warn("Writer thread of the event log was interrupted. Continuing to process commits.");
+                        continue;
+                    }
+                    appendQueue.drainTo(batch, maxBatchSize - 1);
+                    stopping = batch.remove(SHUTDOWN);
+                    if (!batch.isEmpty()) {
+                        writeBatch(batch);
+                    }
+                    batch.clear();
+                }
+            } catch (Throwable e) {
+                logger.error("The writer of the event log failed. No more events can be appended.", e);
+                writerFailure = e;
+                failAll(batch, e);
+            } finally {
+                List<AppendRequest> remaining = new ArrayList<>();
+                synchronized (appendQueue) {
+                    running = false;
+                    appendQueue.drainTo(remaining);
+                }
+                remaining.remove(SHUTDOWN);
+                failAll(remaining, notRunningException());
+            }
+        }
+    }
+
+    private final class SegmentDomainEventStream implements DomainEventStream {
+
+        private final long[] positions;
+        private final Queue<DomainEventMessage> next = new LinkedList<>();
+        private int current;
+
+        private SegmentDomainEventStream(long[] positions) {
+            this.positions = positions;
+            readNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !next.isEmpty();
+        }
+
+        @Override
+        public DomainEventMessage next() {
+            if (next.isEmpty()) {
+                throw new NoSuchElementException("Attempt to read beyond end of stream");
+            }
+            DomainEventMessage message = next.poll();
+            if (next.isEmpty()) {
+                readNext();
+            }
+            return message;
+        }
+
+        @Override
+        public DomainEventMessage peek() {
+            return next.peek();
+        }
+
+        private void readNext() {
+            while (next.isEmpty() && current < positions.length) {
+                long position = positions[current++];
+                int segmentNumber = (int) (position >>> POSITION_SHIFT);
+                LogSegment segment = segments.get(segmentNumber);
+                try {
+                    byte[] data = segment == null ? null : segment.readRecord(position & OFFSET_MASK);
+                    if (data == null) {
+                        throw new EventStoreException(String.format(
+                                "The event log does not contain a valid event at position %d of segment %d",
+                                position & OFFSET_MASK, segmentNumber));
+                    }
+                    next.addAll(upcastAndDeserialize(decode(data), serializer, upcasterChain, false));
+                } catch (IOException e) {
+                    throw new EventStoreException("An error occurred while reading from the event log", e);
+                }
+            }
+        }
+    }
+}
@@ -30,7 +30,8 @@
 
 /**
  * Very straightforward implementation of the EventFileResolver that stores files in a given base directory. Events of
- * a single aggregate are appended to a pair of files, one for regular events and one for snapshot events.
+ * a single aggregate are appended to a pair of files, one for regular events and one for snapshot events. A third file
+ * contains a pointer to the latest snapshot event of the aggregate.
  *
  * @author Allard Buijze
  * @since 0.5
@@ -45,6 +46,10 @@ public class SimpleEventFileResolver implements EventFileResolver {
      * Describes the file extension used for files containing snapshot events.
      */
     public static final String FILE_EXTENSION_SNAPSHOTS = "snapshots";
+    /**
+     * Describes the file extension used for files containing the index of the latest snapshot event.
+     */
+    public static final String FILE_EXTENSION_SNAPSHOT_INDEX = "snapshotindex";
 
     private final File baseDir;
 
@@ -91,6 +96,17 @@ public InputStream openSnapshotFileForReading(String identifier) throws IOExcept
         return new FileInputStream(getEventsFile(identifier, FILE_EXTENSION_SNAPSHOTS));
     }
 
+    @Override
+    public OutputStream openSnapshotIndexFileForWriting(String aggregateIdentifier) throws IOException {
+        return new FileOutputStream(getEventsFile(aggregateIdentifier, FILE_EXTENSION_SNAPSHOT_INDEX), false);
+    }
+
+    @Override
+    public InputStream openSnapshotIndexFileForReading(String identifier) throws IOException {
+        File indexFile = getEventsFile(identifier, FILE_EXTENSION_SNAPSHOT_INDEX);
+        return indexFile.exists() ? new FileInputStream(indexFile) : null;
+    }
+
     @Override
     public boolean eventFileExists(String identifier) throws IOException {
         return getEventsFile(identifier, FILE_EXTENSION_EVENTS).exists();
@@ -29,6 +29,7 @@
 import javax.sql.DataSource;
 import java.io.Closeable;
 import java.io.IOException;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -182,6 +183,29 @@ public void persistEvent(DomainEventMessage event, SerializedObject<T> serialize
         }
     }
 
+    @Override
+    public void persistEvents(List<? extends DomainEventMessage<?>> events,
+                              List<? extends SerializedObject<T>> serializedPayloads,
+                              List<? extends SerializedObject<T>> serializedMetaData) {
+        PreparedStatement preparedStatement = null;
+        Connection connection = null;
+        try {
+            connection = connectionProvider.getConnection();
+            preparedStatement = sqlSchema.sql_insertDomainEventEntries(connection, events, serializedPayloads,
+                                                                       serializedMetaData);
+            preparedStatement.executeBatch();
+        } catch (BatchUpdateException e) {
+            // the actual cause of a failing batch is typically reported as the next exception
+            SQLException cause = e.getNextException() == null ? e : e.getNextException();
+            throw new EventStoreException("Exception occurred while attempting to persist an event batch", cause);
+        } catch (SQLException e) {
+            throw new EventStoreException("Exception occurred while attempting to persist an event batch", e);
+        } finally {
+            closeQuietly(preparedStatement);
+            closeQuietly(connection);
+        }
+    }
+
 
     @Override
     public void pruneSnapshots(DomainEventMessage mostRecentSnapshotEvent, int maxSnapshotsArchived) {
@@ -262,6 +286,32 @@ public Iterator<SerializedDomainEventData<T>> fetchAggregateStream(String identi
         }
     }
 
+    @Override
+    public List<GlobalIndexedEventData<T>> fetchFromGlobalIndex(long lastGlobalIndex, int batchSize) {
+        ResultSet resultSet = null;
+        PreparedStatement statement = null;
+        Connection connection = null;
+        try {
+            connection = connectionProvider.getConnection();
+            statement = sqlSchema.sql_fetchFromGlobalIndex(connection, lastGlobalIndex);
+            statement.setMaxRows(batchSize);
+            statement.setFetchSize(batchSize);
+            resultSet = statement.executeQuery();
+            List<GlobalIndexedEventData<T>> result = new ArrayList<>();
+            while (resultSet.next()) {
+                result.add(new GlobalIndexedEventData<>(sqlSchema.readGlobalIndex(resultSet),
+                                                        sqlSchema.createSerializedDomainEventData(resultSet)));
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new EventStoreException("Exception while attempting to read events by their global index", e);
+        } finally {
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+            closeQuietly(connection);
+        }
+    }
+
     private void executeUpdate(PreparedStatement preparedStatement, String description) {
         try {
             preparedStatement.executeUpdate();
@@ -44,6 +44,21 @@
     void persistEvent(DomainEventMessage event, SerializedObject<T> serializedPayload,
                       SerializedObject<T> serializedMetaData);
 
+    /**
+     * Stores the given <code>events</code> (serialized as <code>serializedPayloads</code> and
+     * <code>serializedMetaData</code>) in the Event Store in a single operation. Implementations should use a single
+     * connection and batch the inserts where the underlying data store allows it.
+     * <p/>
+     * The serialized payloads and meta data must be provided in the same order as the events they belong to.
+     *
+     * @param events             The actual event instances. May be used to extract relevant meta data
+     * @param serializedPayloads The serialized payloads of the events
+     * @param serializedMetaData The serialized MetaData of the events
+     */
+    void persistEvents(List<? extends DomainEventMessage<?>> events,
+                       List<? extends SerializedObject<T>> serializedPayloads,
+                       List<? extends SerializedObject<T>> serializedMetaData);
+
     /**
      * Load the last known snapshot event for aggregate with given <code>identifier</code>.
      *
@@ -87,6 +102,19 @@ Iterator<? extends SerializedDomainEventData<T>> fetchAggregateStream(String ide
     Iterator<? extends SerializedDomainEventData<T>> fetchFiltered(String whereClause, List<Object> parameters,
                                                                    int batchSize);
 
+    /**
+     * Fetches at most <code>batchSize</code> events with a global index higher than the given
+     * <code>lastGlobalIndex</code>. The events are returned in the order of their global index, lowest first.
+     * <p/>
+     * Implementations should read the entire batch before returning, so that no database resources remain in use
+     * between subsequent calls.
+     *
+     * @param lastGlobalIndex The global index of the last event that should not be included
+     * @param batchSize       The maximum number of events to return
+     * @return a List of serialized representations of Events along with their global index
+     */
+    List<GlobalIndexedEventData<T>> fetchFromGlobalIndex(long lastGlobalIndex, int batchSize);
+
     /**
      * Removes old snapshots from the storage for an aggregate that generated the given
      * <code>mostRecentSnapshotEvent</code>. A number of <code>maxSnapshotsArchived</code> is expected to remain in the
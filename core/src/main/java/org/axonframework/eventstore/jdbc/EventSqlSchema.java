@@ -16,8 +16,9 @@
 
 package org.axonframework.eventstore.jdbc;
 
+import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.serializer.SerializedDomainEventData;
-
+import org.axonframework.serializer.SerializedObject;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -25,6 +26,7 @@
 import java.sql.SQLException;
 import java.time.Instant;
 import java.time.temporal.TemporalAccessor;
+import java.util.List;
 
 /**
  * Interface describing the operations that the JDBC Event Store needs to do on a backing database. This abstraction
@@ -72,6 +74,26 @@ PreparedStatement sql_insertDomainEventEntry(Connection connection, String event
                                                  T eventPayload,
                                                  T eventMetaData) throws SQLException;
 
+    /**
+     * Creates the PreparedStatement for inserting a number of DomainEvents in the Event Store in a single database
+     * round trip. The returned statement has all entries added to its batch, and must be executed using {@link
+     * PreparedStatement#executeBatch()}. Implementations may choose to use a single multi-row insert, in which case
+     * the batch contains a single entry.
+     *
+     * @param connection         The connection to create the PreparedStatement for
+     * @param events             The events to insert
+     * @param serializedPayloads The serialized payloads of the events, in the same order as the events
+     * @param serializedMetaData The serialized meta data of the events, in the same order as the events
+     * @return a PreparedStatement with all parameters set and batches added
+     *
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    PreparedStatement sql_insertDomainEventEntries(Connection connection,
+                                                   List<? extends DomainEventMessage<?>> events,
+                                                   List<? extends SerializedObject<T>> serializedPayloads,
+                                                   List<? extends SerializedObject<T>> serializedMetaData)
+            throws SQLException;
+
     /**
      * Creates the PreparedStatement for inserting a Snapshot Event in the Event Store, using given attributes.
      *
@@ -152,6 +174,20 @@ PreparedStatement sql_fetchFromSequenceNumber(Connection connection, String aggr
     PreparedStatement sql_getFetchAll(Connection connection, String whereClause, Object[] parameters)
             throws SQLException;
 
+    /**
+     * Creates a PreparedStatement that fetches event data of all events with a global index higher than the given
+     * <code>lastGlobalIndex</code>, ordered by their global index. The global index of each entry can be read from
+     * the results using {@link #readGlobalIndex(java.sql.ResultSet)}.
+     *
+     * @param connection      The connection to create the PreparedStatement for
+     * @param lastGlobalIndex The global index of the last event that should not be included
+     * @return a PreparedStatement that returns columns that can be converted using {@link
+     * #createSerializedDomainEventData(java.sql.ResultSet)}
+     *
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    PreparedStatement sql_fetchFromGlobalIndex(Connection connection, long lastGlobalIndex) throws SQLException;
+
     /**
      * Creates a PreparedStatement that allows for the creation of the table to store Snapshots.
      *
@@ -186,6 +222,19 @@ PreparedStatement sql_getFetchAll(Connection connection, String whereClause, Obj
      */
     SerializedDomainEventData<T> createSerializedDomainEventData(ResultSet resultSet) throws SQLException;
 
+    /**
+     * Reads the global index of the current entry of the ResultSet, which must have been returned by a statement
+     * created using {@link #sql_fetchFromGlobalIndex(java.sql.Connection, long)}.
+     * <p/>
+     * Note: the implementation *must* not change the ResultSet's cursor position.
+     *
+     * @param resultSet The result set returned from executing the Prepared Statement
+     * @return the global index of the current entry
+     *
+     * @throws SQLException when an exception occurs while reading from the result set
+     */
+    long readGlobalIndex(ResultSet resultSet) throws SQLException;
+
     /**
      * Converts a {@link Instant} to a data value suitable for the database scheme.
      *
@@ -15,8 +15,10 @@
  */
 package org.axonframework.eventstore.jdbc;
 
+import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.eventstore.jpa.SimpleSerializedDomainEventData;
 import org.axonframework.serializer.SerializedDomainEventData;
+import org.axonframework.serializer.SerializedObject;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -24,6 +26,7 @@
 import java.sql.SQLException;
 import java.time.Instant;
 import java.time.temporal.TemporalAccessor;
+import java.util.List;
 
 /**
  * @param <T> The type used when storing serialized data
@@ -34,7 +37,10 @@
 @SuppressWarnings("JpaQueryApiInspection")
 public class GenericEventSqlSchema<T> implements EventSqlSchema<T> {
 
-    private static final String STD_FIELDS = "eventIdentifier, aggregateIdentifier, sequenceNumber, timeStamp, "
+    /**
+     * The columns of an event entry, in the order in which they are read and inserted.
+     */
+    protected static final String STD_FIELDS = "eventIdentifier, aggregateIdentifier, sequenceNumber, timeStamp, "
             + "payloadType, payloadRevision, payload, metaData";
 
     private final Class<T> dataType;
@@ -119,6 +125,23 @@ public PreparedStatement sql_insertDomainEventEntry(Connection conn, String even
                                   eventMetaData);
     }
 
+    @Override
+    public PreparedStatement sql_insertDomainEventEntries(Connection connection,
+                                                          List<? extends DomainEventMessage<?>> events,
+                                                          List<? extends SerializedObject<T>> serializedPayloads,
+                                                          List<? extends SerializedObject<T>> serializedMetaData)
+            throws SQLException {
+        final String sql = "INSERT INTO " + schemaConfiguration.domainEventEntryTable()
+                + " (" + STD_FIELDS + ") VALUES (?,?,?,?,?,?,?,?)";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql); // NOSONAR
+        for (int i = 0; i < events.size(); i++) {
+            setEventEntryParameters(preparedStatement, 0, events.get(i), serializedPayloads.get(i),
+                                    serializedMetaData.get(i));
+            preparedStatement.addBatch();
+        }
+        return preparedStatement;
+    }
+
     @Override
     public PreparedStatement sql_insertSnapshotEventEntry(Connection conn, String eventIdentifier,
                                                           String aggregateIdentifier, long sequenceNumber,
@@ -161,17 +184,46 @@ protected PreparedStatement doInsertEventEntry(String tableName, Connection conn
                 + " (eventIdentifier, aggregateIdentifier, sequenceNumber, timeStamp, payloadType, "
                 + "payloadRevision, payload, metaData) VALUES (?,?,?,?,?,?,?,?)";
         PreparedStatement preparedStatement = connection.prepareStatement(sql); // NOSONAR
-        preparedStatement.setString(1, eventIdentifier);
-        preparedStatement.setString(2, aggregateIdentifier);
-        preparedStatement.setLong(3, sequenceNumber);
-        preparedStatement.setLong(4, sql_dateTime(timestamp));
-        preparedStatement.setString(5, eventType);
-        preparedStatement.setString(6, eventRevision);
-        preparedStatement.setObject(7, eventPayload);
-        preparedStatement.setObject(8, eventMetaData);
+        setInsertParameters(preparedStatement, 0, eventIdentifier, aggregateIdentifier, sequenceNumber, timestamp,
+                            eventType, eventRevision, eventPayload, eventMetaData);
         return preparedStatement;
     }
 
+    /**
+     * Sets the parameters of an entry for the given <code>event</code> on the given <code>preparedStatement</code>,
+     * starting at the parameter following the given <code>parameterOffset</code>. The parameters are set in the order
+     * of {@link #STD_FIELDS}.
+     *
+     * @param preparedStatement  The statement to set the parameters on
+     * @param parameterOffset    The number of parameters preceding the ones of this entry
+     * @param event              The event to set the parameters for
+     * @param serializedPayload  The serialized payload of the event
+     * @param serializedMetaData The serialized meta data of the event
+     * @throws SQLException when an exception occurs setting the parameters
+     */
+    protected void setEventEntryParameters(PreparedStatement preparedStatement, int parameterOffset,
+                                           DomainEventMessage<?> event, SerializedObject<T> serializedPayload,
+                                           SerializedObject<T> serializedMetaData) throws SQLException {
+        setInsertParameters(preparedStatement, parameterOffset, event.getIdentifier(), event.getAggregateIdentifier(),
+                            event.getSequenceNumber(), event.getTimestamp(), serializedPayload.getType().getName(),
+                            serializedPayload.getType().getRevision(), serializedPayload.getData(),
+                            serializedMetaData.getData());
+    }
+
+    private void setInsertParameters(PreparedStatement preparedStatement, int offset, String eventIdentifier,
+                                     String aggregateIdentifier, long sequenceNumber, Instant timestamp,
+                                     String eventType, String eventRevision, T eventPayload, T eventMetaData)
+            throws SQLException {
+        preparedStatement.setString(offset + 1, eventIdentifier);
+        preparedStatement.setString(offset + 2, aggregateIdentifier);
+        preparedStatement.setLong(offset + 3, sequenceNumber);
+        preparedStatement.setLong(offset + 4, sql_dateTime(timestamp));
+        preparedStatement.setString(offset + 5, eventType);
+        preparedStatement.setString(offset + 6, eventRevision);
+        preparedStatement.setObject(offset + 7, eventPayload);
+        preparedStatement.setObject(offset + 8, eventMetaData);
+    }
+
     @Override
     public PreparedStatement sql_pruneSnapshots(Connection connection, String aggregateIdentifier,
                                                 long sequenceOfFirstSnapshotToPrune) throws SQLException {
@@ -207,6 +259,23 @@ public PreparedStatement sql_fetchFromSequenceNumber(Connection connection, Stri
         return preparedStatement;
     }
 
+    @Override
+    public PreparedStatement sql_fetchFromGlobalIndex(Connection connection, long lastGlobalIndex)
+            throws SQLException {
+        final String sql = "SELECT " + STD_FIELDS + ", globalIndex"
+                + " FROM " + schemaConfiguration.domainEventEntryTable()
+                + " WHERE globalIndex > ?"
+                + " ORDER BY globalIndex ASC";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setLong(1, lastGlobalIndex);
+        return preparedStatement;
+    }
+
+    @Override
+    public long readGlobalIndex(ResultSet resultSet) throws SQLException {
+        return resultSet.getLong(9);
+    }
+
     @Override
     public PreparedStatement sql_getFetchAll(Connection connection, String whereClause,
                                              Object[] params) throws SQLException {
@@ -280,6 +349,7 @@ public PreparedStatement sql_createSnapshotEventEntryTable(Connection connection
     @Override
     public PreparedStatement sql_createDomainEventEntryTable(Connection connection) throws SQLException {
         final String sql = "create table " + schemaConfiguration.domainEventEntryTable() + " (\n" +
+                "        globalIndex bigint generated by default as identity,\n" +
                 "        aggregateIdentifier varchar(255) not null,\n" +
                 "        sequenceNumber bigint not null,\n" +
                 "        eventIdentifier varchar(255) not null,\n" +
@@ -288,7 +358,8 @@ public PreparedStatement sql_createDomainEventEntryTable(Connection connection)
                 "        payloadRevision varchar(255),\n" +
                 "        payloadType varchar(255) not null,\n" +
                 "        timeStamp varchar(255) not null,\n" +
-                "        primary key (aggregateIdentifier, sequenceNumber)\n" +
+                "        primary key (aggregateIdentifier, sequenceNumber),\n" +
+                "        unique (globalIndex)\n" +
                 "    );\n";
         return connection.prepareStatement(sql);
     }
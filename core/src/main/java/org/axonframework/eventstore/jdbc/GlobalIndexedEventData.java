@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2010-2015. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventstore.jdbc;
+
+import org.axonframework.serializer.SerializedDomainEventData;
+
+/**
+ * Wrapper around the serialized data of an event, which additionally holds the global index assigned to that event
+ * when it was appended to the event store.
+ *
+ * @param <T> The type used to store serialized objects
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class GlobalIndexedEventData<T> {
+
+    private final long globalIndex;
+    private final SerializedDomainEventData<T> eventData;
+
+    /**
+     * Initialize the entry with given <code>globalIndex</code> and <code>eventData</code>.
+     *
+     * @param globalIndex The global index of the event
+     * @param eventData   The serialized data of the event
+     */
+    public GlobalIndexedEventData(long globalIndex, SerializedDomainEventData<T> eventData) {
+        this.globalIndex = globalIndex;
+        this.eventData = eventData;
+    }
+
+    /**
+     * Returns the global index assigned to the event when it was appended.
+     *
+     * @return the global index of the event
+     */
+    public long getGlobalIndex() {
+        return globalIndex;
+    }
+
+    /**
+     * Returns the serialized data of the event.
+     *
+     * @return the serialized data of the event
+     */
+    public SerializedDomainEventData<T> getEventData() {
+        return eventData;
+    }
+}
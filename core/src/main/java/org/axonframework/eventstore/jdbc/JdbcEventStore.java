@@ -22,12 +22,17 @@
 import org.axonframework.common.jdbc.DataSourceConnectionProvider;
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
 import org.axonframework.common.jdbc.UnitOfWorkAwareConnectionProviderWrapper;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GlobalIndexToken;
+import org.axonframework.eventhandling.ProcessingToken;
 import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.eventsourcing.DomainEventStream;
 import org.axonframework.eventsourcing.GenericDomainEventMessage;
 import org.axonframework.eventstore.EventStreamNotFoundException;
 import org.axonframework.eventstore.EventVisitor;
 import org.axonframework.eventstore.SnapshotEventStore;
+import org.axonframework.eventstore.TrackingEventStore;
+import org.axonframework.eventstore.TrackingEventStream;
 import org.axonframework.eventstore.jdbc.criteria.JdbcCriteria;
 import org.axonframework.eventstore.jdbc.criteria.JdbcCriteriaBuilder;
 import org.axonframework.eventstore.jdbc.criteria.ParameterRegistry;
@@ -49,10 +54,16 @@
 import javax.sql.DataSource;
 import java.io.Closeable;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
 
 import static org.axonframework.upcasting.UpcastUtils.upcastAndDeserialize;
 
@@ -67,17 +78,22 @@
  * <p/>
  * The serializer used to serialize the events is configurable. By default, the {@link
  * org.axonframework.serializer.xml.XStreamSerializer} is used.
+ * <p/>
+ * Events can be tracked in the order in which they were stored, using the global index column of the domain event
+ * table. See {@link #openStream(ProcessingToken)}.
  *
  * @author Allard Buijze
  * @author Kristian Rosenvold
  * @since 2.1
  */
-public class JdbcEventStore implements SnapshotEventStore, EventStoreManagement, UpcasterAware {
+public class JdbcEventStore implements SnapshotEventStore, EventStoreManagement, TrackingEventStore, UpcasterAware {
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcEventStore.class);
 
     private static final int DEFAULT_BATCH_SIZE = 100;
     private static final int DEFAULT_MAX_SNAPSHOTS_ARCHIVED = 1;
+    private static final long DEFAULT_POLL_INTERVAL = 100;
+    private static final long DEFAULT_GAP_TIMEOUT = 10000;
 
     private final MessageSerializer serializer;
     private final EventEntryStore<?> eventEntryStore;
@@ -87,6 +103,8 @@ public class JdbcEventStore implements SnapshotEventStore, EventStoreManagement,
     private UpcasterChain upcasterChain = SimpleUpcasterChain.EMPTY;
     private int maxSnapshotsArchived = DEFAULT_MAX_SNAPSHOTS_ARCHIVED;
     private PersistenceExceptionResolver persistenceExceptionResolver;
+    private long pollInterval = DEFAULT_POLL_INTERVAL;
+    private long gapTimeout = DEFAULT_GAP_TIMEOUT;
 
     /**
      * Initializes a JdbcEventStore using the given <code>eventEntryStore</code> and <code>serializer</code>.
@@ -140,16 +158,27 @@ public JdbcEventStore(DataSource dataSource) {
     }
 
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * All given events are serialized up front, and handed to the EventEntryStore as a single batch, allowing it to
+     * insert them in a single database round trip.
+     */
     @Override
     @SuppressWarnings("unchecked")
     public void appendEvents(List<DomainEventMessage<?>> events) {
+        if (events.isEmpty()) {
+            return;
+        }
         try {
+            final Class dataType = eventEntryStore.getDataType();
+            List<SerializedObject> serializedPayloads = new ArrayList<>(events.size());
+            List<SerializedObject> serializedMetaData = new ArrayList<>(events.size());
             for (DomainEventMessage<?> event : events) {
-                final Class dataType = eventEntryStore.getDataType();
-                SerializedObject serializedPayload = serializer.serializePayload(event, dataType);
-                SerializedObject serializedMetaData = serializer.serializeMetaData(event, dataType);
-                eventEntryStore.persistEvent(event, serializedPayload, serializedMetaData);
+                serializedPayloads.add(serializer.serializePayload(event, dataType));
+                serializedMetaData.add(serializer.serializeMetaData(event, dataType));
             }
+            eventEntryStore.persistEvents(events, (List) serializedPayloads, (List) serializedMetaData);
         } catch (RuntimeException exception) {
             if (persistenceExceptionResolver != null
                     && persistenceExceptionResolver.isDuplicateKeyViolation(exception)) {
@@ -264,6 +293,23 @@ public CriteriaBuilder newCriteriaBuilder() {
         return criteriaBuilder;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The returned stream reads events in batches of the configured {@link #setBatchSize(int) batch size}, using range
+     * scans on the global index of the events. When no new events are available, the database is polled at the
+     * configured {@link #setPollInterval(long) poll interval}.
+     * <p/>
+     * Since global indexes are assigned when events are inserted, a transaction may commit events with an index lower
+     * than that of events already committed by another transaction. To prevent these events from being skipped, the
+     * stream does not read past a gap in the global index, unless the event following the gap is older than the
+     * configured {@link #setGapTimeout(long) gap timeout}.
+     */
+    @Override
+    public TrackingEventStream openStream(ProcessingToken trackingToken) {
+        return new JdbcTrackingEventStream(trackingToken);
+    }
+
     private void doVisitEvents(EventVisitor visitor, String whereClause, List<Object> parameters) {
         Iterator<? extends SerializedDomainEventData> batch = eventEntryStore.fetchFiltered(whereClause,
                                                                                             parameters,
@@ -321,6 +367,121 @@ public void setMaxSnapshotsArchived(int maxSnapshotsArchived) {
         this.maxSnapshotsArchived = maxSnapshotsArchived;
     }
 
+    /**
+     * Sets the interval at which streams opened using {@link #openStream(ProcessingToken)} poll the database for new
+     * events, while waiting for events to become available. Defaults to {@value #DEFAULT_POLL_INTERVAL} milliseconds.
+     *
+     * @param pollInterval The poll interval in milliseconds
+     */
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Sets the time after which a gap in the global index of events is considered permanent, for example because the
+     * transaction that inserted the missing event was rolled back. Streams opened using {@link
+     * #openStream(ProcessingToken)} will not read past a gap until the event following it is older than this timeout.
+     * <p/>
+     * The timeout should be longer than the time it takes to commit a transaction that appends events. Defaults to
+     * {@value #DEFAULT_GAP_TIMEOUT} milliseconds.
+     *
+     * @param gapTimeout The gap timeout in milliseconds
+     */
+    public void setGapTimeout(long gapTimeout) {
+        this.gapTimeout = gapTimeout;
+    }
+
+    private final class JdbcTrackingEventStream implements TrackingEventStream {
+
+        private final Deque<TrackedEntry> buffer = new ArrayDeque<>();
+        private ProcessingToken currentToken;
+        private long lastFetchedIndex;
+        private boolean initialized;
+
+        private JdbcTrackingEventStream(ProcessingToken trackingToken) {
+            this.currentToken = trackingToken;
+            this.lastFetchedIndex = trackingToken == null ? -1 : trackingToken.longValue();
+            this.initialized = trackingToken != null;
+        }
+
+        @Override
+        public boolean hasNextAvailable(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+            while (buffer.isEmpty()) {
+                boolean progressed = fetchBatch();
+                long remaining = deadline - System.currentTimeMillis();
+                if (buffer.isEmpty()) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    if (!progressed) {
+                        Thread.sleep(Math.min(pollInterval, remaining));
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public DomainEventMessage<?> nextAvailable() {
+            TrackedEntry entry = buffer.poll();
+            if (entry == null) {
+                throw new NoSuchElementException("No events available in the stream");
+            }
+            if (entry.token != null) {
+                currentToken = entry.token;
+            }
+            return entry.message;
+        }
+
+        @Override
+        public ProcessingToken currentToken() {
+            return currentToken;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean fetchBatch() {
+            long indexBeforeFetch = lastFetchedIndex;
+            List<? extends GlobalIndexedEventData<?>> entries =
+                    eventEntryStore.fetchFromGlobalIndex(lastFetchedIndex, batchSize);
+            Instant gapDeadline = Instant.now(GenericEventMessage.clock).minusMillis(gapTimeout);
+            for (GlobalIndexedEventData<?> entry : entries) {
+                if (initialized && entry.getGlobalIndex() != lastFetchedIndex + 1
+                        && entry.getEventData().getTimestamp().isAfter(gapDeadline)) {
+                    // the missing events may belong to a transaction that hasn't been committed yet
+                    break;
+                }
+                initialized = true;
+                lastFetchedIndex = entry.getGlobalIndex();
+                List<DomainEventMessage> messages = upcastAndDeserialize(entry.getEventData(), serializer,
+                                                                         upcasterChain, true);
+                for (int i = 0; i < messages.size(); i++) {
+                    // only advance the token after the last message upcast from an entry
+                    GlobalIndexToken token = i == messages.size() - 1
+                            ? new GlobalIndexToken(entry.getGlobalIndex()) : null;
+                    buffer.add(new TrackedEntry(messages.get(i), token));
+                }
+            }
+            return lastFetchedIndex != indexBeforeFetch;
+        }
+
+        @Override
+        public void close() {
+            buffer.clear();
+        }
+    }
+
+    private static final class TrackedEntry {
+
+        private final DomainEventMessage<?> message;
+        private final ProcessingToken token;
+
+        private TrackedEntry(DomainEventMessage<?> message, ProcessingToken token) {
+            this.message = message;
+            this.token = token;
+        }
+    }
+
     private final class IteratorDomainEventStream implements DomainEventStream, Closeable {
 
         private final Iterator<? extends SerializedDomainEventData> iterator;
@@ -19,16 +19,22 @@
 
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
 
+import java.sql.BatchUpdateException;
+
 /**
  * SQLErrorCodesResolver is an implementation of PersistenceExceptionResolver used to resolve sql error codes to see if
  * it is an duplicate key constraint violation.
  * <p/>
+ * Since drivers commonly report failures in batched statements using a generic {@link BatchUpdateException}, those
+ * are inspected for an SQL State in the integrity constraint violation class (<code>23</code>).
  *
  * @author Kristian Rosenvold
  * @since 2.2
  */
 public class JdbcSQLErrorCodesResolver implements PersistenceExceptionResolver {
 
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION_CLASS = "23";
+
     @Override
     public boolean isDuplicateKeyViolation(Exception exception) {
         return causeIsEntityExistsException(exception);
@@ -36,7 +42,16 @@ public boolean isDuplicateKeyViolation(Exception exception) {
 
     private boolean causeIsEntityExistsException(Throwable exception) {
         return exception instanceof java.sql.SQLIntegrityConstraintViolationException
+                || isIntegrityViolatingBatch(exception)
                 || (exception.getCause() != null && causeIsEntityExistsException(exception.getCause()));
     }
 
+    private boolean isIntegrityViolatingBatch(Throwable exception) {
+        if (!(exception instanceof BatchUpdateException)) {
+            return false;
+        }
+        String sqlState = ((BatchUpdateException) exception).getSQLState();
+        return sqlState != null && sqlState.startsWith(INTEGRITY_CONSTRAINT_VIOLATION_CLASS);
+    }
+
 }
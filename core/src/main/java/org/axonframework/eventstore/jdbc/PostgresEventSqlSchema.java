@@ -1,8 +1,12 @@
 package org.axonframework.eventstore.jdbc;
 
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.serializer.SerializedObject;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * SQL schema supporting postgres databases.
@@ -10,6 +14,8 @@
  * The difference to the GenericEventSqlSchema is the use of postgres' <code>bytea</code> data type
  * for storing the serialized payload and metaData. A human-readable representation of this data can
  * be accessed by using postgres encode(column, 'escape') function.
+ * <p/>
+ * Batches of domain events are inserted using a single multi-row <code>INSERT</code> statement.
  *
  * @param <T> The type used when storing serialized data
  * @author Jochen Munz
@@ -17,6 +23,10 @@
  */
 public class PostgresEventSqlSchema<T> extends GenericEventSqlSchema<T> {
 
+    // postgres allows at most 32767 bind parameters per statement, with 8 parameters per row
+    private static final int MAX_ROWS_PER_INSERT = 4000;
+    private static final int PARAMETERS_PER_ROW = 8;
+
     /**
      * Initialize a Postgres Schema using default settings.
      * <p/>
@@ -50,6 +60,33 @@ public PostgresEventSqlSchema(Class<T> dataType, SchemaConfiguration schemaConfi
         super(dataType, schemaConfiguration);
     }
 
+    @Override
+    public PreparedStatement sql_insertDomainEventEntries(Connection connection,
+                                                          List<? extends DomainEventMessage<?>> events,
+                                                          List<? extends SerializedObject<T>> serializedPayloads,
+                                                          List<? extends SerializedObject<T>> serializedMetaData)
+            throws SQLException {
+        if (events.size() < 2 || events.size() > MAX_ROWS_PER_INSERT) {
+            return super.sql_insertDomainEventEntries(connection, events, serializedPayloads, serializedMetaData);
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO ")
+                .append(getSchemaConfiguration().domainEventEntryTable())
+                .append(" (").append(STD_FIELDS).append(") VALUES ");
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append("(?,?,?,?,?,?,?,?)");
+        }
+        PreparedStatement preparedStatement = connection.prepareStatement(sql.toString()); // NOSONAR
+        for (int i = 0; i < events.size(); i++) {
+            setEventEntryParameters(preparedStatement, i * PARAMETERS_PER_ROW, events.get(i),
+                                    serializedPayloads.get(i), serializedMetaData.get(i));
+        }
+        preparedStatement.addBatch();
+        return preparedStatement;
+    }
+
     @Override
     public PreparedStatement sql_createSnapshotEventEntryTable(Connection connection) throws SQLException {
         final String sql = "create table " + getSchemaConfiguration().snapshotEntryTable() + " (" +
@@ -69,6 +106,7 @@ public PreparedStatement sql_createSnapshotEventEntryTable(Connection connection
     @Override
     public PreparedStatement sql_createDomainEventEntryTable(Connection connection) throws SQLException {
         final String sql = "create table " + getSchemaConfiguration().domainEventEntryTable() + " (" +
+                "        globalIndex bigserial not null," +
                 "        aggregateIdentifier varchar(255) not null," +
                 "        sequenceNumber bigint not null," +
                 "        eventIdentifier varchar(255) not null," +
@@ -77,7 +115,8 @@ public PreparedStatement sql_createDomainEventEntryTable(Connection connection)
                 "        payloadRevision varchar(255)," +
                 "        payloadType varchar(255) not null," +
                 "        timeStamp varchar(255) not null," +
-                "        primary key (aggregateIdentifier, sequenceNumber)" +
+                "        primary key (aggregateIdentifier, sequenceNumber)," +
+                "        unique (globalIndex)" +
                 "    );";
         return connection.prepareStatement(sql);
     }
@@ -20,8 +20,8 @@
 public abstract class AbstractUnitOfWork<T extends Message<?>> implements UnitOfWork<T> {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractUnitOfWork.class);
-    private final Map<String, Object> resources = new HashMap<>();
-    private final Collection<CorrelationDataProvider> correlationDataProviders = new LinkedHashSet<>();
+    private final Map<String, Object> resources = new ResourceMap();
+    private Collection<CorrelationDataProvider> correlationDataProviders;
     private UnitOfWork<?> parentUnitOfWork;
     private Phase phase = Phase.NOT_STARTED;
 
@@ -45,7 +45,8 @@ public void commit() {
         if (logger.isDebugEnabled()) {
             logger.debug("Committing Unit Of Work");
         }
-        Assert.state(phase() == Phase.STARTED, String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
+        Assert.state(phase() == Phase.STARTED,
+                     () -> String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
         Assert.state(isCurrent(), "The UnitOfWork is not the current Unit of Work");
         try {
             if (isRoot()) {
@@ -94,7 +95,7 @@ public void rollback(Throwable cause) {
             logger.debug("Rolling back Unit Of Work.", cause);
         }
         Assert.state(isActive() && phase().isBefore(Phase.ROLLBACK),
-                String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
+                     () -> String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
         Assert.state(isCurrent(), "The UnitOfWork is not the current Unit of Work");
         try {
             setRollbackCause(cause);
@@ -119,12 +120,15 @@ public Map<String, Object> resources() {
 
     @Override
     public void registerCorrelationDataProvider(CorrelationDataProvider correlationDataProvider) {
+        if (correlationDataProviders == null) {
+            correlationDataProviders = new LinkedHashSet<>();
+        }
         correlationDataProviders.add(correlationDataProvider);
     }
 
     @Override
     public MetaData getCorrelationData() {
-        if (correlationDataProviders.isEmpty()) {
+        if (correlationDataProviders == null || correlationDataProviders.isEmpty()) {
             return MetaData.emptyInstance();
         }
         Map<String, Object> result = new HashMap<>();
@@ -167,6 +171,22 @@ public Phase phase() {
         return phase;
     }
 
+    /**
+     * Clears the resources, correlation data providers and parent of this Unit of Work, and moves it back to the
+     * {@link Phase#NOT_STARTED NOT_STARTED} phase, allowing the instance to be reused to process another Message.
+     * Subclasses are responsible for resetting the processing context of the Message themselves.
+     * <p/>
+     * This method should only be invoked when the Unit of Work is not active, typically after it has been closed.
+     */
+    protected void reset() {
+        resources.clear();
+        if (correlationDataProviders != null) {
+            correlationDataProviders.clear();
+        }
+        parentUnitOfWork = null;
+        setPhase(Phase.NOT_STARTED);
+    }
+
     /**
      * Overwrite the current phase with the given <code>phase</code>.
      *
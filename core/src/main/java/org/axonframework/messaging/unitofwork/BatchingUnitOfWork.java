@@ -56,7 +56,8 @@ public <R> R executeWithResult(Callable<R> task, RollbackConfiguration rollbackC
         if (phase() == Phase.NOT_STARTED) {
             start();
         }
-        Assert.state(phase() == Phase.STARTED, String.format("The UnitOfWork has an incompatible phase: %s", phase()));
+        Assert.state(phase() == Phase.STARTED,
+                     () -> String.format("The UnitOfWork has an incompatible phase: %s", phase()));
         R result = null;
         Exception exception = null;
         for (MessageProcessingContext<T> processingContext : processingContexts) {
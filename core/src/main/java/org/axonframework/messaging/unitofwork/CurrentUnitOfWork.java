@@ -18,8 +18,8 @@
 
 import org.axonframework.messaging.metadata.MetaData;
 
+import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.LinkedList;
 
 /**
  * Default entry point to gain access to the current UnitOfWork. Components managing transactional boundaries can
@@ -30,7 +30,8 @@
  */
 public abstract class CurrentUnitOfWork {
 
-    private static final ThreadLocal<Deque<UnitOfWork<?>>> CURRENT = new ThreadLocal<>();
+    // the deque is kept when the last Unit of Work is cleared, so it isn't allocated again for every Unit of Work
+    private static final ThreadLocal<Deque<UnitOfWork<?>>> CURRENT = ThreadLocal.withInitial(() -> new ArrayDeque<>(4));
 
     private CurrentUnitOfWork() {
     }
@@ -42,7 +43,7 @@ private CurrentUnitOfWork() {
      * @return whether a UnitOfWork has already been started.
      */
     public static boolean isStarted() {
-        return CURRENT.get() != null && !CURRENT.get().isEmpty();
+        return !CURRENT.get().isEmpty();
     }
 
     /**
@@ -55,15 +56,11 @@ public static boolean isStarted() {
      * @throws IllegalStateException if no UnitOfWork is active
      */
     public static UnitOfWork<?> get() {
-        if (isEmpty()) {
+        UnitOfWork<?> unitOfWork = CURRENT.get().peek();
+        if (unitOfWork == null) {
             throw new IllegalStateException("No UnitOfWork is currently started for this thread.");
         }
-        return CURRENT.get().peek();
-    }
-
-    private static boolean isEmpty() {
-        Deque<UnitOfWork<?>> unitsOfWork = CURRENT.get();
-        return unitsOfWork == null || unitsOfWork.isEmpty();
+        return unitOfWork;
     }
 
     /**
@@ -83,9 +80,6 @@ public static void commit() {
      * @param unitOfWork The UnitOfWork to bind to the current thread.
      */
     public static void set(UnitOfWork<?> unitOfWork) {
-        if (CURRENT.get() == null) {
-            CURRENT.set(new LinkedList<>());
-        }
         CURRENT.get().push(unitOfWork);
     }
 
@@ -98,11 +92,9 @@ public static void set(UnitOfWork<?> unitOfWork) {
      *                               indicates a potentially wrong nesting of Units Of Work.
      */
     public static void clear(UnitOfWork<?> unitOfWork) {
-        if (isStarted() && CURRENT.get().peek() == unitOfWork) {
-            CURRENT.get().pop();
-            if (CURRENT.get().isEmpty()) {
-                CURRENT.remove();
-            }
+        Deque<UnitOfWork<?>> unitsOfWork = CURRENT.get();
+        if (!unitsOfWork.isEmpty() && unitsOfWork.peek() == unitOfWork) {
+            unitsOfWork.pop();
         } else {
             throw new IllegalStateException("Could not clear this UnitOfWork. It is not the active one.");
         }
@@ -55,12 +55,24 @@ public static <T extends Message<?>> DefaultUnitOfWork<T> startAndGet(T message)
         return uow;
     }
 
+    /**
+     * Resets this Unit of Work so that it can be used to process given <code>message</code>. All handlers, resources
+     * and the execution result of the previously processed message are cleared. This Unit of Work must not be active.
+     *
+     * @param message The message that is about to be processed
+     */
+    void reset(T message) {
+        reset();
+        processingContext.reset(message);
+    }
+
     @Override
     public <R> R executeWithResult(Callable<R> task, RollbackConfiguration rollbackConfiguration) throws Exception {
         if (phase() == Phase.NOT_STARTED) {
             start();
         }
-        Assert.state(phase() == Phase.STARTED, String.format("The UnitOfWork has an incompatible phase: %s", phase()));
+        Assert.state(phase() == Phase.STARTED,
+                     () -> String.format("The UnitOfWork has an incompatible phase: %s", phase()));
         R result;
         try {
             result = task.call();
@@ -90,7 +102,7 @@ protected void notifyHandlers(Phase phase) {
 
     @Override
     protected void addHandler(Phase phase, Consumer<UnitOfWork<T>> handler) {
-        Assert.state(!phase.isBefore(phase()), "Cannot register a listener for phase: " + phase
+        Assert.state(!phase.isBefore(phase()), () -> "Cannot register a listener for phase: " + phase
                 + " because the Unit of Work is already in a later phase: " + phase());
         processingContext.addHandler(phase, handler);
     }
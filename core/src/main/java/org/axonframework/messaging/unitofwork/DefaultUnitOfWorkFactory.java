@@ -29,6 +29,8 @@
 public class DefaultUnitOfWorkFactory extends AbstractUnitOfWorkFactory<DefaultUnitOfWork> {
 
     private final TransactionManager transactionManager;
+    private final ThreadLocal<DefaultUnitOfWork<Message<?>>> reusableUnitOfWork = new ThreadLocal<>();
+    private volatile boolean reuseUnitsOfWork;
 
     /**
      * Initializes the Unit of Work Factory to create Unit of Work that are not bound to any transaction.
@@ -51,18 +53,51 @@ public DefaultUnitOfWorkFactory(TransactionManager transactionManager) {
     /**
      * {@inheritDoc}
      * <p/>
-     * This implementation creates a new {@link DefaultUnitOfWork}, ties it to the {@link TransactionManager} and then
-     * starts the Unit of Work.
+     * This implementation creates a new {@link DefaultUnitOfWork}, or reuses one if {@link
+     * #setReuseUnitsOfWork(boolean) enabled}, ties it to the {@link TransactionManager} and then starts the Unit of
+     * Work.
      */
     @Override
     public DefaultUnitOfWork<?> doCreateUnitOfWork(Message<?> message) {
+        DefaultUnitOfWork<?> unitOfWork = reuseUnitsOfWork && !CurrentUnitOfWork.isStarted()
+                ? reusableUnitOfWork(message) : new DefaultUnitOfWork<>(message);
         if (transactionManager != null) {
             Transaction transaction = transactionManager.startTransaction();
-            DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(message);
+            unitOfWork.start();
             unitOfWork.onCommit(u -> transaction.commit());
             unitOfWork.onRollback(u -> transaction.rollback());
             return unitOfWork;
         }
-        return DefaultUnitOfWork.startAndGet(message);
+        unitOfWork.start();
+        return unitOfWork;
+    }
+
+    /**
+     * Sets whether Units of Work created by this factory may be reused. When enabled, each thread reuses a single
+     * instance for every Unit of Work it creates that is not nested in another one, as long as the previous Unit of
+     * Work on that thread has been closed. This avoids allocating a new Unit of Work, its resources and handler
+     * registrations for every message, at the expense of a restriction: components must not keep references to a Unit
+     * of Work after it has been closed, as the same instance may be processing another message by then.
+     * <p/>
+     * Defaults to <code>false</code>.
+     *
+     * @param reuseUnitsOfWork whether to reuse Unit of Work instances
+     */
+    public void setReuseUnitsOfWork(boolean reuseUnitsOfWork) {
+        this.reuseUnitsOfWork = reuseUnitsOfWork;
+    }
+
+    private DefaultUnitOfWork<?> reusableUnitOfWork(Message<?> message) {
+        DefaultUnitOfWork<Message<?>> unitOfWork = reusableUnitOfWork.get();
+        if (unitOfWork == null) {
+            unitOfWork = new DefaultUnitOfWork<>(message);
+            reusableUnitOfWork.set(unitOfWork);
+        } else if (unitOfWork.phase() == UnitOfWork.Phase.CLOSED) {
+            unitOfWork.reset(message);
+        } else {
+            // the previous Unit of Work hasn't been completed, so it can't be reused
+            return new DefaultUnitOfWork<>(message);
+        }
+        return unitOfWork;
     }
 }
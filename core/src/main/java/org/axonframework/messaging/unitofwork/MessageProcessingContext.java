@@ -19,10 +19,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.EnumMap;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
@@ -36,10 +33,12 @@
 public class MessageProcessingContext<T extends Message<?>> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MessageProcessingContext.class);
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
-    private static final Deque EMPTY = new LinkedList<>();
+    private static final int PHASE_COUNT = Phase.values().length;
+    private static final int INITIAL_HANDLER_CAPACITY = 4;
 
-    private final EnumMap<Phase, Deque<Consumer<UnitOfWork<T>>>> handlers = new EnumMap<>(Phase.class);
+    // handlers per phase ordinal, in order of registration. Arrays are allocated on first use and kept on reset
+    private Consumer<UnitOfWork<T>>[][] handlers;
+    private int[] handlerCounts;
     private T message;
     private ExecutionResult executionResult;
 
@@ -63,9 +62,35 @@ public void notifyHandlers(UnitOfWork<T> unitOfWork, Phase phase) {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Notifying handlers for phase {}", phase.toString());
         }
-        Deque<Consumer<UnitOfWork<T>>> l = handlers.getOrDefault(phase, EMPTY);
-        while (!l.isEmpty()) {
-            l.poll().accept(unitOfWork);
+        if (handlers == null || handlerCounts[phase.ordinal()] == 0) {
+            return;
+        }
+        int p = phase.ordinal();
+        if (phase.isReverseCallbackOrder()) {
+            // handlers registered while notifying are invoked next, as if they were registered first
+            while (handlerCounts[p] > 0) {
+                int index = --handlerCounts[p];
+                Consumer<UnitOfWork<T>> handler = handlers[p][index];
+                handlers[p][index] = null;
+                handler.accept(unitOfWork);
+            }
+        } else {
+            int index = 0;
+            try {
+                // handlers registered while notifying are appended, and invoked in the same loop
+                while (index < handlerCounts[p]) {
+                    Consumer<UnitOfWork<T>> handler = handlers[p][index];
+                    handlers[p][index++] = null;
+                    handler.accept(unitOfWork);
+                }
+            } finally {
+                int remaining = handlerCounts[p] - index;
+                if (remaining > 0) {
+                    System.arraycopy(handlers[p], index, handlers[p], 0, remaining);
+                    Arrays.fill(handlers[p], remaining, handlerCounts[p], null);
+                }
+                handlerCounts[p] = remaining;
+            }
         }
     }
 
@@ -80,12 +105,62 @@ public void addHandler(Phase phase, Consumer<UnitOfWork<T>> handler) {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Adding handler {} for phase {}", handler.getClass().getName(), phase.toString());
         }
-        final Deque<Consumer<UnitOfWork<T>>> consumers = handlers.computeIfAbsent(phase, p -> new ArrayDeque<>());
-        if (phase.isReverseCallbackOrder()) {
-            consumers.addFirst(handler);
-        } else {
-            consumers.add(handler);
+        if (handlers == null) {
+            //noinspection unchecked
+            handlers = new Consumer[PHASE_COUNT][];
+            handlerCounts = new int[PHASE_COUNT];
+        }
+        int p = phase.ordinal();
+        Consumer<UnitOfWork<T>>[] phaseHandlers = handlers[p];
+        if (phaseHandlers == null) {
+            //noinspection unchecked
+            phaseHandlers = handlers[p] = new Consumer[INITIAL_HANDLER_CAPACITY];
+        } else if (handlerCounts[p] == phaseHandlers.length) {
+            phaseHandlers = handlers[p] = Arrays.copyOf(phaseHandlers, phaseHandlers.length * 2);
+        }
+        phaseHandlers[handlerCounts[p]++] = handler;
+    }
+
+    /**
+     * Returns a snapshot of the handlers currently registered with this context, for all phases. The handlers can be
+     * registered again, as they were at the time of the snapshot, using {@link #restoreHandlers(HandlerSnapshot)}.
+     *
+     * @return a snapshot of the registered handlers
+     */
+    public HandlerSnapshot<T> snapshotHandlers() {
+        if (handlers == null) {
+            return new HandlerSnapshot<>(null);
+        }
+        //noinspection unchecked
+        Consumer<UnitOfWork<T>>[][] copy = new Consumer[PHASE_COUNT][];
+        for (int p = 0; p < PHASE_COUNT; p++) {
+            if (handlerCounts[p] > 0) {
+                copy[p] = Arrays.copyOf(handlers[p], handlerCounts[p]);
+            }
+        }
+        return new HandlerSnapshot<>(copy);
+    }
+
+    /**
+     * Replaces the handlers registered with this context with the handlers of the given <code>snapshot</code>. Any
+     * handlers registered after the snapshot was taken are discarded, and handlers that have been invoked since are
+     * registered again.
+     *
+     * @param snapshot The snapshot of handlers to restore
+     */
+    public void restoreHandlers(HandlerSnapshot<T> snapshot) {
+        reset(message);
+        ExecutionResult result = executionResult;
+        if (snapshot.handlers != null) {
+            for (int p = 0; p < PHASE_COUNT; p++) {
+                if (snapshot.handlers[p] != null) {
+                    for (Consumer<UnitOfWork<T>> handler : snapshot.handlers[p]) {
+                        addHandler(Phase.values()[p], handler);
+                    }
+                }
+            }
         }
+        executionResult = result;
     }
 
     /**
@@ -100,8 +175,8 @@ public void addHandler(Phase phase, Consumer<UnitOfWork<T>> handler) {
     @SuppressWarnings("ThrowableResultOfMethodCallIgnored")
     public void setExecutionResult(ExecutionResult executionResult) {
         Assert.state(this.executionResult == null || executionResult.isExceptionResult(),
-                String.format("Cannot change execution result [%s] to [%s] for message [%s].",
-                        message, this.executionResult, executionResult));
+                     () -> String.format("Cannot change execution result [%s] to [%s] for message [%s].",
+                                         message, this.executionResult, executionResult));
         if (this.executionResult != null && this.executionResult.isExceptionResult()) {
             this.executionResult.getExceptionResult().addSuppressed(executionResult.getExceptionResult());
         } else {
@@ -138,14 +213,36 @@ public void transformMessage(UnaryOperator<T> transformOperator) {
     }
 
     /**
-     * Reset the processing context. This clears the execution result and map with registered handlers, and replaces
+     * Reset the processing context. This clears the execution result and registered handlers, and replaces
      * the current Message with the given <code>message</code>.
      *
      * @param message The new message that is being processed
      */
     public void reset(T message) {
         this.message = message;
-        handlers.clear();
+        if (handlers != null) {
+            for (int p = 0; p < PHASE_COUNT; p++) {
+                if (handlerCounts[p] > 0) {
+                    Arrays.fill(handlers[p], 0, handlerCounts[p], null);
+                    handlerCounts[p] = 0;
+                }
+            }
+        }
         executionResult = null;
     }
+
+    /**
+     * Snapshot of the handlers registered with a processing context.
+     *
+     * @param <T> The type of message processed in the context
+     * @see #snapshotHandlers()
+     */
+    public static final class HandlerSnapshot<T extends Message<?>> {
+
+        private final Consumer<UnitOfWork<T>>[][] handlers;
+
+        private HandlerSnapshot(Consumer<UnitOfWork<T>>[][] handlers) {
+            this.handlers = handlers;
+        }
+    }
 }
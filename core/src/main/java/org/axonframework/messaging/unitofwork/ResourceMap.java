@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.messaging.unitofwork;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map holding the resources of a Unit of Work. A Unit of Work typically holds only a handful of resources, so entries
+ * are stored in open addressed arrays using linear probing. The arrays are only allocated when the first resource is
+ * added, and are retained when the map is cleared, so that a reused Unit of Work doesn't allocate them again.
+ * <p/>
+ * Keys may not be <code>null</code>. This map is not thread safe.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+final class ResourceMap extends AbstractMap<String, Object> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] keys;
+    private Object[] values;
+    private int size;
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Objects.requireNonNull(key, "Resource keys may not be null");
+        if (keys == null) {
+            keys = new String[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+        } else if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int index = slotFor(key, mask);
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                Object previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        Object previous = values[index];
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new EntrySet();
+    }
+
+    private int indexOf(Object key) {
+        if (size == 0 || key == null) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        int index = slotFor(key, mask);
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int mask = keys.length - 1;
+        keys[index] = null;
+        values[index] = null;
+        size--;
+        // shift back entries in the same probe sequence, so that lookups don't stop at the freed slot
+        int next = (index + 1) & mask;
+        while (keys[next] != null) {
+            int preferred = slotFor(keys[next], mask);
+            if (((next - preferred) & mask) >= ((next - index) & mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                keys[next] = null;
+                values[next] = null;
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = slotFor(oldKeys[i], mask);
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slotFor(Object key, int mask) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            // iterates over a snapshot of the keys, as removals may move entries to other slots
+            String[] snapshot = size == 0 ? new String[0] : keys.clone();
+            return new Iterator<Entry<String, Object>>() {
+                private int index = advance(0);
+                private String current;
+
+                @Override
+                public boolean hasNext() {
+                    return index < snapshot.length;
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    current = snapshot[index];
+                    index = advance(index + 1);
+                    return new ResourceEntry(current);
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) {
+                        throw new IllegalStateException();
+                    }
+                    ResourceMap.this.remove(current);
+                    current = null;
+                }
+
+                private int advance(int from) {
+                    int i = from;
+                    while (i < snapshot.length && snapshot[i] == null) {
+                        i++;
+                    }
+                    return i;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class ResourceEntry implements Map.Entry<String, Object> {
+
+        private final String key;
+
+        public ResourceEntry(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return key.equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+    }
+}
@@ -22,6 +22,7 @@
 import org.axonframework.saga.SagaRepository;
 
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * Abstract implementation for saga repositories. This (partial) implementation will take care of the uniqueness of
@@ -132,4 +133,13 @@ protected abstract void storeAssociationValue(AssociationValue associationValue,
      */
     protected abstract void removeAssociationValue(AssociationValue associationValue,
                                                    String sagaType, String sagaIdentifier);
+
+    /**
+     * Passes each association value stored in this repository to the given <code>consumer</code>, together with the
+     * type of the Saga it belongs to. This allows in-memory indexes of associations to be built when the application
+     * starts.
+     *
+     * @param consumer The consumer to pass the saga type and association value of each stored association to
+     */
+    protected abstract void forEachAssociationValue(BiConsumer<String, AssociationValue> consumer);
 }
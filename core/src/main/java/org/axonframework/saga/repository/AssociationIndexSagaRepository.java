@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.saga.repository;
+
+import org.axonframework.common.Assert;
+import org.axonframework.saga.AssociationValue;
+import org.axonframework.saga.Saga;
+import org.axonframework.saga.SagaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Saga Repository implementation that keeps an in-memory index of the association values stored in the repository
+ * it wraps, allowing lookups of association values that no Saga is associated with to be answered without accessing
+ * the underlying storage. The index consists of a bloom filter per Saga type. When the filter indicates that an
+ * association value may be present, the lookup is delegated to the wrapped repository.
+ * <p/>
+ * The index must be built from the stored association values using {@link #prewarm()} before it is used. Until then,
+ * all lookups are delegated. Association values added to sagas through this repository are added to the index.
+ * Association values that are removed remain in the index, slightly increasing the number of lookups that are
+ * delegated unnecessarily, until the index is built again in a new instance.
+ * <p/>
+ * Since the index only contains association values stored through this instance, this repository may only be used
+ * when no other processes add associations for the same Saga types to the underlying storage.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class AssociationIndexSagaRepository implements SagaRepository {
+
+    /**
+     * The default number of association values per Saga type the index is sized for: {@value}.
+     */
+    public static final int DEFAULT_EXPECTED_ASSOCIATIONS = 100000;
+    /**
+     * The default probability that a lookup of an association value without associated sagas is delegated, when the
+     * expected number of association values has been stored: {@value}.
+     */
+    public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private static final Logger logger = LoggerFactory.getLogger(AssociationIndexSagaRepository.class);
+
+    private final AbstractSagaRepository delegate;
+    private final int expectedAssociations;
+    private final double falsePositiveProbability;
+    private final ConcurrentMap<String, AssociationValueBloomFilter> filters = new ConcurrentHashMap<>();
+    private volatile boolean prewarmed;
+
+    /**
+     * Initializes an index for the association values stored in the given <code>delegate</code>, sized for {@value
+     * #DEFAULT_EXPECTED_ASSOCIATIONS} association values per Saga type.
+     *
+     * @param delegate The repository storing the sagas and their association values
+     */
+    public AssociationIndexSagaRepository(AbstractSagaRepository delegate) {
+        this(delegate, DEFAULT_EXPECTED_ASSOCIATIONS, DEFAULT_FALSE_POSITIVE_PROBABILITY);
+    }
+
+    /**
+     * Initializes an index for the association values stored in the given <code>delegate</code>, sized for the given
+     * <code>expectedAssociations</code> per Saga type. When that many association values have been stored for a Saga
+     * type, lookups of values without associated sagas are delegated with the given
+     * <code>falsePositiveProbability</code>.
+     *
+     * @param delegate                 The repository storing the sagas and their association values
+     * @param expectedAssociations     The number of association values per Saga type to size the index for
+     * @param falsePositiveProbability The probability of delegating a lookup of a value without associated sagas
+     */
+    public AssociationIndexSagaRepository(AbstractSagaRepository delegate, int expectedAssociations,
+                                          double falsePositiveProbability) {
+        Assert.notNull(delegate, "You must provide a SagaRepository instance to delegate to");
+        Assert.isTrue(expectedAssociations > 0, "expectedAssociations must be positive");
+        Assert.isTrue(falsePositiveProbability > 0 && falsePositiveProbability < 1,
+                      "falsePositiveProbability must be between 0 and 1");
+        this.delegate = delegate;
+        this.expectedAssociations = expectedAssociations;
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    /**
+     * Builds the index from the association values stored in the wrapped repository. Lookups are only answered from
+     * the index once this method has completed. This method is typically invoked when the application starts.
+     * Association values stored while this method is running are included in the index.
+     */
+    public void prewarm() {
+        long start = System.currentTimeMillis();
+        delegate.forEachAssociationValue(this::index);
+        prewarmed = true;
+        logger.info("Indexed saga association values of {} saga types in {}ms",
+                    filters.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public Set<String> find(Class<? extends Saga> type, AssociationValue associationValue) {
+        if (prewarmed) {
+            AssociationValueBloomFilter filter = filters.get(delegate.typeOf(type));
+            if (filter == null || !filter.mightContain(associationValue)) {
+                return Collections.emptySet();
+            }
+        }
+        return delegate.find(type, associationValue);
+    }
+
+    @Override
+    public Saga load(String sagaIdentifier) {
+        return delegate.load(sagaIdentifier);
+    }
+
+    @Override
+    public void commit(Saga saga) {
+        if (saga.isActive()) {
+            index(delegate.typeOf(saga.getClass()), saga.getAssociationValues().addedAssociations());
+        }
+        delegate.commit(saga);
+    }
+
+    @Override
+    public void add(Saga saga) {
+        if (saga.isActive()) {
+            index(delegate.typeOf(saga.getClass()), saga.getAssociationValues().addedAssociations());
+        }
+        delegate.add(saga);
+    }
+
+    private void index(String sagaType, Collection<AssociationValue> associationValues) {
+        if (!associationValues.isEmpty()) {
+            AssociationValueBloomFilter filter = filterFor(sagaType);
+            associationValues.forEach(filter::put);
+        }
+    }
+
+    private void index(String sagaType, AssociationValue associationValue) {
+        filterFor(sagaType).put(associationValue);
+    }
+
+    private AssociationValueBloomFilter filterFor(String sagaType) {
+        return filters.computeIfAbsent(sagaType, t -> new AssociationValueBloomFilter(expectedAssociations,
+                                                                                       falsePositiveProbability));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.saga.repository;
+
+import org.axonframework.saga.AssociationValue;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of association values, backed by an array of longs. The filter never reports an association value
+ * that has been put in it as absent. It may report values that have not been put in it as present, with a
+ * probability that depends on the number of values put in the filter.
+ * <p/>
+ * This implementation is thread safe.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+final class AssociationValueBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Initializes a filter sized to hold the given <code>expectedInsertions</code> with the given
+     * <code>falsePositiveProbability</code>.
+     *
+     * @param expectedInsertions       The number of association values expected to be put in the filter
+     * @param falsePositiveProbability The probability of reporting an absent value as present when the expected
+     *                                 number of values has been put in the filter
+     */
+    AssociationValueBloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        double optimalBits = -expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2));
+        int words = (int) Math.max(1, (long) Math.ceil(optimalBits / Long.SIZE));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Adds the given <code>associationValue</code> to the filter.
+     *
+     * @param associationValue The association value to add
+     */
+    void put(AssociationValue associationValue) {
+        long hash = hash(associationValue);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bitIndex = bitIndex(hash1 + i * hash2);
+            int word = (int) (bitIndex >>> 6);
+            long mask = 1L << bitIndex;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the given <code>associationValue</code> may have been added to the filter. When this method
+     * returns <code>false</code>, the value has definitely not been added.
+     *
+     * @param associationValue The association value to check
+     * @return <code>true</code> if the value may have been added, otherwise <code>false</code>
+     */
+    boolean mightContain(AssociationValue associationValue) {
+        long hash = hash(associationValue);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bitIndex = bitIndex(hash1 + i * hash2);
+            if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long bitIndex(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    private static long hash(AssociationValue associationValue) {
+        long hash = ((long) associationValue.getKey().hashCode() << 32)
+                | (associationValue.getValue().hashCode() & 0xFFFFFFFFL);
+        // finalization step of MurmurHash3, to spread both hash codes over all bits
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
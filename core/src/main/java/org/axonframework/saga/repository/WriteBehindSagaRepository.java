@@ -0,0 +1,500 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.saga.repository;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.messaging.interceptors.TransactionManager;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWorkFactory;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory;
+import org.axonframework.saga.AssociationValue;
+import org.axonframework.saga.AssociationValues;
+import org.axonframework.saga.ResourceInjector;
+import org.axonframework.saga.Saga;
+import org.axonframework.saga.SagaRepository;
+import org.axonframework.serializer.SerializedObject;
+import org.axonframework.serializer.Serializer;
+import org.axonframework.serializer.xml.XStreamSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Saga Repository implementation that adds write-behind behavior to the repository it wraps. Instead of storing each
+ * commit of a Saga immediately, changes are collected and written to the wrapped repository in batches. Multiple
+ * commits of the same Saga within a batch are coalesced into a single update, and association values that are added
+ * and removed again within a batch are never written at all.
+ * <p/>
+ * A batch is written when the configured flush interval has passed, or earlier when the number of sagas with pending
+ * changes reaches the configured maximum. Each batch is written in a single Unit of Work and transaction, allowing
+ * the wrapped repository to reuse a single connection for all changes. Batches are written one after another by a
+ * single thread, so changes to a Saga are always written in the order they were committed.
+ * <p/>
+ * The transaction manager must make the writes of a batch atomic, as the changes of a batch that fails are written
+ * again. When writing a batch fails, the changes of each saga in the batch are written in a separate transaction, so
+ * that a single failing saga doesn't hold back the changes of the others. The changes of a saga that could not be
+ * written are retained and written as part of the next batch, until the configured maximum number of attempts is
+ * reached. The changes are then discarded and logged as an error. When the number of sagas with pending changes
+ * reaches the configured maximum backlog, committing threads are blocked until the pending changes are being written.
+ * <p/>
+ * When a Saga is committed within a Unit of Work, its changes become pending when the Unit of Work is committed.
+ * Changes of a Unit of Work that is rolled back are discarded. Until then, the changes are only visible within that
+ * Unit of Work.
+ * <p/>
+ * The state of a Saga is serialized when it is committed, so that it can be written while the Saga itself is
+ * handling new events. Loading a Saga with pending changes returns a new instance, deserialized from that state.
+ * Finding sagas takes the pending association changes into account.
+ * <p/>
+ * Changes that are pending when the application stops are lost, unless {@link #shutDown()} is called.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class WriteBehindSagaRepository implements SagaRepository {
+
+    /**
+     * The default interval between two writes of pending changes, in milliseconds: {@value}.
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+    /**
+     * The default number of sagas with pending changes that triggers a write before the flush interval has passed:
+     * {@value}.
+     */
+    public static final int DEFAULT_MAX_PENDING_SAGAS = 1000;
+    /**
+     * The default number of sagas with pending changes that blocks threads registering changes of other sagas until
+     * the pending changes are being written: {@value}.
+     */
+    public static final int DEFAULT_MAX_BACKLOG = 10000;
+    /**
+     * The default number of times writing the changes of a saga is attempted before the changes are discarded:
+     * {@value}.
+     */
+    public static final int DEFAULT_MAX_WRITE_ATTEMPTS = 3;
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindSagaRepository.class);
+
+    private final AbstractSagaRepository delegate;
+    private final Serializer serializer;
+    private final UnitOfWorkFactory<?> unitOfWorkFactory;
+    private final ScheduledExecutorService flushExecutor;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final String stagedChangesKey = toString() + ".stagedChanges";
+    private final Object lock = new Object();
+    // guarded by "lock"
+    private Map<String, PendingSaga> pendingSagas = new LinkedHashMap<>();
+    // guarded by "lock"
+    private Map<String, PendingSaga> flushingSagas = Collections.emptyMap();
+    private volatile int maxPendingSagas = DEFAULT_MAX_PENDING_SAGAS;
+    private volatile int maxBacklog = DEFAULT_MAX_BACKLOG;
+    private volatile int maxWriteAttempts = DEFAULT_MAX_WRITE_ATTEMPTS;
+    private volatile ResourceInjector injector;
+
+    /**
+     * Initializes a repository that writes changes to the given <code>delegate</code> every {@value
+     * #DEFAULT_FLUSH_INTERVAL_MILLIS} milliseconds. Saga state is serialized using an {@link XStreamSerializer} and
+     * each batch of changes is written in a transaction started by the given <code>transactionManager</code>.
+     *
+     * @param delegate           The repository to write changes to
+     * @param transactionManager The transaction manager to write each batch of changes with
+     */
+    public WriteBehindSagaRepository(AbstractSagaRepository delegate, TransactionManager transactionManager) {
+        this(delegate, new XStreamSerializer(), transactionManager, DEFAULT_FLUSH_INTERVAL_MILLIS,
+             TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Initializes a repository that writes changes to the given <code>delegate</code> each time the given
+     * <code>flushInterval</code> has passed. Saga state is serialized using the given <code>serializer</code> and
+     * each batch of changes is written in a transaction started by the given <code>transactionManager</code>.
+     *
+     * @param delegate           The repository to write changes to
+     * @param serializer         The serializer to serialize the state of committed sagas with
+     * @param transactionManager The transaction manager to write each batch of changes with
+     * @param flushInterval      The interval between two writes of pending changes
+     * @param timeUnit           The unit of the given <code>flushInterval</code>
+     */
+    public WriteBehindSagaRepository(AbstractSagaRepository delegate, Serializer serializer,
+                                     TransactionManager transactionManager, long flushInterval, TimeUnit timeUnit) {
+        Assert.notNull(delegate, "You must provide a SagaRepository instance to delegate to");
+        Assert.notNull(serializer, "You must provide a Serializer to serialize sagas with");
+        Assert.notNull(transactionManager, "You must provide a TransactionManager to write changes with");
+        Assert.isTrue(flushInterval > 0, "flushInterval must be positive");
+        this.delegate = delegate;
+        this.serializer = serializer;
+        this.unitOfWorkFactory = new DefaultUnitOfWorkFactory(transactionManager);
+        ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(1, new AxonThreadFactory("WriteBehindSagaRepository"));
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.flushExecutor = executor;
+        flushExecutor.scheduleWithFixedDelay(this::flushPendingSagas, flushInterval, flushInterval, timeUnit);
+    }
+
+    @Override
+    public Set<String> find(Class<? extends Saga> type, AssociationValue associationValue) {
+        String sagaType = delegate.typeOf(type);
+        // determine the effect of pending changes before querying, as a concurrent flush may remove them
+        Map<String, Boolean> associated = new HashMap<>();
+        synchronized (lock) {
+            collectAssociations(flushingSagas, sagaType, associationValue, associated);
+            collectAssociations(pendingSagas, sagaType, associationValue, associated);
+        }
+        collectAssociations(stagedSagas(false), sagaType, associationValue, associated);
+        Set<String> sagaIdentifiers = new HashSet<>(delegate.find(type, associationValue));
+        associated.forEach((sagaIdentifier, isAssociated) -> {
+            if (isAssociated) {
+                sagaIdentifiers.add(sagaIdentifier);
+            } else {
+                sagaIdentifiers.remove(sagaIdentifier);
+            }
+        });
+        return sagaIdentifiers;
+    }
+
+    @Override
+    public Saga load(String sagaIdentifier) {
+        PendingSaga pendingSaga = stagedSagas(false).get(sagaIdentifier);
+        if (pendingSaga == null) {
+            synchronized (lock) {
+                pendingSaga = pendingSagas.get(sagaIdentifier);
+                if (pendingSaga == null) {
+                    pendingSaga = flushingSagas.get(sagaIdentifier);
+                }
+            }
+        }
+        if (pendingSaga == null) {
+            return delegate.load(sagaIdentifier);
+        }
+        if (pendingSaga.deleted) {
+            return null;
+        }
+        Saga saga = serializer.deserialize(pendingSaga.serializedSaga);
+        ResourceInjector resourceInjector = injector;
+        if (resourceInjector != null) {
+            resourceInjector.injectResources(saga);
+        }
+        return saga;
+    }
+
+    @Override
+    public void commit(Saga saga) {
+        PendingSaga change = new PendingSaga(saga.getSagaIdentifier(), delegate.typeOf(saga.getClass()), false);
+        if (!saga.isActive()) {
+            change.deleted = true;
+            change.deletedSaga = saga;
+        } else {
+            AssociationValues associationValues = saga.getAssociationValues();
+            change.addedAssociations.addAll(associationValues.addedAssociations());
+            change.removedAssociations.addAll(associationValues.removedAssociations());
+            associationValues.commit();
+            change.serializedSaga = serializer.serialize(saga, byte[].class);
+        }
+        register(change);
+    }
+
+    @Override
+    public void add(Saga saga) {
+        if (saga.isActive()) {
+            PendingSaga change = new PendingSaga(saga.getSagaIdentifier(), delegate.typeOf(saga.getClass()), true);
+            AssociationValues associationValues = saga.getAssociationValues();
+            change.addedAssociations.addAll(associationValues.addedAssociations());
+            associationValues.commit();
+            change.serializedSaga = serializer.serialize(saga, byte[].class);
+            register(change);
+        }
+    }
+
+    /**
+     * Writes all pending changes to the wrapped repository, and waits until they have been written. Changes of Units
+     * of Work that have not been committed yet are not written.
+     *
+     * @throws InterruptedException when the thread was interrupted while waiting for the changes to be written
+     */
+    public void flush() throws InterruptedException {
+        try {
+            flushExecutor.submit(this::flushPendingSagas).get();
+        } catch (ExecutionException e) {
+            logger.warn("Failed to write pending saga changes", e.getCause());
+        }
+    }
+
+    /**
+     * Writes all pending changes to the wrapped repository and stops the thread writing changes. Changes committed
+     * after shutdown are retained, but never written.
+     *
+     * @throws InterruptedException when the thread was interrupted while waiting for the changes to be written
+     */
+    public void shutDown() throws InterruptedException {
+        flushExecutor.execute(this::flushPendingSagas);
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets the number of sagas with pending changes that triggers a write before the flush interval has passed.
+     * Defaults to {@value #DEFAULT_MAX_PENDING_SAGAS}.
+     *
+     * @param maxPendingSagas The number of sagas with pending changes that triggers a write
+     */
+    public void setMaxPendingSagas(int maxPendingSagas) {
+        Assert.isTrue(maxPendingSagas > 0, "maxPendingSagas must be positive");
+        this.maxPendingSagas = maxPendingSagas;
+    }
+
+    /**
+     * Sets the number of sagas with pending changes that blocks threads registering changes of other sagas until the
+     * pending changes are being written. Defaults to {@value #DEFAULT_MAX_BACKLOG}.
+     *
+     * @param maxBacklog The number of sagas with pending changes that blocks registration of new changes
+     */
+    public void setMaxBacklog(int maxBacklog) {
+        Assert.isTrue(maxBacklog > 0, "maxBacklog must be positive");
+        this.maxBacklog = maxBacklog;
+    }
+
+    /**
+     * Sets the number of times writing the changes of a saga is attempted before the changes are discarded. Defaults
+     * to {@value #DEFAULT_MAX_WRITE_ATTEMPTS}.
+     *
+     * @param maxWriteAttempts The number of attempts to write the changes of a saga
+     */
+    public void setMaxWriteAttempts(int maxWriteAttempts) {
+        Assert.isTrue(maxWriteAttempts > 0, "maxWriteAttempts must be positive");
+        this.maxWriteAttempts = maxWriteAttempts;
+    }
+
+    /**
+     * Sets the ResourceInjector to use to inject Saga instances loaded from pending changes with any (temporary)
+     * resources they might need. This should be the same injector as used by the wrapped repository.
+     *
+     * @param resourceInjector The resource injector
+     */
+    public void setResourceInjector(ResourceInjector resourceInjector) {
+        this.injector = resourceInjector;
+    }
+
+    private void register(PendingSaga change) {
+        if (CurrentUnitOfWork.isStarted()) {
+            merge(stagedSagas(true), change);
+        } else {
+            enqueue(Collections.singletonMap(change.sagaIdentifier, change));
+        }
+    }
+
+    private Map<String, PendingSaga> stagedSagas(boolean createIfAbsent) {
+        if (!CurrentUnitOfWork.isStarted()) {
+            return Collections.emptyMap();
+        }
+        UnitOfWork<?> root = CurrentUnitOfWork.get().root();
+        if (!createIfAbsent) {
+            Map<String, PendingSaga> staged = root.getResource(stagedChangesKey);
+            return staged == null ? Collections.emptyMap() : staged;
+        }
+        return root.getOrComputeResource(stagedChangesKey, key -> {
+            Map<String, PendingSaga> staged = new LinkedHashMap<>();
+            root.afterCommit(u -> enqueue(staged));
+            return staged;
+        });
+    }
+
+    private void enqueue(Map<String, PendingSaga> changes) {
+        boolean flushNow;
+        synchronized (lock) {
+            awaitBacklogCapacity(changes);
+            changes.values().forEach(change -> merge(pendingSagas, change));
+            flushNow = pendingSagas.size() >= maxPendingSagas;
+        }
+        if (flushNow) {
+            requestFlush();
+        }
+    }
+
+    // must be invoked while holding "lock"
+    private void awaitBacklogCapacity(Map<String, PendingSaga> changes) {
+        boolean interrupted = false;
+        while (pendingSagas.size() >= maxBacklog && !flushExecutor.isShutdown()
+                && !pendingSagas.keySet().containsAll(changes.keySet())) {
+            requestFlush();
+            try {
+                lock.wait(100);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true) && !flushExecutor.isShutdown()) {
+            flushExecutor.execute(this::flushPendingSagas);
+        }
+    }
+
+    private void flushPendingSagas() {
+        flushRequested.set(false);
+        Map<String, PendingSaga> batch;
+        synchronized (lock) {
+            if (pendingSagas.isEmpty()) {
+                return;
+            }
+            batch = pendingSagas;
+            flushingSagas = batch;
+            pendingSagas = new LinkedHashMap<>();
+            lock.notifyAll();
+        }
+        try {
+            unitOfWorkFactory.createUnitOfWork(null).execute(() -> batch.values().forEach(this::write));
+            synchronized (lock) {
+                flushingSagas = Collections.emptyMap();
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Wrote changes of {} sagas", batch.size());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write changes of {} sagas in a single batch. Writing the changes of each saga "
+                                + "separately.", batch.size(), e);
+            Map<String, PendingSaga> failed = writeSeparately(batch);
+            synchronized (lock) {
+                pendingSagas.values().forEach(change -> merge(failed, change));
+                pendingSagas = failed;
+                flushingSagas = Collections.emptyMap();
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private Map<String, PendingSaga> writeSeparately(Map<String, PendingSaga> batch) {
+        Map<String, PendingSaga> failed = new LinkedHashMap<>();
+        for (PendingSaga change : batch.values()) {
+            try {
+                unitOfWorkFactory.createUnitOfWork(null).execute(() -> write(change));
+            } catch (RuntimeException e) {
+                if (++change.failedAttempts < maxWriteAttempts) {
+                    logger.warn("Failed to write changes of saga [{}]. Retrying with the next batch.",
+                                change.sagaIdentifier, e);
+                    failed.put(change.sagaIdentifier, change);
+                } else {
+                    logger.error("Failed to write changes of saga [{}] after {} attempts. The changes are discarded.",
+                                 change.sagaIdentifier, change.failedAttempts, e);
+                }
+            }
+        }
+        return failed;
+    }
+
+    private void write(PendingSaga change) {
+        if (change.deleted) {
+            if (!change.created) {
+                // a saga that was created and ended within the same batch was never written
+                delegate.deleteSaga(change.deletedSaga);
+            }
+            return;
+        }
+        for (AssociationValue associationValue : change.addedAssociations) {
+            delegate.storeAssociationValue(associationValue, change.sagaType, change.sagaIdentifier);
+        }
+        for (AssociationValue associationValue : change.removedAssociations) {
+            delegate.removeAssociationValue(associationValue, change.sagaType, change.sagaIdentifier);
+        }
+        Saga saga = serializer.deserialize(change.serializedSaga);
+        if (change.created) {
+            delegate.storeSaga(saga);
+        } else {
+            delegate.updateSaga(saga);
+        }
+    }
+
+    private static void merge(Map<String, PendingSaga> changes, PendingSaga change) {
+        PendingSaga existing = changes.get(change.sagaIdentifier);
+        if (existing == null) {
+            changes.put(change.sagaIdentifier, change);
+        } else {
+            existing.apply(change);
+        }
+    }
+
+    private static void collectAssociations(Map<String, PendingSaga> changes, String sagaType,
+                                            AssociationValue associationValue, Map<String, Boolean> associated) {
+        for (PendingSaga change : changes.values()) {
+            if (!sagaType.equals(change.sagaType)) {
+                continue;
+            }
+            if (change.deleted || change.removedAssociations.contains(associationValue)) {
+                associated.put(change.sagaIdentifier, false);
+            } else if (change.addedAssociations.contains(associationValue)) {
+                associated.put(change.sagaIdentifier, true);
+            }
+        }
+    }
+
+    private static final class PendingSaga {
+
+        private final String sagaIdentifier;
+        private final String sagaType;
+        private final Set<AssociationValue> addedAssociations = new HashSet<>();
+        private final Set<AssociationValue> removedAssociations = new HashSet<>();
+        private boolean created;
+        private boolean deleted;
+        private SerializedObject<byte[]> serializedSaga;
+        private Saga deletedSaga;
+        private int failedAttempts;
+
+        private PendingSaga(String sagaIdentifier, String sagaType, boolean created) {
+            this.sagaIdentifier = sagaIdentifier;
+            this.sagaType = sagaType;
+            this.created = created;
+        }
+
+        private void apply(PendingSaga later) {
+            if (later.deleted) {
+                deleted = true;
+                deletedSaga = later.deletedSaga;
+                serializedSaga = null;
+                addedAssociations.clear();
+                removedAssociations.clear();
+                return;
+            }
+            created = created || later.created;
+            serializedSaga = later.serializedSaga;
+            for (AssociationValue associationValue : later.addedAssociations) {
+                if (!removedAssociations.remove(associationValue)) {
+                    addedAssociations.add(associationValue);
+                }
+            }
+            for (AssociationValue associationValue : later.removedAssociations) {
+                if (!addedAssociations.remove(associationValue)) {
+                    removedAssociations.add(associationValue);
+                }
+            }
+        }
+    }
+}
@@ -103,6 +103,13 @@ public PreparedStatement sql_findAssocSagaIdentifiers(Connection connection, Str
         return preparedStatement;
     }
 
+    @Override
+    public PreparedStatement sql_findAllAssocValues(Connection connection) throws SQLException {
+        final String sql = "SELECT associationKey, associationValue, sagaType FROM "
+                + schemaConfiguration.assocValueEntryTable();
+        return connection.prepareStatement(sql);
+    }
+
     @Override
     public PreparedStatement sql_deleteSagaEntry(Connection connection, String sagaIdentifier) throws SQLException {
         final String sql = "DELETE FROM " + schemaConfiguration.sagaEntryTable() + " WHERE sagaId = ?";
@@ -38,6 +38,7 @@
 import java.sql.SQLException;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.BiConsumer;
 import javax.sql.DataSource;
 
 import static org.axonframework.common.jdbc.JdbcUtils.closeQuietly;
@@ -222,6 +223,28 @@ protected Set<String> findAssociatedSagaIdentifiers(Class<? extends Saga> type,
         }
     }
 
+    @Override
+    protected void forEachAssociationValue(BiConsumer<String, AssociationValue> consumer) {
+        ResultSet resultSet = null;
+        PreparedStatement statement = null;
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            statement = sqldef.sql_findAllAssocValues(conn);
+            resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                consumer.accept(resultSet.getString(3),
+                                new AssociationValue(resultSet.getString(1), resultSet.getString(2)));
+            }
+        } catch (SQLException e) {
+            throw new SagaStorageException("Exception while reading saga associations", e);
+        } finally {
+            closeQuietly(statement);
+            closeQuietly(resultSet);
+            closeQuietly(conn);
+        }
+    }
+
     @Override
     protected void deleteSaga(Saga saga) {
         PreparedStatement statement1 = null;
@@ -91,6 +91,17 @@ PreparedStatement sql_storeAssocValue(Connection connection, String key, String
     PreparedStatement sql_findAssocSagaIdentifiers(Connection connection, String key, String value, String sagaType)
             throws SQLException;
 
+    /**
+     * Creates a PreparedStatement that finds all stored association values. The resulting ResultSet must contain the
+     * association key, association value and saga type, in that order.
+     *
+     * @param connection The connection to create the PreparedStatement for
+     * @return a PreparedStatement that creates a ResultSet containing the key, value and saga type of each association
+     *
+     * @throws SQLException when an error occurs creating the PreparedStatement
+     */
+    PreparedStatement sql_findAllAssocValues(Connection connection) throws SQLException;
+
     /**
      * Creates a PreparedStatement that deletes a Saga with given <code>sagaIdentifier</code>.
      *
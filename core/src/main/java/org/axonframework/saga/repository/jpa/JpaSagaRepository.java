@@ -34,6 +34,7 @@
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.BiConsumer;
 
 /**
  * JPA implementation of the Saga Repository. It uses an {@link javax.persistence.EntityManager} to persist the actual
@@ -63,6 +64,8 @@ public class JpaSagaRepository extends AbstractSagaRepository {
             + "WHERE ae.associationKey = :associationKey "
             + "AND ae.associationValue = :associationValue "
             + "AND ae.sagaType = :sagaType";
+    private static final String FIND_ALL_ASSOCIATIONS_QUERY = "SELECT ae.associationKey, ae.associationValue, "
+            + "ae.sagaType FROM AssociationValueEntry ae ORDER BY ae.id";
     private static final String DELETE_ASSOCIATIONS_QUERY = "DELETE FROM AssociationValueEntry ae WHERE ae.sagaId = :sagaId";
     private static final String DELETE_SAGA_QUERY = "DELETE FROM SagaEntry se WHERE se.sagaId = :id";
     private static final String UPDATE_SAGA_QUERY = "UPDATE SagaEntry s SET s.serializedSaga = :serializedSaga, s.revision = :revision "
@@ -75,6 +78,8 @@ public class JpaSagaRepository extends AbstractSagaRepository {
     private static final String DELETE_SAGA_NAMED_QUERY = "DELETE_SAGA_NAMED_QUERY";
     private static final String UPDATE_SAGA_NAMED_QUERY = "UPDATE_SAGA_NAMED_QUERY";
 
+    private static final int ASSOCIATION_PAGE_SIZE = 1000;
+
     private final EntityManagerProvider entityManagerProvider;
     private ResourceInjector injector;
     private Serializer serializer;
@@ -166,6 +171,24 @@ protected Set<String> findAssociatedSagaIdentifiers(Class<? extends Saga> type,
         return new TreeSet<>(entries);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void forEachAssociationValue(BiConsumer<String, AssociationValue> consumer) {
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        int firstResult = 0;
+        List<Object[]> page;
+        do {
+            page = entityManager.createQuery(FIND_ALL_ASSOCIATIONS_QUERY)
+                                .setFirstResult(firstResult)
+                                .setMaxResults(ASSOCIATION_PAGE_SIZE)
+                                .getResultList();
+            for (Object[] entry : page) {
+                consumer.accept((String) entry[2], new AssociationValue((String) entry[0], (String) entry[1]));
+            }
+            firstResult += page.size();
+        } while (page.size() == ASSOCIATION_PAGE_SIZE);
+    }
+
     @Override
     protected void deleteSaga(Saga saga) {
         EntityManager entityManager = entityManagerProvider.getEntityManager();
@@ -19,8 +19,13 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -30,6 +35,11 @@
  * This implementation will also autodetect ContentTypeConverter implementations by scanning
  * <code>/META-INF/services/org.axonframework.serializer.ContentTypeConverter</code> files on the classpath. These
  * files must contain the fully qualified class names of the implementations to use.
+ * <p/>
+ * The converter found for each combination of source and target type is cached, as well as the fact that no
+ * converter exists for a combination. The converters between commonly used content types, such as
+ * <code>byte[]</code>, <code>InputStream</code>, <code>String</code>, Dom4J and XOM documents and Jackson's
+ * <code>JsonNode</code>, are calculated upfront. Registering a converter replaces the cache.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -37,50 +47,100 @@
 public class ChainingConverterFactory implements ConverterFactory {
 
     private static final Logger logger = LoggerFactory.getLogger(ChainingConverterFactory.class);
+    private static final String[] COMMON_CONTENT_TYPES = {"[B", InputStream.class.getName(), String.class.getName(),
+            "org.dom4j.Document", "nu.xom.Document", "com.fasterxml.jackson.databind.JsonNode"};
+
     private final List<ContentTypeConverter<?, ?>> converters = new CopyOnWriteArrayList<>();
+    private volatile ConcurrentMap<ConversionKey, Optional<ContentTypeConverter<?, ?>>> converterCache;
 
     /**
      * Initialize a new ChainingConverterFactory. Will autodetect all converters mentioned in
      * <code>/META-INF/services/org.axonframework.serializer.ContentTypeConverter</code> files on the class path.
      * <p/>
-     * Instances of ChainingConverterFactory are safe for use in a multi-threaded environment, with exception of the
-     * {@link #registerConverter(ContentTypeConverter)} method.
+     * Instances of ChainingConverterFactory are safe for use in a multi-threaded environment.
      */
     public ChainingConverterFactory() {
         ServiceLoader<ContentTypeConverter> converterLoader = ServiceLoader.load(ContentTypeConverter.class);
         for (ContentTypeConverter converter : converterLoader) {
             converters.add(converter);
         }
+        converterCache = precomputeCommonConverters();
     }
 
     @Override
     public <S, T> boolean hasConverter(Class<S> sourceContentType, Class<T> targetContentType) {
-        if (sourceContentType.equals(targetContentType)) {
-            return true;
-        }
-        for (ContentTypeConverter converter : converters) {
-            if (canConvert(converter, sourceContentType, targetContentType)) {
-                return true;
-            }
-        }
-        return ChainedConverter.canConvert(sourceContentType, targetContentType, converters);
+        return findConverter(sourceContentType, targetContentType).isPresent();
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <S, T> ContentTypeConverter<S, T> getConverter(Class<S> sourceContentType, Class<T> targetContentType) {
+        return (ContentTypeConverter<S, T>) findConverter(sourceContentType, targetContentType).orElseThrow(
+                () -> new CannotConvertBetweenTypesException(String.format(
+                        "Cannot build a converter to convert from %s to %s",
+                        sourceContentType.getName(), targetContentType.getName())));
+    }
+
+    private Optional<ContentTypeConverter<?, ?>> findConverter(Class<?> sourceContentType,
+                                                               Class<?> targetContentType) {
+        return findConverter(converterCache, sourceContentType, targetContentType);
+    }
+
+    private Optional<ContentTypeConverter<?, ?>> findConverter(
+            ConcurrentMap<ConversionKey, Optional<ContentTypeConverter<?, ?>>> cache, Class<?> sourceContentType,
+            Class<?> targetContentType) {
+        ConversionKey key = new ConversionKey(sourceContentType, targetContentType);
+        Optional<ContentTypeConverter<?, ?>> converter = cache.get(key);
+        if (converter == null) {
+            converter = calculateConverter(sourceContentType, targetContentType);
+            Optional<ContentTypeConverter<?, ?>> existing = cache.putIfAbsent(key, converter);
+            if (existing != null) {
+                converter = existing;
+            }
+        }
+        return converter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<ContentTypeConverter<?, ?>> calculateConverter(Class<?> sourceContentType,
+                                                                    Class<?> targetContentType) {
         if (sourceContentType.equals(targetContentType)) {
-            return new NoConversion(sourceContentType);
+            return Optional.of(new NoConversion(sourceContentType));
         }
         for (ContentTypeConverter converter : converters) {
             if (canConvert(converter, sourceContentType, targetContentType)) {
-                return converter;
+                return Optional.of(converter);
             }
         }
-        ChainedConverter<S, T> converter = ChainedConverter.calculateChain(sourceContentType, targetContentType,
-                                                                           converters);
-        converters.add(0, converter);
-        return converter;
+        try {
+            return Optional.of(ChainedConverter.calculateChain(sourceContentType, targetContentType, converters));
+        } catch (CannotConvertBetweenTypesException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates a new cache containing the converters between the common content types that are available on the
+     * classpath.
+     *
+     * @return a cache with the converters between common content types
+     */
+    private ConcurrentMap<ConversionKey, Optional<ContentTypeConverter<?, ?>>> precomputeCommonConverters() {
+        ConcurrentMap<ConversionKey, Optional<ContentTypeConverter<?, ?>>> cache = new ConcurrentHashMap<>();
+        List<Class<?>> contentTypes = new ArrayList<>();
+        for (String typeName : COMMON_CONTENT_TYPES) {
+            try {
+                contentTypes.add(Class.forName(typeName, false, getClass().getClassLoader()));
+            } catch (ClassNotFoundException | LinkageError e) {
+                logger.debug("Content type [{}] is not available on the classpath.", typeName);
+            }
+        }
+        for (Class<?> sourceContentType : contentTypes) {
+            for (Class<?> targetContentType : contentTypes) {
+                findConverter(cache, sourceContentType, targetContentType);
+            }
+        }
+        return cache;
     }
 
     private <S, T> boolean canConvert(ContentTypeConverter<?, ?> converter, Class<S> sourceContentType,
@@ -111,8 +171,10 @@ private <S, T> boolean canConvert(ContentTypeConverter<?, ?> converter, Class<S>
      *
      * @param converter the converter to register.
      */
-    public void registerConverter(ContentTypeConverter converter) {
+    public synchronized void registerConverter(ContentTypeConverter converter) {
         converters.add(0, converter);
+        // lookups in progress may still add entries for the previous set of converters to the old cache
+        converterCache = precomputeCommonConverters();
     }
 
     /**
@@ -131,7 +193,7 @@ public void registerConverter(ContentTypeConverter converter) {
      *
      * @param converterType the type of converter to register.
      */
-    public void registerConverter(Class<? extends ContentTypeConverter> converterType) {
+    public synchronized void registerConverter(Class<? extends ContentTypeConverter> converterType) {
         try {
             ContentTypeConverter converter = converterType.getConstructor().newInstance();
             converter.targetType();
@@ -152,9 +214,39 @@ public void registerConverter(Class<? extends ContentTypeConverter> converterTyp
      *
      * @param additionalConverters The converters to register with this factory
      */
-    public void setAdditionalConverters(List<ContentTypeConverter> additionalConverters) {
+    public synchronized void setAdditionalConverters(List<ContentTypeConverter> additionalConverters) {
         for (ContentTypeConverter converter : additionalConverters) {
-            registerConverter(converter);
+            converters.add(0, converter);
+        }
+        converterCache = precomputeCommonConverters();
+    }
+
+    private static final class ConversionKey {
+
+        private final Class<?> sourceContentType;
+        private final Class<?> targetContentType;
+
+        private ConversionKey(Class<?> sourceContentType, Class<?> targetContentType) {
+            this.sourceContentType = sourceContentType;
+            this.targetContentType = targetContentType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ConversionKey that = (ConversionKey) o;
+            return sourceContentType.equals(that.sourceContentType)
+                    && targetContentType.equals(that.targetContentType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sourceContentType.hashCode() + targetContentType.hashCode();
         }
     }
 
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.commandhandling;
+
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWorkFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Verifies the number of bytes allocated on the dispatching thread for each command handled by the SimpleCommandBus,
+ * to guard against regressions in the allocation profile of the Unit of Work lifecycle. Measurements are taken after a
+ * warm up, and the lowest of a number of rounds is used, so that JIT compilation doesn't influence the result.
+ *
+ * @author Allard Buijze
+ */
+public class SimpleCommandBusAllocationTest {
+
+    private static final int WARMUP_COMMANDS = 50000;
+    private static final int COMMANDS_PER_ROUND = 10000;
+    private static final int ROUNDS = 10;
+
+    private SimpleCommandBus testSubject;
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    @Before
+    public void setUp() {
+        ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) mxBean;
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        testSubject = new SimpleCommandBus();
+        testSubject.subscribe(String.class.getName(), (command, unitOfWork) -> {
+            unitOfWork.getOrComputeResource("resource", key -> Boolean.TRUE);
+            unitOfWork.afterCommit(u -> {
+            });
+            return command.getPayload();
+        });
+    }
+
+    @Test
+    public void testAllocationsPerCommand() {
+        long bytesPerCommand = measureBytesPerCommand();
+        assertTrue("Allocated " + bytesPerCommand + " bytes per command", bytesPerCommand <= 1024);
+    }
+
+    @Test
+    public void testAllocationsPerCommand_ReusedUnitOfWork() {
+        DefaultUnitOfWorkFactory unitOfWorkFactory = new DefaultUnitOfWorkFactory();
+        unitOfWorkFactory.setReuseUnitsOfWork(true);
+        testSubject.setUnitOfWorkFactory(unitOfWorkFactory);
+
+        long bytesPerCommand = measureBytesPerCommand();
+        assertTrue("Allocated " + bytesPerCommand + " bytes per command", bytesPerCommand <= 256);
+    }
+
+    private long measureBytesPerCommand() {
+        CommandMessage<String> command = asCommandMessage("payload");
+        CommandCallback<Object, Object> callback = new CommandCallback<Object, Object>() {
+            @Override
+            public void onSuccess(CommandMessage<?> commandMessage, Object result) {
+            }
+
+            @Override
+            public void onFailure(CommandMessage<?> commandMessage, Throwable cause) {
+                throw new AssertionError("Command failed", cause);
+            }
+        };
+        for (int i = 0; i < WARMUP_COMMANDS; i++) {
+            testSubject.dispatch(command, callback);
+        }
+        long threadId = Thread.currentThread().getId();
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < COMMANDS_PER_ROUND; i++) {
+                testSubject.dispatch(command, callback);
+            }
+            lowest = Math.min(lowest, (threadMXBean.getThreadAllocatedBytes(threadId) - before) / COMMANDS_PER_ROUND);
+        }
+        return lowest;
+    }
+}
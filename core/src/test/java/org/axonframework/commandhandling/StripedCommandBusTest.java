@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class StripedCommandBusTest {
+
+    private StripedCommandBus testSubject;
+
+    @After
+    public void tearDown() {
+        testSubject.shutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void testCommandsForSameAggregateHandledInOrderByOneThread() throws Exception {
+        testSubject = new StripedCommandBus(4, 100, new MetaDataCommandTargetResolver("aggregate"),
+                                            StripedCommandBus.OverflowPolicy.BLOCK);
+        Map<String, List<Integer>> handledPerAggregate = new ConcurrentHashMap<>();
+        Map<String, Thread> threadPerAggregate = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(1000);
+        testSubject.subscribe(Integer.class.getName(), (command, unitOfWork) -> {
+            String aggregate = (String) command.getMetaData().get("aggregate");
+            Thread previous = threadPerAggregate.putIfAbsent(aggregate, Thread.currentThread());
+            assertTrue(previous == null || previous == Thread.currentThread());
+            handledPerAggregate.computeIfAbsent(aggregate, k -> new CopyOnWriteArrayList<>())
+                               .add((Integer) command.getPayload());
+            latch.countDown();
+            return null;
+        });
+
+        for (int i = 0; i < 1000; i++) {
+            testSubject.dispatch(asCommandMessage(i).andMetaData(
+                    Collections.singletonMap("aggregate", "aggregate" + (i % 10))));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(10, handledPerAggregate.size());
+        for (List<Integer> handled : handledPerAggregate.values()) {
+            assertEquals(100, handled.size());
+            for (int i = 1; i < handled.size(); i++) {
+                assertTrue(handled.get(i - 1) < handled.get(i));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testCommandRejectedWhenQueueFull() throws Exception {
+        testSubject = new StripedCommandBus(1, 1, new MetaDataCommandTargetResolver("aggregate"),
+                                            StripedCommandBus.OverflowPolicy.REJECT);
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        testSubject.subscribe(String.class.getName(), (command, unitOfWork) -> {
+            handling.countDown();
+            release.await();
+            return null;
+        });
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        testSubject.dispatch(asCommandMessage("first"), callback);
+        assertTrue(handling.await(5, TimeUnit.SECONDS));
+        testSubject.dispatch(asCommandMessage("queued"), callback);
+        assertEquals(1, testSubject.getQueueDepth());
+        assertEquals(1, testSubject.getQueueDepth(0));
+        CommandMessage<Object> rejected = asCommandMessage("rejected");
+        testSubject.dispatch(rejected, callback);
+
+        verify(callback).onFailure(eq(rejected), isA(RejectedExecutionException.class));
+        release.countDown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testNestedDispatchToFullQueueIsRejectedInsteadOfBlocking() throws Exception {
+        testSubject = new StripedCommandBus(1, 1, new MetaDataCommandTargetResolver("aggregate"),
+                                            StripedCommandBus.OverflowPolicy.BLOCK);
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+        CommandMessage<Object> queued = asCommandMessage("queued");
+        CommandMessage<Object> rejected = asCommandMessage("rejected");
+        CountDownLatch handled = new CountDownLatch(2);
+        testSubject.subscribe(String.class.getName(), (command, unitOfWork) -> {
+            if ("outer".equals(command.getPayload())) {
+                // the worker dispatches to its own queue, which has room for a single command
+                testSubject.dispatch(queued, callback);
+                testSubject.dispatch(rejected, callback);
+            }
+            handled.countDown();
+            return null;
+        });
+
+        testSubject.dispatch(asCommandMessage("outer"));
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        verify(callback).onFailure(eq(rejected), isA(RejectedExecutionException.class));
+        verify(callback, timeout(5000)).onSuccess(queued, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testCommandHandledByCallerWhenQueueFull() throws Exception {
+        testSubject = new StripedCommandBus(1, 1, new MetaDataCommandTargetResolver("aggregate"),
+                                            StripedCommandBus.OverflowPolicy.CALLER_RUNS);
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread callerThread = Thread.currentThread();
+        testSubject.subscribe(String.class.getName(), (command, unitOfWork) -> {
+            if (Thread.currentThread() != callerThread) {
+                handling.countDown();
+                release.await();
+            }
+            return Thread.currentThread();
+        });
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        testSubject.dispatch(asCommandMessage("first"), callback);
+        assertTrue(handling.await(5, TimeUnit.SECONDS));
+        testSubject.dispatch(asCommandMessage("queued"), callback);
+        CommandMessage<Object> overflow = asCommandMessage("overflow");
+        testSubject.dispatch(overflow, callback);
+
+        verify(callback).onSuccess(overflow, callerThread);
+        release.countDown();
+    }
+}
@@ -25,6 +25,7 @@
 import java.util.function.Function;
 
 import static org.axonframework.commandhandling.model.AggregateLifecycle.apply;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.*;
 
@@ -79,6 +80,26 @@ public void testLoadFromRepositoryStoresLoadedAggregateInCache() throws Exceptio
         verify(mockEventStore).readEvents(eq(aggregateIdentifier));
     }
 
+    @Test
+    public void testSecondLoadFromRepositoryUsesFirstLevelCache() throws Exception {
+        final Repository<StubAggregate> repository = testSubject.createRepository(
+                new GenericAggregateFactory<>(StubAggregate.class), eventStreamDecorator);
+        when(mockCommandHandler.handle(eq(mockCommandMessage), isA(UnitOfWork.class))).thenAnswer(invocationOnMock -> repository.load(aggregateIdentifier));
+        when(mockEventStore.readEvents(anyObject()))
+                .thenReturn(new SimpleDomainEventStream(
+                        new GenericDomainEventMessage<>(aggregateIdentifier, 0, aggregateIdentifier)));
+        testSubject.onEvent(commandHandlingEntry, 0, true);
+        commandHandlingEntry.reset(mockCommandMessage, mockCommandHandler, 0, 0, null,
+                                   Collections.<MessageHandlerInterceptor<CommandMessage<?>>>emptyList(),
+                                   Collections.<MessageHandlerInterceptor<CommandMessage<?>>>emptyList());
+        testSubject.onEvent(commandHandlingEntry, 1, true);
+
+        verify(mockCache).get(aggregateIdentifier);
+        verify(mockEventStore).readEvents(eq(aggregateIdentifier));
+        assertEquals(1, testSubject.getFirstLevelCacheHitCount());
+        assertEquals(1, testSubject.getFirstLevelCacheMissCount());
+    }
+
     @Test
     public void testLoadFromRepositoryLoadsFromCache() throws Exception {
         final Repository<StubAggregate> repository = testSubject.createRepository(
@@ -99,7 +120,7 @@ public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
     }
 
     @Test
-    public void testAddToRepositoryAddsInCache() throws Exception {
+    public void testAddToRepositoryAddsInCacheAndRegistersEventsWithEntry() throws Exception {
         final Repository<StubAggregate> repository = testSubject.createRepository(
                 new GenericAggregateFactory<>(StubAggregate.class), eventStreamDecorator);
         when(mockCommandHandler.handle(eq(mockCommandMessage), isA(UnitOfWork.class))).thenAnswer(invocationOnMock -> {
@@ -112,7 +133,10 @@ public void testAddToRepositoryAddsInCache() throws Exception {
 
         verify(mockCache).put(eq(aggregateIdentifier), isA(EventSourcedAggregate.class));
         verify(mockEventStore, never()).readEvents(eq(aggregateIdentifier));
-        verify(mockEventStore).appendEvents(Matchers.<DomainEventMessage<?>[]>anyVararg());
+        verify(mockEventStore, never()).appendEvents(Matchers.<DomainEventMessage<?>[]>anyVararg());
+        verify(mockEventStore, never()).appendEvents(anyListOf(DomainEventMessage.class));
+        assertEquals(1, commandHandlingEntry.getMessagesToPublish().size());
+        assertEquals(aggregateIdentifier, commandHandlingEntry.getMessagesToPublish().get(0).getAggregateIdentifier());
     }
 
     @Test
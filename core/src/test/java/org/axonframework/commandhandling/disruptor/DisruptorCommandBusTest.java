@@ -40,6 +40,8 @@
 import org.axonframework.messaging.interceptors.TransactionManager;
 import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.serializer.SerializationAware;
+import org.axonframework.serializer.Serializer;
 import org.axonframework.testutils.MockException;
 import org.junit.After;
 import org.junit.Before;
@@ -50,11 +52,13 @@
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import static java.util.Arrays.asList;
@@ -267,9 +271,138 @@ public void testAggregatesBlacklistedAndRecoveredOnError_WithoutReschedule() thr
         verify(mockCallback, times(10)).onFailure(any(), isA(RuntimeException.class));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testAggregatesBlacklistedAndRecoveredOnError_WithGroupCommit() throws Exception {
+        MessageHandlerInterceptor mockInterceptor = mock(MessageHandlerInterceptor.class);
+        ExecutorService customExecutor = Executors.newCachedThreadPool();
+        Transaction mockTransaction = mock(Transaction.class);
+        mockTransactionManager = mock(TransactionManager.class);
+        when(mockTransactionManager.startTransaction()).thenReturn(mockTransaction);
+
+        CommandCallback mockCallback = dispatchCommands(mockInterceptor,
+                                                        customExecutor,
+                                                        new GenericCommandMessage<>(
+                                                                new ErrorCommand(aggregateIdentifier)),
+                                                        4
+        );
+
+        assertFalse(customExecutor.awaitTermination(250, TimeUnit.MILLISECONDS));
+        customExecutor.shutdown();
+        assertTrue(customExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        verify(mockCallback, times(990)).onSuccess(any(), any());
+        verify(mockCallback, times(10)).onFailure(any(), isA(RuntimeException.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testFailingCommandInGroupCommitDoesNotAffectOtherCommands() throws Exception {
+        ExecutorService customExecutor = Executors.newCachedThreadPool();
+        Transaction mockTransaction = mock(Transaction.class);
+        mockTransactionManager = mock(TransactionManager.class);
+        when(mockTransactionManager.startTransaction()).thenReturn(mockTransaction);
+        testSubject = new DisruptorCommandBus(
+                inMemoryEventStore,
+                eventBus,
+                new DisruptorConfiguration().setBufferSize(8)
+                        .setProducerType(ProducerType.SINGLE)
+                        .setWaitStrategy(new SleepingWaitStrategy())
+                        .setExecutor(customExecutor)
+                        .setInvokerThreadCount(1)
+                        .setPublisherThreadCount(1)
+                        .setTransactionManager(mockTransactionManager)
+                        .setGroupCommitSize(8)
+        );
+        testSubject.subscribe(StubCommand.class.getName(), stubHandler);
+        testSubject.subscribe(PrepareCommitFailingCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(new GenericAggregateFactory<>(StubAggregate.class)));
+        CommandCallback successCallback = mock(CommandCallback.class);
+        CommandCallback failingCallback = mock(CommandCallback.class);
+        for (int i = 0; i < 8; i++) {
+            String identifier = UUID.randomUUID().toString();
+            inMemoryEventStore.appendEvents(Collections.singletonList(
+                    new GenericDomainEventMessage<>(identifier, 0, new StubDomainEvent())));
+            if (i == 3) {
+                testSubject.dispatch(new GenericCommandMessage<>(new PrepareCommitFailingCommand(identifier)),
+                                     failingCallback);
+            } else {
+                testSubject.dispatch(new GenericCommandMessage<>(new StubCommand(identifier)), successCallback);
+            }
+        }
+        testSubject.stop();
+
+        assertFalse(customExecutor.awaitTermination(250, TimeUnit.MILLISECONDS));
+        customExecutor.shutdown();
+        assertTrue(customExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        verify(successCallback, times(7)).onSuccess(any(), any());
+        verify(successCallback, never()).onFailure(any(), any());
+        verify(failingCallback).onFailure(any(), isA(AggregateBlacklistedException.class));
+        verify(failingCallback, never()).onSuccess(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testEventsOfGroupStoredInSingleAppend() throws Exception {
+        ExecutorService customExecutor = Executors.newCachedThreadPool();
+        Transaction mockTransaction = mock(Transaction.class);
+        mockTransactionManager = mock(TransactionManager.class);
+        when(mockTransactionManager.startTransaction()).thenReturn(mockTransaction);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch dispatched = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        MessageHandlerInterceptor<CommandMessage<?>> blockingInterceptor = (unitOfWork, interceptorChain) -> {
+            // hold the invoker until the other commands are in the ring buffer, so that they form a single batch
+            if (first.getAndSet(false)) {
+                blocked.countDown();
+                dispatched.await();
+            }
+            return interceptorChain.proceed();
+        };
+        testSubject = new DisruptorCommandBus(
+                inMemoryEventStore,
+                eventBus,
+                new DisruptorConfiguration().setInvokerInterceptors(Collections.singletonList(blockingInterceptor))
+                        .setBufferSize(8)
+                        .setProducerType(ProducerType.SINGLE)
+                        .setWaitStrategy(new SleepingWaitStrategy())
+                        .setExecutor(customExecutor)
+                        .setInvokerThreadCount(1)
+                        .setPublisherThreadCount(1)
+                        .setTransactionManager(mockTransactionManager)
+                        .setGroupCommitSize(8)
+        );
+        testSubject.subscribe(StubCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(new GenericAggregateFactory<>(StubAggregate.class)));
+        inMemoryEventStore.appendedEvents.clear();
+
+        testSubject.dispatch(new GenericCommandMessage<>(new StubCommand(aggregateIdentifier)));
+        blocked.await();
+        for (int i = 0; i < 4; i++) {
+            testSubject.dispatch(new GenericCommandMessage<>(new StubCommand(aggregateIdentifier)));
+        }
+        dispatched.countDown();
+        testSubject.stop();
+        customExecutor.shutdown();
+
+        // the first command may or may not be part of the group, depending on when the publisher picks it up
+        List<List<DomainEventMessage<?>>> appends = inMemoryEventStore.appendedEvents;
+        assertTrue(appends.size() <= 2);
+        List<DomainEventMessage<?>> group = appends.get(appends.size() - 1);
+        assertTrue(group.size() >= 4);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(5 - i, group.get(group.size() - 1 - i).getSequenceNumber());
+        }
+    }
+
     private CommandCallback dispatchCommands(MessageHandlerInterceptor mockInterceptor, ExecutorService customExecutor,
                                              GenericCommandMessage<ErrorCommand> errorCommand)
             throws Exception {
+        return dispatchCommands(mockInterceptor, customExecutor, errorCommand, 1);
+    }
+
+    private CommandCallback dispatchCommands(MessageHandlerInterceptor mockInterceptor, ExecutorService customExecutor,
+                                             GenericCommandMessage<ErrorCommand> errorCommand, int groupCommitSize)
+            throws Exception {
         inMemoryEventStore.storedEvents.clear();
         testSubject = new DisruptorCommandBus(
                 inMemoryEventStore,
@@ -283,6 +416,7 @@ private CommandCallback dispatchCommands(MessageHandlerInterceptor mockIntercept
                         .setInvokerThreadCount(2)
                         .setPublisherThreadCount(3)
                         .setTransactionManager(mockTransactionManager)
+                        .setGroupCommitSize(groupCommitSize)
         );
         testSubject.subscribe(StubCommand.class.getName(), stubHandler);
         testSubject.subscribe(CreateCommand.class.getName(), stubHandler);
@@ -362,6 +496,36 @@ public void testCommandProcessedAndEventsStored() throws InterruptedException {
         assertEquals("Seems that some events are not stored", 0, inMemoryEventStore.countDownLatch.getCount());
     }
 
+    @Test
+    public void testEventsPreSerializedBeforeStored() throws Exception {
+        Serializer serializer = mock(Serializer.class);
+        testSubject = new DisruptorCommandBus(inMemoryEventStore, eventBus,
+                                              new DisruptorConfiguration()
+                                                      .setBufferSize(8)
+                                                      .setSerializer(serializer)
+                                                      .setSerializerThreadCount(2)
+                                                      .setInvokerThreadCount(2)
+                                                      .setPublisherThreadCount(2)
+        );
+        testSubject.subscribe(StubCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(new GenericAggregateFactory<>(StubAggregate.class)));
+        inMemoryEventStore.appendedEvents.clear();
+
+        for (int i = 0; i < 10; i++) {
+            testSubject.dispatch(new GenericCommandMessage<>(new StubCommand(aggregateIdentifier)));
+        }
+        testSubject.stop();
+
+        List<DomainEventMessage<?>> storedEvents = new ArrayList<>();
+        inMemoryEventStore.appendedEvents.forEach(storedEvents::addAll);
+        assertEquals(10, storedEvents.size());
+        for (DomainEventMessage<?> event : storedEvents) {
+            assertTrue("Expected a pre-serialized event", event instanceof SerializationAware);
+            verify(serializer).serialize(same(event.getPayload()), eq(byte[].class));
+            verify(serializer, atLeastOnce()).serialize(same(event.getMetaData()), eq(byte[].class));
+        }
+    }
+
     private static class StubAggregate {
 
         private static final long serialVersionUID = 8192033940704210095L;
@@ -399,6 +563,7 @@ protected void handle(EventMessage event) {
     private static class InMemoryEventStore implements EventStore {
 
         private final Map<String, DomainEventMessage> storedEvents = new ConcurrentHashMap<>();
+        private final List<List<DomainEventMessage<?>>> appendedEvents = new CopyOnWriteArrayList<>();
         private final CountDownLatch countDownLatch = new CountDownLatch((int) (COMMAND_COUNT + 1L));
 
         @Override
@@ -406,16 +571,16 @@ public void appendEvents(List<DomainEventMessage<?>> events) {
             if (events == null || events.isEmpty()) {
                 return;
             }
-            String key = events.get(0).getAggregateIdentifier();
-            DomainEventMessage<?> lastEvent = null;
             for (DomainEventMessage<?> event : events) {
                 countDownLatch.countDown();
-                lastEvent = event;
-                if (FailingEvent.class.isAssignableFrom(lastEvent.getPayloadType())) {
+                if (FailingEvent.class.isAssignableFrom(event.getPayloadType())) {
                     throw new MockException("This is a failing event. EventStore refuses to store that");
                 }
             }
-            storedEvents.put(key, lastEvent);
+            for (DomainEventMessage<?> event : events) {
+                storedEvents.put(event.getAggregateIdentifier(), event);
+            }
+            appendedEvents.add(new ArrayList<>(events));
         }
 
         @Override
@@ -466,6 +631,13 @@ public Exception getException() {
         }
     }
 
+    private static class PrepareCommitFailingCommand extends StubCommand {
+
+        public PrepareCommitFailingCommand(Object aggregateIdentifier) {
+            super(aggregateIdentifier);
+        }
+    }
+
     private static class CreateCommand extends StubCommand {
 
         public CreateCommand(Object aggregateIdentifier) {
@@ -492,6 +664,11 @@ public Object handle(CommandMessage<?> command, UnitOfWork<? extends CommandMess
                 Aggregate<StubAggregate> aggregate = repository.load(payload.getAggregateIdentifier());
                 if (ErrorCommand.class.isAssignableFrom(command.getPayloadType())) {
                     aggregate.execute(StubAggregate::createFailingEvent);
+                } else if (PrepareCommitFailingCommand.class.isAssignableFrom(command.getPayloadType())) {
+                    aggregate.execute(StubAggregate::doSomething);
+                    unitOfWork.onPrepareCommit(u -> {
+                        throw new MockException("Failing in prepare commit");
+                    });
                 } else {
                     aggregate.execute(StubAggregate::doSomething);
                 }
@@ -33,4 +33,9 @@ public void testSetIllegalInvokerThreadCount() {
         new DisruptorConfiguration().setInvokerThreadCount(0);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetIllegalGroupCommitSize() {
+        new DisruptorConfiguration().setGroupCommitSize(0);
+    }
+
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2010-2015. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.disruptor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class FirstLevelCacheTest {
+
+    @Test
+    public void testGetReturnsValueStoredUnderIdentifier() {
+        FirstLevelCache<Object> testSubject = new FirstLevelCache<>(10);
+        Object value = new Object();
+        testSubject.put("id1", value);
+
+        assertSame(value, testSubject.get("id1"));
+        assertNull(testSubject.get("id2"));
+        assertEquals(1, testSubject.getHitCount());
+        assertEquals(1, testSubject.getMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryEvictedWhenFull() {
+        FirstLevelCache<Object> testSubject = new FirstLevelCache<>(2);
+        Object value1 = new Object();
+        Object value2 = new Object();
+        Object value3 = new Object();
+        testSubject.put("id1", value1);
+        testSubject.put("id2", value2);
+        testSubject.get("id1");
+        testSubject.put("id3", value3);
+
+        assertEquals(2, testSubject.size());
+        assertSame(value1, testSubject.get("id1"));
+        assertNull(testSubject.get("id2"));
+        assertSame(value3, testSubject.get("id3"));
+    }
+
+    @Test
+    public void testRemoveEntry() {
+        FirstLevelCache<Object> testSubject = new FirstLevelCache<>(10);
+        testSubject.put("id1", new Object());
+
+        assertTrue(testSubject.remove("id1"));
+        assertFalse(testSubject.remove("id1"));
+        assertNull(testSubject.get("id1"));
+    }
+
+    @Test
+    public void testGarbageCollectedEntriesArePurged() throws Exception {
+        FirstLevelCache<Object> testSubject = new FirstLevelCache<>(10);
+        testSubject.put("id1", new Object());
+
+        for (int i = 0; i < 10 && testSubject.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            testSubject.get("id2");
+        }
+        assertEquals(0, testSubject.size());
+        assertNull(testSubject.get("id1"));
+    }
+}
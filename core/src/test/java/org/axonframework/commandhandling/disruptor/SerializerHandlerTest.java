@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.disruptor;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.messaging.MessageHandler;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.serializer.SerializationAware;
+import org.axonframework.serializer.SerializedObject;
+import org.axonframework.serializer.Serializer;
+import org.axonframework.serializer.xml.XStreamSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class SerializerHandlerTest {
+
+    private Serializer serializer;
+    private CommandHandlingEntry entry;
+    private DomainEventMessage<String> event;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        serializer = spy(new XStreamSerializer());
+        entry = new CommandHandlingEntry();
+        entry.reset(GenericCommandMessage.asCommandMessage("command"), mock(MessageHandler.class), 0, 0, null,
+                    Collections.<MessageHandlerInterceptor<CommandMessage<?>>>emptyList(),
+                    Collections.<MessageHandlerInterceptor<CommandMessage<?>>>emptyList());
+        event = new GenericDomainEventMessage<>("aggregate", 0, "payload");
+        entry.publishMessages(Collections.singletonList(event));
+    }
+
+    @Test
+    public void testEventsPreSerializedInEntryOfOwnSegment() throws Exception {
+        new SerializerHandler(serializer, 1, 2, byte[].class).onEvent(entry, 3, true);
+
+        DomainEventMessage<?> message = entry.getMessagesToPublish().get(0);
+        assertTrue(message instanceof SerializationAware);
+        assertEquals(event.getIdentifier(), message.getIdentifier());
+        verify(serializer).serialize("payload", byte[].class);
+        verify(serializer).serialize(event.getMetaData(), byte[].class);
+
+        SerializedObject<byte[]> serializedPayload =
+                ((SerializationAware) message).serializePayload(serializer, byte[].class);
+        assertEquals("payload", serializer.deserialize(serializedPayload));
+        verify(serializer, times(1)).serialize("payload", byte[].class);
+    }
+
+    @Test
+    public void testEntriesOfOtherSegmentsIgnored() throws Exception {
+        new SerializerHandler(serializer, 0, 2, byte[].class).onEvent(entry, 3, true);
+
+        assertSame(event, entry.getMessagesToPublish().get(0));
+        verifyZeroInteractions(serializer);
+    }
+
+    @Test
+    public void testEventLeftAsIsWhenSerializationFails() throws Exception {
+        doThrow(new IllegalStateException("Mock")).when(serializer).serialize("payload", byte[].class);
+
+        new SerializerHandler(serializer, 0, 1, byte[].class).onEvent(entry, 0, true);
+
+        assertSame(event, entry.getMessagesToPublish().get(0));
+    }
+}
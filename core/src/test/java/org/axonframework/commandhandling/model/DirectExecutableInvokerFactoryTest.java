@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.model;
+
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class DirectExecutableInvokerFactoryTest {
+
+    @Test
+    public void testInvokePrivateVoidMethod() throws Exception {
+        Target target = new Target();
+        ExecutableInvoker invoker = createInvoker(Target.class.getDeclaredMethod("record", String.class));
+
+        assertNull(invoker.invoke(target, new Object[]{"value"}));
+        assertEquals("record:value", target.invocations.get(0));
+    }
+
+    @Test
+    public void testInvokeMethodReturningValue() throws Exception {
+        ExecutableInvoker invoker = createInvoker(Target.class.getDeclaredMethod("concat", String.class,
+                                                                                  Object.class));
+
+        assertEquals("a1", invoker.invoke(new Target(), new Object[]{"a", 1}));
+    }
+
+    @Test
+    public void testInvokeMethodWithPrimitiveParameterAndReturnValue() throws Exception {
+        ExecutableInvoker invoker = createInvoker(Target.class.getDeclaredMethod("increment", long.class));
+
+        assertEquals(2L, invoker.invoke(new Target(), new Object[]{1L}));
+    }
+
+    @Test
+    public void testInvokeMethodWithManyParameters() throws Exception {
+        Target target = new Target();
+        ExecutableInvoker invoker = createInvoker(Target.class.getDeclaredMethod("combine", String.class,
+                                                                                  String.class, String.class));
+
+        assertEquals("abc", invoker.invoke(target, new Object[]{"a", "b", "c"}));
+    }
+
+    @Test
+    public void testInvokeConstructor() throws Exception {
+        Constructor<Target> constructor = Target.class.getDeclaredConstructor(String.class);
+        ExecutableInvoker invoker = createInvoker(constructor);
+
+        Object result = invoker.invoke(null, new Object[]{"created"});
+        assertTrue(result instanceof Target);
+        assertEquals("created", ((Target) result).invocations.get(0));
+    }
+
+    @Test
+    public void testInvokeOverriddenMethodOnSubclass() throws Exception {
+        SubTarget target = new SubTarget();
+        ExecutableInvoker invoker = createInvoker(Target.class.getDeclaredMethod("describe", Object.class));
+
+        assertEquals("sub:x", invoker.invoke(target, new Object[]{"x"}));
+    }
+
+    @Test
+    public void testExceptionIsThrownAsIs() throws Exception {
+        ExecutableInvoker invoker = createInvoker(Target.class.getDeclaredMethod("fail", String.class));
+
+        try {
+            invoker.invoke(new Target(), new Object[]{"expected"});
+            fail("Expected exception");
+        } catch (MockCheckedException e) {
+            assertEquals("expected", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExceptionIsThrownAsIsFromMethodWithManyParameters() throws Exception {
+        ExecutableInvoker invoker = createInvoker(Target.class.getDeclaredMethod("failWithMany", String.class,
+                                                                                  String.class, String.class));
+
+        try {
+            invoker.invoke(new Target(), new Object[]{"a", "b", "c"});
+            fail("Expected exception");
+        } catch (MockCheckedException e) {
+            assertEquals("abc", e.getMessage());
+        }
+    }
+
+    private static ExecutableInvoker createInvoker(Method method) {
+        return DirectExecutableInvokerFactory.createInvoker(method);
+    }
+
+    private static ExecutableInvoker createInvoker(Constructor<?> constructor) {
+        return DirectExecutableInvokerFactory.createInvoker(constructor);
+    }
+
+    private static class Target {
+
+        private final List<String> invocations = new ArrayList<>();
+
+        private Target() {
+        }
+
+        private Target(String value) {
+            invocations.add(value);
+        }
+
+        private void record(String value) {
+            invocations.add("record:" + value);
+        }
+
+        public String concat(String value, Object other) {
+            return value + other;
+        }
+
+        protected long increment(long value) {
+            return value + 1;
+        }
+
+        String combine(String first, String second, String third) {
+            return first + second + third;
+        }
+
+        String describe(Object value) {
+            return "target:" + value;
+        }
+
+        private void fail(String message) throws MockCheckedException {
+            throw new MockCheckedException(message);
+        }
+
+        private void failWithMany(String first, String second, String third) throws MockCheckedException {
+            throw new MockCheckedException(first + second + third);
+        }
+    }
+
+    private static class SubTarget extends Target {
+
+        @Override
+        String describe(Object value) {
+            return "sub:" + value;
+        }
+    }
+
+    private static class MockCheckedException extends Exception {
+
+        private static final long serialVersionUID = -3417417316468389917L;
+
+        private MockCheckedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -29,6 +29,10 @@
 import javax.persistence.Id;
 import java.lang.annotation.*;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
@@ -66,6 +70,48 @@ public void testEventIsPublishedThroughoutHierarchy() throws Exception {
         assertEquals(2L, payload.get());
     }
 
+    @Test
+    public void testEventIsPublishedToHandlerOfSuperTypeOrInterface() throws Exception {
+        AggregateModel<EventHandlersForPayloadHierarchy> inspector =
+                ModelInspector.inspectAggregate(EventHandlersForPayloadHierarchy.class);
+        EventHandlersForPayloadHierarchy target = new EventHandlersForPayloadHierarchy();
+
+        inspector.publish(new GenericEventMessage<>(1L), target);
+        inspector.publish(new GenericEventMessage<>("text"), target);
+        inspector.publish(new GenericEventMessage<>(new StringBuilder("builder")), target);
+        inspector.publish(new GenericEventMessage<>(BigDecimal.ONE), target);
+
+        assertEquals(Arrays.asList("long:1", "charSequence:text", "charSequence:builder", "number:1"),
+                     target.invocations);
+    }
+
+    @Test
+    public void testEventDispatchIsRepeatableForSamePayloadType() throws Exception {
+        AggregateModel<EventHandlersForPayloadHierarchy> inspector =
+                ModelInspector.inspectAggregate(EventHandlersForPayloadHierarchy.class);
+        EventHandlersForPayloadHierarchy target = new EventHandlersForPayloadHierarchy();
+
+        inspector.publish(new GenericEventMessage<>(1L), target);
+        inspector.publish(new GenericEventMessage<>(2L), target);
+        inspector.publish(new GenericEventMessage<>(new Object()), target);
+
+        assertEquals(Arrays.asList("long:1", "long:2"), target.invocations);
+    }
+
+    @Test
+    public void testEventNotForwardedToEntityWithoutHandlerForPayloadType() throws Exception {
+        AggregateModel<AggregateWithEntity> inspector = ModelInspector.inspectAggregate(AggregateWithEntity.class);
+        AggregateWithEntity target = new AggregateWithEntity();
+        AtomicLong payload = new AtomicLong();
+
+        inspector.publish(new GenericEventMessage<>(payload), target);
+        // the declared entity type has no handler for String, so the entity is not visited at all
+        inspector.publish(new GenericEventMessage<>("text"), target);
+
+        assertEquals(1L, payload.get());
+        assertEquals(Collections.emptyList(), target.invocations);
+    }
+
     @Test
     public void testExpectCommandToBeForwardedToEntity() throws Exception {
         AggregateModel<SomeSubclass> inspector = ModelInspector.inspectAggregate(SomeSubclass.class);
@@ -154,6 +200,39 @@ public void handle(AtomicLong value) {
 
     }
 
+    private static class AggregateWithEntity {
+
+        private final List<String> invocations = new ArrayList<>();
+
+        @AggregateMember
+        private SomeOtherEntity entity = new SomeOtherEntity() {
+            @EventHandler
+            public void handle(String event) {
+                invocations.add("entity:" + event);
+            }
+        };
+    }
+
+    private static class EventHandlersForPayloadHierarchy {
+
+        private final List<String> invocations = new ArrayList<>();
+
+        @EventHandler
+        public void handle(Number event) {
+            invocations.add("number:" + event);
+        }
+
+        @EventHandler
+        public void handle(Long event) {
+            invocations.add("long:" + event);
+        }
+
+        @EventHandler
+        public void handle(CharSequence event) {
+            invocations.add("charSequence:" + event);
+        }
+    }
+
     private static class SomeOtherEntity {
 
         @CommandHandler
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.model.inspection;
+
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.commandhandling.annotation.CommandHandler;
+import org.axonframework.common.annotation.ClasspathParameterResolverFactory;
+import org.axonframework.common.annotation.MessageHandler;
+import org.axonframework.common.annotation.ParameterResolverFactory;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.annotation.EventHandler;
+import org.axonframework.messaging.metadata.MetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class DirectInvocationHandlerDefinitionTest {
+
+    private DirectInvocationHandlerDefinition testSubject;
+    private ParameterResolverFactory parameterResolverFactory;
+
+    @Before
+    public void setUp() {
+        testSubject = new DirectInvocationHandlerDefinition();
+        parameterResolverFactory = ClasspathParameterResolverFactory.forClass(StubEntity.class);
+    }
+
+    @Test
+    public void testCreateCommandHandler() throws Exception {
+        Optional<MessageHandler<StubEntity>> handler = testSubject.createHandler(
+                StubEntity.class, StubEntity.class.getDeclaredMethod("handle", String.class),
+                parameterResolverFactory);
+
+        assertTrue(handler.isPresent());
+        assertTrue(handler.get() instanceof CommandMessageHandler);
+        GenericCommandMessage<String> command = new GenericCommandMessage<>("command");
+        assertTrue(handler.get().canHandle(command));
+        assertEquals("handled command", handler.get().handle(command, new StubEntity()));
+    }
+
+    @Test
+    public void testCreateEventHandlerWithMetaDataParameter() throws Exception {
+        Optional<MessageHandler<StubEntity>> handler = testSubject.createHandler(
+                StubEntity.class, StubEntity.class.getDeclaredMethod("on", Integer.class, MetaData.class),
+                parameterResolverFactory);
+
+        assertTrue(handler.isPresent());
+        assertFalse(handler.get() instanceof CommandMessageHandler);
+        StubEntity target = new StubEntity();
+        GenericEventMessage<Integer> event = new GenericEventMessage<>(
+                1, Collections.singletonMap("key", "value"));
+        assertTrue(handler.get().canHandle(event));
+        assertNull(handler.get().handle(event, target));
+        assertEquals("1value", target.lastEvent);
+    }
+
+    @Test
+    public void testNoHandlerCreatedForRegularMethod() throws Exception {
+        assertFalse(testSubject.createHandler(StubEntity.class,
+                                              StubEntity.class.getDeclaredMethod("regularMethod", String.class),
+                                              parameterResolverFactory).isPresent());
+    }
+
+    private static class StubEntity {
+
+        private String lastEvent;
+
+        @CommandHandler
+        private String handle(String command) {
+            return "handled " + command;
+        }
+
+        @EventHandler
+        private void on(Integer event, MetaData metaData) {
+            lastEvent = event + (String) metaData.get("key");
+        }
+
+        public void regularMethod(String value) {
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.lock;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class StripedLockFactoryTest {
+
+    private StripedLockFactory testSubject;
+
+    @After
+    public void tearDown() {
+        if (testSubject != null) {
+            testSubject.shutDown();
+        }
+    }
+
+    @Test
+    public void testStripeCountIsRoundedToPowerOfTwo() {
+        testSubject = new StripedLockFactory(100);
+        assertEquals(128, testSubject.getStripeCount());
+    }
+
+    @Test
+    public void testLockIsReentrant() {
+        testSubject = new StripedLockFactory();
+        Lock lock1 = testSubject.obtainLock("id");
+        Lock lock2 = testSubject.obtainLock("id");
+        assertTrue(lock1.isHeld());
+
+        lock2.release();
+        assertTrue(lock1.isHeld());
+        lock1.release();
+        assertFalse(lock1.isHeld());
+        assertEquals(0, testSubject.getContendedLockCount());
+    }
+
+    @Test(expected = IllegalMonitorStateException.class)
+    public void testReleasingLockNotHeldIsRejected() {
+        testSubject = new StripedLockFactory();
+        Lock lock = testSubject.obtainLock("id");
+        lock.release();
+        lock.release();
+    }
+
+    @Test(timeout = 5000)
+    public void testLockWaitTimeIsRecorded() throws Exception {
+        testSubject = new StripedLockFactory();
+        CountDownLatch lockHeld = new CountDownLatch(1);
+        CountDownLatch releaseLock = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            Lock lock = testSubject.obtainLock("id");
+            lockHeld.countDown();
+            try {
+                releaseLock.await();
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.release();
+            }
+        });
+        thread.start();
+        lockHeld.await();
+        releaseLock.countDown();
+
+        testSubject.obtainLock("id").release();
+
+        assertEquals(1, testSubject.getContendedLockCount());
+        assertTrue(testSubject.getTotalLockWaitTime(TimeUnit.MILLISECONDS) >= 40);
+        assertEquals(testSubject.getTotalLockWaitTime(TimeUnit.NANOSECONDS),
+                     testSubject.getMaxLockWaitTime(TimeUnit.NANOSECONDS));
+        thread.join();
+    }
+
+    @Test(timeout = 5000)
+    public void testInterruptedWhileWaitingForLock() throws Exception {
+        testSubject = new StripedLockFactory();
+        Lock lock = testSubject.obtainLock("id");
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread thread = new Thread(() -> {
+            try {
+                testSubject.obtainLock("id");
+            } catch (LockAcquisitionFailedException e) {
+                failed.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        thread.interrupt();
+        thread.join();
+        lock.release();
+
+        assertTrue(failed.get());
+    }
+
+    @Test(timeout = 5000)
+    public void testDeadlockDetected_TwoThreadsInVector() throws InterruptedException {
+        testSubject = new StripedLockFactory(StripedLockFactory.DEFAULT_STRIPE_COUNT, 10, TimeUnit.MILLISECONDS);
+        final CountDownLatch starter = new CountDownLatch(1);
+        final CountDownLatch cdl = new CountDownLatch(1);
+        final AtomicBoolean deadlockInThread = new AtomicBoolean(false);
+        Thread t1 = createThread(starter, cdl, deadlockInThread, "id1", "id2");
+        t1.start();
+        Lock lock = testSubject.obtainLock("id2");
+        starter.await();
+        cdl.countDown();
+        try {
+            testSubject.obtainLock("id1").release();
+            t1.join();
+            assertTrue(deadlockInThread.get());
+        } catch (DeadlockException e) {
+            // this is ok!
+            assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            lock.release();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testDeadlockDetected_ThreeThreadsInVector() throws InterruptedException {
+        testSubject = new StripedLockFactory(StripedLockFactory.DEFAULT_STRIPE_COUNT, 10, TimeUnit.MILLISECONDS);
+        final CountDownLatch starter = new CountDownLatch(3);
+        final CountDownLatch cdl = new CountDownLatch(1);
+        final AtomicBoolean deadlockInThread = new AtomicBoolean(false);
+        Thread t1 = createThread(starter, cdl, deadlockInThread, "id1", "id2");
+        Thread t2 = createThread(starter, cdl, deadlockInThread, "id2", "id3");
+        Thread t3 = createThread(starter, cdl, deadlockInThread, "id3", "id4");
+        t1.start();
+        t2.start();
+        t3.start();
+        Lock lock = testSubject.obtainLock("id4");
+        starter.await();
+        cdl.countDown();
+        try {
+            testSubject.obtainLock("id1").release();
+            t1.join();
+            assertTrue(deadlockInThread.get());
+        } catch (DeadlockException e) {
+            // this is ok!
+        } finally {
+            lock.release();
+        }
+    }
+
+    private Thread createThread(final CountDownLatch starter, final CountDownLatch cdl,
+                                final AtomicBoolean deadlockInThread, final String firstId, final String secondId) {
+        return new Thread(() -> {
+            Lock lock1 = testSubject.obtainLock(firstId);
+            starter.countDown();
+            try {
+                cdl.await();
+                Lock lock2 = testSubject.obtainLock(secondId);
+                lock2.release();
+            } catch (InterruptedException e) {
+                System.out.println("Thread 1 interrupted");
+            } catch (DeadlockException e) {
+                deadlockInThread.set(true);
+            } finally {
+                lock1.release();
+            }
+        });
+    }
+}
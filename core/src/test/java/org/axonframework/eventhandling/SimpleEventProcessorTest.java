@@ -19,11 +19,17 @@
 import org.axonframework.common.Registration;
 import org.axonframework.messaging.InterceptorChain;
 import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.*;
 
@@ -108,4 +114,42 @@ public void testRegisterInterceptor() throws Exception {
 
         verifyNoMoreInteractions(interceptor);
     }
+
+    @Test
+    public void testBatchingListenerReceivesAllEventsInSeparateUnitOfWork() throws Exception {
+        List<UnitOfWork<?>> unitsOfWork = new ArrayList<>();
+        List<EventMessage<?>> batch = new ArrayList<>();
+        testSubject.subscribe(eventListener);
+        testSubject.subscribe((BatchingEventListener) events -> {
+            unitsOfWork.add(CurrentUnitOfWork.get());
+            batch.addAll(events);
+        });
+        doAnswer(invocation -> unitsOfWork.add(CurrentUnitOfWork.get())).when(eventListener).handle(any());
+        EventMessage<?> event1 = new GenericEventMessage<>("First");
+        EventMessage<?> event2 = new GenericEventMessage<>("Second");
+
+        testSubject.handle(event1, event2);
+
+        assertEquals(Arrays.asList(event1, event2), batch);
+        verify(eventListener).handle(event1);
+        verify(eventListener).handle(event2);
+        // the regular listener keeps a Unit of Work per event, the batching listener gets one of its own
+        assertEquals(3, unitsOfWork.size());
+        assertEquals(3, unitsOfWork.stream().distinct().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchingListenerOnlyReceivesEventsPassingInterceptors() throws Exception {
+        List<EventMessage<?>> batch = new ArrayList<>();
+        testSubject.subscribe((BatchingEventListener) batch::addAll);
+        EventMessage<?> blockedEvent = new GenericEventMessage<>("Blocked");
+        EventMessage<?> event = new GenericEventMessage<>("Passed");
+        testSubject.registerInterceptor((unitOfWork, interceptorChain) -> unitOfWork.getMessage() == blockedEvent
+                ? null : interceptorChain.proceed());
+
+        testSubject.handle(blockedEvent, event);
+
+        assertEquals(Arrays.asList(event), batch);
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2010-2014. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.annotation;
+
+import org.axonframework.common.annotation.UnsupportedHandlerException;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Allard Buijze
+ */
+public class BatchingAnnotationEventListenerAdapterTest {
+
+    private BatchListener listener;
+    private BatchingAnnotationEventListenerAdapter testSubject;
+
+    @Before
+    public void setUp() {
+        listener = new BatchListener();
+        testSubject = new BatchingAnnotationEventListenerAdapter(listener);
+    }
+
+    @Test
+    public void testBatchHandlersReceiveSubListPerType() throws Exception {
+        EventMessage<?> string1 = new GenericEventMessage<>("first");
+        EventMessage<?> integer = new GenericEventMessage<>(42);
+        EventMessage<?> string2 = new GenericEventMessage<>("second");
+
+        testSubject.handle(Arrays.asList(string1, integer, string2));
+
+        assertEquals(Arrays.asList(Arrays.asList("first", "second")), listener.stringBatches);
+        assertEquals(Arrays.asList(Arrays.asList(42)), listener.integerBatches);
+        assertEquals(Arrays.asList(Arrays.asList(string1, integer, string2)), listener.messageBatches);
+    }
+
+    @Test
+    public void testEventHandlersAreInvokedPerEventBeforeBatchHandlers() throws Exception {
+        testSubject.handle(Arrays.asList(new GenericEventMessage<>("first"), new GenericEventMessage<>("second")));
+
+        assertEquals(Arrays.asList("event:first", "event:second", "batch:2"), listener.invocations);
+    }
+
+    @Test
+    public void testBatchHandlersAreNotInvokedWithoutMatchingEvents() throws Exception {
+        testSubject.handle(Arrays.asList(new GenericEventMessage<>(42L)));
+
+        assertTrue(listener.stringBatches.isEmpty());
+        assertTrue(listener.integerBatches.isEmpty());
+        assertEquals(1, listener.messageBatches.size());
+    }
+
+    @Test
+    public void testSingleEventIsHandledAsBatch() throws Exception {
+        testSubject.handle(new GenericEventMessage<>("single"));
+
+        assertEquals(Arrays.asList(Arrays.asList("single")), listener.stringBatches);
+    }
+
+    @Test(expected = UnsupportedHandlerException.class)
+    public void testBatchHandlerWithoutListParameterIsRejected() {
+        new BatchingAnnotationEventListenerAdapter(new InvalidBatchListener());
+    }
+
+    @SuppressWarnings("unused")
+    private static class BatchListener {
+
+        private final List<List<String>> stringBatches = new ArrayList<>();
+        private final List<List<Integer>> integerBatches = new ArrayList<>();
+        private final List<List<EventMessage<?>>> messageBatches = new ArrayList<>();
+        private final List<String> invocations = new ArrayList<>();
+
+        @EventHandler
+        public void on(String event) {
+            invocations.add("event:" + event);
+        }
+
+        @BatchEventHandler
+        public void onStrings(List<String> events) {
+            stringBatches.add(events);
+            invocations.add("batch:" + events.size());
+        }
+
+        @BatchEventHandler(eventType = Integer.class)
+        public void onIntegers(List<Integer> events) {
+            integerBatches.add(events);
+        }
+
+        @BatchEventHandler
+        public void onMessages(List<EventMessage<?>> events) {
+            messageBatches.add(events);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class InvalidBatchListener {
+
+        @BatchEventHandler
+        public void on(String event) {
+        }
+    }
+}
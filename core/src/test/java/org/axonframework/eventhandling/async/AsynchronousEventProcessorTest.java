@@ -41,6 +41,7 @@
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
 import static org.junit.Assert.assertEquals;
@@ -105,6 +106,75 @@ public void testSimpleConfig_ProceedOnFailure() throws Exception {
         assertEquals(Arrays.<EventMessage>asList(message2), ackedMessages);
     }
 
+    @Test
+    public void testBatchingListenerReceivesQueuedEventsInSingleUnitOfWork() throws Exception {
+        List<Runnable> scheduledTasks = new ArrayList<>();
+        testSubject = new AsynchronousEventProcessor("async", scheduledTasks::add, mockTransactionManager,
+                                                     new SequentialPolicy(),
+                                                     new DefaultErrorHandler(RetryPolicy.proceed()));
+        final List<EventMessage> ackedMessages = listenForAcknowledgedMessages();
+        List<EventMessage<?>> batch = new ArrayList<>();
+        EventListener mockEventListener = mock(EventListener.class);
+        testSubject.subscribe(mockEventListener);
+        testSubject.subscribe((BatchingEventListener) batch::addAll);
+        final EventMessage<Object> message1 = asEventMessage("first");
+        final EventMessage<Object> message2 = asEventMessage("second");
+
+        testSubject.handle(message1);
+        testSubject.handle(message2);
+        assertEquals(1, scheduledTasks.size());
+        scheduledTasks.get(0).run();
+
+        assertEquals(Arrays.asList(message1, message2), batch);
+        verify(mockEventListener).handle(message1);
+        verify(mockEventListener).handle(message2);
+        verify(mockTransactionManager).startTransaction();
+        verify(mockTransaction).commit();
+        assertEquals(Arrays.<EventMessage>asList(message1, message2), ackedMessages);
+    }
+
+    @Test
+    public void testBatchSizeIsLimitedToMaxBatchSize() throws Exception {
+        List<Runnable> scheduledTasks = new ArrayList<>();
+        testSubject = new AsynchronousEventProcessor("async", scheduledTasks::add, mockTransactionManager,
+                                                     new SequentialPolicy(),
+                                                     new DefaultErrorHandler(RetryPolicy.proceed()));
+        testSubject.setMaxBatchSize(2);
+        List<List<EventMessage<?>>> batches = new ArrayList<>();
+        testSubject.subscribe((BatchingEventListener) events -> batches.add(new ArrayList<>(events)));
+        final EventMessage<Object> message1 = asEventMessage("first");
+        final EventMessage<Object> message2 = asEventMessage("second");
+        final EventMessage<Object> message3 = asEventMessage("third");
+
+        testSubject.handle(message1);
+        testSubject.handle(message2);
+        testSubject.handle(message3);
+        assertEquals(1, scheduledTasks.size());
+        scheduledTasks.get(0).run();
+
+        assertEquals(Arrays.asList(Arrays.asList(message1, message2), Arrays.asList(message3)), batches);
+        verify(mockTransactionManager, times(2)).startTransaction();
+        verify(mockTransaction, times(2)).commit();
+    }
+
+    @Test
+    public void testBatchIsRescheduledWhenBatchingListenerFails() throws Exception {
+        testSubject = new AsynchronousEventProcessor("async", new DirectExecutor(),
+                                                     new DefaultUnitOfWorkFactory(mockTransactionManager),
+                                                     new SequentialPolicy(),
+                                                     new DefaultErrorHandler(RetryPolicy.retryAfter(0, TimeUnit.MILLISECONDS)));
+        BatchingEventListener batchingListener = mock(BatchingEventListener.class);
+        doThrow(new MockException()).doNothing().when(batchingListener).handle(anyList());
+        testSubject.subscribe(batchingListener);
+        final EventMessage<Object> message = asEventMessage("event");
+
+        testSubject.handle(message);
+
+        verify(batchingListener, times(2)).handle(Arrays.<EventMessage<?>>asList(message));
+        verify(mockTransaction).rollback();
+        verify(mockTransaction).commit();
+    }
+
     @Test
     public void testOrderingOfListeners() {
         testSubject = new AsynchronousEventProcessor("async", new DirectExecutor(),
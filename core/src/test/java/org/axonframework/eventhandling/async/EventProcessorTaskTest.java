@@ -27,7 +27,10 @@
 import org.junit.Test;
 import org.mockito.InOrder;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -184,6 +187,39 @@ public void testEventProcessingRetried_TransactionStartupFails() throws Exceptio
         inOrder.verify(mockTransaction).commit();
     }
 
+    @Test
+    public void testEventProcessingInBatch_OnlyFailedEventSkipped() throws Exception {
+        EventMessage<? extends StubDomainEvent> event1 = new GenericEventMessage<>(new StubDomainEvent());
+        EventMessage<? extends StubDomainEvent> event2 = new GenericEventMessage<>(new StubDomainEvent());
+        EventMessage<? extends StubDomainEvent> event3 = new GenericEventMessage<>(new StubDomainEvent());
+        final EventListener listener = mock(EventListener.class);
+        final List<List<EventMessage<?>>> batches = new LinkedList<>();
+        BatchingEventListener batchingListener = events -> batches.add(new ArrayList<>(events));
+        ExecutorService mockExecutorService = mock(ExecutorService.class);
+        testSubject = new EventProcessorTask(mockExecutorService, new NullShutdownCallback(),
+                                             new DefaultErrorHandler(RetryPolicy.skip()),
+                                             new DefaultUnitOfWorkFactory(mockTransactionManager),
+                                             new LinkedHashSet<EventListener>(Arrays.asList(listener, batchingListener)),
+                                             multiplexingEventProcessingMonitor,
+                                             NO_INTERCEPTORS);
+        doThrow(new MockException()).when(listener).handle(event2);
+
+        testSubject.scheduleEvent(event1);
+        testSubject.scheduleEvent(event2);
+        testSubject.scheduleEvent(event3);
+        testSubject.run();
+
+        verify(listener, times(2)).handle(event1);
+        verify(listener).handle(event2);
+        verify(listener).handle(event3);
+        assertEquals(Collections.singletonList(Arrays.asList(event1, event3)), batches);
+        verify(mockTransaction).rollback();
+        verify(mockTransaction).commit();
+        verify(eventProcessingMonitor).onEventProcessingFailed(eq(Collections.singletonList(event2)),
+                                                               isA(MockException.class));
+        verify(eventProcessingMonitor).onEventProcessingCompleted(Arrays.asList(event1, event3));
+    }
+
     private MockEventListener executeEventProcessing(RetryPolicy policy) {
         ExecutorService mockExecutorService = mock(ExecutorService.class);
         final MockEventListener listener = new MockEventListener();
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2010-2014. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.async;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class MpscRingBufferTest {
+
+    @Test
+    public void testCapacityIsRoundedToPowerOfTwo() {
+        assertEquals(1, new MpscRingBuffer<>(1).capacity());
+        assertEquals(8, new MpscRingBuffer<>(5).capacity());
+        assertEquals(8, new MpscRingBuffer<>(8).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePositive() {
+        new MpscRingBuffer<>(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMayNotExceedLargestPowerOfTwo() {
+        new MpscRingBuffer<>(MpscRingBuffer.MAX_CAPACITY + 1);
+    }
+
+    @Test
+    public void testElementsArePolledInOfferedOrder() {
+        MpscRingBuffer<Integer> testSubject = new MpscRingBuffer<>(4);
+        for (int round = 0; round < 3; round++) {
+            assertTrue(testSubject.offer(1));
+            assertTrue(testSubject.offer(2));
+            assertTrue(testSubject.offer(3));
+            assertEquals(3, testSubject.size());
+            assertEquals(Integer.valueOf(1), testSubject.poll());
+            assertEquals(Integer.valueOf(2), testSubject.poll());
+            assertEquals(Integer.valueOf(3), testSubject.poll());
+            assertNull(testSubject.poll());
+            assertTrue(testSubject.isEmpty());
+        }
+    }
+
+    @Test
+    public void testOfferIsRefusedWhenFull() {
+        MpscRingBuffer<Integer> testSubject = new MpscRingBuffer<>(2);
+        assertTrue(testSubject.offer(1));
+        assertTrue(testSubject.offer(2));
+        assertFalse(testSubject.offer(3));
+
+        assertEquals(Integer.valueOf(1), testSubject.poll());
+        assertTrue(testSubject.offer(3));
+        assertEquals(2, testSubject.size());
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentProducersKeepOrderPerProducer() throws Exception {
+        MpscRingBuffer<int[]> testSubject = new MpscRingBuffer<>(64);
+        int producerCount = 4;
+        int elementsPerProducer = 10000;
+        ExecutorService producers = Executors.newFixedThreadPool(producerCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producerCount; p++) {
+                int producer = p;
+                producers.submit(() -> {
+                    startLatch.await();
+                    for (int i = 0; i < elementsPerProducer; i++) {
+                        while (!testSubject.offer(new int[]{producer, i})) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+            }
+            startLatch.countDown();
+            List<Integer> lastSeen = new ArrayList<>();
+            for (int p = 0; p < producerCount; p++) {
+                lastSeen.add(-1);
+            }
+            int received = 0;
+            while (received < producerCount * elementsPerProducer) {
+                int[] element = testSubject.poll();
+                if (element != null) {
+                    assertEquals(lastSeen.get(element[0]) + 1, element[1]);
+                    lastSeen.set(element[0], element[1]);
+                    received++;
+                }
+            }
+            assertTrue(testSubject.isEmpty());
+        } finally {
+            producers.shutdownNow();
+            producers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
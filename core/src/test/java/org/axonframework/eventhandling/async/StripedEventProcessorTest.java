@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2010-2014. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.async;
+
+import org.axonframework.eventhandling.BatchingEventListener;
+import org.axonframework.eventhandling.EventListener;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessingMonitor;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.messaging.interceptors.Transaction;
+import org.axonframework.messaging.interceptors.TransactionManager;
+import org.axonframework.testutils.MockException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class StripedEventProcessorTest {
+
+    private Transaction mockTransaction;
+    private TransactionManager mockTransactionManager;
+    private Queue<Runnable> scheduledTasks;
+    private StripedEventProcessor testSubject;
+
+    @Before
+    public void setUp() {
+        mockTransaction = mock(Transaction.class);
+        mockTransactionManager = mock(TransactionManager.class);
+        when(mockTransactionManager.startTransaction()).thenReturn(mockTransaction);
+        scheduledTasks = new LinkedList<>();
+        testSubject = new StripedEventProcessor("striped", scheduledTasks::add, mockTransactionManager,
+                                                new SequentialPerAggregatePolicy(),
+                                                new DefaultErrorHandler(RetryPolicy.proceed()), 4, 8);
+    }
+
+    @Test
+    public void testQueuedEventsOfSequenceAreProcessedInOrderInSingleBatch() throws Exception {
+        List<EventMessage<?>> handled = new ArrayList<>();
+        testSubject.subscribe(handled::add);
+        List<EventMessage<?>> events = createEvents("aggregate", 5);
+
+        events.forEach(testSubject::handle);
+
+        assertEquals(1, scheduledTasks.size());
+        assertEquals(5, testSubject.getQueueDepth());
+        assertTrue(handled.isEmpty());
+
+        runScheduledTasks();
+
+        assertEquals(events, handled);
+        assertEquals(0, testSubject.getQueueDepth());
+        verify(mockTransactionManager).startTransaction();
+        verify(mockTransaction).commit();
+    }
+
+    @Test
+    public void testQueuedEventsAreProcessedInBatchesOfConfiguredSize() throws Exception {
+        testSubject.setBatchSize(2);
+        EventListener mockListener = mock(EventListener.class);
+        testSubject.subscribe(mockListener);
+
+        createEvents("aggregate", 5).forEach(testSubject::handle);
+        runScheduledTasks();
+
+        verify(mockListener, times(5)).handle(isA(EventMessage.class));
+        verify(mockTransaction, times(3)).commit();
+    }
+
+    @Test
+    public void testStripeCountIsRoundedToPowerOfTwo() throws Exception {
+        testSubject = new StripedEventProcessor("striped", scheduledTasks::add, mockTransactionManager,
+                                                new SequentialPerAggregatePolicy(),
+                                                new DefaultErrorHandler(RetryPolicy.proceed()), 5, 8);
+        assertEquals(8, testSubject.getStripeCount());
+
+        EventMessage<?> event = createEvents("aggregate", 1).get(0);
+        testSubject.handle(event);
+
+        assertEquals(1, testSubject.getQueueDepth(testSubject.stripeOf(event)));
+    }
+
+    @Test
+    public void testBatchIsRetriedWhenErrorHandlerRequiresReschedule() throws Exception {
+        testSubject = new StripedEventProcessor("striped", scheduledTasks::add, mockTransactionManager,
+                                                new SequentialPerAggregatePolicy(),
+                                                new DefaultErrorHandler(RetryPolicy.retryAfter(0, TimeUnit.MILLISECONDS)),
+                                                4, 8);
+        EventListener mockListener = mock(EventListener.class);
+        testSubject.subscribe(mockListener);
+        List<EventMessage<?>> events = createEvents("aggregate", 2);
+        doThrow(new MockException()).doNothing().when(mockListener).handle(events.get(1));
+        List<EventMessage> failedMessages = new ArrayList<>();
+        List<EventMessage> ackedMessages = new ArrayList<>();
+        testSubject.subscribeEventProcessingMonitor(new EventProcessingMonitorAdapter(ackedMessages, failedMessages));
+
+        events.forEach(testSubject::handle);
+        runScheduledTasks();
+
+        verify(mockListener, times(2)).handle(events.get(0));
+        verify(mockListener, times(2)).handle(events.get(1));
+        verify(mockTransaction).rollback();
+        verify(mockTransaction).commit();
+        assertTrue(failedMessages.isEmpty());
+        assertEquals(new ArrayList<EventMessage>(events), ackedMessages);
+    }
+
+    @Test
+    public void testFailingEventIsReportedWhenErrorHandlerProceeds() throws Exception {
+        EventListener mockListener = mock(EventListener.class);
+        testSubject.subscribe(mockListener);
+        List<EventMessage<?>> events = createEvents("aggregate", 2);
+        doThrow(new MockException()).when(mockListener).handle(events.get(0));
+        List<EventMessage> failedMessages = new ArrayList<>();
+        List<EventMessage> ackedMessages = new ArrayList<>();
+        testSubject.subscribeEventProcessingMonitor(new EventProcessingMonitorAdapter(ackedMessages, failedMessages));
+
+        events.forEach(testSubject::handle);
+        runScheduledTasks();
+
+        verify(mockTransaction).commit();
+        assertEquals(Collections.<EventMessage>singletonList(events.get(0)), failedMessages);
+        assertEquals(Collections.<EventMessage>singletonList(events.get(1)), ackedMessages);
+    }
+
+    @Test
+    public void testOnlyFailingEventIsSkippedWhenErrorHandlerSkips() throws Exception {
+        testSubject = new StripedEventProcessor("striped", scheduledTasks::add, mockTransactionManager,
+                                                new SequentialPerAggregatePolicy(),
+                                                new DefaultErrorHandler(RetryPolicy.skip()), 4, 8);
+        EventListener mockListener = mock(EventListener.class);
+        testSubject.subscribe(mockListener);
+        List<EventMessage<?>> events = createEvents("aggregate", 3);
+        doThrow(new MockException()).when(mockListener).handle(events.get(1));
+        List<EventMessage> failedMessages = new ArrayList<>();
+        List<EventMessage> ackedMessages = new ArrayList<>();
+        testSubject.subscribeEventProcessingMonitor(new EventProcessingMonitorAdapter(ackedMessages, failedMessages));
+
+        events.forEach(testSubject::handle);
+        runScheduledTasks();
+
+        verify(mockListener, times(2)).handle(events.get(0));
+        verify(mockListener, times(1)).handle(events.get(1));
+        verify(mockListener, times(1)).handle(events.get(2));
+        verify(mockTransaction).rollback();
+        verify(mockTransaction).commit();
+        assertEquals(Collections.<EventMessage>singletonList(events.get(1)), failedMessages);
+        assertEquals(Arrays.<EventMessage>asList(events.get(0), events.get(2)), ackedMessages);
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    @Test
+    public void testBatchingListenerReceivesBatchAfterOtherListeners() throws Exception {
+        List<String> invocations = new ArrayList<>();
+        testSubject.subscribe(event -> invocations.add("event"));
+        testSubject.subscribe((BatchingEventListener) events -> invocations.add("batch:" + events.size()));
+
+        createEvents("aggregate", 3).forEach(testSubject::handle);
+        runScheduledTasks();
+
+        assertEquals(Arrays.asList("event", "event", "event", "batch:3"), invocations);
+        verify(mockTransaction).commit();
+    }
+
+    @Test(timeout = 10000)
+    public void testOverflowingEventsAreHandledInPublicationOrder() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        testSubject = new StripedEventProcessor("striped", executor, mockTransactionManager,
+                                                new SequentialPerAggregatePolicy(),
+                                                new DefaultErrorHandler(RetryPolicy.proceed()), 1, 2);
+        List<EventMessage<?>> events = createEvents("aggregate", 5);
+        List<EventMessage<?>> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch overflowed = new CountDownLatch(1);
+        CountDownLatch published = new CountDownLatch(1);
+        testSubject.subscribe(event -> {
+            handled.add(event);
+            if (event == events.get(0)) {
+                // publishing three events from the processing thread overflows the queue of two after commit
+                events.subList(1, 4).forEach(testSubject::handle);
+            }
+        });
+        testSubject.subscribeEventProcessingMonitor(new EventProcessingMonitor() {
+            @Override
+            public void onEventProcessingCompleted(List<? extends EventMessage> eventMessages) {
+                if (eventMessages.contains(events.get(0))) {
+                    overflowed.countDown();
+                    try {
+                        published.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void onEventProcessingFailed(List<? extends EventMessage> eventMessages, Throwable cause) {
+            }
+        });
+        try {
+            testSubject.handle(events.get(0));
+            overflowed.await();
+            // published by another thread while the overflow holds older events
+            testSubject.handle(events.get(4));
+            published.countDown();
+            while (handled.size() < events.size()) {
+                Thread.sleep(10);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(events, handled);
+    }
+
+    @Test(timeout = 10000)
+    public void testEventsPublishedToFullStripeWhileProcessingOtherStripeAreNotBlocked() {
+        EventMessage<?> publishingEvent = createEvents("publisher", 1).get(0);
+        int publishingStripe = testSubject.stripeOf(publishingEvent);
+        String target = "target";
+        for (int i = 0; testSubject.stripeOf(createEvents(target, 1).get(0)) == publishingStripe; i++) {
+            target = "target" + i;
+        }
+        List<EventMessage<?>> targetEvents = createEvents(target, 10);
+        List<EventMessage<?>> handled = new ArrayList<>();
+        testSubject.subscribe(event -> {
+            handled.add(event);
+            if (event == publishingEvent) {
+                // the stripe of the target is full and cannot be processed while this thread is busy
+                targetEvents.subList(8, 10).forEach(testSubject::handle);
+            }
+        });
+
+        testSubject.handle(publishingEvent);
+        targetEvents.subList(0, 8).forEach(testSubject::handle);
+        assertEquals(8, testSubject.getQueueDepth(testSubject.stripeOf(targetEvents.get(0))));
+
+        runScheduledTasks();
+
+        List<EventMessage<?>> expected = new ArrayList<>();
+        expected.add(publishingEvent);
+        expected.addAll(targetEvents);
+        assertEquals(expected, handled);
+        assertEquals(0, testSubject.getQueueDepth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStripeCountMayNotExceedLargestPowerOfTwo() {
+        new StripedEventProcessor("striped", scheduledTasks::add, mockTransactionManager,
+                                  new SequentialPerAggregatePolicy(), new DefaultErrorHandler(RetryPolicy.proceed()),
+                                  (1 << 30) + 1, 8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQueueCapacityMayNotExceedLargestPowerOfTwo() {
+        new StripedEventProcessor("striped", scheduledTasks::add, mockTransactionManager,
+                                  new SequentialPerAggregatePolicy(), new DefaultErrorHandler(RetryPolicy.proceed()),
+                                  4, (1 << 30) + 1);
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentPublishersKeepOrderPerAggregate() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        testSubject = new StripedEventProcessor("striped", executor, mockTransactionManager,
+                                                new SequentialPerAggregatePolicy(),
+                                                new DefaultErrorHandler(RetryPolicy.proceed()), 4, 16);
+        int aggregateCount = 8;
+        int eventsPerAggregate = 1000;
+        Map<String, List<Long>> handledSequences = new ConcurrentHashMap<>();
+        CountDownLatch handledLatch = new CountDownLatch(aggregateCount * eventsPerAggregate);
+        testSubject.subscribe(event -> {
+            GenericDomainEventMessage<?> domainEvent = (GenericDomainEventMessage<?>) event;
+            handledSequences.computeIfAbsent(domainEvent.getAggregateIdentifier(), k -> new ArrayList<>())
+                            .add(domainEvent.getSequenceNumber());
+            handledLatch.countDown();
+        });
+        ExecutorService publishers = Executors.newFixedThreadPool(aggregateCount);
+        try {
+            for (int i = 0; i < aggregateCount; i++) {
+                String aggregateIdentifier = "aggregate" + i;
+                publishers.submit(() -> createEvents(aggregateIdentifier, eventsPerAggregate)
+                        .forEach(testSubject::handle));
+            }
+            assertTrue("Not all events were handled", handledLatch.await(20, TimeUnit.SECONDS));
+        } finally {
+            publishers.shutdownNow();
+            executor.shutdownNow();
+        }
+
+        assertEquals(aggregateCount, handledSequences.size());
+        for (List<Long> sequences : handledSequences.values()) {
+            assertEquals(eventsPerAggregate, sequences.size());
+            for (int i = 0; i < sequences.size(); i++) {
+                assertEquals(i, (long) sequences.get(i));
+            }
+        }
+    }
+
+    private void runScheduledTasks() {
+        Runnable task;
+        while ((task = scheduledTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static List<EventMessage<?>> createEvents(String aggregateIdentifier, int count) {
+        List<EventMessage<?>> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new GenericDomainEventMessage<>(aggregateIdentifier, i, "payload" + i));
+        }
+        return events;
+    }
+
+    private static class EventProcessingMonitorAdapter implements EventProcessingMonitor {
+
+        private final List<EventMessage> ackedMessages;
+        private final List<EventMessage> failedMessages;
+
+        private EventProcessingMonitorAdapter(List<EventMessage> ackedMessages, List<EventMessage> failedMessages) {
+            this.ackedMessages = ackedMessages;
+            this.failedMessages = failedMessages;
+        }
+
+        @Override
+        public void onEventProcessingCompleted(List<? extends EventMessage> eventMessages) {
+            ackedMessages.addAll(eventMessages);
+        }
+
+        @Override
+        public void onEventProcessingFailed(List<? extends EventMessage> eventMessages, Throwable cause) {
+            failedMessages.addAll(eventMessages);
+        }
+    }
+}
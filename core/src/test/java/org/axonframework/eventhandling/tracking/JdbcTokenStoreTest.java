@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.tracking;
+
+import org.axonframework.eventhandling.GlobalIndexToken;
+import org.axonframework.serializer.xml.XStreamSerializer;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class JdbcTokenStoreTest {
+
+    private Connection connection;
+    private JdbcTokenStore testSubject;
+
+    @Before
+    public void setUp() throws SQLException {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:test");
+        connection = dataSource.getConnection();
+        testSubject = new JdbcTokenStore(dataSource, new XStreamSerializer());
+        testSubject.createSchema();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.createStatement().execute("SHUTDOWN");
+        connection.close();
+    }
+
+    @Test
+    public void testStoreAndFetchToken() {
+        assertNull(testSubject.fetchToken("processor", 0));
+        assertTrue(testSubject.claimSegment("processor", 0, "owner"));
+        assertNull(testSubject.fetchToken("processor", 0));
+
+        testSubject.storeToken("processor", 0, "owner", new GlobalIndexToken(42));
+
+        assertEquals(new GlobalIndexToken(42), testSubject.fetchToken("processor", 0));
+        assertNull(testSubject.fetchToken("processor", 1));
+        assertNull(testSubject.fetchToken("otherProcessor", 0));
+    }
+
+    @Test
+    public void testSegmentCanOnlyBeClaimedByOneOwner() {
+        assertTrue(testSubject.claimSegment("processor", 0, "owner1"));
+        assertFalse(testSubject.claimSegment("processor", 0, "owner2"));
+        assertTrue(testSubject.claimSegment("processor", 0, "owner1"));
+        assertTrue(testSubject.claimSegment("processor", 1, "owner2"));
+
+        testSubject.releaseClaim("processor", 0, "owner2");
+        assertFalse(testSubject.claimSegment("processor", 0, "owner2"));
+
+        testSubject.releaseClaim("processor", 0, "owner1");
+        assertTrue(testSubject.claimSegment("processor", 0, "owner2"));
+    }
+
+    @Test
+    public void testTokenIsKeptWhenClaimIsReleased() {
+        testSubject.claimSegment("processor", 0, "owner1");
+        testSubject.storeToken("processor", 0, "owner1", new GlobalIndexToken(1));
+        testSubject.releaseClaim("processor", 0, "owner1");
+
+        assertTrue(testSubject.claimSegment("processor", 0, "owner2"));
+        assertEquals(new GlobalIndexToken(1), testSubject.fetchToken("processor", 0));
+    }
+
+    @Test
+    public void testAbandonedClaimCanBeTakenOver() throws Exception {
+        testSubject.setClaimTimeout(0);
+        assertTrue(testSubject.claimSegment("processor", 0, "owner1"));
+        Thread.sleep(10);
+
+        assertTrue(testSubject.claimSegment("processor", 0, "owner2"));
+    }
+
+    @Test(expected = TokenStoreException.class)
+    public void testStoreTokenWithoutClaimIsRejected() {
+        testSubject.claimSegment("processor", 0, "owner1");
+
+        testSubject.storeToken("processor", 0, "owner2", new GlobalIndexToken(1));
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling.tracking;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessingMonitor;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GlobalIndexToken;
+import org.axonframework.eventhandling.ProcessingToken;
+import org.axonframework.eventhandling.async.DefaultErrorHandler;
+import org.axonframework.eventhandling.async.RetryPolicy;
+import org.axonframework.eventhandling.async.SequentialPerAggregatePolicy;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.eventstore.TrackingEventStore;
+import org.axonframework.eventstore.TrackingEventStream;
+import org.axonframework.messaging.interceptors.NoTransactionManager;
+import org.axonframework.messaging.interceptors.Transaction;
+import org.axonframework.messaging.interceptors.TransactionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class TrackingEventProcessorTest {
+
+    private StubTrackingEventStore eventStore;
+    private InMemoryTokenStore tokenStore;
+    private TrackingEventProcessor testSubject;
+
+    @Before
+    public void setUp() {
+        eventStore = new StubTrackingEventStore();
+        tokenStore = new InMemoryTokenStore();
+    }
+
+    @After
+    public void tearDown() {
+        if (testSubject != null) {
+            testSubject.shutDown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testProcessAllEventsAndStoreToken() throws Exception {
+        eventStore.append(event("agg1", 0), event("agg1", 1), event("agg2", 0));
+        testSubject = createProcessor(1);
+        List<EventMessage<?>> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        testSubject.subscribe(event -> {
+            handled.add(event);
+            latch.countDown();
+        });
+
+        testSubject.start();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        testSubject.shutDown();
+        assertEquals(eventStore.events, handled);
+        assertEquals(new GlobalIndexToken(3), tokenStore.fetchToken("test", 0));
+    }
+
+    @Test(timeout = 10000)
+    public void testProcessingResumesAfterStoredToken() throws Exception {
+        eventStore.append(event("agg1", 0), event("agg1", 1), event("agg1", 2));
+        tokenStore.claimSegment("test", 0, "previousOwner");
+        tokenStore.storeToken("test", 0, "previousOwner", new GlobalIndexToken(2));
+        tokenStore.releaseClaim("test", 0, "previousOwner");
+        testSubject = createProcessor(1);
+        List<EventMessage<?>> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        testSubject.subscribe(event -> {
+            handled.add(event);
+            latch.countDown();
+        });
+
+        testSubject.start();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        testSubject.shutDown();
+        assertEquals(asList(eventStore.events.get(2)), handled);
+    }
+
+    @Test(timeout = 10000)
+    public void testEventsAreDividedOverSegmentsBySequenceIdentifier() throws Exception {
+        for (int sequenceNumber = 0; sequenceNumber < 10; sequenceNumber++) {
+            for (String aggregateIdentifier : asList("agg1", "agg2", "agg3", "agg4")) {
+                eventStore.append(event(aggregateIdentifier, sequenceNumber));
+            }
+        }
+        testSubject = new TrackingEventProcessor("test", eventStore, tokenStore, new SequentialPerAggregatePolicy(),
+                                                 2, new NoTransactionManager());
+        testSubject.setBatchSize(3);
+        Map<String, List<Long>> sequenceNumbers = new ConcurrentHashMap<>();
+        Map<String, String> threadNames = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(40);
+        testSubject.subscribe(event -> {
+            DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+            String aggregateIdentifier = domainEvent.getAggregateIdentifier();
+            sequenceNumbers.computeIfAbsent(aggregateIdentifier, k -> new CopyOnWriteArrayList<>())
+                    .add(domainEvent.getSequenceNumber());
+            String previousThread = threadNames.putIfAbsent(aggregateIdentifier, Thread.currentThread().getName());
+            if (previousThread != null && !previousThread.equals(Thread.currentThread().getName())) {
+                fail("Events of a single aggregate were handled by different threads");
+            }
+            latch.countDown();
+        });
+
+        testSubject.start();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        // a segment may still be reading the last events, which belong to the other segment
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline
+                && !(new GlobalIndexToken(40).equals(tokenStore.fetchToken("test", 0))
+                && new GlobalIndexToken(40).equals(tokenStore.fetchToken("test", 1)))) {
+            Thread.sleep(10);
+        }
+        testSubject.shutDown();
+        for (List<Long> handledSequenceNumbers : sequenceNumbers.values()) {
+            assertEquals(asList(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), handledSequenceNumbers);
+        }
+        assertEquals(new GlobalIndexToken(40), tokenStore.fetchToken("test", 0));
+        assertEquals(new GlobalIndexToken(40), tokenStore.fetchToken("test", 1));
+    }
+
+    @Test(timeout = 10000)
+    public void testBatchIsProcessedInSingleTransaction() throws Exception {
+        eventStore.append(event("agg1", 0), event("agg1", 1), event("agg1", 2));
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        Transaction transaction = mock(Transaction.class);
+        when(transactionManager.startTransaction()).thenReturn(transaction);
+        CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(transaction).commit();
+        testSubject = new TrackingEventProcessor("test", eventStore, tokenStore, event -> null, 1,
+                                                 transactionManager);
+        List<EventMessage<?>> handled = new CopyOnWriteArrayList<>();
+        testSubject.subscribe(handled::add);
+
+        testSubject.start();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        testSubject.shutDown();
+        assertEquals(eventStore.events, handled);
+        verify(transactionManager, times(1)).startTransaction();
+        verify(transaction, times(1)).commit();
+        verify(transaction, never()).rollback();
+    }
+
+    @Test(timeout = 10000)
+    public void testFailedBatchIsRolledBackAndRetried() throws Exception {
+        eventStore.append(event("agg1", 0), event("agg1", 1));
+        testSubject = createProcessor(1);
+        testSubject.setErrorWaitTime(10);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<EventMessage<?>> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        testSubject.subscribe(event -> {
+            handled.add(event);
+            latch.countDown();
+            if (failed.compareAndSet(false, true)) {
+                throw new MockException();
+            }
+        });
+
+        testSubject.start();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        testSubject.shutDown();
+        assertEquals(asList(eventStore.events.get(0), eventStore.events.get(0), eventStore.events.get(1)), handled);
+        assertEquals(new GlobalIndexToken(2), tokenStore.fetchToken("test", 0));
+    }
+
+    @Test(timeout = 10000)
+    public void testPoisonEventIsSkippedWhenErrorHandlerRequestsSkip() throws Exception {
+        eventStore.append(event("agg1", 0), event("agg1", 1));
+        testSubject = createProcessor(1);
+        testSubject.setErrorHandler(new DefaultErrorHandler(RetryPolicy.skip()));
+        List<EventMessage<?>> handled = new CopyOnWriteArrayList<>();
+        List<EventMessage<?>> secondListener = new CopyOnWriteArrayList<>();
+        testSubject.subscribe(event -> {
+            handled.add(event);
+            if (event == eventStore.events.get(0)) {
+                throw new MockException();
+            }
+        });
+        testSubject.subscribe(secondListener::add);
+
+        testSubject.start();
+
+        awaitToken(new GlobalIndexToken(2));
+        testSubject.shutDown();
+        assertEquals(asList(eventStore.events.get(0), eventStore.events.get(1)), handled);
+        assertEquals(asList(eventStore.events.get(1)), secondListener);
+    }
+
+    @Test(timeout = 10000)
+    public void testFailureIsIgnoredWhenErrorHandlerProceeds() throws Exception {
+        eventStore.append(event("agg1", 0), event("agg1", 1));
+        testSubject = createProcessor(1);
+        testSubject.setErrorHandler(new DefaultErrorHandler(RetryPolicy.proceed()));
+        List<EventMessage<?>> handled = new CopyOnWriteArrayList<>();
+        List<EventMessage<?>> failedEvents = new CopyOnWriteArrayList<>();
+        testSubject.subscribe(event -> {
+            handled.add(event);
+            if (event == eventStore.events.get(0)) {
+                throw new MockException();
+            }
+        });
+        testSubject.subscribeEventProcessingMonitor(new EventProcessingMonitor() {
+            @Override
+            public void onEventProcessingCompleted(List<? extends EventMessage> eventMessages) {
+            }
+
+            @Override
+            public void onEventProcessingFailed(List<? extends EventMessage> eventMessages, Throwable cause) {
+                eventMessages.forEach(event -> failedEvents.add((EventMessage<?>) event));
+            }
+        });
+
+        testSubject.start();
+
+        awaitToken(new GlobalIndexToken(2));
+        testSubject.shutDown();
+        assertEquals(eventStore.events, handled);
+        assertEquals(asList(eventStore.events.get(0)), failedEvents);
+    }
+
+    @Test(timeout = 10000)
+    public void testSegmentClaimedByOtherOwnerIsNotProcessed() throws Exception {
+        eventStore.append(event("agg1", 0));
+        tokenStore.claimSegment("test", 0, "otherOwner");
+        testSubject = createProcessor(1);
+        testSubject.setErrorWaitTime(10);
+        CountDownLatch latch = new CountDownLatch(1);
+        testSubject.subscribe(event -> latch.countDown());
+
+        testSubject.start();
+
+        assertFalse(latch.await(200, TimeUnit.MILLISECONDS));
+        tokenStore.releaseClaim("test", 0, "otherOwner");
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPublishedEventsAreIgnored() throws Exception {
+        testSubject = createProcessor(1);
+        List<EventMessage<?>> handled = new ArrayList<>();
+        testSubject.subscribe(handled::add);
+
+        testSubject.handle(new GenericEventMessage<>("published"));
+
+        assertTrue(handled.isEmpty());
+    }
+
+    private TrackingEventProcessor createProcessor(int segmentCount) {
+        TrackingEventProcessor processor = new TrackingEventProcessor("test", eventStore, tokenStore,
+                                                                      event -> null, segmentCount,
+                                                                      new NoTransactionManager());
+        processor.setPollTimeout(10);
+        return processor;
+    }
+
+    private void awaitToken(ProcessingToken expectedToken) throws InterruptedException {
+        while (!expectedToken.equals(tokenStore.fetchToken("test", 0))) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static DomainEventMessage<?> event(String aggregateIdentifier, long sequenceNumber) {
+        return new GenericDomainEventMessage<>(aggregateIdentifier, sequenceNumber, "payload" + sequenceNumber);
+    }
+
+    private static class StubTrackingEventStore implements TrackingEventStore {
+
+        private final List<DomainEventMessage<?>> events = new CopyOnWriteArrayList<>();
+
+        private void append(DomainEventMessage<?>... newEvents) {
+            events.addAll(asList(newEvents));
+        }
+
+        @Override
+        public TrackingEventStream openStream(ProcessingToken trackingToken) {
+            int start = trackingToken == null ? 0 : (int) ((GlobalIndexToken) trackingToken).longValue();
+            return new TrackingEventStream() {
+                private int position = start;
+
+                @Override
+                public boolean hasNextAvailable(long timeout, TimeUnit unit) throws InterruptedException {
+                    long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+                    while (position >= events.size() && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(1);
+                    }
+                    return position < events.size();
+                }
+
+                @Override
+                public DomainEventMessage<?> nextAvailable() {
+                    return events.get(position++);
+                }
+
+                @Override
+                public ProcessingToken currentToken() {
+                    return new GlobalIndexToken(position);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+
+    private static class MockException extends RuntimeException {
+
+        private static final long serialVersionUID = 5236415813702617345L;
+    }
+}
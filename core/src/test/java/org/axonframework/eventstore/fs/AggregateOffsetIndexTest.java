@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventstore.fs;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class AggregateOffsetIndexTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    private AggregateOffsetIndex testSubject;
+
+    @Before
+    public void setUp() throws Exception {
+        testSubject = new AggregateOffsetIndex(tempFolder.newFile("index.dat"), 4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testSubject.close();
+    }
+
+    @Test
+    public void testEntriesSpanningMultipleChunks() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            testSubject.add("first", i, i * 100L);
+            testSubject.add("second", i, i * 100L + 1);
+        }
+
+        assertEquals(20, testSubject.size());
+        assertEquals(Long.valueOf(9), testSubject.lastSequenceNumber("first"));
+        assertArrayEquals(new long[]{300, 400, 500, 600, 700}, testSubject.positions("first", 3, 7));
+        long[] second = testSubject.positions("second", 0, Long.MAX_VALUE);
+        assertEquals(10, second.length);
+        assertEquals(1, second[0]);
+        assertEquals(901, second[9]);
+    }
+
+    @Test
+    public void testUnknownAggregate() {
+        assertNull(testSubject.lastSequenceNumber("unknown"));
+        assertEquals(0, testSubject.positions("unknown", 0, Long.MAX_VALUE).length);
+    }
+}
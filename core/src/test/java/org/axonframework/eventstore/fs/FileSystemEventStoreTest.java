@@ -30,9 +30,12 @@
 import org.junit.rules.TemporaryFolder;
 import org.mockito.Matchers;
 
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -268,6 +271,67 @@ public void testAppendSnapShot() {
         assertEquals(3, actualEvents.size());
     }
 
+    @Test
+    public void testLatestSnapshotIsFoundUsingSnapshotIndex() throws IOException {
+        FileSystemEventStore eventStore = new FileSystemEventStore(new SimpleEventFileResolver(eventFileBaseDir));
+        AtomicInteger counter = new AtomicInteger(0);
+        for (int i = 0; i < 3; i++) {
+            writeEvents(counter, 5);
+            eventStore.appendSnapshotEvent(new GenericDomainEventMessage<>(aggregateIdentifier, counter.get() - 1,
+                                                                           new StubDomainEvent()));
+        }
+        writeEvents(counter, 2);
+
+        // corrupt the first snapshot entry, which is never read when the index is used
+        try (RandomAccessFile snapshotFile = new RandomAccessFile(snapshotFile(), "rw")) {
+            snapshotFile.seek(8);
+            snapshotFile.write(new byte[]{-1, -1, -1, -1, -1, -1});
+        }
+
+        List<DomainEventMessage<?>> actualEvents = readAll(eventStore.readEvents(aggregateIdentifier));
+        assertEquals(14L, actualEvents.get(0).getSequenceNumber());
+        assertEquals(3, actualEvents.size());
+    }
+
+    @Test
+    public void testLatestSnapshotIsFoundWhenSnapshotIndexIsMissingOrInvalid() throws IOException {
+        FileSystemEventStore eventStore = new FileSystemEventStore(new SimpleEventFileResolver(eventFileBaseDir));
+        AtomicInteger counter = new AtomicInteger(0);
+        writeEvents(counter, 5);
+        eventStore.appendSnapshotEvent(new GenericDomainEventMessage<>(aggregateIdentifier, 4, new StubDomainEvent()));
+        writeEvents(counter, 5);
+        eventStore.appendSnapshotEvent(new GenericDomainEventMessage<>(aggregateIdentifier, 9, new StubDomainEvent()));
+        writeEvents(counter, 2);
+
+        File indexFile = new File(eventFileBaseDir,
+                                  aggregateIdentifier + "." + SimpleEventFileResolver.FILE_EXTENSION_SNAPSHOT_INDEX);
+        try (DataOutputStream index = new DataOutputStream(new FileOutputStream(indexFile))) {
+            index.writeLong(snapshotFile().length() + 100);
+            index.writeLong(0);
+        }
+        List<DomainEventMessage<?>> actualEvents = readAll(eventStore.readEvents(aggregateIdentifier));
+        assertEquals(9L, actualEvents.get(0).getSequenceNumber());
+        assertEquals(3, actualEvents.size());
+
+        assertTrue(indexFile.delete());
+        actualEvents = readAll(eventStore.readEvents(aggregateIdentifier));
+        assertEquals(9L, actualEvents.get(0).getSequenceNumber());
+        assertEquals(3, actualEvents.size());
+    }
+
+    private File snapshotFile() {
+        return new File(eventFileBaseDir,
+                        aggregateIdentifier + "." + SimpleEventFileResolver.FILE_EXTENSION_SNAPSHOTS);
+    }
+
+    private static List<DomainEventMessage<?>> readAll(DomainEventStream eventStream) {
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        while (eventStream.hasNext()) {
+            events.add(eventStream.next());
+        }
+        return events;
+    }
+
     private void writeEvents(AtomicInteger counter, int numberOfEvents) {
         FileSystemEventStore eventStore = new FileSystemEventStore(new SimpleEventFileResolver(eventFileBaseDir));
 
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventstore.fs;
+
+import org.axonframework.commandhandling.model.ConflictingModificationException;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.DomainEventStream;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.StubDomainEvent;
+import org.axonframework.eventstore.EventStoreException;
+import org.axonframework.eventstore.EventStreamNotFoundException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Allard Buijze
+ */
+public class SegmentedLogEventStoreTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    private File directory;
+    private SegmentedLogEventStore testSubject;
+
+    @Before
+    public void setUp() {
+        directory = tempFolder.getRoot();
+        testSubject = new SegmentedLogEventStore(directory);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        testSubject.shutDown();
+    }
+
+    @Test
+    public void testAppendAndReadEvents() {
+        String aggregateIdentifier = UUID.randomUUID().toString();
+        testSubject.appendEvents(events(aggregateIdentifier, 0, 3));
+        testSubject.appendEvents(events(UUID.randomUUID().toString(), 0, 2));
+        testSubject.appendEvents(events(aggregateIdentifier, 3, 2));
+
+        assertSequence(testSubject.readEvents(aggregateIdentifier), aggregateIdentifier, 0, 4);
+    }
+
+    @Test
+    public void testReadEventsInRange() {
+        String aggregateIdentifier = UUID.randomUUID().toString();
+        testSubject.appendEvents(events(aggregateIdentifier, 0, 10));
+
+        assertSequence(testSubject.readEvents(aggregateIdentifier, 3, 6), aggregateIdentifier, 3, 6);
+        assertSequence(testSubject.readEvents(aggregateIdentifier, 8), aggregateIdentifier, 8, 9);
+    }
+
+    @Test(expected = EventStreamNotFoundException.class)
+    public void testReadEventsOfUnknownAggregate() {
+        testSubject.readEvents(UUID.randomUUID().toString());
+    }
+
+    @Test
+    public void testAppendConflictingEventsIsRejected() {
+        String aggregateIdentifier = UUID.randomUUID().toString();
+        testSubject.appendEvents(events(aggregateIdentifier, 0, 2));
+        try {
+            testSubject.appendEvents(events(aggregateIdentifier, 1, 2));
+            fail("Expected ConflictingModificationException");
+        } catch (ConflictingModificationException e) {
+            // expected
+        }
+
+        assertSequence(testSubject.readEvents(aggregateIdentifier), aggregateIdentifier, 0, 1);
+    }
+
+    @Test
+    public void testSegmentsAreRolledWhenFull() throws InterruptedException {
+        testSubject.shutDown();
+        testSubject = new SegmentedLogEventStore(directory);
+        testSubject.setSegmentSize(1024);
+        String aggregateIdentifier = UUID.randomUUID().toString();
+        for (int i = 0; i < 20; i++) {
+            testSubject.appendEvents(events(aggregateIdentifier, i, 1));
+        }
+
+        assertTrue(new File(directory, LogSegment.fileName(1)).exists());
+        assertSequence(testSubject.readEvents(aggregateIdentifier), aggregateIdentifier, 0, 19);
+    }
+
+    @Test
+    public void testIndexIsRebuiltOnRestart() throws InterruptedException {
+        testSubject.setSegmentSize(1024);
+        String aggregateIdentifier = UUID.randomUUID().toString();
+        for (int i = 0; i < 20; i++) {
+            testSubject.appendEvents(events(aggregateIdentifier, i, 1));
+        }
+        testSubject.shutDown();
+
+        testSubject = new SegmentedLogEventStore(directory);
+        assertSequence(testSubject.readEvents(aggregateIdentifier), aggregateIdentifier, 0, 19);
+        testSubject.appendEvents(events(aggregateIdentifier, 20, 1));
+        assertSequence(testSubject.readEvents(aggregateIdentifier, 19), aggregateIdentifier, 19, 20);
+        try {
+            testSubject.appendEvents(events(aggregateIdentifier, 5, 1));
+            fail("Expected ConflictingModificationException");
+        } catch (ConflictingModificationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPartiallyWrittenRecordIsDiscardedOnRestart() throws Exception {
+        String aggregateIdentifier = UUID.randomUUID().toString();
+        testSubject.appendEvents(events(aggregateIdentifier, 0, 2));
+        testSubject.shutDown();
+
+        long endOfLog;
+        try (RandomAccessFile file = new RandomAccessFile(new File(directory, LogSegment.fileName(0)), "rw")) {
+            file.seek(0);
+            int firstLength = file.readInt();
+            file.seek(LogSegment.HEADER_SIZE + firstLength);
+            int secondLength = file.readInt();
+            endOfLog = 2 * LogSegment.HEADER_SIZE + firstLength + secondLength;
+            // simulate a torn write: a header and a few bytes of a third record
+            file.seek(endOfLog);
+            file.writeInt(secondLength);
+            file.writeInt(12345);
+            file.write(new byte[]{1, 2, 3});
+        }
+
+        testSubject = new SegmentedLogEventStore(directory);
+        assertSequence(testSubject.readEvents(aggregateIdentifier), aggregateIdentifier, 0, 1);
+        testSubject.appendEvents(events(aggregateIdentifier, 2, 1));
+        assertSequence(testSubject.readEvents(aggregateIdentifier), aggregateIdentifier, 0, 2);
+    }
+
+    @Test
+    public void testConcurrentAppendsAreGroupCommitted() throws Exception {
+        int threadCount = 8;
+        int commitsPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<String> aggregateIdentifiers = new ArrayList<>();
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            String aggregateIdentifier = UUID.randomUUID().toString();
+            aggregateIdentifiers.add(aggregateIdentifier);
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < commitsPerThread; i++) {
+                    testSubject.appendEvents(events(aggregateIdentifier, i, 1));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (String aggregateIdentifier : aggregateIdentifiers) {
+            assertSequence(testSubject.readEvents(aggregateIdentifier), aggregateIdentifier, 0,
+                           commitsPerThread - 1);
+        }
+    }
+
+    @Test
+    public void testAppendAfterShutdownIsRejected() throws InterruptedException {
+        testSubject.shutDown();
+        try {
+            testSubject.appendEvents(events(UUID.randomUUID().toString(), 0, 1));
+            fail("Expected EventStoreException");
+        } catch (EventStoreException e) {
+            // expected
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testAppendsRacingShutdownAreCompleted() throws Exception {
+        int threadCount = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch started = new CountDownLatch(threadCount);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            String aggregateIdentifier = UUID.randomUUID().toString();
+            results.add(executor.submit(() -> {
+                started.countDown();
+                try {
+                    for (int i = 0; ; i++) {
+                        testSubject.appendEvents(events(aggregateIdentifier, i, 1));
+                    }
+                } catch (EventStoreException e) {
+                    // expected once the event store has been shut down
+                }
+                return null;
+            }));
+        }
+        started.await();
+        testSubject.shutDown();
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private static List<DomainEventMessage<?>> events(String aggregateIdentifier, long firstSequenceNumber,
+                                                      int count) {
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new GenericDomainEventMessage<>(aggregateIdentifier, firstSequenceNumber + i,
+                                                       new StubDomainEvent()));
+        }
+        return events;
+    }
+
+    private static void assertSequence(DomainEventStream stream, String aggregateIdentifier, long first,
+                                       long last) {
+        for (long expected = first; expected <= last; expected++) {
+            assertTrue("Expected event with sequence number " + expected, stream.hasNext());
+            DomainEventMessage event = stream.next();
+            assertEquals(aggregateIdentifier, event.getAggregateIdentifier());
+            assertEquals(expected, event.getSequenceNumber());
+        }
+        assertFalse(stream.hasNext());
+    }
+}
@@ -88,6 +88,23 @@ public void fetchAggregateStreamShouldWork() throws SQLException {
         assertFalse( actual.hasNext());
     }
 
+    @Test
+    public void persistEventsInBatch() throws SQLException {
+        deleteCurrentPersistentEvents();
+        DomainEventMessage first = new GenericDomainEventMessage(aggregateIdentifier, 0, "apayload");
+        DomainEventMessage second = new GenericDomainEventMessage(aggregateIdentifier, 1, "apayload2");
+        testSubject.persistEvents(Arrays.asList(first, second),
+                                  Arrays.asList(getPayload(), getPayload()),
+                                  Arrays.asList(getMetaData(), getMetaData()));
+
+        final Iterator<? extends SerializedDomainEventData> actual = testSubject.fetchAggregateStream(
+                aggregateIdentifier, 0, 10);
+
+        checkSame(first, actual.next());
+        checkSame(second, actual.next());
+        assertFalse(actual.hasNext());
+    }
+
     private void deleteCurrentPersistentEvents() throws SQLException {
         connection.createStatement().execute("delete from DomainEventEntry");
     }
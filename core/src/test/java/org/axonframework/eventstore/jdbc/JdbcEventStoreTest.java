@@ -18,6 +18,7 @@
 
 
 import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.ProcessingToken;
 import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.eventsourcing.DomainEventStream;
 import org.axonframework.eventsourcing.GenericDomainEventMessage;
@@ -37,6 +38,7 @@
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -47,6 +49,7 @@
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -403,6 +406,16 @@ public void testStoreDuplicateEvent_WithSqlExceptionTranslator() {
                                                                                MetaData.emptyInstance())));
     }
 
+    @Test(expected = ConcurrencyException.class)
+    public void testStoreDuplicateEventInBatch_WithSqlExceptionTranslator() {
+        testSubject.appendEvents(singletonList(new GenericDomainEventMessage<>("123", 1L, "Mock contents",
+                                                                               MetaData.emptyInstance())));
+        testSubject.appendEvents(asList(new GenericDomainEventMessage<>("123", 0L, "Mock contents",
+                                                                        MetaData.emptyInstance()),
+                                        new GenericDomainEventMessage<>("123", 1L, "Mock contents",
+                                                                        MetaData.emptyInstance())));
+    }
+
     @DirtiesContext
     @Test
     public void testStoreDuplicateEvent_NoSqlExceptionTranslator() {
@@ -435,9 +448,12 @@ public void testCustomEventEntryStore() {
                                                 "Mock contents", MetaData.emptyInstance()),
                 new GenericDomainEventMessage<>(UUID.randomUUID().toString(), (long) 0,
                                                 "Mock contents", MetaData.emptyInstance())));
-        verify(eventEntryStore, times(2)).persistEvent(isA(DomainEventMessage.class),
-                                                       Matchers.<SerializedObject>any(),
-                                                       Matchers.<SerializedObject>any());
+        ArgumentCaptor<List> payloads = ArgumentCaptor.forClass(List.class);
+        verify(eventEntryStore).persistEvents(anyList(), payloads.capture(), anyList());
+        assertEquals(2, payloads.getValue().size());
+        verify(eventEntryStore, never()).persistEvent(isA(DomainEventMessage.class),
+                                                      Matchers.<SerializedObject>any(),
+                                                      Matchers.<SerializedObject>any());
 
         reset(eventEntryStore);
         GenericDomainEventMessage<String> eventMessage = new GenericDomainEventMessage<>(
@@ -511,6 +527,79 @@ public void testReadPartialStream_WithEnd() {
         assertFalse(actual.hasNext());
     }
 
+    @Test
+    public void testOpenStream_ReadsAllEventsInOrderOfStorage() throws Exception {
+        testSubject.appendEvents(domainEventMessages1);
+        testSubject.appendEvents(domainEventMessages2);
+
+        TrackingEventStream stream = testSubject.openStream(null);
+        assertNull(stream.currentToken());
+        for (DomainEventMessage<?> expected : concat(domainEventMessages1, domainEventMessages2)) {
+            assertTrue(stream.hasNextAvailable(1, TimeUnit.SECONDS));
+            assertEquals(expected.getIdentifier(), stream.nextAvailable().getIdentifier());
+        }
+        assertFalse(stream.hasNextAvailable(10, TimeUnit.MILLISECONDS));
+        assertNotNull(stream.currentToken());
+        stream.close();
+    }
+
+    @Test
+    public void testOpenStream_ResumesAfterToken() throws Exception {
+        testSubject.appendEvents(domainEventMessages1);
+
+        TrackingEventStream stream = testSubject.openStream(null);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(stream.hasNextAvailable(1, TimeUnit.SECONDS));
+            stream.nextAvailable();
+        }
+        ProcessingToken token = stream.currentToken();
+        stream.close();
+
+        testSubject.appendEvents(domainEventMessages2);
+        stream = testSubject.openStream(token);
+        List<DomainEventMessage<?>> expectedEvents = concat(domainEventMessages1.subList(4, 10),
+                                                            domainEventMessages2);
+        for (DomainEventMessage<?> expected : expectedEvents) {
+            assertTrue(stream.hasNextAvailable(1, TimeUnit.SECONDS));
+            assertEquals(expected.getIdentifier(), stream.nextAvailable().getIdentifier());
+        }
+        assertFalse(stream.hasNextAvailable(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testOpenStream_WaitsForEventsAppendedLater() throws Exception {
+        TrackingEventStream stream = testSubject.openStream(null);
+        assertFalse(stream.hasNextAvailable(10, TimeUnit.MILLISECONDS));
+
+        testSubject.appendEvents(domainEventMessages2);
+        assertTrue(stream.hasNextAvailable(1, TimeUnit.SECONDS));
+        assertEquals(domainEventMessages2.get(0).getIdentifier(), stream.nextAvailable().getIdentifier());
+    }
+
+    @Test
+    public void testOpenStream_DoesNotReadPastRecentGapInGlobalIndex() throws Exception {
+        testSubject.appendEvents(domainEventMessages1);
+        conn.prepareStatement("DELETE FROM DomainEventEntry WHERE sequenceNumber = 5").executeUpdate();
+
+        TrackingEventStream stream = testSubject.openStream(null);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(stream.hasNextAvailable(1, TimeUnit.SECONDS));
+            assertEquals(i, stream.nextAvailable().getSequenceNumber());
+        }
+        assertFalse(stream.hasNextAvailable(10, TimeUnit.MILLISECONDS));
+
+        testSubject.setGapTimeout(0);
+        assertTrue(stream.hasNextAvailable(1, TimeUnit.SECONDS));
+        assertEquals(6, stream.nextAvailable().getSequenceNumber());
+    }
+
+    private static List<DomainEventMessage<?>> concat(List<DomainEventMessage<?>> first,
+                                                      List<DomainEventMessage<?>> second) {
+        List<DomainEventMessage<?>> result = new ArrayList<>(first);
+        result.addAll(second);
+        return result;
+    }
+
     private SerializedObject<byte[]> mockSerializedObject(byte[] bytes) {
         return new SimpleSerializedObject<>(bytes, byte[].class, "java.lang.String", "0");
     }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.messaging.unitofwork;
+
+import org.axonframework.messaging.GenericMessage;
+import org.axonframework.messaging.interceptors.Transaction;
+import org.axonframework.messaging.interceptors.TransactionManager;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class DefaultUnitOfWorkFactoryTest {
+
+    @After
+    public void tearDown() {
+        while (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().rollback();
+        }
+    }
+
+    @Test
+    public void testUnitsOfWorkNotReusedByDefault() {
+        DefaultUnitOfWorkFactory testSubject = new DefaultUnitOfWorkFactory();
+        UnitOfWork<?> first = testSubject.createUnitOfWork(new GenericMessage<>("first"));
+        first.commit();
+        UnitOfWork<?> second = testSubject.createUnitOfWork(new GenericMessage<>("second"));
+        second.commit();
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testClosedUnitOfWorkReusedWithClearedState() {
+        DefaultUnitOfWorkFactory testSubject = new DefaultUnitOfWorkFactory();
+        testSubject.setReuseUnitsOfWork(true);
+        UnitOfWork<?> first = testSubject.createUnitOfWork(new GenericMessage<>("first"));
+        first.resources().put("key", "value");
+        first.commit();
+
+        UnitOfWork<?> second = testSubject.createUnitOfWork(new GenericMessage<>("second"));
+        assertSame(first, second);
+        assertTrue(second.isActive());
+        assertEquals("second", second.getMessage().getPayload());
+        assertNull(second.getResource("key"));
+        assertNull(second.getExecutionResult());
+        second.commit();
+    }
+
+    @Test
+    public void testActiveUnitOfWorkNotReused() {
+        DefaultUnitOfWorkFactory testSubject = new DefaultUnitOfWorkFactory();
+        testSubject.setReuseUnitsOfWork(true);
+        UnitOfWork<?> outer = testSubject.createUnitOfWork(new GenericMessage<>("outer"));
+        UnitOfWork<?> nested = testSubject.createUnitOfWork(new GenericMessage<>("nested"));
+
+        assertNotSame(outer, nested);
+        assertSame(outer, nested.root());
+        nested.commit();
+        outer.commit();
+    }
+
+    @Test
+    public void testReusedUnitOfWorkBoundToNewTransaction() {
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        Transaction firstTransaction = mock(Transaction.class);
+        Transaction secondTransaction = mock(Transaction.class);
+        when(transactionManager.startTransaction()).thenReturn(firstTransaction, secondTransaction);
+        DefaultUnitOfWorkFactory testSubject = new DefaultUnitOfWorkFactory(transactionManager);
+        testSubject.setReuseUnitsOfWork(true);
+
+        testSubject.createUnitOfWork(new GenericMessage<>("first")).commit();
+        testSubject.createUnitOfWork(new GenericMessage<>("second")).rollback();
+
+        verify(firstTransaction).commit();
+        verify(firstTransaction, never()).rollback();
+        verify(secondTransaction).rollback();
+        verify(secondTransaction, never()).commit();
+    }
+}
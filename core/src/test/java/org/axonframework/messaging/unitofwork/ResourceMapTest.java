@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.axonframework.messaging.unitofwork;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class ResourceMapTest {
+
+    private ResourceMap testSubject;
+
+    @Before
+    public void setUp() {
+        testSubject = new ResourceMap();
+    }
+
+    @Test
+    public void testEmptyMap() {
+        assertTrue(testSubject.isEmpty());
+        assertNull(testSubject.get("key"));
+        assertNull(testSubject.remove("key"));
+        assertFalse(testSubject.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testPutGetAndReplace() {
+        assertNull(testSubject.put("key", "value1"));
+        assertEquals("value1", testSubject.put("key", "value2"));
+        assertEquals("value2", testSubject.get("key"));
+        assertEquals(1, testSubject.size());
+        assertEquals("computed", testSubject.computeIfAbsent("other", k -> "computed"));
+        assertEquals("computed", testSubject.computeIfAbsent("other", k -> "not used"));
+    }
+
+    @Test
+    public void testBehavesLikeHashMapOnRandomOperations() {
+        Map<String, Object> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            String key = "key" + random.nextInt(50);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.remove(key), testSubject.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), testSubject.put(key, i));
+            }
+            assertEquals(expected.size(), testSubject.size());
+        }
+        assertEquals(expected, testSubject);
+        for (String key : expected.keySet()) {
+            assertEquals(expected.get(key), testSubject.get(key));
+        }
+    }
+
+    @Test
+    public void testRemoveDuringIteration() {
+        for (int i = 0; i < 20; i++) {
+            testSubject.put("key" + i, i);
+        }
+        Iterator<Map.Entry<String, Object>> iterator = testSubject.entrySet().iterator();
+        int seen = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<String, Object> entry = iterator.next();
+            seen++;
+            if ((Integer) entry.getValue() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(20, seen);
+        assertEquals(10, testSubject.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i % 2 == 0 ? null : i, testSubject.get("key" + i));
+        }
+    }
+
+    @Test
+    public void testClearRetainsUsability() {
+        testSubject.put("key", "value");
+        testSubject.clear();
+        assertTrue(testSubject.isEmpty());
+        assertNull(testSubject.get("key"));
+        testSubject.put("key", "value");
+        assertEquals("value", testSubject.get("key"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullKeyRejected() {
+        testSubject.put(null, "value");
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.saga.repository;
+
+import org.axonframework.saga.AssociationValue;
+import org.axonframework.saga.Saga;
+import org.junit.*;
+
+import java.util.Collections;
+import java.util.function.BiConsumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class AssociationIndexSagaRepositoryTest {
+
+    private AbstractSagaRepository delegate;
+    private AssociationIndexSagaRepository testSubject;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        delegate = mock(AbstractSagaRepository.class);
+        when(delegate.typeOf(any())).thenAnswer(i -> ((Class<?>) i.getArguments()[0]).getSimpleName());
+        when(delegate.find(any(), any())).thenReturn(Collections.singleton("id"));
+        doAnswer(i -> {
+            ((BiConsumer<String, AssociationValue>) i.getArguments()[0])
+                    .accept("StubSaga", new AssociationValue("key", "stored"));
+            return null;
+        }).when(delegate).forEachAssociationValue(any());
+        testSubject = new AssociationIndexSagaRepository(delegate);
+    }
+
+    @Test
+    public void testLookupsAreDelegatedBeforePrewarm() {
+        assertEquals(Collections.singleton("id"),
+                     testSubject.find(StubSaga.class, new AssociationValue("key", "unknown")));
+        verify(delegate).find(StubSaga.class, new AssociationValue("key", "unknown"));
+    }
+
+    @Test
+    public void testLookupOfUnknownAssociationIsNotDelegatedAfterPrewarm() {
+        testSubject.prewarm();
+
+        assertTrue(testSubject.find(StubSaga.class, new AssociationValue("key", "unknown")).isEmpty());
+        assertTrue(testSubject.find(OtherSaga.class, new AssociationValue("key", "stored")).isEmpty());
+        verify(delegate, never()).find(any(), any());
+    }
+
+    @Test
+    public void testLookupOfStoredAssociationIsDelegatedAfterPrewarm() {
+        testSubject.prewarm();
+
+        assertEquals(Collections.singleton("id"),
+                     testSubject.find(StubSaga.class, new AssociationValue("key", "stored")));
+        verify(delegate).find(StubSaga.class, new AssociationValue("key", "stored"));
+    }
+
+    @Test
+    public void testAssociationsOfAddedAndCommittedSagasAreIndexed() {
+        testSubject.prewarm();
+        StubSaga saga = new StubSaga("id");
+        saga.associate("key", "added");
+        testSubject.add(saga);
+        saga.associate("key", "committed");
+        testSubject.commit(saga);
+
+        testSubject.find(StubSaga.class, new AssociationValue("key", "added"));
+        testSubject.find(StubSaga.class, new AssociationValue("key", "committed"));
+
+        verify(delegate).add(saga);
+        verify(delegate).commit(saga);
+        verify(delegate).find(StubSaga.class, new AssociationValue("key", "added"));
+        verify(delegate).find(StubSaga.class, new AssociationValue("key", "committed"));
+    }
+
+    @Test
+    public void testBloomFilterHasNoFalseNegatives() {
+        AssociationValueBloomFilter filter = new AssociationValueBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(new AssociationValue("key", Integer.toString(i)));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(new AssociationValue("key", Integer.toString(i))));
+            if (filter.mightContain(new AssociationValue("other", Integer.toString(i)))) {
+                falsePositives++;
+            }
+        }
+        assertTrue("Too many false positives: " + falsePositives, falsePositives < 50);
+    }
+
+    private static class OtherSaga extends StubSaga {
+
+        private OtherSaga(String identifier) {
+            super(identifier);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.saga.repository;
+
+import org.axonframework.messaging.interceptors.NoTransactionManager;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.saga.AssociationValue;
+import org.axonframework.saga.Saga;
+import org.axonframework.serializer.xml.XStreamSerializer;
+import org.axonframework.testutils.MockException;
+import org.junit.*;
+import org.mockito.ArgumentMatcher;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class WriteBehindSagaRepositoryTest {
+
+    private AbstractSagaRepository delegate;
+    private WriteBehindSagaRepository testSubject;
+
+    @Before
+    public void setUp() throws Exception {
+        delegate = mock(AbstractSagaRepository.class);
+        when(delegate.typeOf(any())).thenReturn("StubSaga");
+        when(delegate.find(any(), any())).thenReturn(Collections.emptySet());
+        testSubject = new WriteBehindSagaRepository(delegate, new XStreamSerializer(), new NoTransactionManager(),
+                                                    1, TimeUnit.HOURS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testSubject.shutDown();
+        while (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().rollback();
+        }
+    }
+
+    @Test
+    public void testChangesAreWrittenOnFlush() throws Exception {
+        StubSaga saga = new StubSaga("id");
+        saga.associate("key", "value");
+        testSubject.add(saga);
+
+        verify(delegate, never()).storeSaga(any());
+
+        testSubject.flush();
+
+        verify(delegate).storeAssociationValue(new AssociationValue("key", "value"), "StubSaga", "id");
+        verify(delegate).storeSaga(any());
+        verify(delegate, never()).updateSaga(any());
+    }
+
+    @Test
+    public void testSubsequentCommitsAreCoalesced() throws Exception {
+        StubSaga saga = new StubSaga("id");
+        saga.associate("key", "value");
+        testSubject.add(saga);
+        saga.removeAssociationValue("key", "value");
+        saga.associate("key", "other");
+        testSubject.commit(saga);
+        testSubject.commit(saga);
+
+        testSubject.flush();
+
+        verify(delegate).storeAssociationValue(new AssociationValue("key", "other"), "StubSaga", "id");
+        verify(delegate, never()).storeAssociationValue(eq(new AssociationValue("key", "value")), anyString(),
+                                                        anyString());
+        verify(delegate, never()).removeAssociationValue(any(), anyString(), anyString());
+        verify(delegate, times(1)).storeSaga(any());
+        verify(delegate, never()).updateSaga(any());
+    }
+
+    @Test
+    public void testSagaCreatedAndEndedWithinBatchIsNeverWritten() throws Exception {
+        StubSaga saga = new StubSaga("id");
+        saga.associate("key", "value");
+        testSubject.add(saga);
+        saga.end();
+        testSubject.commit(saga);
+
+        assertNull(testSubject.load("id"));
+        assertTrue(testSubject.find(StubSaga.class, new AssociationValue("key", "value")).isEmpty());
+
+        testSubject.flush();
+
+        verify(delegate, never()).storeSaga(any());
+        verify(delegate, never()).deleteSaga(any());
+        verify(delegate, never()).storeAssociationValue(any(), anyString(), anyString());
+    }
+
+    @Test
+    public void testDeletionOfExistingSagaIsWritten() throws Exception {
+        StubSaga saga = new StubSaga("id");
+        saga.end();
+        testSubject.commit(saga);
+
+        testSubject.flush();
+
+        verify(delegate).deleteSaga(saga);
+        verify(delegate, never()).updateSaga(any());
+    }
+
+    @Test
+    public void testPendingChangesAreVisibleBeforeFlush() throws Exception {
+        StubSaga saga = new StubSaga("id");
+        saga.associate("key", "value");
+        testSubject.add(saga);
+
+        Saga loaded = testSubject.load("id");
+        assertNotNull(loaded);
+        assertNotSame(saga, loaded);
+        assertEquals("id", loaded.getSagaIdentifier());
+        assertEquals(Collections.singleton("id"),
+                     testSubject.find(StubSaga.class, new AssociationValue("key", "value")));
+        verify(delegate, never()).load(anyString());
+    }
+
+    @Test
+    public void testRemovedAssociationHidesSagaFoundInDelegate() throws Exception {
+        when(delegate.find(StubSaga.class, new AssociationValue("key", "value")))
+                .thenReturn(Collections.singleton("id"));
+        StubSaga saga = new StubSaga("id");
+        saga.associate("key", "value");
+        saga.getAssociationValues().commit();
+        saga.removeAssociationValue("key", "value");
+        testSubject.commit(saga);
+
+        assertTrue(testSubject.find(StubSaga.class, new AssociationValue("key", "value")).isEmpty());
+    }
+
+    @Test
+    public void testChangesInUnitOfWorkArePendingAfterCommit() throws Exception {
+        UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(null);
+        StubSaga saga = new StubSaga("id");
+        testSubject.add(saga);
+        assertNotNull(testSubject.load("id"));
+        testSubject.flush();
+        verify(delegate, never()).storeSaga(any());
+
+        uow.commit();
+
+        assertNotNull(testSubject.load("id"));
+        testSubject.flush();
+        verify(delegate).storeSaga(any());
+    }
+
+    @Test
+    public void testChangesInUnitOfWorkAreDiscardedOnRollback() throws Exception {
+        UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(null);
+        testSubject.add(new StubSaga("id"));
+        uow.rollback();
+
+        testSubject.load("id");
+        testSubject.flush();
+
+        verify(delegate).load("id");
+        verify(delegate, never()).storeSaga(any());
+    }
+
+    @Test
+    public void testFlushIsTriggeredWhenMaxPendingSagasIsReached() throws Exception {
+        testSubject.setMaxPendingSagas(2);
+        testSubject.add(new StubSaga("id1"));
+        testSubject.add(new StubSaga("id2"));
+
+        verify(delegate, timeout(5000).times(2)).storeSaga(any());
+    }
+
+    @Test
+    public void testFailingSagaDoesNotHoldBackOtherSagas() throws Exception {
+        StubSaga failing = new StubSaga("failing");
+        doThrow(new MockException()).when(delegate).storeSaga(argThat(sagaWithIdentifier("failing")));
+        testSubject.add(failing);
+        testSubject.add(new StubSaga("other"));
+
+        testSubject.flush();
+
+        verify(delegate).storeSaga(argThat(sagaWithIdentifier("other")));
+        verify(delegate, times(2)).storeSaga(argThat(sagaWithIdentifier("failing")));
+        assertNotNull(testSubject.load("failing"));
+    }
+
+    @Test
+    public void testFailedSagaIsRetriedWithNextBatch() throws Exception {
+        doThrow(new MockException()).doThrow(new MockException()).doNothing().when(delegate).storeSaga(any());
+        StubSaga saga = new StubSaga("id");
+        testSubject.add(saga);
+        testSubject.flush();
+
+        assertNotNull(testSubject.load("id"));
+        testSubject.commit(saga);
+        testSubject.flush();
+
+        verify(delegate, times(3)).storeSaga(any());
+        verify(delegate, never()).updateSaga(any());
+        verify(delegate, never()).load("id");
+    }
+
+    @Test
+    public void testChangesAreDiscardedAfterMaxWriteAttempts() throws Exception {
+        doThrow(new MockException()).when(delegate).storeSaga(any());
+        testSubject.setMaxWriteAttempts(2);
+        testSubject.add(new StubSaga("id"));
+
+        testSubject.flush();
+        testSubject.flush();
+        testSubject.flush();
+
+        // each flush attempts the batch and then the saga separately
+        verify(delegate, times(4)).storeSaga(any());
+        testSubject.load("id");
+        verify(delegate).load("id");
+    }
+
+    @Test(timeout = 5000)
+    public void testRegistrationBlocksWhileBacklogIsFull() throws Exception {
+        testSubject.setMaxBacklog(1);
+        testSubject.add(new StubSaga("id1"));
+        testSubject.add(new StubSaga("id1"));
+        testSubject.add(new StubSaga("id2"));
+
+        verify(delegate, timeout(1000)).storeSaga(argThat(sagaWithIdentifier("id1")));
+        assertNotNull(testSubject.load("id2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTransactionManagerIsRequired() {
+        new WriteBehindSagaRepository(delegate, null);
+    }
+
+    private static ArgumentMatcher<Saga> sagaWithIdentifier(String sagaIdentifier) {
+        return new ArgumentMatcher<Saga>() {
+            @Override
+            public boolean matches(Object argument) {
+                return argument instanceof Saga && sagaIdentifier.equals(((Saga) argument).getSagaIdentifier());
+            }
+        };
+    }
+}
@@ -32,6 +32,7 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 /**
  * @author Allard Buijze
@@ -87,6 +88,14 @@ protected void storeAssociationValue(AssociationValue newAssociationValue, Strin
         associations.put(newAssociationValue, sagaIdentifier);
     }
 
+    @Override
+    protected void forEachAssociationValue(BiConsumer<String, AssociationValue> consumer) {
+        for (byte[] serializedSaga : storage.values()) {
+            Saga saga = deserialize(serializedSaga);
+            saga.getAssociationValues().forEach(av -> consumer.accept(typeOf(saga.getClass()), av));
+        }
+    }
+
     @Override
     protected void removeAssociationValue(AssociationValue associationValue, String sagaType, String sagaIdentifier) {
         associations.remove(associationValue);
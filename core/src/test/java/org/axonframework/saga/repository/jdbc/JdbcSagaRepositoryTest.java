@@ -15,6 +15,8 @@
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -102,6 +104,17 @@ public void testLoadSagaOfDifferentTypesWithSameAssociationValue_SagaDeleted() {
         assertTrue("Didn't expect any sagas", actual.isEmpty());
     }
 
+    @Test
+    public void testForEachAssociationValue() {
+        StubSaga testSaga = new StubSaga("test1");
+        testSaga.registerAssociationValue(new AssociationValue("key", "value"));
+        repository.add(testSaga);
+        Map<String, AssociationValue> actual = new HashMap<>();
+        repository.forEachAssociationValue(actual::put);
+        assertEquals(1, actual.size());
+        assertEquals(new AssociationValue("key", "value"), actual.get(repository.typeOf(StubSaga.class)));
+    }
+
     @Test
     public void testLoadSaga_NotFound() {
         assertNull(repository.load("123456"));
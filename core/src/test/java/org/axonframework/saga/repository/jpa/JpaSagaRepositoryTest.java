@@ -34,6 +34,8 @@
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -74,6 +76,20 @@ public void setUp() {
         repository.setSerializer(serializer);
     }
 
+    @DirtiesContext
+    @Test
+    public void testForEachAssociationValue() {
+        StubSaga testSaga = new StubSaga("test1");
+        testSaga.registerAssociationValue(new AssociationValue("key", "value"));
+        repository.add(testSaga);
+        entityManager.flush();
+        entityManager.clear();
+        Map<String, AssociationValue> actual = new HashMap<>();
+        repository.forEachAssociationValue(actual::put);
+        assertEquals(1, actual.size());
+        assertEquals(new AssociationValue("key", "value"), actual.get(repository.typeOf(StubSaga.class)));
+    }
+
     @DirtiesContext
     @Test
     public void testAddingAnInactiveSagaDoesntStoreIt() {
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serializer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class ChainingConverterFactoryTest {
+
+    private ChainingConverterFactory testSubject;
+
+    @Before
+    public void setUp() {
+        testSubject = new ChainingConverterFactory();
+    }
+
+    @Test
+    public void testNoConversionRequiredForSameType() {
+        ContentTypeConverter<String, String> converter = testSubject.getConverter(String.class, String.class);
+
+        assertEquals("test", converter.convert("test"));
+        assertTrue(testSubject.hasConverter(String.class, String.class));
+    }
+
+    @Test
+    public void testChainedConverterIsCached() {
+        ContentTypeConverter<String, InputStream> converter = testSubject.getConverter(String.class,
+                                                                                       InputStream.class);
+
+        assertTrue(converter instanceof ChainedConverter);
+        assertSame(converter, testSubject.getConverter(String.class, InputStream.class));
+    }
+
+    @Test
+    public void testMissingConverterIsReportedConsistently() {
+        assertFalse(testSubject.hasConverter(String.class, Reader.class));
+        assertFalse(testSubject.hasConverter(String.class, Reader.class));
+        try {
+            testSubject.getConverter(String.class, Reader.class);
+            fail("Expected CannotConvertBetweenTypesException");
+        } catch (CannotConvertBetweenTypesException e) {
+            assertTrue(e.getMessage().contains(Reader.class.getName()));
+        }
+    }
+
+    @Test
+    public void testRegisteredConverterIsUsedForPreviouslyMissingConversion() {
+        assertFalse(testSubject.hasConverter(String.class, Reader.class));
+        ContentTypeConverter<?, ?> stringToReader = mockConverter(String.class, Reader.class);
+
+        testSubject.registerConverter(stringToReader);
+
+        assertTrue(testSubject.hasConverter(String.class, Reader.class));
+        assertSame(stringToReader, testSubject.getConverter(String.class, Reader.class));
+        assertTrue(testSubject.hasConverter(byte[].class, Reader.class));
+    }
+
+    @Test
+    public void testLastRegisteredConverterIsUsedFirst() {
+        ContentTypeConverter<?, ?> first = mockConverter(String.class, byte[].class);
+        ContentTypeConverter<?, ?> second = mockConverter(String.class, byte[].class);
+        assertNotNull(testSubject.getConverter(String.class, byte[].class));
+
+        testSubject.registerConverter(first);
+        testSubject.registerConverter(second);
+
+        assertSame(second, testSubject.getConverter(String.class, byte[].class));
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentLookupAndRegistration() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ContentTypeConverter<?, ?> stringToReader = mockConverter(String.class, Reader.class);
+        try {
+            List<Future<?>> lookups = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                lookups.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        assertNotNull(testSubject.getConverter(byte[].class, String.class));
+                        assertNotNull(testSubject.getConverter(String.class, InputStream.class));
+                        testSubject.hasConverter(String.class, Reader.class);
+                    }
+                }));
+            }
+            testSubject.registerConverter(stringToReader);
+            for (Future<?> lookup : lookups) {
+                lookup.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        assertSame(stringToReader, testSubject.getConverter(String.class, Reader.class));
+    }
+
+    private ContentTypeConverter<?, ?> mockConverter(Class<?> expectedType, Class<?> targetType) {
+        ContentTypeConverter mock = mock(ContentTypeConverter.class);
+        when(mock.expectedSourceType()).thenReturn(expectedType);
+        when(mock.targetType()).thenReturn(targetType);
+        when(mock.convert(isA(Object.class))).thenReturn(new StringReader("hello"));
+        return mock;
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.axonframework.commandhandling.distributed;
 
+import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.digest.Digester;
 
 import java.io.Externalizable;
@@ -23,10 +24,17 @@
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
@@ -40,6 +48,10 @@
  * <p/>
  * Each node contains a Set of supported Commands (as a set of the fully qualified names of payload types). When
  * performing a lookup for a given command, only nodes that support the payload type of the command are eligible.
+ * <p/>
+ * Lookups use the first 64 bits of the MD5 hashes. For each command type, the segments of the nodes supporting it are
+ * kept in a sorted array when the ring is created, so that a lookup is a binary search in that array. Items
+ * consisting of ASCII characters only are hashed without allocating any memory.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -49,7 +61,12 @@ public class ConsistentHash implements Externalizable {
     private static final long serialVersionUID = 799974496899291960L;
 
     private static final ConsistentHash EMPTY = new ConsistentHash(new TreeMap<>());
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(ConsistentHash::newMd5Digest);
+    private static final ThreadLocal<byte[]> DIGEST_BUFFER = ThreadLocal.withInitial(() -> new byte[16]);
+    private static final ThreadLocal<byte[]> ITEM_BUFFER = ThreadLocal.withInitial(() -> new byte[64]);
+
     private final SortedMap<String, Member> hashToMember;
+    private transient Map<String, Segments> segmentsByCommandType;
 
     /**
      * Returns an instance of an empty Ring, which can be used to add members.
@@ -73,6 +90,7 @@ public ConsistentHash() {
 
     private ConsistentHash(SortedMap<String, Member> hashed) {
         hashToMember = hashed;
+        segmentsByCommandType = buildSegments(hashed);
     }
 
     /**
@@ -128,27 +146,68 @@ public ConsistentHash withExclusively(Collection<String> nodes) {
      * @return The node name for the given <code>item</code>, or <code>null</code> if not found
      */
     public String getMember(String item, String commandType) {
-        String hash = Digester.md5Hex(item);
-        SortedMap<String, Member> tailMap = hashToMember.tailMap(hash);
-        Iterator<Map.Entry<String, Member>> tailIterator = tailMap.entrySet().iterator();
-        Member foundMember = findSuitableMember(commandType, tailIterator);
-        if (foundMember == null) {
-            // if the tail doesn't have a member, we should start back at the head
-            Iterator<Map.Entry<String, Member>> headIterator = hashToMember.headMap(hash).entrySet().iterator();
-            foundMember = findSuitableMember(commandType, headIterator);
+        Segments segments = segmentsByCommandType.get(commandType);
+        return segments == null ? null : segments.find(hash(item)).name();
+    }
+
+    private static Map<String, Segments> buildSegments(SortedMap<String, Member> hashToMember) {
+        Map<String, List<Map.Entry<String, Member>>> entriesByCommandType = new HashMap<>();
+        for (Map.Entry<String, Member> entry : hashToMember.entrySet()) {
+            for (String commandType : entry.getValue().supportedCommands()) {
+                entriesByCommandType.computeIfAbsent(commandType, t -> new ArrayList<>()).add(entry);
+            }
         }
-        return foundMember == null ? null : foundMember.name();
+        Map<String, Segments> segments = new HashMap<>(entriesByCommandType.size() * 2);
+        entriesByCommandType.forEach((commandType, entries) -> segments.put(commandType, new Segments(entries)));
+        return segments;
     }
 
-    private Member findSuitableMember(String commandType, Iterator<Map.Entry<String, Member>> iterator) {
-        Member foundMember = null;
-        while (iterator.hasNext() && foundMember == null) {
-            Map.Entry<String, Member> entry = iterator.next();
-            if (entry.getValue().supportedCommands().contains(commandType)) {
-                foundMember = entry.getValue();
+    private static long hash(String item) {
+        byte[] digest = DIGEST_BUFFER.get();
+        MessageDigest md5 = MD5.get();
+        updateDigest(md5, item);
+        try {
+            md5.digest(digest, 0, digest.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Unable to compute MD5 hash", e);
+        }
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        // flip the sign bit, so that signed comparison of hashes matches the ordering of the hex representation
+        return hash ^ Long.MIN_VALUE;
+    }
+
+    private static void updateDigest(MessageDigest md5, String item) {
+        int length = item.length();
+        byte[] buffer = ITEM_BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+            ITEM_BUFFER.set(buffer);
+        }
+        for (int i = 0; i < length; i++) {
+            char c = item.charAt(i);
+            if (c >= 0x80) {
+                // the UTF-8 encoding of non-ASCII characters takes multiple bytes
+                md5.update(item.getBytes(StandardCharsets.UTF_8));
+                return;
             }
+            buffer[i] = (byte) c;
+        }
+        md5.update(buffer, 0, length);
+    }
+
+    private static long segmentHash(String hexHash) {
+        return Long.parseUnsignedLong(hexHash.substring(0, 16), 16) ^ Long.MIN_VALUE;
+    }
+
+    private static MessageDigest newMd5Digest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AxonConfigurationException("The MD5 algorithm is not available on this environment", e);
         }
-        return foundMember;
     }
 
     @Override
@@ -232,6 +291,7 @@ public void readExternal(ObjectInput in) throws IOException, ClassNotFoundExcept
                 hashToMember.put(key, node);
             }
         }
+        segmentsByCommandType = buildSegments(hashToMember);
     }
 
     /**
@@ -243,6 +303,41 @@ public Set<Member> getMembers() {
         return Collections.unmodifiableSet(new HashSet<>(hashToMember.values()));
     }
 
+    /**
+     * The segments of the members supporting a single command type, sorted by hash.
+     */
+    private static final class Segments {
+
+        private final long[] hashes;
+        private final Member[] members;
+
+        private Segments(List<Map.Entry<String, Member>> entries) {
+            hashes = new long[entries.size()];
+            members = new Member[entries.size()];
+            for (int i = 0; i < hashes.length; i++) {
+                Map.Entry<String, Member> entry = entries.get(i);
+                hashes[i] = segmentHash(entry.getKey());
+                members[i] = entry.getValue();
+            }
+        }
+
+        private Member find(long hash) {
+            int low = 0;
+            int high = hashes.length;
+            // find the first segment with a hash equal to or greater than the given hash
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (hashes[mid] < hash) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            // if all segments have a lower hash, we should start back at the head
+            return members[low == hashes.length ? 0 : low];
+        }
+    }
+
     /**
      * Represents a member in a consistently hashed cluster. A member is identified by its name, supports a number of
      * commands and can have any number of segments (a.k.a buckets).
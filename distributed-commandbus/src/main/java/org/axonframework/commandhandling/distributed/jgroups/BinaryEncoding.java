@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.distributed.jgroups;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Utility methods for the compact binary encoding used by {@link MessageBatch}. Integers are written as variable
+ * length values, identifiers in the standard UUID format are written as 16 bytes, and repeating strings are written
+ * once per frame, after which they are referred to by index.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+final class BinaryEncoding {
+
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+    private static final int FIRST_STRING_REFERENCE = 2;
+    private static final byte STRING_IDENTIFIER = 0;
+    private static final byte UUID_IDENTIFIER = 1;
+    private static final int UUID_LENGTH = 36;
+
+    private BinaryEncoding() {
+    }
+
+    /**
+     * Writes the given non-negative <code>value</code> using 7 bits per byte, with the high bit indicating whether
+     * more bytes follow.
+     *
+     * @param out   The output to write to
+     * @param value The value to write
+     * @throws IOException when an error occurs writing to the output
+     */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads a value written using {@link #writeVarInt(DataOutput, int)}.
+     *
+     * @param in The input to read from
+     * @return the value read
+     * @throws IOException when an error occurs reading from the input
+     */
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+
+    /**
+     * Writes the given <code>identifier</code>, using 16 bytes if it is a UUID in the standard format.
+     *
+     * @param out        The output to write to
+     * @param identifier The identifier to write
+     * @throws IOException when an error occurs writing to the output
+     */
+    static void writeIdentifier(DataOutput out, String identifier) throws IOException {
+        UUID uuid = asUuid(identifier);
+        if (uuid == null) {
+            out.writeByte(STRING_IDENTIFIER);
+            out.writeUTF(identifier);
+        } else {
+            out.writeByte(UUID_IDENTIFIER);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * Reads an identifier written using {@link #writeIdentifier(DataOutput, String)}.
+     *
+     * @param in The input to read from
+     * @return the identifier read
+     * @throws IOException when an error occurs reading from the input
+     */
+    static String readIdentifier(DataInput in) throws IOException {
+        if (in.readByte() == UUID_IDENTIFIER) {
+            return new UUID(in.readLong(), in.readLong()).toString();
+        }
+        return in.readUTF();
+    }
+
+    /**
+     * Writes the given <code>bytes</code>, which may be <code>null</code>, preceded by their length.
+     *
+     * @param out   The output to write to
+     * @param bytes The bytes to write
+     * @throws IOException when an error occurs writing to the output
+     */
+    static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            writeVarInt(out, 0);
+        } else {
+            writeVarInt(out, bytes.length + 1);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads bytes written using {@link #writeBytes(DataOutput, byte[])}.
+     *
+     * @param in The input to read from
+     * @return the bytes read, or <code>null</code> if <code>null</code> was written
+     * @throws IOException when an error occurs reading from the input
+     */
+    static byte[] readBytes(DataInput in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static UUID asUuid(String identifier) {
+        if (identifier.length() != UUID_LENGTH) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(identifier);
+            // only accept identifiers that survive the round trip unchanged, such as lower case representations
+            return uuid.toString().equals(identifier) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes strings, such as command names and payload types, that are likely to repeat within a frame. Each string
+     * is written in full the first time, and as a reference to that first occurrence afterwards.
+     */
+    static final class StringWriter {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        /**
+         * Writes the given <code>value</code>, which may be <code>null</code>.
+         *
+         * @param out   The output to write to
+         * @param value The string to write
+         * @throws IOException when an error occurs writing to the output
+         */
+        void write(DataOutput out, String value) throws IOException {
+            if (value == null) {
+                writeVarInt(out, NULL_STRING);
+                return;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                indexes.put(value, indexes.size());
+                writeVarInt(out, NEW_STRING);
+                out.writeUTF(value);
+            } else {
+                writeVarInt(out, index + FIRST_STRING_REFERENCE);
+            }
+        }
+    }
+
+    /**
+     * Reads strings written by a {@link StringWriter}. A single reader must be used to read all strings of a frame.
+     */
+    static final class StringReader {
+
+        private final List<String> strings = new ArrayList<>();
+
+        /**
+         * Reads a string from the given <code>in</code>.
+         *
+         * @param in The input to read from
+         * @return the string read, which may be <code>null</code>
+         * @throws IOException when an error occurs reading from the input
+         */
+        String read(DataInput in) throws IOException {
+            int marker = readVarInt(in);
+            if (marker == NULL_STRING) {
+                return null;
+            }
+            if (marker == NEW_STRING) {
+                String value = in.readUTF();
+                strings.add(value);
+                return value;
+            }
+            int index = marker - FIRST_STRING_REFERENCE;
+            if (index >= strings.size()) {
+                throw new IOException("Reference to unknown string: " + index);
+            }
+            return strings.get(index);
+        }
+    }
+}
@@ -141,6 +141,43 @@ public void readFrom(DataInput in) throws IOException {
         in.readFully(serializedMetaData);
     }
 
+    /**
+     * Writes this message in the compact format used by {@link MessageBatch}.
+     *
+     * @param out     The output to write to
+     * @param strings The writer of strings that may repeat within the batch
+     * @throws IOException when an error occurs writing to the output
+     */
+    void writeCompact(DataOutput out, BinaryEncoding.StringWriter strings) throws IOException {
+        strings.write(out, commandName);
+        BinaryEncoding.writeIdentifier(out, commandIdentifier);
+        out.writeBoolean(expectReply);
+        strings.write(out, payloadType);
+        strings.write(out, payloadRevision);
+        BinaryEncoding.writeBytes(out, serializedPayload);
+        BinaryEncoding.writeBytes(out, serializedMetaData);
+    }
+
+    /**
+     * Reads a message written using {@link #writeCompact(DataOutput, BinaryEncoding.StringWriter)}.
+     *
+     * @param in      The input to read from
+     * @param strings The reader of strings that may repeat within the batch
+     * @return the message read
+     * @throws IOException when an error occurs reading from the input
+     */
+    static DispatchMessage readCompact(DataInput in, BinaryEncoding.StringReader strings) throws IOException {
+        DispatchMessage message = new DispatchMessage();
+        message.commandName = strings.read(in);
+        message.commandIdentifier = BinaryEncoding.readIdentifier(in);
+        message.expectReply = in.readBoolean();
+        message.payloadType = strings.read(in);
+        message.payloadRevision = strings.read(in);
+        message.serializedPayload = BinaryEncoding.readBytes(in);
+        message.serializedMetaData = BinaryEncoding.readBytes(in);
+        return message;
+    }
+
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
         writeTo(out);
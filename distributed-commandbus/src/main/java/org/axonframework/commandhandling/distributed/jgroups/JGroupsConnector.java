@@ -78,6 +78,7 @@ public class JGroupsConnector implements CommandBusConnector {
     private volatile int currentLoadFactor;
     private final JGroupsConnector.MessageReceiver messageReceiver;
     private final HashChangeListener hashChangeListener;
+    private volatile MessageBatcher batcher;
 
     /**
      * Initializes the Connector using given resources. The <code>channel</code> is used to connect this connector to
@@ -212,13 +213,66 @@ public <C, R> void send(String routingKey, CommandMessage<C> commandMessage, Com
             throws Exception {
         Address dest = resolveDestination(routingKey, commandMessage);
         callbacks.put(commandMessage.getIdentifier(), new CallbackHolder<>(dest, commandMessage, callback));
-        channel.send(dest, new DispatchMessage(commandMessage, serializer, true));
+        send(dest, new DispatchMessage(commandMessage, serializer, true));
     }
 
     @Override
     public <C> void send(String routingKey, CommandMessage<C> commandMessage) throws Exception {
         Address dest = resolveDestination(routingKey, commandMessage);
-        channel.send(dest, new DispatchMessage(commandMessage, serializer, false));
+        send(dest, new DispatchMessage(commandMessage, serializer, false));
+    }
+
+    private void send(Address dest, DispatchMessage dispatchMessage) throws Exception {
+        MessageBatcher currentBatcher = batcher;
+        if (currentBatcher == null) {
+            channel.send(dest, dispatchMessage);
+        } else {
+            currentBatcher.send(dest, dispatchMessage);
+        }
+    }
+
+    private void sendReply(Address dest, ReplyMessage replyMessage) throws Exception {
+        MessageBatcher currentBatcher = batcher;
+        if (currentBatcher == null) {
+            channel.send(dest, replyMessage);
+        } else {
+            currentBatcher.send(dest, replyMessage);
+        }
+    }
+
+    /**
+     * Enables batching of messages sent by this connector. Commands and replies for the same member are collected
+     * and sent in a single message containing at most <code>maxBatchSize</code> messages. A batch is sent when it is
+     * full, or when <code>maxDelay</code> has passed since the first message was added to it. Batching trades some
+     * latency for a lower overhead per command when commands are sent at high rates.
+     * <p/>
+     * Batches are only understood by members that also support batching. A <code>maxBatchSize</code> of 1 or less
+     * disables batching, which is the default.
+     *
+     * @param maxBatchSize The maximum number of messages sent in a single message
+     * @param maxDelay     The maximum time a message waits for other messages to be sent with
+     * @param timeUnit     The unit of the given <code>maxDelay</code>
+     */
+    public void setBatching(int maxBatchSize, long maxDelay, TimeUnit timeUnit) {
+        Assert.isTrue(maxDelay >= 0, "maxDelay may not be negative");
+        if (maxBatchSize <= 1) {
+            batcher = null;
+        } else {
+            batcher = new MessageBatcher(channel, maxBatchSize, maxDelay, timeUnit, this::reportSendFailure);
+        }
+    }
+
+    private void reportSendFailure(List<DispatchMessage> dispatchMessages, Exception cause) {
+        for (DispatchMessage dispatchMessage : dispatchMessages) {
+            CallbackHolder callback = callbacks.remove(dispatchMessage.getCommandIdentifier());
+            if (callback != null) {
+                callback.reportFailure(new CommandDispatchException("Failed to send command to remote member",
+                                                                    cause));
+            } else {
+                logger.warn("Failed to send command with id '{}' to remote member.",
+                            dispatchMessage.getCommandIdentifier(), cause);
+            }
+        }
     }
 
     private Address resolveDestination(String routingKey, CommandMessage<?> commandMessage)
@@ -384,6 +438,10 @@ public void receive(Message msg) {
                 processDispatchMessage(msg, (DispatchMessage) message);
             } else if (message instanceof ReplyMessage) {
                 processReplyMessage((ReplyMessage) message);
+            } else if (message instanceof MessageBatch) {
+                MessageBatch batch = (MessageBatch) message;
+                batch.getDispatchMessages().forEach(dispatchMessage -> processDispatchMessage(msg, dispatchMessage));
+                batch.getReplyMessages().forEach(this::processReplyMessage);
             }
         }
 
@@ -391,9 +449,12 @@ private void processDispatchMessage(final Message msg, final DispatchMessage mes
             try {
                 final CommandMessage commandMessage = message.getCommandMessage(serializer);
                 if (message.isExpectReply()) {
-                    localSegment.dispatch(commandMessage, new ReplyingCallback(channel,
-                                                                               msg.getSrc(), serializer
-                    ));
+                    localSegment.dispatch(commandMessage, new ReplyingCallback(channel, msg.getSrc(), serializer) {
+                        @Override
+                        protected void sendReply(ReplyMessage reply) throws Exception {
+                            JGroupsConnector.this.sendReply(msg.getSrc(), reply);
+                        }
+                    });
                 } else {
                     localSegment.dispatch(commandMessage);
                 }
@@ -401,7 +462,7 @@ private void processDispatchMessage(final Message msg, final DispatchMessage mes
                 if (message.isExpectReply()) {
                     final String commandIdentifier = message.getCommandIdentifier();
                     try {
-                        channel.send(msg.getSrc(), new ReplyMessage(commandIdentifier, null, e, serializer));
+                        sendReply(msg.getSrc(), new ReplyMessage(commandIdentifier, null, e, serializer));
                     } catch (Exception errorInReply) {
                         logger.error("Unable to notify sender of failure to read message with id '{}'."
                                              + "description of reading failure ", commandIdentifier, e);
@@ -59,6 +59,8 @@ public class JGroupsConnectorFactoryBean implements FactoryBean, InitializingBea
     private long joinTimeout = -1;
     private boolean registerMBean = false;
     private HashChangeListener hashChangeListener;
+    private int maxBatchSize = 1;
+    private long maxBatchDelay = 100;
 
     @Override
     public Object getObject() throws Exception {
@@ -95,6 +97,7 @@ public void afterPropertiesSet() throws Exception {
             channel.setName(channelName);
         }
         connector = new JGroupsConnector(channel, clusterName, localSegment, serializer, hashChangeListener);
+        connector.setBatching(maxBatchSize, maxBatchDelay, TimeUnit.MICROSECONDS);
     }
 
     /**
@@ -165,6 +168,28 @@ public void setJoinTimeout(long joinTimeout) {
         this.joinTimeout = joinTimeout;
     }
 
+    /**
+     * Sets the maximum number of commands and replies the connector sends to a member in a single message. Defaults
+     * to 1, which disables batching. All members of the cluster must support batching when it is enabled.
+     *
+     * @param maxBatchSize The maximum number of messages to send in a single message
+     * @see JGroupsConnector#setBatching(int, long, TimeUnit)
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Sets the number of microseconds a command or reply may wait for other messages to be sent to the same member,
+     * when batching is enabled. Defaults to 100.
+     *
+     * @param maxBatchDelay The number of microseconds a message may wait for other messages
+     * @see #setMaxBatchSize(int)
+     */
+    public void setMaxBatchDelay(long maxBatchDelay) {
+        this.maxBatchDelay = maxBatchDelay;
+    }
+
     /**
      * Sets the CommandBus instance on which local commands must be dispatched. Defaults to a SimpleCommandBus.
      *
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.distributed.jgroups;
+
+import org.jgroups.util.Streamable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JGroups message that contains several {@link DispatchMessage DispatchMessages} and {@link ReplyMessage
+ * ReplyMessages} for the same destination. The messages are written in a compact binary format, in which command
+ * names and payload and result types are written only once per batch.
+ * <p/>
+ * This class implements the {@link Streamable} interface for faster JGroups-specific serialization, but also supports
+ * Java serialization by implementing the {@link Externalizable} interface.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class MessageBatch implements Streamable, Externalizable {
+
+    private static final long serialVersionUID = -1837649563205731042L;
+
+    private List<DispatchMessage> dispatchMessages;
+    private List<ReplyMessage> replyMessages;
+
+    /**
+     * Default constructor required by the {@link Streamable} and {@link Externalizable} interfaces. Do not use
+     * directly.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public MessageBatch() {
+        this(Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Initializes a batch containing the given <code>dispatchMessages</code> and <code>replyMessages</code>.
+     *
+     * @param dispatchMessages The commands to dispatch on the destination
+     * @param replyMessages    The replies to commands dispatched by the destination
+     */
+    public MessageBatch(List<DispatchMessage> dispatchMessages, List<ReplyMessage> replyMessages) {
+        this.dispatchMessages = dispatchMessages;
+        this.replyMessages = replyMessages;
+    }
+
+    /**
+     * Returns the messages containing commands to dispatch, in the order they were sent.
+     *
+     * @return the messages containing commands to dispatch
+     */
+    public List<DispatchMessage> getDispatchMessages() {
+        return dispatchMessages;
+    }
+
+    /**
+     * Returns the messages containing replies to dispatched commands, in the order they were sent.
+     *
+     * @return the messages containing replies to dispatched commands
+     */
+    public List<ReplyMessage> getReplyMessages() {
+        return replyMessages;
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        BinaryEncoding.StringWriter strings = new BinaryEncoding.StringWriter();
+        BinaryEncoding.writeVarInt(out, dispatchMessages.size());
+        for (DispatchMessage dispatchMessage : dispatchMessages) {
+            dispatchMessage.writeCompact(out, strings);
+        }
+        BinaryEncoding.writeVarInt(out, replyMessages.size());
+        for (ReplyMessage replyMessage : replyMessages) {
+            replyMessage.writeCompact(out, strings);
+        }
+    }
+
+    @Override
+    public void readFrom(DataInput in) throws IOException {
+        BinaryEncoding.StringReader strings = new BinaryEncoding.StringReader();
+        int dispatchCount = BinaryEncoding.readVarInt(in);
+        dispatchMessages = new ArrayList<>(dispatchCount);
+        for (int i = 0; i < dispatchCount; i++) {
+            dispatchMessages.add(DispatchMessage.readCompact(in, strings));
+        }
+        int replyCount = BinaryEncoding.readVarInt(in);
+        replyMessages = new ArrayList<>(replyCount);
+        for (int i = 0; i < replyCount; i++) {
+            replyMessages.add(ReplyMessage.readCompact(in, strings));
+        }
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        writeTo(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        readFrom(in);
+    }
+}
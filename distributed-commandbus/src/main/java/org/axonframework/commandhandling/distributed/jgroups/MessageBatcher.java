@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.distributed.jgroups;
+
+import org.axonframework.common.AxonThreadFactory;
+import org.jgroups.Address;
+import org.jgroups.JChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects messages per destination and sends them as a single {@link MessageBatch}. A batch is sent when it contains
+ * the maximum number of messages, or when the maximum delay has passed since the first message was added to it.
+ * Messages for the same destination are sent in the order in which they were added.
+ * <p/>
+ * A batch containing a single message is sent as that message, to avoid the overhead of the batch format.
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+final class MessageBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageBatcher.class);
+
+    private final JChannel channel;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BiConsumer<List<DispatchMessage>, Exception> dispatchFailureHandler;
+    private final ConcurrentMap<Address, PendingBatch> pendingBatches = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * Initializes a batcher that sends batches of at most <code>maxBatchSize</code> messages on the given
+     * <code>channel</code>, waiting at most <code>maxDelay</code> for a batch to fill up. When a batch could not be
+     * sent, the dispatch messages it contained are passed to the given <code>dispatchFailureHandler</code>.
+     *
+     * @param channel                The channel to send batches on
+     * @param maxBatchSize           The maximum number of messages in a batch
+     * @param maxDelay               The maximum time to wait for a batch to fill up
+     * @param timeUnit               The unit of the given <code>maxDelay</code>
+     * @param dispatchFailureHandler The handler of dispatch messages that could not be sent
+     */
+    MessageBatcher(JChannel channel, int maxBatchSize, long maxDelay, TimeUnit timeUnit,
+                   BiConsumer<List<DispatchMessage>, Exception> dispatchFailureHandler) {
+        this.channel = channel;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = timeUnit.toNanos(maxDelay);
+        this.dispatchFailureHandler = dispatchFailureHandler;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new AxonThreadFactory("JGroupsConnector-batcher"));
+        // let the thread die when no batches are waiting, so it doesn't keep the JVM alive
+        scheduler.setKeepAliveTime(1, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Adds the given <code>message</code> to the batch for the given <code>destination</code>.
+     *
+     * @param destination The address to send the message to
+     * @param message     The message to send
+     */
+    void send(Address destination, DispatchMessage message) {
+        pendingBatchFor(destination).add(message, null);
+    }
+
+    /**
+     * Adds the given <code>message</code> to the batch for the given <code>destination</code>.
+     *
+     * @param destination The address to send the message to
+     * @param message     The message to send
+     */
+    void send(Address destination, ReplyMessage message) {
+        pendingBatchFor(destination).add(null, message);
+    }
+
+    private PendingBatch pendingBatchFor(Address destination) {
+        return pendingBatches.computeIfAbsent(destination, PendingBatch::new);
+    }
+
+    private final class PendingBatch {
+
+        private final Address destination;
+        private List<DispatchMessage> dispatchMessages = new ArrayList<>();
+        private List<ReplyMessage> replyMessages = new ArrayList<>();
+        private boolean flushScheduled;
+
+        private PendingBatch(Address destination) {
+            this.destination = destination;
+        }
+
+        private synchronized void add(DispatchMessage dispatchMessage, ReplyMessage replyMessage) {
+            if (dispatchMessage != null) {
+                dispatchMessages.add(dispatchMessage);
+            } else {
+                replyMessages.add(replyMessage);
+            }
+            if (dispatchMessages.size() + replyMessages.size() >= maxBatchSize) {
+                flush();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // messages are sent while holding the lock, to guarantee they are sent in the order they were added
+        private synchronized void flush() {
+            flushScheduled = false;
+            int size = dispatchMessages.size() + replyMessages.size();
+            if (size == 0) {
+                return;
+            }
+            List<DispatchMessage> dispatches = dispatchMessages;
+            List<ReplyMessage> replies = replyMessages;
+            dispatchMessages = new ArrayList<>();
+            replyMessages = new ArrayList<>();
+            try {
+                if (size > 1) {
+                    channel.send(destination, new MessageBatch(dispatches, replies));
+                } else if (dispatches.isEmpty()) {
+                    channel.send(destination, replies.get(0));
+                } else {
+                    channel.send(destination, dispatches.get(0));
+                }
+            } catch (Exception e) {
+                if (!replies.isEmpty()) {
+                    logger.error("Unable to send {} replies to {}.", replies.size(), destination, e);
+                }
+                if (!dispatches.isEmpty()) {
+                    dispatchFailureHandler.accept(dispatches, e);
+                }
+            }
+        }
+    }
+}
@@ -168,6 +168,39 @@ public void readFrom(DataInput in) throws IOException {
         }
     }
 
+    /**
+     * Writes this message in the compact format used by {@link MessageBatch}.
+     *
+     * @param out     The output to write to
+     * @param strings The writer of strings that may repeat within the batch
+     * @throws IOException when an error occurs writing to the output
+     */
+    void writeCompact(DataOutput out, BinaryEncoding.StringWriter strings) throws IOException {
+        BinaryEncoding.writeIdentifier(out, commandIdentifier);
+        out.writeBoolean(success);
+        strings.write(out, resultType);
+        strings.write(out, resultRevision);
+        BinaryEncoding.writeBytes(out, serializedResult);
+    }
+
+    /**
+     * Reads a message written using {@link #writeCompact(DataOutput, BinaryEncoding.StringWriter)}.
+     *
+     * @param in      The input to read from
+     * @param strings The reader of strings that may repeat within the batch
+     * @return the message read
+     * @throws IOException when an error occurs reading from the input
+     */
+    static ReplyMessage readCompact(DataInput in, BinaryEncoding.StringReader strings) throws IOException {
+        ReplyMessage message = new ReplyMessage();
+        message.commandIdentifier = BinaryEncoding.readIdentifier(in);
+        message.success = in.readBoolean();
+        message.resultType = strings.read(in);
+        message.resultRevision = strings.read(in);
+        message.serializedResult = BinaryEncoding.readBytes(in);
+        return message;
+    }
+
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
         writeTo(out);
@@ -57,9 +57,7 @@ public ReplyingCallback(JChannel channel, Address address, Serializer serializer
     @Override
     public void onSuccess(CommandMessage<?> commandMessage, Object result) {
         try {
-            channel.send(address, new ReplyMessage(commandMessage.getIdentifier(),
-                                                   result,
-                                                   null, serializer));
+            sendReply(new ReplyMessage(commandMessage.getIdentifier(), result, null, serializer));
         } catch (Exception e) {
             logger.error("Unable to send reply to command [name: {}, id: {}]. ",
                          commandMessage.getCommandName(), commandMessage.getIdentifier(), e);
@@ -72,9 +70,7 @@ public void onSuccess(CommandMessage<?> commandMessage, Object result) {
     @Override
     public void onFailure(CommandMessage<?> commandMessage, Throwable cause) {
         try {
-            channel.send(address, new ReplyMessage(commandMessage.getIdentifier(),
-                                                   null,
-                                                   cause, serializer));
+            sendReply(new ReplyMessage(commandMessage.getIdentifier(), null, cause, serializer));
         } catch (Exception e) {
             logger.error("Unable to send reply:", e);
             //Not capturing the causative exception while throwing - the causative exception may not be serializable and this may cause the command bus to hang.
@@ -84,4 +80,15 @@ public void onFailure(CommandMessage<?> commandMessage, Throwable cause) {
                     e.getMessage()));
         }
     }
+
+    /**
+     * Sends the given <code>reply</code> to the address this callback replies to. Subclasses may override this method
+     * to change the way replies are sent.
+     *
+     * @param reply The reply to send
+     * @throws Exception when an error occurs sending the reply
+     */
+    protected void sendReply(ReplyMessage reply) throws Exception {
+        channel.send(address, reply);
+    }
 }
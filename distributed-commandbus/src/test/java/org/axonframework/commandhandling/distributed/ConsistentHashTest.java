@@ -16,6 +16,7 @@
 
 package org.axonframework.commandhandling.distributed;
 
+import org.axonframework.common.digest.Digester;
 import org.junit.*;
 
 import java.io.ByteArrayInputStream;
@@ -24,10 +25,14 @@
 import java.io.ObjectInputStream;
 import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static java.util.Collections.singleton;
 import static org.junit.Assert.*;
@@ -108,6 +113,46 @@ public void testGetNodeName() {
         assertEquals("Node3", testSubject.getMember("int-value4", "int"));
     }
 
+    @Test
+    public void testGetNodeName_UnsupportedCommandType() {
+        assertNull(testSubject.getMember("value1", "long"));
+        assertNull(ConsistentHash.emptyRing().getMember("value1", "String"));
+    }
+
+    @Test
+    public void testGetNodeNameFollowsOrderOfHexHashes() {
+        SortedMap<String, ConsistentHash.Member> hexRing = new TreeMap<>();
+        for (ConsistentHash.Member member : testSubject.getMembers()) {
+            for (String hash : member.hashes()) {
+                hexRing.put(hash, member);
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            String item = "item" + i;
+            String hash = Digester.md5Hex(item);
+            String expected = null;
+            for (ConsistentHash.Member member : concat(hexRing.tailMap(hash), hexRing.headMap(hash))) {
+                if (member.supportedCommands().contains("String")) {
+                    expected = member.name();
+                    break;
+                }
+            }
+            assertEquals(expected, testSubject.getMember(item, "String"));
+        }
+    }
+
+    @Test
+    public void testGetNodeNameAfterExternalization() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutput out = new ObjectOutputStream(baos);
+        out.writeObject(testSubject);
+        out.close();
+        ConsistentHash actual = (ConsistentHash) new ObjectInputStream(
+                new ByteArrayInputStream(baos.toByteArray())).readObject();
+        assertEquals("Node1", actual.getMember("value1", "String"));
+        assertEquals("Node3", actual.getMember("value1", "int"));
+    }
+
     @Test
     public void testRemoveNodes() {
         testSubject = testSubject.withExclusively(Arrays.asList("Node1", "Node2"));
@@ -153,4 +198,11 @@ public void testEqualsAndHashCode() {
         assertEquals(testSubject.hashCode(), copy.hashCode());
         assertNotSame(testSubject.hashCode(), copy.withExclusively(Arrays.asList("Node1")).hashCode());
     }
+
+    private static List<ConsistentHash.Member> concat(SortedMap<String, ConsistentHash.Member> first,
+                                                      SortedMap<String, ConsistentHash.Member> second) {
+        List<ConsistentHash.Member> members = new ArrayList<>(first.values());
+        members.addAll(second.values());
+        return members;
+    }
 }
@@ -141,6 +141,35 @@ public void testConnectAndDispatchMessages_Balanced() throws Exception {
         assertNotEquals(connector1.getNodeName(), connector2.getNodeName());
     }
 
+    @Test(timeout = 30000)
+    public void testConnectAndDispatchMessages_Batched() throws Exception {
+        final AtomicInteger counter1 = new AtomicInteger(0);
+        final AtomicInteger counter2 = new AtomicInteger(0);
+        connector1.setBatching(10, 1, TimeUnit.MILLISECONDS);
+        connector2.setBatching(10, 1, TimeUnit.MILLISECONDS);
+
+        connector1.subscribe(String.class.getName(), new CountingCommandHandler(counter1));
+        connector1.connect(20);
+        assertTrue("Expected connector 1 to connect within 10 seconds", connector1.awaitJoined(10, TimeUnit.SECONDS));
+        connector2.subscribe(String.class.getName(), new CountingCommandHandler(counter2));
+        connector2.connect(80);
+        assertTrue("Connector 2 failed to connect", connector2.awaitJoined());
+
+        waitForConnectorSync();
+
+        List<FutureCallback<Object, Object>> callbacks = new ArrayList<>();
+        for (int t = 0; t < 100; t++) {
+            FutureCallback<Object, Object> callback = new FutureCallback<>();
+            String message = "message" + t;
+            connector1.send(message, new GenericCommandMessage<>(message), callback);
+            callbacks.add(callback);
+        }
+        for (FutureCallback<Object, Object> callback : callbacks) {
+            assertEquals("The Reply!", callback.get());
+        }
+        assertEquals(100, counter1.get() + counter2.get());
+    }
+
     @Test(expected = ConnectionFailedException.class, timeout = 30000)
     public void testRingsProperlySynchronized_ChannelAlreadyConnectedToOtherCluster() throws Exception {
         channel1.connect("other");
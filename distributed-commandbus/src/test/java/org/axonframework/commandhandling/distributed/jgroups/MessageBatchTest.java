@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2010-2016. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.distributed.jgroups;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.messaging.metadata.MetaData;
+import org.axonframework.serializer.Serializer;
+import org.axonframework.serializer.xml.XStreamSerializer;
+import org.junit.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Allard Buijze
+ */
+public class MessageBatchTest {
+
+    private Serializer serializer;
+
+    @Before
+    public void setUp() {
+        serializer = new XStreamSerializer();
+    }
+
+    @Test
+    public void testReadBatchEqualsWrittenBatch() throws Exception {
+        CommandMessage<String> command1 = new GenericCommandMessage<>("first", MetaData.with("key", "value"));
+        CommandMessage<String> command2 = new GenericCommandMessage<>("not-a-uuid", "customName", "second",
+                                                                      MetaData.emptyInstance());
+        MessageBatch batch = new MessageBatch(
+                Arrays.asList(new DispatchMessage(command1, serializer, true),
+                              new DispatchMessage(command2, serializer, false)),
+                Arrays.asList(new ReplyMessage("reply1", "result", null, serializer),
+                              new ReplyMessage("reply2", null, null, serializer),
+                              new ReplyMessage("reply3", null, new IllegalStateException("failed"), serializer)));
+
+        MessageBatch actual = roundTrip(batch);
+
+        assertEquals(2, actual.getDispatchMessages().size());
+        DispatchMessage dispatch1 = actual.getDispatchMessages().get(0);
+        assertTrue(dispatch1.isExpectReply());
+        CommandMessage<?> actualCommand1 = dispatch1.getCommandMessage(serializer);
+        assertEquals(command1.getIdentifier(), actualCommand1.getIdentifier());
+        assertEquals(command1.getCommandName(), actualCommand1.getCommandName());
+        assertEquals("first", actualCommand1.getPayload());
+        assertEquals(command1.getMetaData(), actualCommand1.getMetaData());
+        DispatchMessage dispatch2 = actual.getDispatchMessages().get(1);
+        assertFalse(dispatch2.isExpectReply());
+        CommandMessage<?> actualCommand2 = dispatch2.getCommandMessage(serializer);
+        assertEquals("not-a-uuid", actualCommand2.getIdentifier());
+        assertEquals("customName", actualCommand2.getCommandName());
+        assertEquals("second", actualCommand2.getPayload());
+
+        assertEquals(3, actual.getReplyMessages().size());
+        ReplyMessage reply1 = actual.getReplyMessages().get(0);
+        assertEquals("reply1", reply1.getCommandIdentifier());
+        assertEquals("result", reply1.getReturnValue(serializer));
+        ReplyMessage reply2 = actual.getReplyMessages().get(1);
+        assertTrue(reply2.isSuccess());
+        assertNull(reply2.getReturnValue(serializer));
+        ReplyMessage reply3 = actual.getReplyMessages().get(2);
+        assertFalse(reply3.isSuccess());
+        assertEquals("failed", reply3.getError(serializer).getMessage());
+    }
+
+    @Test
+    public void testBatchIsSmallerThanSeparateMessages() throws Exception {
+        DispatchMessage[] messages = new DispatchMessage[10];
+        int separateSize = 0;
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = new DispatchMessage(new GenericCommandMessage<>("payload" + i), serializer, true);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            messages[i].writeTo(new DataOutputStream(out));
+            separateSize += out.size();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MessageBatch(Arrays.asList(messages), Collections.emptyList()).writeTo(new DataOutputStream(out));
+
+        assertTrue("Expected batch of " + out.size() + " bytes to be smaller than " + separateSize + " bytes",
+                   out.size() < separateSize);
+    }
+
+    private MessageBatch roundTrip(MessageBatch batch) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batch.writeTo(new DataOutputStream(out));
+        MessageBatch actual = new MessageBatch();
+        actual.readFrom(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+        return actual;
+    }
+}
@@ -0,0 +1,141 @@
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.RatioGauge;
+import org.axonframework.cache.Cache;
+import org.axonframework.common.Registration;
+
+/**
+ * Wrapper for a Cache implementation that reports usage statistics of the Cache. It exposes the following metrics:
+ * <ul>
+ * <li><code>hits</code>: A Counter indicating the number of lookups that returned a cached value. See {@link
+ * #getHitCounter()}.</li>
+ * <li><code>misses</code>: A Counter indicating the number of lookups that didn't return a value. See {@link
+ * #getMissCounter()}.</li>
+ * <li><code>hit-ratio</code>: A Gauge indicating the ratio of hits over the total number of lookups.</li>
+ * <li><code>puts</code>: A Counter indicating the number of entries stored in the cache. See {@link
+ * #getPutCounter()}.</li>
+ * <li><code>removals</code>: A Counter indicating the number of entries removed from the cache. See {@link
+ * #getRemovalCounter()}.</li>
+ * </ul>
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class InstrumentedCache implements Cache, MetricSupport {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final Cache delegate;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter putCounter;
+    private final Counter removalCounter;
+
+    /**
+     * Initialize the InstrumentedCache, measuring behavior of the given <code>delegate</code>
+     *
+     * @param delegate The Cache instance to measure
+     */
+    public InstrumentedCache(Cache delegate) {
+        this.delegate = delegate;
+        hitCounter = metricRegistry.counter("hits");
+        missCounter = metricRegistry.counter("misses");
+        putCounter = metricRegistry.counter("puts");
+        removalCounter = metricRegistry.counter("removals");
+        metricRegistry.register("hit-ratio", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                long hits = hitCounter.getCount();
+                return Ratio.of(hits, hits + missCounter.getCount());
+            }
+        });
+    }
+
+    @Override
+    public <K, V> V get(K key) {
+        V value = delegate.get(key);
+        if (value == null) {
+            missCounter.inc();
+        } else {
+            hitCounter.inc();
+        }
+        return value;
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) {
+        delegate.put(key, value);
+        putCounter.inc();
+    }
+
+    @Override
+    public <K, V> boolean putIfAbsent(K key, V value) {
+        boolean added = delegate.putIfAbsent(key, value);
+        if (added) {
+            putCounter.inc();
+        }
+        return added;
+    }
+
+    @Override
+    public <K> boolean remove(K key) {
+        boolean removed = delegate.remove(key);
+        if (removed) {
+            removalCounter.inc();
+        }
+        return removed;
+    }
+
+    @Override
+    public <K> boolean containsKey(K key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public Registration registerCacheEntryListener(EntryListener cacheEntryListener) {
+        return delegate.registerCacheEntryListener(cacheEntryListener);
+    }
+
+    @Override
+    public MetricSet getMetricSet() {
+        return metricRegistry;
+    }
+
+    /**
+     * Returns the counter tracking the number of lookups that returned a cached value.
+     *
+     * @return the counter tracking the number of cache hits
+     */
+    public Counter getHitCounter() {
+        return hitCounter;
+    }
+
+    /**
+     * Returns the counter tracking the number of lookups that didn't return a value.
+     *
+     * @return the counter tracking the number of cache misses
+     */
+    public Counter getMissCounter() {
+        return missCounter;
+    }
+
+    /**
+     * Returns the counter tracking the number of entries stored in the cache.
+     *
+     * @return the counter tracking the number of entries stored in the cache
+     */
+    public Counter getPutCounter() {
+        return putCounter;
+    }
+
+    /**
+     * Returns the counter tracking the number of entries removed from the cache.
+     *
+     * @return the counter tracking the number of entries removed from the cache
+     */
+    public Counter getRemovalCounter() {
+        return removalCounter;
+    }
+}
@@ -0,0 +1,198 @@
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import org.axonframework.common.Registration;
+import org.axonframework.eventhandling.EventListener;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessingMonitor;
+import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.eventhandling.EventProcessorMetaData;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wrapper for an EventProcessor implementation that reports usage statistics of the Event Processor. Completion of
+ * event processing is tracked through the {@link EventProcessingMonitor} of the wrapped processor. It exposes the
+ * following metrics:
+ * <ul>
+ * <li><code>batch-size</code>: A Histogram of the number of events handed to the processor at once. See {@link
+ * #getBatchSizeHistogram()}.</li>
+ * <li><code>handle-time</code>: A Timer that times the invocation of the processor's handle method. For asynchronous
+ * processors, this only includes the time needed to schedule the events. See {@link #getHandleTimer()}.</li>
+ * <li><code>pending</code>: A Gauge reporting the number of events handed to the processor that have not been
+ * processed yet. For asynchronous processors, such as the {@link org.axonframework.eventhandling.async.AsynchronousEventProcessor},
+ * this is the number of queued events. See {@link #getPendingGauge()}.</li>
+ * <li><code>processed</code>: A Counter indicating the number of successfully processed events. See {@link
+ * #getProcessedCounter()}.</li>
+ * <li><code>failed</code>: A Counter indicating the number of events that failed processing. See {@link
+ * #getFailedCounter()}.</li>
+ * <li><code>lag</code>: A Timer of the time between the timestamp of an event and the completion of its processing.
+ * See {@link #getLagTimer()}.</li>
+ * <li><code>lag.[payload type]</code>: A Timer per payload type of the time between the timestamp of an event and the
+ * completion of its processing.</li>
+ * </ul>
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class InstrumentedEventProcessor implements EventProcessor, MetricSupport {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final EventProcessor delegate;
+    private final Histogram batchSizeHistogram;
+    private final Timer handleTimer;
+    private final Counter pendingCounter;
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Timer lagTimer;
+    private final Gauge<Long> pendingGauge;
+    private final KeyedTimers<Class<?>> lagTimers;
+
+    /**
+     * Initialize the InstrumentedEventProcessor, measuring behavior of the given <code>delegate</code>
+     *
+     * @param delegate The EventProcessor instance to measure
+     */
+    public InstrumentedEventProcessor(EventProcessor delegate) {
+        this.delegate = delegate;
+        batchSizeHistogram = metricRegistry.histogram("batch-size");
+        handleTimer = metricRegistry.timer("handle-time");
+        pendingCounter = new Counter();
+        pendingGauge = pendingCounter::getCount;
+        metricRegistry.register("pending", pendingGauge);
+        processedCounter = metricRegistry.counter("processed");
+        failedCounter = metricRegistry.counter("failed");
+        lagTimer = metricRegistry.timer("lag");
+        lagTimers = new KeyedTimers<>(metricRegistry, "lag", Class::getName);
+        delegate.subscribeEventProcessingMonitor(new MetricsMonitor());
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void handle(List<EventMessage<?>> events) {
+        batchSizeHistogram.update(events.size());
+        pendingCounter.inc(events.size());
+        long start = System.nanoTime();
+        try {
+            delegate.handle(events);
+        } finally {
+            handleTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Registration subscribe(EventListener eventListener) {
+        return delegate.subscribe(eventListener);
+    }
+
+    @Override
+    public EventProcessorMetaData getMetaData() {
+        return delegate.getMetaData();
+    }
+
+    @Override
+    public Registration registerInterceptor(MessageHandlerInterceptor<EventMessage<?>> interceptor) {
+        return delegate.registerInterceptor(interceptor);
+    }
+
+    @Override
+    public Registration subscribeEventProcessingMonitor(EventProcessingMonitor monitor) {
+        return delegate.subscribeEventProcessingMonitor(monitor);
+    }
+
+    @Override
+    public MetricSet getMetricSet() {
+        return metricRegistry;
+    }
+
+    /**
+     * Returns the Histogram of the number of events handed to the processor at once.
+     *
+     * @return the Histogram of the number of events handed to the processor at once
+     */
+    public Histogram getBatchSizeHistogram() {
+        return batchSizeHistogram;
+    }
+
+    /**
+     * Returns the Timer that tracks the time spent in the handle method of the processor.
+     *
+     * @return the Timer that tracks the time spent in the handle method of the processor
+     */
+    public Timer getHandleTimer() {
+        return handleTimer;
+    }
+
+    /**
+     * Returns the Gauge that reports the number of events handed to the processor, that have not been processed yet.
+     *
+     * @return the Gauge that reports the number of events waiting to be processed
+     */
+    public Gauge<Long> getPendingGauge() {
+        return pendingGauge;
+    }
+
+    /**
+     * Returns the counter tracking the number of successfully processed events.
+     *
+     * @return the counter tracking the number of successfully processed events
+     */
+    public Counter getProcessedCounter() {
+        return processedCounter;
+    }
+
+    /**
+     * Returns the counter tracking the number of events that failed processing.
+     *
+     * @return the counter tracking the number of events that failed processing
+     */
+    public Counter getFailedCounter() {
+        return failedCounter;
+    }
+
+    /**
+     * Returns the Timer that tracks the time between the timestamp of events and the completion of their processing.
+     *
+     * @return the Timer that tracks the processing lag of events
+     */
+    public Timer getLagTimer() {
+        return lagTimer;
+    }
+
+    private class MetricsMonitor implements EventProcessingMonitor {
+
+        @Override
+        public void onEventProcessingCompleted(List<? extends EventMessage> eventMessages) {
+            processedCounter.inc(eventMessages.size());
+            processingEnded(eventMessages);
+        }
+
+        @Override
+        public void onEventProcessingFailed(List<? extends EventMessage> eventMessages, Throwable cause) {
+            failedCounter.inc(eventMessages.size());
+            processingEnded(eventMessages);
+        }
+
+        private void processingEnded(List<? extends EventMessage> eventMessages) {
+            pendingCounter.dec(eventMessages.size());
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < eventMessages.size(); i++) {
+                EventMessage<?> eventMessage = eventMessages.get(i);
+                long lag = Math.max(0, now - eventMessage.getTimestamp().toEpochMilli());
+                lagTimer.update(lag, TimeUnit.MILLISECONDS);
+                lagTimers.update(eventMessage.getPayloadType(), lag, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.DomainEventStream;
+import org.axonframework.eventstore.EventStore;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wrapper for an EventStore implementation that reports usage statistics of the Event Store. It exposes the following
+ * metrics:
+ * <ul>
+ * <li><code>append-time</code>: A Timer that times the appending of events. See {@link #getAppendTimer()}.</li>
+ * <li><code>append-batch-size</code>: A Histogram of the number of events appended at once. See {@link
+ * #getAppendBatchSizeHistogram()}.</li>
+ * <li><code>read-time</code>: A Timer that times opening an event stream, including the streams opened to rebuild an
+ * aggregate from its latest snapshot. As streams may be read lazily, this does not necessarily include the time needed
+ * to read all events. See {@link #getReadTimer()}.</li>
+ * <li><code>events-read</code>: A Histogram of the number of events read from each stream that was read until the
+ * end. See {@link #getEventsReadHistogram()}.</li>
+ * <li><code>append-time.[payload type]</code>: A Timer per payload type, that times each append containing at least
+ * one event of that type. An append of events of different types is recorded with the Timer of each of these
+ * types.</li>
+ * </ul>
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class InstrumentedEventStore implements EventStore, MetricSupport {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final EventStore delegate;
+    private final Timer appendTimer;
+    private final Histogram appendBatchSizeHistogram;
+    private final Timer readTimer;
+    private final Histogram eventsReadHistogram;
+    private final KeyedTimers<Class<?>> appendTimers;
+
+    /**
+     * Initialize the InstrumentedEventStore, measuring behavior of the given <code>delegate</code>
+     *
+     * @param delegate The EventStore instance to measure
+     */
+    public InstrumentedEventStore(EventStore delegate) {
+        this.delegate = delegate;
+        appendTimer = metricRegistry.timer("append-time");
+        appendBatchSizeHistogram = metricRegistry.histogram("append-batch-size");
+        readTimer = metricRegistry.timer("read-time");
+        eventsReadHistogram = metricRegistry.histogram("events-read");
+        appendTimers = new KeyedTimers<>(metricRegistry, "append-time", Class::getName);
+    }
+
+    @Override
+    public void appendEvents(List<DomainEventMessage<?>> events) {
+        long start = System.nanoTime();
+        try {
+            delegate.appendEvents(events);
+        } finally {
+            long duration = System.nanoTime() - start;
+            appendTimer.update(duration, TimeUnit.NANOSECONDS);
+            appendBatchSizeHistogram.update(events.size());
+            updateAppendTimers(events, duration);
+        }
+    }
+
+    private void updateAppendTimers(List<DomainEventMessage<?>> events, long duration) {
+        for (int i = 0; i < events.size(); i++) {
+            Class<?> payloadType = events.get(i).getPayloadType();
+            if (!containsPayloadType(events, i, payloadType)) {
+                appendTimers.update(payloadType, duration, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static boolean containsPayloadType(List<DomainEventMessage<?>> events, int end, Class<?> payloadType) {
+        for (int i = 0; i < end; i++) {
+            if (events.get(i).getPayloadType().equals(payloadType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public DomainEventStream readEvents(String identifier) {
+        long start = System.nanoTime();
+        try {
+            return new CountingDomainEventStream(delegate.readEvents(identifier));
+        } finally {
+            readTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public DomainEventStream readEvents(String identifier, long firstSequenceNumber, long lastSequenceNumber) {
+        long start = System.nanoTime();
+        try {
+            return new CountingDomainEventStream(delegate.readEvents(identifier, firstSequenceNumber,
+                                                                     lastSequenceNumber));
+        } finally {
+            readTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public MetricSet getMetricSet() {
+        return metricRegistry;
+    }
+
+    /**
+     * Returns the Timer that tracks the time needed to append events.
+     *
+     * @return the Timer that tracks the time needed to append events
+     */
+    public Timer getAppendTimer() {
+        return appendTimer;
+    }
+
+    /**
+     * Returns the Histogram of the number of events appended at once.
+     *
+     * @return the Histogram of the number of events appended at once
+     */
+    public Histogram getAppendBatchSizeHistogram() {
+        return appendBatchSizeHistogram;
+    }
+
+    /**
+     * Returns the Timer that tracks the time needed to open an event stream.
+     *
+     * @return the Timer that tracks the time needed to open an event stream
+     */
+    public Timer getReadTimer() {
+        return readTimer;
+    }
+
+    /**
+     * Returns the Histogram of the number of events read from streams that were read until the end.
+     *
+     * @return the Histogram of the number of events read per stream
+     */
+    public Histogram getEventsReadHistogram() {
+        return eventsReadHistogram;
+    }
+
+    private class CountingDomainEventStream implements DomainEventStream {
+
+        private final DomainEventStream delegate;
+        private int count;
+        private boolean reported;
+
+        public CountingDomainEventStream(DomainEventStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = delegate.hasNext();
+            if (!hasNext && !reported) {
+                reported = true;
+                eventsReadHistogram.update(count);
+            }
+            return hasNext;
+        }
+
+        @Override
+        public DomainEventMessage next() {
+            DomainEventMessage next = delegate.next();
+            count++;
+            return next;
+        }
+
+        @Override
+        public DomainEventMessage peek() {
+            return delegate.peek();
+        }
+    }
+}
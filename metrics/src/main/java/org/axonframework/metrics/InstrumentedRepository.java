@@ -0,0 +1,115 @@
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import org.axonframework.commandhandling.model.Aggregate;
+import org.axonframework.commandhandling.model.Repository;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wrapper for a Repository implementation that reports usage statistics of the Repository. It exposes the following
+ * metrics:
+ * <ul>
+ * <li><code>load-time</code>: A Timer that times the loading of aggregates. See {@link #getLoadTimer()}.</li>
+ * <li><code>load-failure</code>: A Counter indicating the number of aggregates that could not be loaded, for example
+ * because they don't exist or have an unexpected version. See {@link #getLoadFailureCounter()}.</li>
+ * <li><code>new-instance-time</code>: A Timer that times the creation of new aggregates. See {@link
+ * #getNewInstanceTimer()}.</li>
+ * </ul>
+ *
+ * @param <T> The type of aggregate stored in the repository
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class InstrumentedRepository<T> implements Repository<T>, MetricSupport {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final Repository<T> delegate;
+    private final Timer loadTimer;
+    private final Counter loadFailureCounter;
+    private final Timer newInstanceTimer;
+
+    /**
+     * Initialize the InstrumentedRepository, measuring behavior of the given <code>delegate</code>
+     *
+     * @param delegate The Repository instance to measure
+     */
+    public InstrumentedRepository(Repository<T> delegate) {
+        this.delegate = delegate;
+        loadTimer = metricRegistry.timer("load-time");
+        loadFailureCounter = metricRegistry.counter("load-failure");
+        newInstanceTimer = metricRegistry.timer("new-instance-time");
+    }
+
+    @Override
+    public Aggregate<T> load(String aggregateIdentifier) {
+        long start = System.nanoTime();
+        try {
+            return delegate.load(aggregateIdentifier);
+        } catch (RuntimeException e) {
+            loadFailureCounter.inc();
+            throw e;
+        } finally {
+            loadTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Aggregate<T> load(String aggregateIdentifier, Long expectedVersion) {
+        long start = System.nanoTime();
+        try {
+            return delegate.load(aggregateIdentifier, expectedVersion);
+        } catch (RuntimeException e) {
+            loadFailureCounter.inc();
+            throw e;
+        } finally {
+            loadTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Aggregate<T> newInstance(Callable<T> factoryMethod) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return delegate.newInstance(factoryMethod);
+        } finally {
+            newInstanceTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public MetricSet getMetricSet() {
+        return metricRegistry;
+    }
+
+    /**
+     * Returns the Timer that tracks the time needed to load aggregates.
+     *
+     * @return the Timer that tracks the time needed to load aggregates
+     */
+    public Timer getLoadTimer() {
+        return loadTimer;
+    }
+
+    /**
+     * Returns the counter tracking the number of aggregates that could not be loaded.
+     *
+     * @return the counter tracking the number of aggregates that could not be loaded
+     */
+    public Counter getLoadFailureCounter() {
+        return loadFailureCounter;
+    }
+
+    /**
+     * Returns the Timer that tracks the time needed to create new aggregates.
+     *
+     * @return the Timer that tracks the time needed to create new aggregates
+     */
+    public Timer getNewInstanceTimer() {
+        return newInstanceTimer;
+    }
+}
@@ -0,0 +1,149 @@
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import org.axonframework.saga.AssociationValue;
+import org.axonframework.saga.Saga;
+import org.axonframework.saga.SagaRepository;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wrapper for a SagaRepository implementation that reports usage statistics of the Saga Repository. It exposes the
+ * following metrics:
+ * <ul>
+ * <li><code>find-time</code>: A Timer that times association value lookups. See {@link #getFindTimer()}.</li>
+ * <li><code>find-time.[saga type]</code>: A Timer per saga type that times association value lookups.</li>
+ * <li><code>find-without-result</code>: A Counter indicating the number of lookups that didn't result in any saga
+ * identifiers. See {@link #getFindWithoutResultCounter()}.</li>
+ * <li><code>load-time</code>: A Timer that times the loading of sagas. See {@link #getLoadTimer()}.</li>
+ * <li><code>commit-time</code>: A Timer that times the committing of sagas. See {@link #getCommitTimer()}.</li>
+ * <li><code>added</code>: A Counter indicating the number of sagas added to the repository. See {@link
+ * #getAddedCounter()}.</li>
+ * </ul>
+ *
+ * @author Allard Buijze
+ * @since 3.0
+ */
+public class InstrumentedSagaRepository implements SagaRepository, MetricSupport {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final SagaRepository delegate;
+    private final Timer findTimer;
+    private final Counter findWithoutResultCounter;
+    private final Timer loadTimer;
+    private final Timer commitTimer;
+    private final Counter addedCounter;
+    private final KeyedTimers<Class<?>> findTimers;
+
+    /**
+     * Initialize the InstrumentedSagaRepository, measuring behavior of the given <code>delegate</code>
+     *
+     * @param delegate The SagaRepository instance to measure
+     */
+    public InstrumentedSagaRepository(SagaRepository delegate) {
+        this.delegate = delegate;
+        findTimer = metricRegistry.timer("find-time");
+        findWithoutResultCounter = metricRegistry.counter("find-without-result");
+        loadTimer = metricRegistry.timer("load-time");
+        commitTimer = metricRegistry.timer("commit-time");
+        addedCounter = metricRegistry.counter("added");
+        findTimers = new KeyedTimers<>(metricRegistry, "find-time", Class::getName);
+    }
+
+    @Override
+    public Set<String> find(Class<? extends Saga> type, AssociationValue associationValue) {
+        long start = System.nanoTime();
+        Set<String> result = null;
+        try {
+            result = delegate.find(type, associationValue);
+            return result;
+        } finally {
+            long duration = System.nanoTime() - start;
+            findTimer.update(duration, TimeUnit.NANOSECONDS);
+            findTimers.update(type, duration, TimeUnit.NANOSECONDS);
+            if (result == null || result.isEmpty()) {
+                findWithoutResultCounter.inc();
+            }
+        }
+    }
+
+    @Override
+    public Saga load(String sagaIdentifier) {
+        long start = System.nanoTime();
+        try {
+            return delegate.load(sagaIdentifier);
+        } finally {
+            loadTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void commit(Saga saga) {
+        long start = System.nanoTime();
+        try {
+            delegate.commit(saga);
+        } finally {
+            commitTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void add(Saga saga) {
+        delegate.add(saga);
+        addedCounter.inc();
+    }
+
+    @Override
+    public MetricSet getMetricSet() {
+        return metricRegistry;
+    }
+
+    /**
+     * Returns the Timer that tracks the time needed to find sagas by association value.
+     *
+     * @return the Timer that tracks the time needed to find sagas by association value
+     */
+    public Timer getFindTimer() {
+        return findTimer;
+    }
+
+    /**
+     * Returns the counter tracking the number of lookups that didn't find any saga.
+     *
+     * @return the counter tracking the number of lookups that didn't find any saga
+     */
+    public Counter getFindWithoutResultCounter() {
+        return findWithoutResultCounter;
+    }
+
+    /**
+     * Returns the Timer that tracks the time needed to load sagas.
+     *
+     * @return the Timer that tracks the time needed to load sagas
+     */
+    public Timer getLoadTimer() {
+        return loadTimer;
+    }
+
+    /**
+     * Returns the Timer that tracks the time needed to commit sagas.
+     *
+     * @return the Timer that tracks the time needed to commit sagas
+     */
+    public Timer getCommitTimer() {
+        return commitTimer;
+    }
+
+    /**
+     * Returns the counter tracking the number of sagas added to the repository.
+     *
+     * @return the counter tracking the number of sagas added to the repository
+     */
+    public Counter getAddedCounter() {
+        return addedCounter;
+    }
+}
@@ -0,0 +1,70 @@
+package org.axonframework.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Maintains a Timer per key, such as a message type or command name, registering each Timer with a registry when its
+ * key is used for the first time. Looking up the Timer of a known key does not allocate any objects.
+ *
+ * @param <K> The type of key to maintain Timers for
+ * @author Allard Buijze
+ * @since 3.0
+ */
+final class KeyedTimers<K> {
+
+    private final ConcurrentMap<K, Timer> timers = new ConcurrentHashMap<>();
+    private final MetricRegistry metricRegistry;
+    private final String prefix;
+    private final Function<K, String> nameFunction;
+    private final Function<K, Timer> timerFactory;
+
+    /**
+     * Initializes the Timers, registering them with the given <code>metricRegistry</code> using the given
+     * <code>prefix</code>, followed by the name the given <code>nameFunction</code> returns for the key.
+     *
+     * @param metricRegistry The registry to register Timers with
+     * @param prefix         The prefix of the names of the Timers
+     * @param nameFunction   The function returning the name of the Timer for a key
+     */
+    KeyedTimers(MetricRegistry metricRegistry, String prefix, Function<K, String> nameFunction) {
+        this.metricRegistry = metricRegistry;
+        this.prefix = prefix;
+        this.nameFunction = nameFunction;
+        this.timerFactory = this::register;
+    }
+
+    /**
+     * Records the given <code>duration</code> with the Timer for the given <code>key</code>.
+     *
+     * @param key      The key to record the duration for
+     * @param duration The duration to record
+     * @param timeUnit The unit of the given <code>duration</code>
+     */
+    void update(K key, long duration, TimeUnit timeUnit) {
+        timerFor(key).update(duration, timeUnit);
+    }
+
+    /**
+     * Returns the Timer for the given <code>key</code>, registering it if it doesn't exist yet.
+     *
+     * @param key The key to return the Timer for
+     * @return the Timer for the given key
+     */
+    Timer timerFor(K key) {
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, timerFactory);
+        }
+        return timer;
+    }
+
+    private Timer register(K key) {
+        return metricRegistry.timer(MetricRegistry.name(prefix, nameFunction.apply(key)));
+    }
+}
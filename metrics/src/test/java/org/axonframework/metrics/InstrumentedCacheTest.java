@@ -0,0 +1,36 @@
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import org.axonframework.cache.WeakReferenceCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InstrumentedCacheTest {
+
+    private InstrumentedCache testSubject;
+
+    @Before
+    public void setUp() throws Exception {
+        testSubject = new InstrumentedCache(new WeakReferenceCache());
+    }
+
+    @Test
+    public void testHitsAndMissesCounted() {
+        String value = "value";
+        assertNull(testSubject.get("key"));
+        testSubject.put("key", value);
+        assertFalse(testSubject.putIfAbsent("key", value));
+        assertSame(value, testSubject.get("key"));
+        assertTrue(testSubject.remove("key"));
+        assertFalse(testSubject.remove("key"));
+
+        assertEquals(1, testSubject.getHitCounter().getCount());
+        assertEquals(1, testSubject.getMissCounter().getCount());
+        assertEquals(1, testSubject.getPutCounter().getCount());
+        assertEquals(1, testSubject.getRemovalCounter().getCount());
+        Gauge<?> hitRatio = (Gauge<?>) testSubject.getMetricSet().getMetrics().get("hit-ratio");
+        assertEquals(0.5, (Double) hitRatio.getValue(), 0.0001);
+    }
+}
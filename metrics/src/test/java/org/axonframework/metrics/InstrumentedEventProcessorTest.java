@@ -0,0 +1,55 @@
+package org.axonframework.metrics;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.SimpleEventProcessor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.Assert.*;
+
+public class InstrumentedEventProcessorTest {
+
+    private InstrumentedEventProcessor testSubject;
+
+    @Before
+    public void setUp() throws Exception {
+        testSubject = new InstrumentedEventProcessor(new SimpleEventProcessor("test"));
+        testSubject.subscribe(event -> {
+            if (event.getPayload() instanceof Long) {
+                throw new InstrumentedCommandBusTest.MockException();
+            }
+        });
+    }
+
+    @Test
+    public void testMetricsUpdatedOnSuccessfulProcessing() {
+        testSubject.handle(Arrays.<EventMessage<?>>asList(asEventMessage("one"), asEventMessage("two")));
+
+        assertEquals(1, testSubject.getBatchSizeHistogram().getCount());
+        assertEquals(2, testSubject.getBatchSizeHistogram().getSnapshot().getMax());
+        assertEquals(1, testSubject.getHandleTimer().getCount());
+        assertEquals(2, testSubject.getProcessedCounter().getCount());
+        assertEquals(0, testSubject.getFailedCounter().getCount());
+        assertEquals(Long.valueOf(0), testSubject.getPendingGauge().getValue());
+        assertEquals(2, testSubject.getLagTimer().getCount());
+        assertTrue(testSubject.getMetricSet().getMetrics().containsKey("lag." + String.class.getName()));
+    }
+
+    @Test
+    public void testMetricsUpdatedOnFailedProcessing() {
+        try {
+            testSubject.handle(asEventMessage(1L));
+            fail("Expected exception");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        assertEquals(1, testSubject.getHandleTimer().getCount());
+        assertEquals(0, testSubject.getProcessedCounter().getCount());
+        assertEquals(1, testSubject.getFailedCounter().getCount());
+        assertEquals(Long.valueOf(0), testSubject.getPendingGauge().getValue());
+    }
+}
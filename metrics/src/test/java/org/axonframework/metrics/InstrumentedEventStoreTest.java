@@ -0,0 +1,91 @@
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Timer;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.DomainEventStream;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.SimpleDomainEventStream;
+import org.axonframework.eventstore.EventStore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class InstrumentedEventStoreTest {
+
+    private InstrumentedEventStore testSubject;
+    private EventStore delegate;
+
+    @Before
+    public void setUp() throws Exception {
+        delegate = mock(EventStore.class);
+        testSubject = new InstrumentedEventStore(delegate);
+    }
+
+    @Test
+    public void testAppendMetricsUpdated() {
+        testSubject.appendEvents(Arrays.<DomainEventMessage<?>>asList(
+                new GenericDomainEventMessage<>("aggregate", 0, "payload"),
+                new GenericDomainEventMessage<>("aggregate", 1, "payload")));
+        testSubject.appendEvents(Collections.<DomainEventMessage<?>>emptyList());
+
+        verify(delegate, times(2)).appendEvents(anyList());
+        assertEquals(2, testSubject.getAppendTimer().getCount());
+        assertEquals(2, testSubject.getAppendBatchSizeHistogram().getSnapshot().getMax());
+        assertTrue(testSubject.getMetricSet().getMetrics().containsKey("append-time." + String.class.getName()));
+    }
+
+    @Test
+    public void testAppendOfMixedPayloadTypesRecordedPerType() {
+        testSubject.appendEvents(Arrays.<DomainEventMessage<?>>asList(
+                new GenericDomainEventMessage<>("aggregate", 0, "payload"),
+                new GenericDomainEventMessage<>("aggregate", 1, 1L),
+                new GenericDomainEventMessage<>("aggregate", 2, "payload")));
+
+        assertEquals(1, ((Timer) testSubject.getMetricSet().getMetrics()
+                                            .get("append-time." + String.class.getName())).getCount());
+        assertEquals(1, ((Timer) testSubject.getMetricSet().getMetrics()
+                                            .get("append-time." + Long.class.getName())).getCount());
+    }
+
+    @Test
+    public void testReadEventsDelegatedToSnapshotAwareRead() {
+        when(delegate.readEvents("aggregate")).thenReturn(new SimpleDomainEventStream(
+                new GenericDomainEventMessage<>("aggregate", 5, "snapshot")));
+
+        DomainEventStream stream = testSubject.readEvents("aggregate");
+
+        verify(delegate).readEvents("aggregate");
+        verify(delegate, never()).readEvents(anyString(), anyLong(), anyLong());
+        assertEquals(5, stream.next().getSequenceNumber());
+        assertFalse(stream.hasNext());
+        assertEquals(1, testSubject.getReadTimer().getCount());
+        assertEquals(1, testSubject.getEventsReadHistogram().getSnapshot().getMax());
+    }
+
+    @Test
+    public void testReadMetricsUpdatedWhenStreamFullyRead() {
+        when(delegate.readEvents(anyString(), anyLong(), anyLong())).thenReturn(new SimpleDomainEventStream(
+                new GenericDomainEventMessage<>("aggregate", 0, "payload"),
+                new GenericDomainEventMessage<>("aggregate", 1, "payload")));
+
+        DomainEventStream stream = testSubject.readEvents("aggregate", 0, Long.MAX_VALUE);
+        assertEquals(1, testSubject.getReadTimer().getCount());
+        assertEquals(0, testSubject.getEventsReadHistogram().getCount());
+
+        while (stream.hasNext()) {
+            stream.next();
+        }
+        stream.hasNext();
+
+        assertEquals(1, testSubject.getEventsReadHistogram().getCount());
+        assertEquals(2, testSubject.getEventsReadHistogram().getSnapshot().getMax());
+    }
+}
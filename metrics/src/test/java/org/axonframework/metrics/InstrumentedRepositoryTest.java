@@ -0,0 +1,68 @@
+package org.axonframework.metrics;
+
+import org.axonframework.commandhandling.model.Aggregate;
+import org.axonframework.commandhandling.model.AggregateNotFoundException;
+import org.axonframework.commandhandling.model.Repository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class InstrumentedRepositoryTest {
+
+    private InstrumentedRepository<Object> testSubject;
+    private Repository<Object> delegate;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        delegate = mock(Repository.class);
+        testSubject = new InstrumentedRepository<>(delegate);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testLoadDelegatedAndTimed() {
+        Aggregate<Object> aggregate = mock(Aggregate.class);
+        when(delegate.load("id")).thenReturn(aggregate);
+        when(delegate.load("id", 1L)).thenReturn(aggregate);
+
+        assertSame(aggregate, testSubject.load("id"));
+        assertSame(aggregate, testSubject.load("id", 1L));
+
+        verify(delegate).load("id");
+        verify(delegate).load("id", 1L);
+        assertEquals(2, testSubject.getLoadTimer().getCount());
+        assertEquals(0, testSubject.getLoadFailureCounter().getCount());
+    }
+
+    @Test
+    public void testLoadFailureCounted() {
+        when(delegate.load("id")).thenThrow(new AggregateNotFoundException("id", "Mock"));
+
+        try {
+            testSubject.load("id");
+            fail("Expected exception");
+        } catch (AggregateNotFoundException e) {
+            // expected
+        }
+
+        assertEquals(1, testSubject.getLoadTimer().getCount());
+        assertEquals(1, testSubject.getLoadFailureCounter().getCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testNewInstanceDelegatedAndTimed() throws Exception {
+        Aggregate<Object> aggregate = mock(Aggregate.class);
+        Callable<Object> factoryMethod = Object::new;
+        when(delegate.newInstance(factoryMethod)).thenReturn(aggregate);
+
+        assertSame(aggregate, testSubject.newInstance(factoryMethod));
+
+        assertEquals(1, testSubject.getNewInstanceTimer().getCount());
+    }
+}
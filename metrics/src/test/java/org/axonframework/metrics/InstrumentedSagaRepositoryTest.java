@@ -0,0 +1,55 @@
+package org.axonframework.metrics;
+
+import org.axonframework.saga.AssociationValue;
+import org.axonframework.saga.Saga;
+import org.axonframework.saga.SagaRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class InstrumentedSagaRepositoryTest {
+
+    private InstrumentedSagaRepository testSubject;
+    private SagaRepository delegate;
+
+    @Before
+    public void setUp() throws Exception {
+        delegate = mock(SagaRepository.class);
+        testSubject = new InstrumentedSagaRepository(delegate);
+    }
+
+    @Test
+    public void testFindTimedAndEmptyResultsCounted() {
+        AssociationValue found = new AssociationValue("key", "found");
+        AssociationValue missing = new AssociationValue("key", "missing");
+        when(delegate.find(Saga.class, found)).thenReturn(Collections.singleton("saga"));
+        when(delegate.find(Saga.class, missing)).thenReturn(Collections.emptySet());
+
+        assertEquals(Collections.singleton("saga"), testSubject.find(Saga.class, found));
+        assertTrue(testSubject.find(Saga.class, missing).isEmpty());
+
+        assertEquals(2, testSubject.getFindTimer().getCount());
+        assertEquals(1, testSubject.getFindWithoutResultCounter().getCount());
+        assertTrue(testSubject.getMetricSet().getMetrics().containsKey("find-time." + Saga.class.getName()));
+    }
+
+    @Test
+    public void testLoadCommitAndAddDelegated() {
+        Saga saga = mock(Saga.class);
+        when(delegate.load("saga")).thenReturn(saga);
+
+        assertSame(saga, testSubject.load("saga"));
+        testSubject.commit(saga);
+        testSubject.add(saga);
+
+        verify(delegate).commit(saga);
+        verify(delegate).add(saga);
+        assertEquals(1, testSubject.getLoadTimer().getCount());
+        assertEquals(1, testSubject.getCommitTimer().getCount());
+        assertEquals(1, testSubject.getAddedCounter().getCount());
+    }
+}
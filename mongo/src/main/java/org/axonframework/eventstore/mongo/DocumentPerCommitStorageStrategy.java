@@ -58,6 +58,9 @@
  * </li>
  * </ul>
  * <p/>
+ * When reading a range of events, only the commits overlapping with that range are retrieved, and events outside of
+ * the range are skipped before they are upcast and deserialized.
+ * <p/>
  * <em>Note: the SerializedType of Message Meta Data is not stored. Upon retrieval, it is set to the default value
  * (name = "org.axonframework.messaging.metadata.MetaData", revision = null). See {@link org.axonframework.serializer.SerializedMetaData#isSerializedMetaData(org.axonframework.serializer.SerializedObject)}</em>
  *
@@ -81,6 +84,14 @@ public DBCursor findEvents(DBCollection collection, String aggregateIdentifier,
                          .sort(new BasicDBObject(CommitEntry.SEQUENCE_NUMBER_PROPERTY, ORDER_ASC));
     }
 
+    @Override
+    public DBCursor findEvents(DBCollection collection, String aggregateIdentifier, long firstSequenceNumber,
+                               long lastSequenceNumber) {
+        return collection.find(CommitEntry.forAggregate(aggregateIdentifier, firstSequenceNumber,
+                                                        lastSequenceNumber))
+                         .sort(new BasicDBObject(CommitEntry.SEQUENCE_NUMBER_PROPERTY, ORDER_ASC));
+    }
+
     @Override
     public DBCursor findEvents(DBCollection collection, MongoCriteria criteria) {
         DBObject filter = criteria == null ? null : criteria.asMongoObject();
@@ -97,6 +108,14 @@ public List<DomainEventMessage> extractEventMessages(DBObject entry, Serializer
         return new CommitEntry(entry).getDomainEvents(serializer, upcasterChain, skipUnknownTypes);
     }
 
+    @Override
+    public List<DomainEventMessage> extractEventMessages(DBObject entry, Serializer serializer,
+                                                         UpcasterChain upcasterChain, boolean skipUnknownTypes,
+                                                         long firstSequenceNumber, long lastSequenceNumber) {
+        return new CommitEntry(entry).getDomainEvents(serializer, upcasterChain, skipUnknownTypes,
+                                                      firstSequenceNumber, lastSequenceNumber);
+    }
+
     @Override
     public void ensureIndexes(DBCollection eventsCollection, DBCollection snapshotsCollection) {
         eventsCollection.ensureIndex(new BasicDBObject(CommitEntry.AGGREGATE_IDENTIFIER_PROPERTY, 1)
@@ -207,6 +226,27 @@ public static DBObject forAggregate(String aggregateIdentifier, long firstSequen
                                        .get();
         }
 
+        /**
+         * Returns the mongo DBObject used to query mongo for the commits containing events for specified aggregate
+         * identifier within the given range of sequence numbers.
+         *
+         * @param aggregateIdentifier Identifier of the aggregate to obtain the mongo DBObject for
+         * @param firstSequenceNumber number representing the first event to obtain
+         * @param lastSequenceNumber  number representing the last event to obtain
+         * @return Created DBObject based on the provided parameters to be used for a query
+         */
+        public static DBObject forAggregate(String aggregateIdentifier, long firstSequenceNumber,
+                                            long lastSequenceNumber) {
+            BasicDBObjectBuilder query = BasicDBObjectBuilder.start()
+                                                             .add(AGGREGATE_IDENTIFIER_PROPERTY, aggregateIdentifier)
+                                                             .add(LAST_SEQUENCE_NUMBER_PROPERTY,
+                                                                  new BasicDBObject("$gte", firstSequenceNumber));
+            if (lastSequenceNumber < Long.MAX_VALUE) {
+                query.add(SEQUENCE_NUMBER_PROPERTY, new BasicDBObject("$lte", lastSequenceNumber));
+            }
+            return query.get();
+        }
+
         /**
          * Returns the actual DomainEvent from the CommitEntry using the provided Serializer.
          *
@@ -226,6 +266,33 @@ public List<DomainEventMessage> getDomainEvents(Serializer eventSerializer,
             return messages;
         }
 
+        /**
+         * Returns the DomainEvents from the CommitEntry with a sequence number in the given range, using the provided
+         * Serializer. Events outside of the range are not upcast nor deserialized.
+         *
+         * @param eventSerializer     Serializer used to de-serialize the stored DomainEvent
+         * @param upcasterChain       Set of upcasters to use when an event needs upcasting before
+         *                            de-serialization
+         * @param skipUnknownTypes    whether to skip unknown event types
+         * @param firstSequenceNumber The sequence number of the first event to return
+         * @param lastSequenceNumber  The sequence number of the last event to return
+         * @return The actual DomainEventMessage instances stored in this entry within the given range
+         */
+        @SuppressWarnings("unchecked")
+        public List<DomainEventMessage> getDomainEvents(Serializer eventSerializer, UpcasterChain upcasterChain,
+                                                        boolean skipUnknownTypes, long firstSequenceNumber,
+                                                        long lastSequenceNumber) {
+            List<DomainEventMessage> messages = new ArrayList<>();
+            for (final EventEntry eventEntry : eventEntries) {
+                if (eventEntry.getSequenceNumber() >= firstSequenceNumber
+                        && eventEntry.getSequenceNumber() <= lastSequenceNumber) {
+                    messages.addAll(upcastAndDeserialize(new DomainEventData(this, eventEntry),
+                                                         eventSerializer, upcasterChain, skipUnknownTypes));
+                }
+            }
+            return messages;
+        }
+
         public String getAggregateIdentifier() {
             return aggregateIdentifier;
         }
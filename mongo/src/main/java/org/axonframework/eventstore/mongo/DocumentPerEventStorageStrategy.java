@@ -46,6 +46,9 @@
  * <li>eventIdentifier => [identifier of the event]</li>
  * </ul>
  * <p/>
+ * All documents of a commit are inserted using a single bulk insert, using the configured {@link WriteConcern}. Events
+ * of an aggregate are read using a projection on the fields of the event document, in batches of a configurable size.
+ * <p/>
  * <em>Note: the SerializedType of Message Meta Data is not stored. Upon retrieval, it is set to the default value
  * (name = "org.axonframework.messaging.metadata.MetaData", revision = null). See {@link org.axonframework.serializer.SerializedMetaData#isSerializedMetaData(org.axonframework.serializer.SerializedObject)}</em>
  *
@@ -57,6 +60,9 @@ public class DocumentPerEventStorageStrategy implements StorageStrategy {
     private static final int ORDER_ASC = 1;
     private static final int ORDER_DESC = -1;
 
+    private WriteConcern writeConcern;
+    private int batchSize;
+
     @Override
     public DBObject[] createDocuments(Serializer eventSerializer, List<DomainEventMessage<?>> messages) {
         DBObject[] dbObjects = new DBObject[messages.size()];
@@ -67,11 +73,32 @@ public DBObject[] createDocuments(Serializer eventSerializer, List<DomainEventMe
         return dbObjects;
     }
 
+    @Override
+    public void insertDocuments(DBCollection collection, DBObject[] documents) {
+        if (writeConcern == null) {
+            collection.insert(documents);
+        } else {
+            collection.insert(documents, writeConcern);
+        }
+    }
+
     @Override
     public DBCursor findEvents(DBCollection collection, String aggregateIdentifier,
                                long firstSequenceNumber) {
-        return collection.find(EventEntry.forAggregate(aggregateIdentifier, firstSequenceNumber))
-                         .sort(new BasicDBObject(EventEntry.SEQUENCE_NUMBER_PROPERTY, ORDER_ASC));
+        return findEvents(collection, aggregateIdentifier, firstSequenceNumber, Long.MAX_VALUE);
+    }
+
+    @Override
+    public DBCursor findEvents(DBCollection collection, String aggregateIdentifier, long firstSequenceNumber,
+                               long lastSequenceNumber) {
+        DBCursor cursor = collection.find(EventEntry.forAggregate(aggregateIdentifier, firstSequenceNumber,
+                                                                  lastSequenceNumber),
+                                          EventEntry.PROJECTION)
+                                    .sort(new BasicDBObject(EventEntry.SEQUENCE_NUMBER_PROPERTY, ORDER_ASC));
+        if (batchSize > 0) {
+            cursor.batchSize(batchSize);
+        }
+        return cursor;
     }
 
     @Override
@@ -118,6 +145,30 @@ public DBCursor findLastSnapshot(DBCollection collection, String aggregateIdenti
                          .limit(1);
     }
 
+    /**
+     * Sets the write concern used to insert the documents of a commit. Defaults to <code>null</code>, which causes
+     * the default write concern of the collection to be used.
+     * <p/>
+     * Note that a write concern that continues on insert errors (see {@link
+     * WriteConcern#continueOnErrorForInsert(boolean)}) performs unordered inserts. This allows the remaining events of
+     * a commit to be stored when one of them conflicts with an existing event.
+     *
+     * @param writeConcern The write concern to insert documents with
+     */
+    public void setWriteConcern(WriteConcern writeConcern) {
+        this.writeConcern = writeConcern;
+    }
+
+    /**
+     * Sets the number of documents to retrieve in a single batch when reading the events of an aggregate. Defaults
+     * to <code>0</code>, which causes the default batch size of the driver to be used.
+     *
+     * @param batchSize The number of documents to retrieve per batch
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     /**
      * Data needed by different types of event logs.
      *
@@ -147,6 +198,21 @@ private static final class EventEntry implements SerializedDomainEventData {
         private static final String PAYLOAD_REVISION_PROPERTY = "payloadRevision";
         private static final String META_DATA_PROPERTY = "serializedMetaData";
         private static final String EVENT_IDENTIFIER_PROPERTY = "eventIdentifier";
+
+        /**
+         * Projection of the properties required to read an EventEntry.
+         */
+        private static final DBObject PROJECTION = BasicDBObjectBuilder.start()
+                                                                       .add("_id", 0)
+                                                                       .add(AGGREGATE_IDENTIFIER_PROPERTY, 1)
+                                                                       .add(SEQUENCE_NUMBER_PROPERTY, 1)
+                                                                       .add(SERIALIZED_PAYLOAD_PROPERTY, 1)
+                                                                       .add(TIME_STAMP_PROPERTY, 1)
+                                                                       .add(PAYLOAD_TYPE_PROPERTY, 1)
+                                                                       .add(PAYLOAD_REVISION_PROPERTY, 1)
+                                                                       .add(META_DATA_PROPERTY, 1)
+                                                                       .add(EVENT_IDENTIFIER_PROPERTY, 1)
+                                                                       .get();
         /**
          * Charset used for the serialization is usually UTF-8, which is presented by this constant.
          */
@@ -204,13 +270,18 @@ private EventEntry(DBObject dbObject) {
          *
          * @param aggregateIdentifier Identifier of the aggregate to obtain the mongo DBObject for
          * @param firstSequenceNumber number representing the first event to obtain
+         * @param lastSequenceNumber  number representing the last event to obtain
          * @return Created DBObject based on the provided parameters to be used for a query
          */
-        public static DBObject forAggregate(String aggregateIdentifier, long firstSequenceNumber) {
+        public static DBObject forAggregate(String aggregateIdentifier, long firstSequenceNumber,
+                                            long lastSequenceNumber) {
+            BasicDBObject sequenceNumberRange = new BasicDBObject("$gte", firstSequenceNumber);
+            if (lastSequenceNumber < Long.MAX_VALUE) {
+                sequenceNumberRange.append("$lte", lastSequenceNumber);
+            }
             return BasicDBObjectBuilder.start()
                                        .add(EventEntry.AGGREGATE_IDENTIFIER_PROPERTY, aggregateIdentifier)
-                                       .add(EventEntry.SEQUENCE_NUMBER_PROPERTY, new BasicDBObject("$gte",
-                                                                                                   firstSequenceNumber))
+                                       .add(EventEntry.SEQUENCE_NUMBER_PROPERTY, sequenceNumberRange)
                                        .get();
         }
 
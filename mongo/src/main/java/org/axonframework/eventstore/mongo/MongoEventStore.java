@@ -129,7 +129,8 @@ public void appendEvents(List<DomainEventMessage<?>> events) {
 
 
         try {
-            mongoTemplate.domainEventCollection().insert(storageStrategy.createDocuments(eventSerializer, events));
+            storageStrategy.insertDocuments(mongoTemplate.domainEventCollection(),
+                                            storageStrategy.createDocuments(eventSerializer, events));
         } catch (MongoException.DuplicateKey e) {
             throw new ConcurrencyException("Trying to insert an Event for an aggregate with a sequence "
                                                    + "number that is already present in the Event Store", e);
@@ -149,9 +150,12 @@ public DomainEventStream readEvents(String identifier) {
         }
         final DBCursor dbCursor = storageStrategy.findEvents(mongoTemplate.domainEventCollection(),
                                                              identifier,
-                                                             snapshotSequenceNumber + 1);
+                                                             snapshotSequenceNumber + 1,
+                                                             Long.MAX_VALUE);
 
-        DomainEventStream stream = new CursorBackedDomainEventStream(dbCursor, lastSnapshotCommit, false);
+        DomainEventStream stream = new CursorBackedDomainEventStream(dbCursor, lastSnapshotCommit,
+                                                                     snapshotSequenceNumber + 1, Long.MAX_VALUE,
+                                                                     false);
         if (!stream.hasNext()) {
             throw new EventStreamNotFoundException(identifier);
         }
@@ -168,10 +172,11 @@ public DomainEventStream readEvents(String identifier, long firstSequenceNumber,
                                         long lastSequenceNumber) {
         final DBCursor dbCursor = storageStrategy.findEvents(mongoTemplate.domainEventCollection(),
                                                              identifier,
-                                                             firstSequenceNumber);
+                                                             firstSequenceNumber,
+                                                             lastSequenceNumber);
 
-        DomainEventStream stream = new CursorBackedDomainEventStream(dbCursor, null, lastSequenceNumber,
-                                                                     false);
+        DomainEventStream stream = new CursorBackedDomainEventStream(dbCursor, null, firstSequenceNumber,
+                                                                     lastSequenceNumber, false);
         if (!stream.hasNext()) {
             throw new EventStreamNotFoundException(identifier);
         }
@@ -233,6 +238,7 @@ public void setUpcasterChain(UpcasterChain upcasterChain) {
     private class CursorBackedDomainEventStream implements DomainEventStream, Closeable {
 
         private final DBCursor dbCursor;
+        private final long firstSequenceNumber;
         private final long lastSequenceNumber;
         private final boolean skipUnknownTypes;
         private Iterator<DomainEventMessage> messagesToReturn = Collections.<DomainEventMessage>emptyList().iterator();
@@ -249,25 +255,28 @@ private class CursorBackedDomainEventStream implements DomainEventStream, Closea
          */
         public CursorBackedDomainEventStream(DBCursor dbCursor, List<DomainEventMessage> lastSnapshotCommit,
                                              boolean skipUnknownTypes) {
-            this(dbCursor, lastSnapshotCommit, Long.MAX_VALUE, skipUnknownTypes);
+            this(dbCursor, lastSnapshotCommit, Long.MIN_VALUE, Long.MAX_VALUE, skipUnknownTypes);
         }
 
         /**
          * Initializes the DomainEventStream, streaming events obtained from the given <code>dbCursor</code> and
-         * optionally the given <code>lastSnapshotEvent</code>, which stops streaming once an event with a sequence
-         * number higher given than <code>lastSequenceNumber</code>.
+         * optionally the given <code>lastSnapshotEvent</code>. Events from the cursor with a sequence number lower
+         * than <code>firstSequenceNumber</code> are skipped, and streaming stops once an event with a sequence number
+         * higher than given <code>lastSequenceNumber</code> is found.
          *
          * @param dbCursor                  The cursor providing access to the query results in the Mongo instance
          * @param lastSnapshotCommit        The last snapshot event read, or <code>null</code> if no snapshot is
          *                                  available
+         * @param firstSequenceNumber       The lowest sequence number of the events to read from the cursor
          * @param lastSequenceNumber        The highest sequence number this stream may return before indicating
          *                                  end-of-stream
          * @param skipUnknownTypes          Whether or not the stream should ignore events that cannot be deserialized
          */
         public CursorBackedDomainEventStream(DBCursor dbCursor, List<DomainEventMessage> lastSnapshotCommit,
-                                             long lastSequenceNumber,
+                                             long firstSequenceNumber, long lastSequenceNumber,
                                              boolean skipUnknownTypes) {
             this.dbCursor = dbCursor;
+            this.firstSequenceNumber = firstSequenceNumber;
             this.lastSequenceNumber = lastSequenceNumber;
             this.skipUnknownTypes = skipUnknownTypes;
             if (lastSnapshotCommit != null) {
@@ -300,7 +309,8 @@ private void initializeNextItem() {
             while (!messagesToReturn.hasNext() && dbCursor.hasNext()) {
                 messagesToReturn = storageStrategy.extractEventMessages(dbCursor.next(),
                                                                         eventSerializer, upcasterChain,
-                                                                        skipUnknownTypes).iterator();
+                                                                        skipUnknownTypes, firstSequenceNumber,
+                                                                        lastSequenceNumber).iterator();
             }
             next = messagesToReturn.hasNext() ? messagesToReturn.next() : null;
         }
@@ -25,6 +25,7 @@
 import org.axonframework.upcasting.UpcasterChain;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Interface towards the mechanism that prescribes the structure in which events are stored in the Event Store. Events
@@ -45,6 +46,19 @@ public interface StorageStrategy {
      */
     DBObject[] createDocuments(Serializer eventSerializer, List<DomainEventMessage<?>> messages);
 
+    /**
+     * Stores the given <code>documents</code>, as created by {@link #createDocuments(Serializer, List)}, in the given
+     * <code>collection</code>. All documents of a commit are passed in a single invocation.
+     * <p/>
+     * By default, the documents are inserted using the default write concern of the collection.
+     *
+     * @param collection The collection to store the documents in
+     * @param documents  The documents representing a single commit
+     */
+    default void insertDocuments(DBCollection collection, DBObject[] documents) {
+        collection.insert(documents);
+    }
+
     /**
      * Extracts the individual Event Messages from the given <code>entry</code>. The <code>serializer</code> and
      * <code>upcasterChain</code> should be used to deserialize and upcast messages before returning them.
@@ -58,6 +72,32 @@ public interface StorageStrategy {
     List<DomainEventMessage> extractEventMessages(DBObject entry, Serializer serializer, UpcasterChain upcasterChain,
                                                   boolean skipUnknownTypes);
 
+    /**
+     * Extracts the individual Event Messages from the given <code>entry</code> with a sequence number between the
+     * given <code>firstSequenceNumber</code> and <code>lastSequenceNumber</code> (both inclusive).
+     * <p/>
+     * By default, all messages are extracted using {@link #extractEventMessages(DBObject, Serializer, UpcasterChain,
+     * boolean)}, after which the messages outside of the range are removed. Implementations storing multiple events
+     * in a single entry may choose to skip the events outside of the range before upcasting and deserializing them.
+     *
+     * @param entry               The entry containing information of a stored commit
+     * @param serializer          The serializer to deserialize events with
+     * @param upcasterChain       The upcaster chain to upcast stored events with
+     * @param skipUnknownTypes    Whether unknown event types should be skipped
+     * @param firstSequenceNumber The sequence number of the first event to extract
+     * @param lastSequenceNumber  The sequence number of the last event to extract
+     * @return a list of DomainEventMessage contained in the entry within the given range
+     */
+    default List<DomainEventMessage> extractEventMessages(DBObject entry, Serializer serializer,
+                                                          UpcasterChain upcasterChain, boolean skipUnknownTypes,
+                                                          long firstSequenceNumber, long lastSequenceNumber) {
+        return extractEventMessages(entry, serializer, upcasterChain, skipUnknownTypes)
+                .stream()
+                .filter(m -> m.getSequenceNumber() >= firstSequenceNumber
+                        && m.getSequenceNumber() <= lastSequenceNumber)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Provides a cursor for access to all events for an aggregate with given <code>aggregateIdentifier</code>, with a
      * sequence number equal or higher than the given <code>firstSequenceNumber</code>. The returned documents should
@@ -74,6 +114,25 @@ List<DomainEventMessage> extractEventMessages(DBObject entry, Serializer seriali
     DBCursor findEvents(DBCollection collection, String aggregateIdentifier,
                         long firstSequenceNumber);
 
+    /**
+     * Provides a cursor for access to the documents containing the events for an aggregate with given
+     * <code>aggregateIdentifier</code>, with a sequence number between the given <code>firstSequenceNumber</code>
+     * and <code>lastSequenceNumber</code> (both inclusive). Documents may contain events outside of the range, which
+     * are removed by {@link #extractEventMessages(DBObject, Serializer, UpcasterChain, boolean, long, long)}.
+     * <p/>
+     * By default, this method returns the cursor provided by {@link #findEvents(DBCollection, String, long)}.
+     *
+     * @param collection          The collection to find the events in
+     * @param aggregateIdentifier The identifier of the aggregate to query
+     * @param firstSequenceNumber The sequence number of the first event to return
+     * @param lastSequenceNumber  The sequence number of the last event to return
+     * @return a cursor for the documents containing the events in the given range
+     */
+    default DBCursor findEvents(DBCollection collection, String aggregateIdentifier, long firstSequenceNumber,
+                                long lastSequenceNumber) {
+        return findEvents(collection, aggregateIdentifier, firstSequenceNumber);
+    }
+
     /**
      * Find all events that match the given <code>criteria</code> in the given <code>collection</code>
      *
@@ -27,8 +27,10 @@
 import org.axonframework.serializer.JavaSerializer;
 import org.axonframework.serializer.Serializer;
 
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.BiConsumer;
 
 /**
  * Implementations of the SagaRepository that stores Sagas and their associations in a Mongo Database. Each Saga and
@@ -94,6 +96,28 @@ private BasicDBObject associationValueQuery(Class<? extends Saga> type, Associat
         return value;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void forEachAssociationValue(BiConsumer<String, AssociationValue> consumer) {
+        DBCursor dbCursor = mongoTemplate.sagaCollection().find(
+                new BasicDBObject(), new BasicDBObject("sagaType", 1).append("associations", 1));
+        try {
+            while (dbCursor.hasNext()) {
+                DBObject dbSaga = dbCursor.next();
+                String sagaType = (String) dbSaga.get("sagaType");
+                List<DBObject> associations = (List<DBObject>) dbSaga.get("associations");
+                if (associations != null) {
+                    for (DBObject association : associations) {
+                        consumer.accept(sagaType, new AssociationValue((String) association.get("key"),
+                                                                       (String) association.get("value")));
+                    }
+                }
+            }
+        } finally {
+            dbCursor.close();
+        }
+    }
+
     @Override
     protected String typeOf(Class<? extends Saga> sagaClass) {
         return serializer.typeForClass(sagaClass).getName();
@@ -17,7 +17,11 @@
 package org.axonframework.eventstore.mongo;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
 import com.mongodb.Mongo;
+import com.mongodb.WriteConcern;
 import de.flapdoodle.embed.mongo.MongodExecutable;
 import de.flapdoodle.embed.mongo.MongodProcess;
 import org.axonframework.commandhandling.model.ConcurrencyException;
@@ -30,6 +34,7 @@
 import org.axonframework.eventstore.management.CriteriaBuilder;
 import org.axonframework.mongoutils.MongoLauncher;
 import org.axonframework.serializer.SerializedObject;
+import org.axonframework.serializer.xml.XStreamSerializer;
 import org.axonframework.upcasting.LazyUpcasterChain;
 import org.axonframework.upcasting.Upcaster;
 import org.axonframework.upcasting.UpcasterChain;
@@ -294,6 +299,46 @@ public void testStoreDuplicateAggregate() {
         }
     }
 
+    @Test
+    public void testDocumentsInsertedWithConfiguredWriteConcern() {
+        DocumentPerEventStorageStrategy storageStrategy = new DocumentPerEventStorageStrategy();
+        DBCollection collection = mock(DBCollection.class);
+        DBObject[] documents = storageStrategy.createDocuments(new XStreamSerializer(), aggregate1);
+
+        storageStrategy.insertDocuments(collection, documents);
+        verify(collection).insert(documents);
+
+        WriteConcern writeConcern = WriteConcern.SAFE.continueOnErrorForInsert(true);
+        storageStrategy.setWriteConcern(writeConcern);
+        storageStrategy.insertDocuments(collection, documents);
+        verify(collection).insert(documents, writeConcern);
+    }
+
+    @DirtiesContext
+    @Test
+    public void testEventsReadInConfiguredBatchSizeUsingProjection() {
+        testSubject.appendEvents(aggregate1);
+        mongoTemplate.domainEventCollection().updateMulti(
+                new BasicDBObject(), new BasicDBObject("$set", new BasicDBObject("unknownField", "value")));
+        DocumentPerEventStorageStrategy storageStrategy = new DocumentPerEventStorageStrategy();
+        storageStrategy.setBatchSize(3);
+
+        DBCursor cursor = storageStrategy.findEvents(mongoTemplate.domainEventCollection(), "aggregate1", 2, 5);
+
+        assertEquals(3, cursor.getBatchSize());
+        List<Long> sequenceNumbers = new ArrayList<>();
+        for (DBObject document : cursor) {
+            assertFalse(document.containsField("_id"));
+            assertFalse(document.containsField("unknownField"));
+            assertEquals(new HashSet<>(asList("aggregateIdentifier", "sequenceNumber", "serializedPayload",
+                                              "timeStamp", "payloadType", "payloadRevision", "serializedMetaData",
+                                              "eventIdentifier")),
+                         document.keySet());
+            sequenceNumbers.add(((Number) document.get("sequenceNumber")).longValue());
+        }
+        assertEquals(asList(2L, 3L, 4L, 5L), sequenceNumbers);
+    }
+
     @DirtiesContext
     @Test
     public void testVisitAllEvents() {
@@ -163,6 +163,21 @@ public void testStoreAndLoadEvents() {
     }
 
 
+    @Test
+    public void testLoadEventRangeSpanningCommits() {
+        testSubject.appendEvents(aggregate1.subList(0, 4));
+        testSubject.appendEvents(aggregate1.subList(4, 7));
+        testSubject.appendEvents(aggregate1.subList(7, 10));
+        testSubject.appendEvents(aggregate2);
+
+        DomainEventStream events = testSubject.readEvents("aggregate1", 2, 5);
+        for (long expectedSequenceNumber = 2; expectedSequenceNumber <= 5; expectedSequenceNumber++) {
+            assertTrue(events.hasNext());
+            assertEquals(expectedSequenceNumber, events.next().getSequenceNumber());
+        }
+        assertFalse(events.hasNext());
+    }
+
     @DirtiesContext
     @Test
     public void testStoreAndLoadEvents_WithUpcaster() {
@@ -46,6 +46,9 @@
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -183,6 +186,27 @@ public void testAddAndLoadSaga_ByAssociationValue() {
         assertNotNull(mongoTemplate.sagaCollection().find(SagaEntry.queryByIdentifier(identifier)));
     }
 
+    @DirtiesContext
+    @Test
+    public void testForEachAssociationValue() {
+        MyTestSaga saga = new MyTestSaga("test1");
+        saga.registerAssociationValue(new AssociationValue("key", "value"));
+        repository.add(saga);
+        MyOtherTestSaga otherSaga = new MyOtherTestSaga("test2");
+        otherSaga.registerAssociationValue(new AssociationValue("otherKey", "otherValue"));
+        repository.add(otherSaga);
+
+        Map<String, Set<AssociationValue>> actual = new HashMap<>();
+        repository.forEachAssociationValue(
+                (sagaType, associationValue) -> actual.computeIfAbsent(sagaType, t -> new HashSet<>())
+                                                      .add(associationValue));
+
+        assertEquals(2, actual.size());
+        assertTrue(actual.get(repository.typeOf(MyTestSaga.class)).contains(new AssociationValue("key", "value")));
+        assertTrue(actual.get(repository.typeOf(MyOtherTestSaga.class))
+                         .contains(new AssociationValue("otherKey", "otherValue")));
+    }
+
     @SuppressWarnings("UnusedAssignment")
     @Test
     @DirtiesContext